@@ -2,8 +2,10 @@ package com.jayanth.tradingplatform;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class TradingPlatformApplication {
 
     public static void main(String[] args) {
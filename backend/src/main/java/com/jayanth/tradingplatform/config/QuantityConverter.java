@@ -0,0 +1,21 @@
+package com.jayanth.tradingplatform.config;
+
+import com.jayanth.tradingplatform.domain.Quantity;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+@Converter(autoApply = true)
+public class QuantityConverter implements AttributeConverter<Quantity, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Quantity attribute) {
+        return attribute == null ? null : attribute.toBigDecimal();
+    }
+
+    @Override
+    public Quantity convertToEntityAttribute(BigDecimal dbData) {
+        return dbData == null ? null : Quantity.of(dbData);
+    }
+}
@@ -0,0 +1,86 @@
+package com.jayanth.tradingplatform.config;
+
+import com.jayanth.tradingplatform.utils.TokenBucketLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rejects requests over their route's budget with 429 before they reach a
+ * controller. Runs right after {@link JwtTokenValidator}, so a user is keyed
+ * by the email in their token without a database lookup. The first policy
+ * whose path and method match applies.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<Route> routes = new ArrayList<>();
+
+    public RateLimitFilter(RateLimitProperties properties) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (RateLimitProperties.Policy policy : properties.getPolicies()) {
+            routes.add(new Route(policy, new TokenBucketLimiter(policy.getCapacity(), policy.getRefillPerSecond())));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Route route = route(request);
+        if (route != null) {
+            long waitMs = route.limiter.tryAcquire(key(route.policy, request));
+            if (waitMs > 0) {
+                response.setStatus(429);
+                response.setHeader("Retry-After", String.valueOf((waitMs + 999) / 1000));
+                response.getWriter().write("Too many requests");
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private Route route(HttpServletRequest request) {
+        String path = request.getServletPath();
+        for (Route route : routes) {
+            RateLimitProperties.Policy policy = route.policy;
+            if ((policy.getMethod() == null || policy.getMethod().equalsIgnoreCase(request.getMethod()))
+                    && pathMatcher.match(policy.getPath(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private String key(RateLimitProperties.Policy policy, HttpServletRequest request) {
+        if (policy.getKey() == RateLimitProperties.KeyType.USER) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth != null && auth.isAuthenticated()) {
+                return "user:" + auth.getName();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static final class Route {
+        final RateLimitProperties.Policy policy;
+        final TokenBucketLimiter limiter;
+
+        Route(RateLimitProperties.Policy policy, TokenBucketLimiter limiter) {
+            this.policy = policy;
+            this.limiter = limiter;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.jayanth.tradingplatform.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "trading.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private List<Policy> policies = new ArrayList<>();
+
+    @Data
+    public static class Policy {
+
+        /** Ant-style servlet path, e.g. {@code /api/wallet/**}. */
+        private String path;
+
+        /** HTTP method to limit, or every method when unset. */
+        private String method;
+
+        private int capacity;
+
+        private double refillPerSecond;
+
+        private KeyType key = KeyType.USER;
+    }
+
+    public enum KeyType {
+        /** The authenticated user's email, or the client address when there is none. */
+        USER,
+        IP
+    }
+}
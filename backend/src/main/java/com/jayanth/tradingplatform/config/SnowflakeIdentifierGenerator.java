@@ -0,0 +1,35 @@
+package com.jayanth.tradingplatform.config;
+
+import com.jayanth.tradingplatform.utils.SnowflakeIdGenerator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * Hibernate id generator backed by {@link SnowflakeIdGenerator}. Ids that were
+ * already allocated in memory (e.g. by the order journal) are kept as is.
+ */
+public class SnowflakeIdentifierGenerator implements BeforeExecutionGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner,
+                           Object currentValue, EventType eventType) {
+        // Hibernate 6.5 passes no current value when generating ids, so read it off the entity
+        Object assigned = currentValue != null ? currentValue
+                : session.getEntityPersister(null, owner).getIdentifier(owner, session);
+        return assigned != null ? assigned : SnowflakeIdGenerator.nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+}
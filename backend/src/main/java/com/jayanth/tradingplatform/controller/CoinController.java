@@ -2,13 +2,22 @@ package com.jayanth.tradingplatform.controller;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayanth.tradingplatform.domain.CandleInterval;
+import com.jayanth.tradingplatform.domain.USER_ROLE;
 import com.jayanth.tradingplatform.model.Coin;
+import com.jayanth.tradingplatform.model.User;
+import com.jayanth.tradingplatform.response.DepthChanges;
+import com.jayanth.tradingplatform.response.DepthSnapshot;
+import com.jayanth.tradingplatform.response.MarketChart;
+import com.jayanth.tradingplatform.response.TradeItem;
 import com.jayanth.tradingplatform.service.CoinService;
+import com.jayanth.tradingplatform.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -21,6 +30,9 @@ public class CoinController {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private UserService userService;
+
 
     @GetMapping
     public ResponseEntity<List<Coin>> getAllCoins() {
@@ -36,14 +48,37 @@ public class CoinController {
 
     }
     @GetMapping("/{coinId}/chart")
-    ResponseEntity<JsonNode> getMarketChart(@PathVariable String coinId,
-                                              @RequestParam ("days") int days) throws Exception {
-        String response = coinService.getMarketChart(coinId, days);
-        JsonNode node = objectMapper.readTree(response);
-        return new ResponseEntity<>(node, HttpStatus.ACCEPTED);
+    ResponseEntity<MarketChart> getMarketChart(@PathVariable String coinId,
+                                               @RequestParam ("days") int days,
+                                               @RequestParam(value = "interval", required = false) CandleInterval interval) throws Exception {
+        MarketChart chart = coinService.getMarketChart(coinId, days, interval);
+        return new ResponseEntity<>(chart, HttpStatus.ACCEPTED);
 
     }
 
+    @GetMapping("/{coinId}/trades")
+    ResponseEntity<List<TradeItem>> getRecentTrades(@PathVariable String coinId,
+                                                    @RequestParam(value = "since", required = false) Long since,
+                                                    @RequestParam(value = "limit", defaultValue = "50") int limit) throws Exception {
+        List<TradeItem> trades = coinService.getRecentTrades(coinId, since, limit);
+        return ResponseEntity.ok(trades);
+    }
+
+    @GetMapping("/{coinId}/depth")
+    ResponseEntity<DepthSnapshot> getDepth(@PathVariable String coinId,
+                                           @RequestParam(value = "levels", required = false) Integer levels) throws Exception {
+        DepthSnapshot depth = coinService.getDepth(coinId, levels);
+        return ResponseEntity.ok(depth);
+    }
+
+    @GetMapping("/{coinId}/depth/changes")
+    ResponseEntity<DepthChanges> getDepthChanges(@PathVariable String coinId,
+                                                 @RequestParam("since") long since,
+                                                 @RequestParam(value = "limit", defaultValue = "500") int limit) throws Exception {
+        DepthChanges changes = coinService.getDepthChanges(coinId, since, limit);
+        return ResponseEntity.ok(changes);
+    }
+
     @GetMapping("/search")
     ResponseEntity<JsonNode> searchCoin(@RequestParam ("q") String keyword) throws Exception {
         String response = coinService.searchCoin(keyword);
@@ -65,6 +100,19 @@ public class CoinController {
         return ResponseEntity.ok(node);
     }
 
+    @PatchMapping("/admin/{coinId}/price")
+    ResponseEntity<Coin> updatePrice(@RequestHeader("Authorization") String jwt,
+                                     @PathVariable String coinId,
+                                     @RequestParam("price") BigDecimal price) throws Exception {
+        // a price change fires other users' stop and take-profit orders
+        User user = userService.findUserProfileByJwt(jwt);
+        if (user.getRole() != USER_ROLE.ROLE_ADMIN) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        Coin coin = coinService.updatePrice(coinId, price);
+        return ResponseEntity.ok(coin);
+    }
+
     @GetMapping("/coinDetails/{coinId}")
     ResponseEntity<JsonNode> coinDetails(@PathVariable String coinId) throws Exception {
         String response = coinService.getCoinDetails(coinId);
@@ -0,0 +1,25 @@
+package com.jayanth.tradingplatform.controller;
+
+import com.jayanth.tradingplatform.response.ProjectorHealth;
+import com.jayanth.tradingplatform.service.JournalProjector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/health")
+public class HealthController {
+
+    @Autowired
+    private JournalProjector journalProjector;
+
+    @GetMapping("/projector")
+    public ResponseEntity<ProjectorHealth> getProjectorHealth() {
+        ProjectorHealth health = journalProjector.health();
+        HttpStatus status = "UP".equals(health.getStatus()) ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return new ResponseEntity<>(health, status);
+    }
+}
@@ -1,22 +1,35 @@
 package com.jayanth.tradingplatform.controller;
 
 
+import com.jayanth.tradingplatform.domain.ExportFormat;
+import com.jayanth.tradingplatform.domain.OrderStatus;
 import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.engine.OrderJournal;
+import com.jayanth.tradingplatform.engine.OrderSequencer;
 import com.jayanth.tradingplatform.model.Coin;
 import com.jayanth.tradingplatform.model.Order;
 import com.jayanth.tradingplatform.model.User;
 import com.jayanth.tradingplatform.request.CreateOrderRequest;
+import com.jayanth.tradingplatform.response.OrderHistoryItem;
+import com.jayanth.tradingplatform.response.OrderResult;
 import com.jayanth.tradingplatform.service.CoinService;
 import com.jayanth.tradingplatform.service.OrderService;
 import com.jayanth.tradingplatform.service.UserService;
 import com.jayanth.tradingplatform.service.WalletTransactionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.parameters.P;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -31,6 +44,12 @@ public class OrderController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private OrderSequencer orderSequencer;
+
+    @Autowired
+    private OrderJournal orderJournal;
+
 //    @Autowired
 //    private WalletTransactionService walletTransactionService;
 
@@ -42,12 +61,28 @@ public class OrderController {
         User user = userService.findUserProfileByJwt(jwt);
         Coin coin = coinService.findById(req.getCoinId());
 
-        Order order = orderService.processOrder(coin, req.getQuantity(),
-                req.getOrderType(),user);
+        CompletableFuture<Order> future = orderSequencer.submit(coin.getId(),
+                () -> orderService.processOrder(coin, req.getQuantity(),
+                        req.getOrderType(), req.getOrderKind(), req.getLimitPrice(),
+                        req.getTriggerPrice(), req.getTimeInForce(), req.getExpiresAt(), user));
+        Order order = OrderSequencer.await(future);
+        orderJournal.awaitDurable();
 
         return ResponseEntity.ok(order);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<OrderResult>> payOrderBatch(@RequestHeader("Authorization") String jwt,
+                                                           @RequestBody List<CreateOrderRequest> req)
+            throws Exception {
+        User user = userService.findUserProfileByJwt(jwt);
+
+        List<OrderResult> results = orderService.processOrders(req, user);
+        orderJournal.awaitDurable();
+
+        return ResponseEntity.ok(results);
+    }
+
     @GetMapping("/{orderId}")
     public ResponseEntity<Order> getOrderById(@RequestHeader("Authorization") String jwtToken,
                                               @PathVariable Long orderId) throws Exception {
@@ -63,13 +98,63 @@ public class OrderController {
         }
     }
 
+    @DeleteMapping("/{orderId}")
+    public ResponseEntity<Order> cancelOrder(@RequestHeader("Authorization") String jwt,
+                                             @PathVariable Long orderId) throws Exception {
+        User user = userService.findUserProfileByJwt(jwt);
+
+        Order order = orderService.cancelOrder(orderId, user);
+        orderJournal.awaitDurable();
+
+        return ResponseEntity.ok(order);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestHeader("Authorization") String jwt,
+                                                              @RequestParam(defaultValue = "csv") String format,
+                                                              @RequestParam(required = false) OrderType orderType,
+                                                              @RequestParam(required = false) String assetSymbol,
+                                                              @RequestParam(required = false) OrderStatus status,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) throws Exception {
+        Long userId = userService.findUserProfileByJwt(jwt).getId();
+        ExportFormat exportFormat = ExportFormat.of(format);
+
+        StreamingResponseBody body = out -> {
+            try {
+                orderService.exportOrders(userId, orderType, assetSymbol, status, from, to, exportFormat, out);
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"orders." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping()
-    public ResponseEntity<List<Order>> getAllOrdersForUser (@RequestHeader("Authorization") String jwt,
+    public ResponseEntity<List<OrderHistoryItem>> getAllOrdersForUser (@RequestHeader("Authorization") String jwt,
                                                             @RequestHeader(required = false) OrderType order_type,
-                                                            @RequestHeader(required = false) String asset_symbol) throws Exception {
+                                                            @RequestHeader(required = false) String asset_symbol,
+                                                            @RequestParam(required = false) OrderStatus status,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                            @RequestParam(required = false) Long cursor,
+                                                            @RequestParam(defaultValue = "50") int limit) throws Exception {
         Long userId = userService.findUserProfileByJwt(jwt).getId();
-        List<Order > usedOrder = orderService.getAllOrdersOfUsers(userId, order_type, asset_symbol);
-        return ResponseEntity.ok(usedOrder);
+        List<OrderHistoryItem> orders = orderService.getAllOrdersOfUsers(userId, order_type, asset_symbol,
+                status, from, to, cursor, limit);
+        // a full page may have more behind it; the client passes this back as cursor
+        if (orders.size() == limit) {
+            return ResponseEntity.ok()
+                    .header("X-Next-Cursor", String.valueOf(orders.get(orders.size() - 1).getId()))
+                    .body(orders);
+        }
+        return ResponseEntity.ok(orders);
     }
 
 
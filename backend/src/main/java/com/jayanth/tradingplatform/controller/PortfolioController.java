@@ -0,0 +1,37 @@
+package com.jayanth.tradingplatform.controller;
+
+import com.jayanth.tradingplatform.domain.HistoryRange;
+import com.jayanth.tradingplatform.model.User;
+import com.jayanth.tradingplatform.response.PortfolioChart;
+import com.jayanth.tradingplatform.response.PortfolioSummary;
+import com.jayanth.tradingplatform.service.PortfolioService;
+import com.jayanth.tradingplatform.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/portfolio")
+public class PortfolioController {
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private UserService userService;
+
+    @GetMapping
+    public ResponseEntity<PortfolioSummary> getPortfolio(@RequestHeader("Authorization") String jwt) throws Exception {
+        User user = userService.findUserProfileByJwt(jwt);
+        PortfolioSummary portfolio = portfolioService.getPortfolio(user);
+        return ResponseEntity.ok(portfolio);
+    }
+
+    @GetMapping("/history")
+    public ResponseEntity<PortfolioChart> getHistory(@RequestHeader("Authorization") String jwt,
+                                                     @RequestParam(value = "range", defaultValue = "D1") HistoryRange range) throws Exception {
+        User user = userService.findUserProfileByJwt(jwt);
+        PortfolioChart chart = portfolioService.getHistory(user, range);
+        return ResponseEntity.ok(chart);
+    }
+}
@@ -0,0 +1,27 @@
+package com.jayanth.tradingplatform.controller;
+
+import com.jayanth.tradingplatform.response.ReconciliationReport;
+import com.jayanth.tradingplatform.service.ReconciliationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/reconciliation")
+public class ReconciliationController {
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @PostMapping
+    public ResponseEntity<ReconciliationReport> reconcile() throws Exception {
+        ReconciliationReport report = reconciliationService.reconcile();
+        return ResponseEntity.ok(report);
+    }
+
+    @GetMapping
+    public ResponseEntity<ReconciliationReport> getLastReport(@RequestParam(value = "limit", defaultValue = "100") int limit) throws Exception {
+        ReconciliationReport report = reconciliationService.getLastReport(limit);
+        return ResponseEntity.ok(report);
+    }
+}
@@ -0,0 +1,42 @@
+package com.jayanth.tradingplatform.controller;
+
+import com.jayanth.tradingplatform.domain.CostBasisMethod;
+import com.jayanth.tradingplatform.model.User;
+import com.jayanth.tradingplatform.response.TaxLotItem;
+import com.jayanth.tradingplatform.service.TaxLotService;
+import com.jayanth.tradingplatform.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/lots")
+public class TaxLotController {
+
+    @Autowired
+    private TaxLotService taxLotService;
+
+    @Autowired
+    private UserService userService;
+
+    @GetMapping
+    public ResponseEntity<List<TaxLotItem>> getLots(@RequestHeader("Authorization") String jwt) throws Exception {
+        User user = userService.findUserProfileByJwt(jwt);
+        return ResponseEntity.ok(taxLotService.getLots(user));
+    }
+
+    @PatchMapping("/method/{method}")
+    public ResponseEntity<User> setCostBasisMethod(@RequestHeader("Authorization") String jwt,
+                                                   @PathVariable CostBasisMethod method) throws Exception {
+        User user = userService.findUserProfileByJwt(jwt);
+        return ResponseEntity.ok(taxLotService.setCostBasisMethod(user, method));
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Integer> rebuildLots(@RequestHeader("Authorization") String jwt) throws Exception {
+        User user = userService.findUserProfileByJwt(jwt);
+        return ResponseEntity.ok(taxLotService.rebuildLots(user));
+    }
+}
@@ -1,8 +1,11 @@
 package com.jayanth.tradingplatform.controller;
 
+import com.jayanth.tradingplatform.domain.USER_ROLE;
 import com.jayanth.tradingplatform.model.*;
+import com.jayanth.tradingplatform.request.TransferRequest;
 import com.jayanth.tradingplatform.response.PaymentResponse;
-import com.jayanth.tradingplatform.service.OrderService;
+import com.jayanth.tradingplatform.response.TransferResult;
+import com.jayanth.tradingplatform.response.WalletBalance;
 import com.jayanth.tradingplatform.service.PaymentService;
 import com.jayanth.tradingplatform.service.UserService;
 import com.jayanth.tradingplatform.service.WalletService;
@@ -11,6 +14,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/wallet")
 public class WalletController {
@@ -21,9 +26,6 @@ public class WalletController {
     @Autowired
     private UserService userService;
 
-    @Autowired
-    private OrderService orderService;
-
     @Autowired
     private PaymentService paymentService;
 
@@ -36,6 +38,23 @@ public class WalletController {
         return new ResponseEntity<>(wallet, HttpStatus.ACCEPTED);
     }
 
+    @GetMapping("/balance")
+    public ResponseEntity<WalletBalance> getBalance(@RequestHeader("Authorization") String jwt) throws Exception {
+        User user = userService.findUserProfileByJwt(jwt);
+        WalletBalance balance = walletService.getBalance(user);
+
+        return ResponseEntity.ok(balance);
+    }
+
+    @GetMapping("/transactions")
+    public ResponseEntity<List<WalletTransaction>> getWalletTransactions(@RequestHeader("Authorization") String jwt,
+                                                                         @RequestParam(value = "limit", defaultValue = "50") int limit) throws Exception {
+        User user = userService.findUserProfileByJwt(jwt);
+        List<WalletTransaction> transactions = walletService.getWalletTransactions(user, limit);
+
+        return ResponseEntity.ok(transactions);
+    }
+
     @PutMapping("/api/wallet/{walletId}/transfer")
 
     public ResponseEntity<Wallet> walletowalletTransfer(@RequestHeader ("authorization") String jwt,
@@ -43,21 +62,23 @@ public class WalletController {
                                                         @RequestBody WalletTransaction req) throws Exception {
         User senderUser = userService.findUserProfileByJwt(jwt);
         Wallet receiverWallet = walletService.findById(walletId);
-        Wallet wallet = walletService.walletoWalletTransaction(senderUser, receiverWallet, req.getAmount());
+        Wallet wallet = walletService.walletoWalletTransaction(senderUser, receiverWallet,
+                req.getAmount(), req.getPurpose());
 
         return new ResponseEntity<>(wallet, HttpStatus.ACCEPTED);
     }
 
-    @PutMapping("/api/wallet/order/{orderId}/pay")
-    public ResponseEntity<Wallet> payOrderPayment(@RequestHeader ("authorization") String jwt,
-                                                        @PathVariable long orderId) throws Exception {
-
+    @PostMapping("/admin/transfers")
+    public ResponseEntity<List<TransferResult>> transferBatch(@RequestHeader("Authorization") String jwt,
+                                                              @RequestBody List<TransferRequest> req) throws Exception {
+        // the batch names any sender wallet, so only an admin may send one
         User user = userService.findUserProfileByJwt(jwt);
-        Order order = orderService.getOrderById(orderId);
-
-        Wallet wallet = walletService.payorderPayment(order, user);
+        if (user.getRole() != USER_ROLE.ROLE_ADMIN) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        List<TransferResult> results = walletService.transferBatch(req);
 
-        return new ResponseEntity<>(wallet, HttpStatus.ACCEPTED);
+        return ResponseEntity.ok(results);
     }
 
     @PutMapping("/api/wallet/deposit")
@@ -3,10 +3,8 @@ package com.jayanth.tradingplatform.controller;
 
 
 import com.jayanth.tradingplatform.model.User;
-import com.jayanth.tradingplatform.model.Wallet;
 import com.jayanth.tradingplatform.model.Withdrawl;
 import com.jayanth.tradingplatform.service.UserService;
-import com.jayanth.tradingplatform.service.WalletService;
 import com.jayanth.tradingplatform.service.WithdrawlService;
 import lombok.With;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,9 +21,6 @@ public class WithdrawlController {
     @Autowired
     private WithdrawlService withdrawlService;
 
-    @Autowired
-    private WalletService walletService;
-
     @Autowired
     private UserService userService;
 
@@ -34,12 +29,9 @@ public class WithdrawlController {
     public ResponseEntity<?> withdrawlRequest(@PathVariable Long amount,
                                                       @RequestHeader ("Authorization") String jwt) throws Exception {
         User user = userService.findUserProfileByJwt(jwt);
-        Wallet userWallet = walletService.getUserWallet(user);
 
         Withdrawl withdrawl = withdrawlService.requestWithdrawl(amount, user);
 
-        walletService.addBalance(userWallet, -withdrawl.getAmount());
-
         return new ResponseEntity<>(withdrawl, HttpStatus.OK);
 
     }
@@ -49,15 +41,20 @@ public class WithdrawlController {
         User user = userService.findUserProfileByJwt(jwt);
         Withdrawl withdrawl = withdrawlService.proceedWithWithdrawl(id, accept);
 
-        Wallet userWallet = walletService.getUserWallet(user);
-        if(!accept){
-            walletService.addBalance(userWallet, withdrawl.getAmount());
-        }
-
         return new ResponseEntity<>(withdrawl, HttpStatus.OK);
 
     }
 
+    @PatchMapping("/admin/proceed/{accept}")
+    public ResponseEntity<List<Withdrawl>> proceedWithdrawls(@PathVariable boolean accept,
+                                                             @RequestBody List<Long> ids,
+                                                             @RequestHeader("Authorization") String jwt) throws Exception {
+        User user = userService.findUserProfileByJwt(jwt);
+        List<Withdrawl> withdrawls = withdrawlService.proceedWithWithdrawls(ids, accept);
+
+        return new ResponseEntity<>(withdrawls, HttpStatus.OK);
+    }
+
     @GetMapping("/api/withdrawl")
     public ResponseEntity<List<Withdrawl>> getWithdrawlHistory(@RequestHeader ("Authorization") String jwt) throws Exception {
 
@@ -0,0 +1,33 @@
+package com.jayanth.tradingplatform.domain;
+
+public enum CandleInterval {
+    /** One minute bars, the last day. */
+    M1(60_000L, 1440),
+    /** Five minute bars, the last week. */
+    M5(300_000L, 2016),
+    /** Hourly bars, the last 90 days. */
+    H1(3_600_000L, 2160),
+    /** Daily bars, the last ten years. */
+    D1(86_400_000L, 3650);
+
+    private final long millis;
+    private final int capacity;
+
+    CandleInterval(long millis, int capacity) {
+        this.millis = millis;
+        this.capacity = capacity;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /** Bars kept in memory for this interval. */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long openTime(long timestamp) {
+        return timestamp - Math.floorMod(timestamp, millis);
+    }
+}
@@ -0,0 +1,10 @@
+package com.jayanth.tradingplatform.domain;
+
+public enum CostBasisMethod {
+    /** First in, first out: a sale consumes the oldest lots first. */
+    FIFO,
+    /** Last in, first out: a sale consumes the newest lots first. */
+    LIFO,
+    /** Every lot carries the average cost of the whole holding. */
+    AVERAGE
+}
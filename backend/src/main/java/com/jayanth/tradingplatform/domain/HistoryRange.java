@@ -0,0 +1,33 @@
+package com.jayanth.tradingplatform.domain;
+
+public enum HistoryRange {
+    /** The last day in five minute points. */
+    D1(86_400_000L, 300_000L),
+    /** The last week in half hour points. */
+    D7(7 * 86_400_000L, 1_800_000L),
+    /** The last 30 days in two hour points. */
+    D30(30 * 86_400_000L, 7_200_000L),
+    /** The last year in daily points. */
+    Y1(365 * 86_400_000L, 86_400_000L);
+
+    private final long millis;
+    private final long step;
+
+    HistoryRange(long millis, long step) {
+        this.millis = millis;
+        this.step = step;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /** Width of the bucket each returned point closes. */
+    public long getStep() {
+        return step;
+    }
+
+    public long bucket(long timestamp) {
+        return timestamp - Math.floorMod(timestamp, step);
+    }
+}
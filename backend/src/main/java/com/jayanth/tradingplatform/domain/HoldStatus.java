@@ -0,0 +1,5 @@
+package com.jayanth.tradingplatform.domain;
+
+public enum HoldStatus {
+    ACTIVE, RELEASED, CAPTURED
+}
@@ -0,0 +1,15 @@
+package com.jayanth.tradingplatform.domain;
+
+/**
+ * The account a ledger posting moves money in or out of. Every entry's legs
+ * sum to zero, so cash entering a wallet always leaves one of the platform
+ * accounts or another wallet.
+ */
+public enum LedgerAccount {
+    /** A user's wallet; the posting names the wallet. */
+    WALLET,
+    /** Money paid in or out through the payment gateway or the bank. */
+    EXTERNAL,
+    /** The counterparty of every buy and sell. */
+    MARKET
+}
@@ -0,0 +1,155 @@
+package com.jayanth.tradingplatform.domain;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Immutable fiat amount held as a whole number of cents ({@link #SCALE}
+ * decimal places). Arithmetic works on the underlying {@code long} and
+ * throws on overflow instead of wrapping; the static {@code long} variants
+ * let loops carry running totals without creating instances.
+ */
+@JsonSerialize(using = Money.Serializer.class)
+@JsonDeserialize(using = Money.Deserializer.class)
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final long ONE = 100;
+    public static final Money ZERO = new Money(0);
+
+    private final long units;
+
+    private Money(long units) {
+        this.units = units;
+    }
+
+    public static Money ofUnits(long units) {
+        return units == 0 ? ZERO : new Money(units);
+    }
+
+    public static Money of(long whole) {
+        return ofUnits(Math.multiplyExact(whole, ONE));
+    }
+
+    public static Money of(BigDecimal value) {
+        return ofUnits(value.movePointRight(SCALE).setScale(0, RoundingMode.HALF_UP).longValueExact());
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public Money plus(Money other) {
+        return ofUnits(Math.addExact(units, other.units));
+    }
+
+    public Money minus(Money other) {
+        return ofUnits(Math.subtractExact(units, other.units));
+    }
+
+    /**
+     * Price times quantity, rounded half up to the nearest cent.
+     */
+    public Money times(Quantity quantity) {
+        return ofUnits(times(units, quantity.getLots()));
+    }
+
+    /**
+     * {@code units * lots / Quantity.ONE} rounded half up, without allocating
+     * unless the intermediate product exceeds 64 bits.
+     */
+    public static long times(long units, long lots) {
+        long high = Math.multiplyHigh(units, lots);
+        long low = units * lots;
+        long half = Quantity.ONE / 2;
+        if (high == 0 && low >= 0 && low <= Long.MAX_VALUE - half) {
+            return (low + half) / Quantity.ONE;
+        }
+        if (high == -1 && low < 0 && low >= Long.MIN_VALUE + half) {
+            return (low - half) / Quantity.ONE;
+        }
+        return BigDecimal.valueOf(units).multiply(BigDecimal.valueOf(lots))
+                .movePointLeft(Quantity.SCALE)
+                .setScale(0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    /**
+     * The part of {@code units} that {@code part} of {@code whole} accounts
+     * for, i.e. {@code units * part / whole} rounded half up, for splitting a
+     * cost across a partial quantity.
+     */
+    public static long share(long units, long part, long whole) {
+        long product = units * part;
+        if (Math.multiplyHigh(units, part) == 0 && product >= 0 && product <= Long.MAX_VALUE - whole / 2) {
+            return (product + whole / 2) / whole;
+        }
+        return BigDecimal.valueOf(units).multiply(BigDecimal.valueOf(part))
+                .divide(BigDecimal.valueOf(whole), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    public boolean isLessThan(Money other) {
+        return units < other.units;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    public double doubleValue() {
+        return (double) units / ONE;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && other.units == units;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(units);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    public static class Serializer extends JsonSerializer<Money> {
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(value.toString());
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<Money> {
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_STRING) {
+                return Money.of(new BigDecimal(p.getText().trim()));
+            }
+            return Money.of(p.getDecimalValue());
+        }
+    }
+}
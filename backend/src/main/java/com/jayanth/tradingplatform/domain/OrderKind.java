@@ -0,0 +1,8 @@
+package com.jayanth.tradingplatform.domain;
+
+public enum OrderKind {
+    MARKET,
+    LIMIT,
+    STOP,
+    TAKE_PROFIT
+}
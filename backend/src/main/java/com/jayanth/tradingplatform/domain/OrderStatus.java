@@ -1,5 +1,5 @@
 package com.jayanth.tradingplatform.domain;
 
 public enum OrderStatus {
-    PENDING, FAILED, CANCELLED, PARTIALLY_FAILED, ERROR, SUCCESS
+    PENDING, FAILED, CANCELLED, PARTIALLY_FAILED, ERROR, SUCCESS, OPEN, PARTIALLY_FILLED, FILLED, EXPIRED
 }
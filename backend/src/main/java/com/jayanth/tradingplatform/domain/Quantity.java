@@ -0,0 +1,128 @@
+package com.jayanth.tradingplatform.domain;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Immutable coin amount held as a whole number of lots ({@link #SCALE}
+ * decimal places, one satoshi), the same unit the matching engine books
+ * orders in.
+ */
+@JsonSerialize(using = Quantity.Serializer.class)
+@JsonDeserialize(using = Quantity.Deserializer.class)
+public final class Quantity implements Comparable<Quantity> {
+
+    public static final int SCALE = 8;
+    public static final long ONE = 100_000_000L;
+    public static final Quantity ZERO = new Quantity(0);
+
+    private final long lots;
+
+    private Quantity(long lots) {
+        this.lots = lots;
+    }
+
+    public static Quantity ofLots(long lots) {
+        return lots == 0 ? ZERO : new Quantity(lots);
+    }
+
+    /**
+     * Rounds down to a whole lot so a request never asks for more than was
+     * written.
+     */
+    public static Quantity of(BigDecimal value) {
+        return ofLots(value.movePointRight(SCALE).setScale(0, RoundingMode.DOWN).longValueExact());
+    }
+
+    /**
+     * Rounds to the nearest lot; a double such as 0.29 is stored as
+     * 0.28999999999999998 and must not lose a lot to truncation.
+     */
+    public static Quantity of(double value) {
+        double lots = value * ONE;
+        if (Double.isNaN(lots) || Math.abs(lots) >= 0x1p63) {
+            throw new ArithmeticException("quantity out of range: " + value);
+        }
+        return ofLots(Math.round(lots));
+    }
+
+    public long getLots() {
+        return lots;
+    }
+
+    public Quantity plus(Quantity other) {
+        return ofLots(Math.addExact(lots, other.lots));
+    }
+
+    public Quantity minus(Quantity other) {
+        return ofLots(Math.subtractExact(lots, other.lots));
+    }
+
+    public Quantity negate() {
+        return ofLots(Math.negateExact(lots));
+    }
+
+    public int signum() {
+        return Long.signum(lots);
+    }
+
+    public boolean isLessThan(Quantity other) {
+        return lots < other.lots;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(lots, SCALE);
+    }
+
+    public double doubleValue() {
+        return (double) lots / ONE;
+    }
+
+    @Override
+    public int compareTo(Quantity other) {
+        return Long.compare(lots, other.lots);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Quantity other && other.lots == lots;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(lots);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().stripTrailingZeros().toPlainString();
+    }
+
+    public static class Serializer extends JsonSerializer<Quantity> {
+        @Override
+        public void serialize(Quantity value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(value.toString());
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<Quantity> {
+        @Override
+        public Quantity deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_STRING) {
+                return Quantity.of(new BigDecimal(p.getText().trim()));
+            }
+            return Quantity.of(p.getDecimalValue());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.jayanth.tradingplatform.domain;
+
+public enum TimeInForce {
+    /** Good till cancelled: the remainder rests on the book. */
+    GTC,
+    /** Immediate or cancel: fills what it can now, cancels the rest. */
+    IOC,
+    /** Fill or kill: fills completely now or not at all. */
+    FOK,
+    /** Good till date: rests until its expiry time. */
+    GTD
+}
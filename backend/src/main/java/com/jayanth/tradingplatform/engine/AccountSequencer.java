@@ -0,0 +1,96 @@
+package com.jayanth.tradingplatform.engine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.concurrent.Callable;
+
+/**
+ * Mailboxes for wallet mutations. Every user is pinned to one lane
+ * and each lane applies its commands in order on its own thread, so one
+ * user's deposits, withdrawals, transfers and payments never interleave or
+ * queue on each other's row locks, while different users run in parallel.
+ * <p>
+ * The work is database bound, so there are more lanes than cores by default,
+ * a few fewer than the connection pool. A transfer runs on the sender's lane
+ * only; the recipient's side is a commutative ledger credit. Trade settlement
+ * stays on the journal projector for the same reason, and asset rows are
+ * only written there, already one batch at a time.
+ */
+@Component
+public class AccountSequencer {
+
+    @Value("${trading.accounts.lanes:8}")
+    private int laneCount;
+
+    @Value("${trading.accounts.buffer-size:1024}")
+    private int bufferSize;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private SequencerLane[] lanes;
+
+    @PostConstruct
+    public void start() {
+        lanes = new SequencerLane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new SequencerLane("account-lane-" + i, bufferSize);
+            lanes[i].start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        for (SequencerLane lane : lanes) {
+            lane.stop();
+        }
+        for (SequencerLane lane : lanes) {
+            lane.join(5000);
+        }
+    }
+
+    public int laneOf(long userId) {
+        // snowflake ids keep their entropy in the high bits, so mix before reducing
+        return (int) (((userId * 0x9E3779B97F4A7C15L) >>> 33) % laneCount);
+    }
+
+    /**
+     * Runs {@code task} on the user's lane and waits for it. A task already
+     * on that lane runs inline rather than queueing behind itself.
+     */
+    public <T> T execute(long userId, Callable<T> task) throws Exception {
+        SequencerLane lane = lanes[laneOf(userId)];
+        if (lane.isCurrent()) {
+            return task.call();
+        }
+        return OrderSequencer.await(lane.submit(task));
+    }
+
+    /**
+     * Like {@link #execute}, inside a transaction that commits when the task
+     * returns and rolls back when it throws.
+     */
+    public <T> T executeInTransaction(long userId, Callable<T> task) throws Exception {
+        return execute(userId, () -> {
+            try {
+                return transactionTemplate.execute(status -> {
+                    try {
+                        return task.call();
+                    } catch (RuntimeException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new UndeclaredThrowableException(e);
+                    }
+                });
+            } catch (UndeclaredThrowableException e) {
+                throw (Exception) e.getCause();
+            }
+        });
+    }
+}
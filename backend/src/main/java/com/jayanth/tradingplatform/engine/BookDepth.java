@@ -0,0 +1,16 @@
+package com.jayanth.tradingplatform.engine;
+
+import lombok.Value;
+
+/**
+ * Aggregated levels of a book, best first, as rows of prices in ticks and
+ * total quantities in lots. {@code sequence} is the last {@link DepthDelta}
+ * reflected, so a client applies only the deltas after it.
+ */
+@Value
+public class BookDepth {
+
+    long sequence;
+    long[][] bids;
+    long[][] asks;
+}
@@ -0,0 +1,46 @@
+package com.jayanth.tradingplatform.engine;
+
+/**
+ * A resting order inside a {@link PriceLevel}. Levels chain their orders
+ * through {@code prev}/{@code next} so a cancel is O(1) once the order is found.
+ */
+public class BookOrder {
+
+    final long orderId;
+    final long userId;
+    final boolean buy;
+    final long price;
+    long quantity;
+
+    PriceLevel level;
+    BookOrder prev;
+    BookOrder next;
+
+    public BookOrder(long orderId, long userId, boolean buy, long price, long quantity) {
+        this.orderId = orderId;
+        this.userId = userId;
+        this.buy = buy;
+        this.price = price;
+        this.quantity = quantity;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public boolean isBuy() {
+        return buy;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+}
@@ -0,0 +1,84 @@
+package com.jayanth.tradingplatform.engine;
+
+import java.util.Arrays;
+
+/**
+ * One side of an order book kept as a sorted array of price levels.
+ * Keys are the raw tick for bids and the negated tick for asks, so on both
+ * sides the best level always sits at the end of the array.
+ */
+public class BookSide {
+
+    private final boolean bid;
+    private long[] keys = new long[64];
+    private PriceLevel[] levels = new PriceLevel[64];
+    private int size;
+
+    BookSide(boolean bid) {
+        this.bid = bid;
+    }
+
+    private long key(long price) {
+        return bid ? price : -price;
+    }
+
+    public PriceLevel best() {
+        return size == 0 ? null : levels[size - 1];
+    }
+
+    public PriceLevel find(long price) {
+        int index = Arrays.binarySearch(keys, 0, size, key(price));
+        return index >= 0 ? levels[index] : null;
+    }
+
+    PriceLevel getOrCreate(long price) {
+        long key = key(price);
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index >= 0) {
+            return levels[index];
+        }
+        int insertAt = -index - 1;
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            levels = Arrays.copyOf(levels, size * 2);
+        }
+        System.arraycopy(keys, insertAt, keys, insertAt + 1, size - insertAt);
+        System.arraycopy(levels, insertAt, levels, insertAt + 1, size - insertAt);
+        PriceLevel level = new PriceLevel(price);
+        keys[insertAt] = key;
+        levels[insertAt] = level;
+        size++;
+        return level;
+    }
+
+    void removeLevel(PriceLevel level) {
+        int index;
+        if (size > 0 && levels[size - 1] == level) {
+            index = size - 1;
+        } else {
+            index = Arrays.binarySearch(keys, 0, size, key(level.price));
+            if (index < 0) {
+                return;
+            }
+        }
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(levels, index + 1, levels, index, size - index - 1);
+        size--;
+        levels[size] = null;
+    }
+
+    /**
+     * Level at the given depth, 0 being the best price.
+     */
+    public PriceLevel levelAt(int depth) {
+        return depth < size ? levels[size - 1 - depth] : null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isBid() {
+        return bid;
+    }
+}
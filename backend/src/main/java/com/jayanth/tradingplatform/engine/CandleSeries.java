@@ -0,0 +1,162 @@
+package com.jayanth.tradingplatform.engine;
+
+/**
+ * The last {@code capacity} OHLCV bars of one coin at one interval, in
+ * preallocated columns of price units and quantity lots, so applying a trade
+ * is a few array writes. Bars are numbered from 0 in open time order; bar
+ * {@code n} lives in slot {@code n % capacity}. Bars touched since the last
+ * {@link #drain} are tracked so only those are flushed to storage.
+ */
+public class CandleSeries {
+
+    private final long intervalMs;
+    private final int capacity;
+    private final long[] openTimes;
+    private final long[] opens;
+    private final long[] highs;
+    private final long[] lows;
+    private final long[] closes;
+    private final long[] volumes;
+    private long count;
+    private long dirtyFrom = Long.MAX_VALUE;
+
+    public CandleSeries(long intervalMs, int capacity) {
+        this.intervalMs = intervalMs;
+        this.capacity = capacity;
+        this.openTimes = new long[capacity];
+        this.opens = new long[capacity];
+        this.highs = new long[capacity];
+        this.lows = new long[capacity];
+        this.closes = new long[capacity];
+        this.volumes = new long[capacity];
+    }
+
+    /**
+     * Applies a trade of {@code volume} lots at {@code price}, or a price tick
+     * when the volume is zero. A timestamp older than the current bar updates
+     * the bar it belongs to if that is still held, and is dropped otherwise.
+     */
+    public synchronized void update(long timestamp, long price, long volume) {
+        long openTime = timestamp - Math.floorMod(timestamp, intervalMs);
+        if (count == 0 || openTime > openTimes[slot(count - 1)]) {
+            append(openTime, price, price, price, price, volume);
+            return;
+        }
+        long oldest = Math.max(0, count - capacity);
+        for (long bar = count - 1; bar >= oldest; bar--) {
+            int slot = slot(bar);
+            if (openTimes[slot] == openTime) {
+                if (price > highs[slot]) {
+                    highs[slot] = price;
+                }
+                if (price < lows[slot]) {
+                    lows[slot] = price;
+                }
+                if (bar == count - 1) {
+                    closes[slot] = price;
+                }
+                volumes[slot] += volume;
+                dirtyFrom = Math.min(dirtyFrom, bar);
+                return;
+            }
+            if (openTimes[slot] < openTime) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Appends a complete bar, as loaded from storage. Bars must arrive in
+     * open time order; the bar is not marked dirty.
+     */
+    public synchronized void load(long openTime, long open, long high, long low, long close, long volume) {
+        if (count > 0 && openTime <= openTimes[slot(count - 1)]) {
+            return;
+        }
+        long dirty = dirtyFrom;
+        append(openTime, open, high, low, close, volume);
+        dirtyFrom = dirty;
+    }
+
+    private void append(long openTime, long open, long high, long low, long close, long volume) {
+        int slot = slot(count);
+        openTimes[slot] = openTime;
+        opens[slot] = open;
+        highs[slot] = high;
+        lows[slot] = low;
+        closes[slot] = close;
+        volumes[slot] = volume;
+        dirtyFrom = Math.min(dirtyFrom, count);
+        count++;
+    }
+
+    /**
+     * Copies the bars opening at or after {@code from}, oldest first, into
+     * {@code out} as rows of open time, open, high, low, close and volume;
+     * each row must hold {@link #capacity()} values.
+     */
+    public synchronized int read(long from, long[][] out) {
+        long bar = firstFrom(from);
+        copy(bar, (int) (count - bar), out);
+        return (int) (count - bar);
+    }
+
+    /**
+     * Copies the bars changed since the last drain into {@code out} like
+     * {@link #read} and marks them clean. Returns the number copied; a failed
+     * flush hands them back through {@link #markDirty}.
+     */
+    public synchronized int drain(long[][] out) {
+        if (dirtyFrom == Long.MAX_VALUE) {
+            return 0;
+        }
+        long bar = Math.max(dirtyFrom, count - capacity);
+        int n = (int) (count - bar);
+        copy(bar, n, out);
+        dirtyFrom = Long.MAX_VALUE;
+        return n;
+    }
+
+    /**
+     * Marks the bars opening at or after {@code from} dirty again.
+     */
+    public synchronized void markDirty(long from) {
+        long bar = firstFrom(from);
+        if (bar < count) {
+            dirtyFrom = Math.min(dirtyFrom, bar);
+        }
+    }
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private long firstFrom(long from) {
+        long first = Math.max(0, count - capacity);
+        long bar = count;
+        while (bar > first && openTimes[slot(bar - 1)] >= from) {
+            bar--;
+        }
+        return bar;
+    }
+
+    private void copy(long bar, int n, long[][] out) {
+        for (int i = 0; i < n; i++, bar++) {
+            int slot = slot(bar);
+            out[0][i] = openTimes[slot];
+            out[1][i] = opens[slot];
+            out[2][i] = highs[slot];
+            out[3][i] = lows[slot];
+            out[4][i] = closes[slot];
+            out[5][i] = volumes[slot];
+        }
+    }
+
+    private int slot(long bar) {
+        return (int) (bar % capacity);
+    }
+}
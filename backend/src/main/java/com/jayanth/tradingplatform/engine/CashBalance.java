@@ -0,0 +1,19 @@
+package com.jayanth.tradingplatform.engine;
+
+import lombok.Value;
+
+/**
+ * A user's cash in cents: the total, the part reserved by resting orders and
+ * the part held for withdrawals. Only the rest can be spent.
+ */
+@Value
+public class CashBalance {
+
+    long cash;
+    long reserved;
+    long held;
+
+    public long getAvailable() {
+        return cash - reserved - held;
+    }
+}
@@ -0,0 +1,16 @@
+package com.jayanth.tradingplatform.engine;
+
+import lombok.Value;
+
+/**
+ * The new total resting at one price level after a book change; a quantity
+ * of zero means the level is gone. Price is in ticks and quantity in lots.
+ */
+@Value
+public class DepthDelta {
+
+    long sequence;
+    boolean bid;
+    long price;
+    long quantity;
+}
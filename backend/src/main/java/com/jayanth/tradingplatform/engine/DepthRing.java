@@ -0,0 +1,93 @@
+package com.jayanth.tradingplatform.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+
+/**
+ * The last {@code capacity} level changes of one book, laid out like
+ * {@link TradeRing}: writers hold the book lock, readers never lock and keep
+ * a slot only if its sequence was unchanged across the copy. A client that
+ * falls more than {@code capacity} changes behind has to take a new
+ * snapshot.
+ * <p>
+ * Sequences continue from {@code start} rather than 1. Books are rebuilt on
+ * a restart, and a time based start keeps a client's old sequence from
+ * being mistaken for one of the new ring's.
+ */
+public class DepthRing {
+
+    private static final VarHandle SEQUENCES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int mask;
+    private final long[] sequences;
+    private final long[] prices;
+    private final long[] quantities;
+    private final boolean[] bids;
+    private volatile long published;
+
+    public DepthRing(int capacity, long start) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.sequences = new long[size];
+        this.prices = new long[size];
+        this.quantities = new long[size];
+        this.bids = new boolean[size];
+        this.published = start;
+    }
+
+    /**
+     * Appends a change and returns its sequence. Callers must serialize
+     * writes.
+     */
+    long add(boolean bid, long price, long quantity) {
+        long sequence = published + 1;
+        int slot = (int) (sequence & mask);
+        SEQUENCES.setOpaque(sequences, slot, 0L);
+        VarHandle.releaseFence();
+        prices[slot] = price;
+        quantities[slot] = quantity;
+        bids[slot] = bid;
+        SEQUENCES.setRelease(sequences, slot, sequence);
+        published = sequence;
+        return sequence;
+    }
+
+    /**
+     * Copies up to {@code limit} changes after {@code after} into
+     * {@code out}, oldest first. Returns false, leaving {@code out} partly
+     * filled, if any of them was already overwritten or {@code after} lies
+     * ahead of the ring, as it does for a client that last read before a
+     * restart.
+     */
+    public boolean read(long after, int limit, List<DepthDelta> out) {
+        long last = published;
+        if (after > last || after < last - mask - 1) {
+            return false;
+        }
+        long end = Math.min(last, after + limit);
+        for (long sequence = after + 1; sequence <= end; sequence++) {
+            int slot = (int) (sequence & mask);
+            if ((long) SEQUENCES.getAcquire(sequences, slot) != sequence) {
+                return false;
+            }
+            long price = prices[slot];
+            long quantity = quantities[slot];
+            boolean bid = bids[slot];
+            VarHandle.acquireFence();
+            if ((long) SEQUENCES.getOpaque(sequences, slot) != sequence) {
+                return false;
+            }
+            out.add(new DepthDelta(sequence, bid, price, quantity));
+        }
+        return true;
+    }
+
+    public long getPublished() {
+        return published;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,73 @@
+package com.jayanth.tradingplatform.engine;
+
+import com.jayanth.tradingplatform.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks the expiry of resting GTD orders on an {@link ExpiryWheel}, so the
+ * orders due at each tick are found without scanning the book or the orders
+ * table. An order filled or cancelled before its expiry is left on the wheel;
+ * when it comes due the caller's cancel simply finds nothing to remove.
+ * <p>
+ * Like pending triggers, expiries are not part of the book snapshot: they are
+ * reloaded from the orders table once the journal projector has caught up.
+ */
+@Slf4j
+@Component
+public class ExpiryEngine {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final long tickMs;
+    private ExpiryWheel wheel;
+
+    public ExpiryEngine(@Value("${trading.orders.expiry.tick-ms:1000}") long tickMs) {
+        this.tickMs = tickMs;
+        this.wheel = new ExpiryWheel(System.currentTimeMillis() / tickMs);
+    }
+
+    /**
+     * Schedules the order to expire at {@code expiresAt} epoch millis, rounded
+     * up to the next tick.
+     */
+    public synchronized void schedule(String coinId, long orderId, long expiresAt) {
+        wheel.add(coinId, orderId, (expiresAt + tickMs - 1) / tickMs);
+    }
+
+    /**
+     * Removes and returns the orders due by {@code now} epoch millis.
+     */
+    public synchronized List<ExpiryWheel.Entry> due(long now) {
+        List<ExpiryWheel.Entry> out = new ArrayList<>(0);
+        wheel.advance(now / tickMs, out);
+        return out;
+    }
+
+    public synchronized int size() {
+        return wheel.size();
+    }
+
+    /**
+     * Rebuilds the wheel from the open GTD orders in the database.
+     */
+    public void load() {
+        ExpiryWheel loaded = new ExpiryWheel(System.currentTimeMillis() / tickMs);
+        for (Object[] row : orderRepository.findOpenExpiringOrders()) {
+            long expiresAt = ((LocalDateTime) row[2]).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            loaded.add((String) row[1], (Long) row[0], (expiresAt + tickMs - 1) / tickMs);
+        }
+        synchronized (this) {
+            wheel = loaded;
+        }
+        log.info("loaded {} pending order expiries", loaded.size());
+    }
+}
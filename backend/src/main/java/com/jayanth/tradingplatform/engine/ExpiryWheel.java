@@ -0,0 +1,127 @@
+package com.jayanth.tradingplatform.engine;
+
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel of order expiries: four levels of 64 slots, each
+ * slot of a level spanning a whole turn of the level below. An order is put
+ * in the coarsest slot that still separates it from the current tick, and is
+ * moved one level down when the wheel reaches that slot, so adding an order
+ * is O(1) and each order is touched at most once per level before it fires.
+ * Deadlines past the top level's reach wait in its furthest slot and are
+ * placed again when they come round. Not thread safe.
+ */
+public class ExpiryWheel {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (BITS * LEVELS);
+
+    private final Entry[][] slots = new Entry[LEVELS][SLOTS];
+    private long currentTick;
+    private int size;
+
+    public ExpiryWheel(long startTick) {
+        this.currentTick = startTick;
+    }
+
+    /**
+     * Schedules {@code orderId} to fire once the wheel reaches
+     * {@code deadlineTick}, or on the next advance if that has passed.
+     */
+    public void add(String coinId, long orderId, long deadlineTick) {
+        place(new Entry(coinId, orderId, Math.max(deadlineTick, currentTick)));
+        size++;
+    }
+
+    /**
+     * Moves the wheel up to and including {@code tick}, appending every order
+     * whose deadline has been reached to {@code out}.
+     */
+    public void advance(long tick, List<Entry> out) {
+        while (currentTick <= tick) {
+            if ((currentTick & MASK) == 0) {
+                cascade();
+            }
+            int slot = (int) (currentTick & MASK);
+            Entry entry = slots[0][slot];
+            slots[0][slot] = null;
+            while (entry != null) {
+                Entry next = entry.next;
+                entry.next = null;
+                if (entry.deadlineTick > currentTick) {
+                    place(entry);
+                } else {
+                    out.add(entry);
+                    size--;
+                }
+                entry = next;
+            }
+            currentTick++;
+        }
+    }
+
+    /**
+     * Empties the slots the wheel has just entered on the upper levels into
+     * the levels below, coarsest first.
+     */
+    private void cascade() {
+        int top = 1;
+        while (top < LEVELS - 1 && ((currentTick >>> (BITS * top)) & MASK) == 0) {
+            top++;
+        }
+        for (int level = top; level >= 1; level--) {
+            int slot = (int) ((currentTick >>> (BITS * level)) & MASK);
+            Entry entry = slots[level][slot];
+            slots[level][slot] = null;
+            while (entry != null) {
+                Entry next = entry.next;
+                place(entry);
+                entry = next;
+            }
+        }
+    }
+
+    private void place(Entry entry) {
+        long tick = Math.min(entry.deadlineTick, currentTick + SPAN - 1);
+        long delta = tick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) ((tick >>> (BITS * level)) & MASK);
+        entry.next = slots[level][slot];
+        slots[level][slot] = entry;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long currentTick() {
+        return currentTick;
+    }
+
+    public static final class Entry {
+        final String coinId;
+        final long orderId;
+        final long deadlineTick;
+        Entry next;
+
+        Entry(String coinId, long orderId, long deadlineTick) {
+            this.coinId = coinId;
+            this.orderId = orderId;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public String getCoinId() {
+            return coinId;
+        }
+
+        public long getOrderId() {
+            return orderId;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.jayanth.tradingplatform.engine;
+
+import com.jayanth.tradingplatform.domain.CostBasisMethod;
+import com.jayanth.tradingplatform.domain.Money;
+
+/**
+ * A user's open lots of one coin, oldest first, as parallel primitive arrays
+ * in a ring: lot id, remaining quantity in lots and remaining cost in cents.
+ * Buys append at the tail. A sale takes from the head (FIFO) or the tail
+ * (LIFO) and touches only the lots it consumes, so selling across k lots is
+ * O(k). Every lot it closes or shrinks is reported to a {@link Listener} so
+ * the caller can write just those rows.
+ * <p>
+ * Not thread-safe.
+ */
+public final class LotDeque {
+
+    public interface Listener {
+
+        void updated(long id, long quantity, long cost);
+
+        void removed(long id);
+    }
+
+    private long[] ids;
+    private long[] quantities;
+    private long[] costs;
+    private int head;
+    private int size;
+    private long quantity;
+    private long cost;
+
+    public LotDeque() {
+        this(4);
+    }
+
+    public LotDeque(int capacity) {
+        int length = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        ids = new long[length];
+        quantities = new long[length];
+        costs = new long[length];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Total quantity of the open lots.
+     */
+    public long quantity() {
+        return quantity;
+    }
+
+    /**
+     * Total cost of the open lots.
+     */
+    public long cost() {
+        return cost;
+    }
+
+    public long id(int index) {
+        return ids[slot(index)];
+    }
+
+    public long quantity(int index) {
+        return quantities[slot(index)];
+    }
+
+    public long cost(int index) {
+        return costs[slot(index)];
+    }
+
+    public void addLast(long id, long quantity, long cost) {
+        if (size == ids.length) {
+            grow();
+        }
+        int slot = slot(size);
+        ids[slot] = id;
+        quantities[slot] = quantity;
+        costs[slot] = cost;
+        size++;
+        this.quantity += quantity;
+        this.cost += cost;
+    }
+
+    /**
+     * Takes {@code quantity} out of the open lots and returns the cost of
+     * what it took. Under {@link CostBasisMethod#AVERAGE} the lots are first
+     * merged into the oldest one, which is O(k) once after a run of buys and
+     * O(1) while no new lot arrives. A sale larger than the open lots takes
+     * all of them; the caller prices the rest.
+     */
+    public long sell(CostBasisMethod method, long quantity, Listener listener) {
+        if (method == CostBasisMethod.AVERAGE && size > 1) {
+            merge(listener);
+        }
+        boolean newest = method == CostBasisMethod.LIFO;
+        long remaining = quantity;
+        long taken = 0;
+        while (remaining > 0 && size > 0) {
+            int slot = newest ? slot(size - 1) : head;
+            long lots = quantities[slot];
+            if (lots <= remaining) {
+                remaining -= lots;
+                taken += costs[slot];
+                listener.removed(ids[slot]);
+                this.quantity -= lots;
+                this.cost -= costs[slot];
+                if (!newest) {
+                    head = (head + 1) & (ids.length - 1);
+                }
+                size--;
+            } else {
+                long part = Money.share(costs[slot], remaining, lots);
+                quantities[slot] = lots - remaining;
+                costs[slot] -= part;
+                taken += part;
+                this.quantity -= remaining;
+                this.cost -= part;
+                remaining = 0;
+                listener.updated(ids[slot], quantities[slot], costs[slot]);
+            }
+        }
+        return taken;
+    }
+
+    private void merge(Listener listener) {
+        for (int i = 1; i < size; i++) {
+            listener.removed(ids[slot(i)]);
+        }
+        quantities[head] = quantity;
+        costs[head] = cost;
+        size = 1;
+        listener.updated(ids[head], quantity, cost);
+    }
+
+    private int slot(int index) {
+        return (head + index) & (ids.length - 1);
+    }
+
+    private void grow() {
+        int length = ids.length;
+        long[][] columns = {ids, quantities, costs};
+        for (int c = 0; c < columns.length; c++) {
+            long[] grown = new long[length * 2];
+            // unwrap the ring so the head sits at 0
+            System.arraycopy(columns[c], head, grown, 0, length - head);
+            System.arraycopy(columns[c], 0, grown, length - head, head);
+            columns[c] = grown;
+        }
+        ids = columns[0];
+        quantities = columns[1];
+        costs = columns[2];
+        head = 0;
+    }
+}
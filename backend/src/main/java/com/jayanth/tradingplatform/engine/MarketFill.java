@@ -0,0 +1,21 @@
+package com.jayanth.tradingplatform.engine;
+
+import com.jayanth.tradingplatform.domain.OrderType;
+import lombok.Value;
+
+/**
+ * Journal event for a market order filled in full at the coin's current price.
+ * A triggered fill executes a stop or take-profit order under its own id.
+ */
+@Value
+public class MarketFill {
+
+    long orderId;
+    long userId;
+    String coinId;
+    OrderType side;
+    long price;
+    long quantity;
+    boolean triggered;
+    long timestamp;
+}
@@ -0,0 +1,15 @@
+package com.jayanth.tradingplatform.engine;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class MatchResult {
+
+    long orderId;
+    long filledQuantity;
+    long remainingQuantity;
+    boolean resting;
+    List<TradeEvent> trades;
+}
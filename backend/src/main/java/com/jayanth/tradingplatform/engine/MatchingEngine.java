@@ -0,0 +1,108 @@
+package com.jayanth.tradingplatform.engine;
+
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.domain.Quantity;
+import com.jayanth.tradingplatform.domain.TimeInForce;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds one {@link OrderBook} per coin and matches limit orders against it.
+ * Matching never touches the database; executions are handed back as
+ * {@link TradeEvent}s for the caller to project. Prices are {@link Money}
+ * units and quantities {@link Quantity} lots.
+ */
+@Component
+public class MatchingEngine {
+
+    private final ConcurrentMap<String, OrderBook> books = new ConcurrentHashMap<>();
+
+    public OrderBook getBook(String coinId) {
+        return books.computeIfAbsent(coinId, OrderBook::new);
+    }
+
+    public MatchResult submit(String coinId, long orderId, long userId,
+                              OrderType side, long price, long quantity) {
+        return submit(coinId, orderId, userId, side, price, quantity, TimeInForce.GTC);
+    }
+
+    /**
+     * Matches the order and rests any remainder unless it is IOC or FOK. A
+     * FOK order the book cannot fill completely is rejected untouched.
+     */
+    public MatchResult submit(String coinId, long orderId, long userId,
+                              OrderType side, long price, long quantity, TimeInForce timeInForce) {
+        OrderBook book = getBook(coinId);
+        BookOrder order = new BookOrder(orderId, userId, side == OrderType.BUY, price, quantity);
+
+        synchronized (book) {
+            if (timeInForce == TimeInForce.FOK && book.fillable(order) < quantity) {
+                return new MatchResult(orderId, 0, quantity, false, Collections.emptyList());
+            }
+            List<TradeEvent> trades = new ArrayList<>(4);
+            long filled = book.match(order, trades);
+            boolean resting = order.quantity > 0
+                    && timeInForce != TimeInForce.IOC && timeInForce != TimeInForce.FOK;
+            if (resting) {
+                book.rest(order);
+            }
+            return new MatchResult(orderId, filled, order.quantity, resting,
+                    trades.isEmpty() ? Collections.emptyList() : trades);
+        }
+    }
+
+    public boolean cancel(String coinId, long orderId) {
+        OrderBook book = books.get(coinId);
+        if (book == null) {
+            return false;
+        }
+        synchronized (book) {
+            return book.cancel(orderId) != null;
+        }
+    }
+
+    /**
+     * The best {@code levels} aggregated levels per side. Copying them holds
+     * the book lock for O(levels), independent of how many orders rest.
+     */
+    public BookDepth depth(String coinId, int levels) {
+        OrderBook book = books.get(coinId);
+        if (book == null) {
+            return new BookDepth(0, new long[2][0], new long[2][0]);
+        }
+        synchronized (book) {
+            return book.depth(levels);
+        }
+    }
+
+    /**
+     * Level changes after sequence {@code after}, read without the book lock.
+     * Returns false when they can no longer be served and the client has to
+     * take a new snapshot.
+     */
+    public boolean deltas(String coinId, long after, int limit, List<DepthDelta> out) {
+        OrderBook book = books.get(coinId);
+        if (book == null) {
+            return after == 0;
+        }
+        return book.getDepthRing().read(after, limit, out);
+    }
+
+    public Collection<OrderBook> getBooks() {
+        return books.values();
+    }
+
+    void restore(Collection<OrderBook> restored) {
+        books.clear();
+        for (OrderBook book : restored) {
+            books.put(book.getCoinId(), book);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.jayanth.tradingplatform.engine;
+
+import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.domain.TimeInForce;
+import lombok.Value;
+
+/**
+ * Journal event for a limit order admitted to the book, before any matching.
+ * {@code expiresAt} is epoch millis for a GTD order and 0 otherwise.
+ */
+@Value
+public class OrderAccepted {
+
+    long orderId;
+    long userId;
+    String coinId;
+    OrderType side;
+    long price;
+    long quantity;
+    TimeInForce timeInForce;
+    long expiresAt;
+    long timestamp;
+}
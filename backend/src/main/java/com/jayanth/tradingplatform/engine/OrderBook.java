@@ -0,0 +1,195 @@
+package com.jayanth.tradingplatform.engine;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Price-time priority limit order book for a single coin. Not thread safe:
+ * callers must serialize access per book. Every change to a level's total is
+ * also published to the book's {@link DepthRing}, so depth can be followed
+ * from deltas without rereading the book.
+ */
+public class OrderBook {
+
+    static final int DEPTH_CHANGES = 4096;
+
+    private final String coinId;
+    private final BookSide bids = new BookSide(true);
+    private final BookSide asks = new BookSide(false);
+    private final Map<Long, BookOrder> orders = new HashMap<>();
+    // about a thousand sequences per millisecond of uptime, and well inside a JSON-safe integer
+    private final DepthRing depth = new DepthRing(DEPTH_CHANGES, System.currentTimeMillis() << 10);
+    private long tradeSequence;
+
+    public OrderBook(String coinId) {
+        this.coinId = coinId;
+    }
+
+    /**
+     * Matches the incoming order against the opposite side and appends the
+     * resulting executions to {@code trades}. Returns the filled quantity.
+     */
+    long match(BookOrder taker, List<TradeEvent> trades) {
+        BookSide opposite = taker.buy ? asks : bids;
+        long filled = 0;
+        long now = System.currentTimeMillis();
+
+        while (taker.quantity > 0) {
+            PriceLevel level = opposite.best();
+            if (level == null || !crosses(taker, level.price)) {
+                break;
+            }
+            while (taker.quantity > 0 && !level.isEmpty()) {
+                BookOrder maker = level.head;
+                long quantity = Math.min(taker.quantity, maker.quantity);
+
+                taker.quantity -= quantity;
+                maker.quantity -= quantity;
+                level.totalQuantity -= quantity;
+                filled += quantity;
+
+                trades.add(taker.buy
+                        ? new TradeEvent(++tradeSequence, coinId, taker.orderId, maker.orderId,
+                                taker.userId, maker.userId, level.price, quantity, false, now)
+                        : new TradeEvent(++tradeSequence, coinId, maker.orderId, taker.orderId,
+                                maker.userId, taker.userId, level.price, quantity, true, now));
+
+                if (maker.quantity == 0) {
+                    level.remove(maker);
+                    orders.remove(maker.orderId);
+                }
+            }
+            if (level.isEmpty()) {
+                opposite.removeLevel(level);
+            }
+            depth.add(!taker.buy, level.price, level.totalQuantity);
+        }
+        return filled;
+    }
+
+    /**
+     * Quantity the taker could fill right now, counted only until it covers
+     * the taker, so a fill-or-kill check stops at the levels it would consume.
+     */
+    long fillable(BookOrder taker) {
+        BookSide opposite = taker.buy ? asks : bids;
+        long available = 0;
+        for (int depth = 0; available < taker.quantity; depth++) {
+            PriceLevel level = opposite.levelAt(depth);
+            if (level == null || !crosses(taker, level.price)) {
+                break;
+            }
+            available += level.totalQuantity;
+        }
+        return available;
+    }
+
+    private boolean crosses(BookOrder taker, long makerPrice) {
+        return taker.buy ? makerPrice <= taker.price : makerPrice >= taker.price;
+    }
+
+    void rest(BookOrder order) {
+        BookSide side = order.buy ? bids : asks;
+        PriceLevel level = side.getOrCreate(order.price);
+        level.add(order);
+        orders.put(order.orderId, order);
+        depth.add(order.buy, level.price, level.totalQuantity);
+    }
+
+    BookOrder cancel(long orderId) {
+        BookOrder order = orders.remove(orderId);
+        if (order == null) {
+            return null;
+        }
+        PriceLevel level = order.level;
+        level.remove(order);
+        if (level.isEmpty()) {
+            (order.buy ? bids : asks).removeLevel(level);
+        }
+        depth.add(order.buy, level.price, level.totalQuantity);
+        return order;
+    }
+
+    /**
+     * The best {@code levels} levels of each side, with the sequence of the
+     * last change they include.
+     */
+    BookDepth depth(int levels) {
+        return new BookDepth(depth.getPublished(), levels(bids, levels), levels(asks, levels));
+    }
+
+    private static long[][] levels(BookSide side, int levels) {
+        int n = Math.min(levels, side.size());
+        long[][] out = new long[2][n];
+        for (int i = 0; i < n; i++) {
+            PriceLevel level = side.levelAt(i);
+            out[0][i] = level.price;
+            out[1][i] = level.totalQuantity;
+        }
+        return out;
+    }
+
+    /**
+     * Writes every resting order, best price and oldest order first, so that
+     * {@link #readFrom} restores identical time priority.
+     */
+    void writeTo(DataOutput out) throws IOException {
+        out.writeUTF(coinId);
+        out.writeLong(tradeSequence);
+        out.writeInt(orders.size());
+        for (BookSide side : new BookSide[]{bids, asks}) {
+            for (int depth = 0; depth < side.size(); depth++) {
+                for (BookOrder order = side.levelAt(depth).head; order != null; order = order.next) {
+                    out.writeLong(order.orderId);
+                    out.writeLong(order.userId);
+                    out.writeBoolean(order.buy);
+                    out.writeLong(order.price);
+                    out.writeLong(order.quantity);
+                }
+            }
+        }
+    }
+
+    static OrderBook readFrom(DataInput in) throws IOException {
+        OrderBook book = new OrderBook(in.readUTF());
+        book.tradeSequence = in.readLong();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            book.rest(new BookOrder(in.readLong(), in.readLong(), in.readBoolean(), in.readLong(), in.readLong()));
+        }
+        return book;
+    }
+
+    public int orderCount() {
+        return orders.size();
+    }
+
+    Collection<BookOrder> restingOrders() {
+        return orders.values();
+    }
+
+    public BookOrder getOrder(long orderId) {
+        return orders.get(orderId);
+    }
+
+    public DepthRing getDepthRing() {
+        return depth;
+    }
+
+    public String getCoinId() {
+        return coinId;
+    }
+
+    public BookSide getBids() {
+        return bids;
+    }
+
+    public BookSide getAsks() {
+        return asks;
+    }
+}
@@ -0,0 +1,16 @@
+package com.jayanth.tradingplatform.engine;
+
+import lombok.Value;
+
+/**
+ * Journal event for an order withdrawn before it was completely filled,
+ * either cancelled or, when {@code expired}, reaching its GTD expiry.
+ */
+@Value
+public class OrderCancelled {
+
+    long orderId;
+    String coinId;
+    boolean expired;
+    long timestamp;
+}
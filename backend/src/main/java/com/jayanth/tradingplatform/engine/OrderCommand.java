@@ -0,0 +1,18 @@
+package com.jayanth.tradingplatform.engine;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reusable ring buffer slot carrying one unit of work for a sequencer partition.
+ */
+public class OrderCommand {
+
+    Callable<Object> task;
+    CompletableFuture<Object> future;
+
+    void clear() {
+        task = null;
+        future = null;
+    }
+}
@@ -0,0 +1,420 @@
+package com.jayanth.tradingplatform.engine;
+
+import com.jayanth.tradingplatform.domain.OrderKind;
+import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.domain.TimeInForce;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only binary journal of order, trade, market fill, trigger, cancel and
+ * expiry events written through memory-mapped segment files.
+ * <p>
+ * Records are framed as {@code [int length][int crc32c][byte type][fields]}; a
+ * zero length marks the end of written data and {@code -1} a roll to the next
+ * segment. Positions are global byte offsets
+ * ({@code segment * segmentSize + offset}). A flusher thread group-commits
+ * everything appended since the last flush with a single {@code force}, and
+ * callers wait on {@link #awaitDurable()} before acknowledging.
+ * <p>
+ * If a {@code force} fails, the journal is marked failed: appends are refused
+ * and waiters are woken with an exception, so callers fail instead of
+ * blocking on a position that will never become durable.
+ */
+@Slf4j
+@Component
+public class OrderJournal {
+
+    public static final byte ORDER_ACCEPTED = 1;
+    public static final byte TRADE = 2;
+    public static final byte MARKET_FILL = 3;
+    public static final byte TRIGGER_PLACED = 4;
+    public static final byte TRIGGER_FILL = 5;
+    public static final byte ORDER_CANCELLED = 6;
+    public static final byte ORDER_ACCEPTED_TIF = 7;
+    public static final byte ORDER_EXPIRED = 8;
+
+    private static final int HEADER = 8;
+    private static final int ROLL = -1;
+
+    @Value("${trading.journal.dir:journal}")
+    private String directory;
+
+    @Value("${trading.journal.segment-size:67108864}")
+    private int segmentSize;
+
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final CRC32C crc = new CRC32C();
+    private final Object durableLock = new Object();
+
+    private MappedByteBuffer current;
+    private int pendingStart;
+    private volatile long writePosition;
+    private volatile long durablePosition;
+    private volatile boolean running;
+    private volatile RuntimeException failure;
+    private Thread flusher;
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path dir = Path.of(directory);
+        Files.createDirectories(dir);
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(p -> p.getFileName().toString().startsWith("segment-"))
+                    .sorted()
+                    .toList();
+        }
+        for (Path file : files) {
+            segments.add(map(file));
+        }
+        if (segments.isEmpty()) {
+            segments.add(map(segmentPath(0)));
+        }
+        current = segments.get(segments.size() - 1);
+        int end = scanEnd(current);
+        current.position(end);
+        writePosition = (long) (segments.size() - 1) * segmentSize + end;
+        durablePosition = writePosition;
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "order-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(5000);
+    }
+
+    private Path segmentPath(int index) {
+        return Path.of(directory, String.format("segment-%08d.dat", index));
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    /**
+     * Offset just past the last intact record of a segment. A torn tail left
+     * by a crash fails its checksum and is overwritten by the next append.
+     */
+    private int scanEnd(MappedByteBuffer segment) {
+        int offset = 0;
+        while (offset + HEADER <= segmentSize) {
+            int length = segment.getInt(offset);
+            if (length <= 0 || offset + HEADER + length > segmentSize
+                    || checksum(segment, offset + HEADER, length) != segment.getInt(offset + 4)) {
+                break;
+            }
+            offset += HEADER + length;
+        }
+        return offset;
+    }
+
+    private int checksum(ByteBuffer segment, int offset, int length) {
+        crc.reset();
+        crc.update(segment.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * GTC orders keep the original record layout; any other time in force is
+     * written as {@link #ORDER_ACCEPTED_TIF} with its expiry.
+     */
+    public synchronized long appendOrderAccepted(OrderAccepted event) {
+        byte[] coin = event.getCoinId().getBytes(StandardCharsets.UTF_8);
+        boolean gtc = event.getTimeInForce() == TimeInForce.GTC;
+        MappedByteBuffer buffer = begin(1 + 8 + 8 + 1 + 8 + 8 + 8 + (gtc ? 0 : 1 + 8) + 2 + coin.length);
+        buffer.put(gtc ? ORDER_ACCEPTED : ORDER_ACCEPTED_TIF)
+                .putLong(event.getOrderId())
+                .putLong(event.getUserId())
+                .put((byte) event.getSide().ordinal())
+                .putLong(event.getPrice())
+                .putLong(event.getQuantity())
+                .putLong(event.getTimestamp());
+        if (!gtc) {
+            buffer.put((byte) event.getTimeInForce().ordinal())
+                    .putLong(event.getExpiresAt());
+        }
+        buffer.putShort((short) coin.length)
+                .put(coin);
+        return commit();
+    }
+
+    public synchronized long appendMarketFill(MarketFill event) {
+        byte[] coin = event.getCoinId().getBytes(StandardCharsets.UTF_8);
+        MappedByteBuffer buffer = begin(1 + 8 + 8 + 1 + 8 + 8 + 8 + 2 + coin.length);
+        buffer.put(event.isTriggered() ? TRIGGER_FILL : MARKET_FILL)
+                .putLong(event.getOrderId())
+                .putLong(event.getUserId())
+                .put((byte) event.getSide().ordinal())
+                .putLong(event.getPrice())
+                .putLong(event.getQuantity())
+                .putLong(event.getTimestamp())
+                .putShort((short) coin.length)
+                .put(coin);
+        return commit();
+    }
+
+    public synchronized long appendTriggerPlaced(TriggerPlaced event) {
+        byte[] coin = event.getCoinId().getBytes(StandardCharsets.UTF_8);
+        MappedByteBuffer buffer = begin(1 + 8 + 8 + 1 + 1 + 8 + 8 + 8 + 2 + coin.length);
+        buffer.put(TRIGGER_PLACED)
+                .putLong(event.getOrderId())
+                .putLong(event.getUserId())
+                .put((byte) event.getSide().ordinal())
+                .put((byte) event.getKind().ordinal())
+                .putLong(event.getTriggerPrice())
+                .putLong(event.getQuantity())
+                .putLong(event.getTimestamp())
+                .putShort((short) coin.length)
+                .put(coin);
+        return commit();
+    }
+
+    public synchronized long appendOrderCancelled(OrderCancelled event) {
+        byte[] coin = event.getCoinId().getBytes(StandardCharsets.UTF_8);
+        MappedByteBuffer buffer = begin(1 + 8 + 8 + 2 + coin.length);
+        buffer.put(event.isExpired() ? ORDER_EXPIRED : ORDER_CANCELLED)
+                .putLong(event.getOrderId())
+                .putLong(event.getTimestamp())
+                .putShort((short) coin.length)
+                .put(coin);
+        return commit();
+    }
+
+    public synchronized long appendTrade(TradeEvent event) {
+        byte[] coin = event.getCoinId().getBytes(StandardCharsets.UTF_8);
+        MappedByteBuffer buffer = begin(1 + 8 * 7 + 1 + 8 + 2 + coin.length);
+        buffer.put(TRADE)
+                .putLong(event.getTradeId())
+                .putLong(event.getBuyOrderId())
+                .putLong(event.getSellOrderId())
+                .putLong(event.getBuyerId())
+                .putLong(event.getSellerId())
+                .putLong(event.getPrice())
+                .putLong(event.getQuantity())
+                .put((byte) (event.isBuyerMaker() ? 1 : 0))
+                .putLong(event.getTimestamp())
+                .putShort((short) coin.length)
+                .put(coin);
+        return commit();
+    }
+
+    private MappedByteBuffer begin(int length) {
+        if (failure != null) {
+            throw new IllegalStateException("order journal failed", failure);
+        }
+        if (current.position() + HEADER + length > segmentSize) {
+            roll();
+        }
+        pendingStart = current.position();
+        current.position(pendingStart + HEADER);
+        return current;
+    }
+
+    private long commit() {
+        int start = pendingStart;
+        int length = current.position() - start - HEADER;
+        current.putInt(start + 4, checksum(current, start + HEADER, length));
+        current.putInt(start, length);
+        writePosition = (long) (segments.size() - 1) * segmentSize + current.position();
+        return writePosition;
+    }
+
+    private void roll() {
+        if (current.position() + 4 <= segmentSize) {
+            current.putInt(current.position(), ROLL);
+        }
+        current.force();
+        try {
+            current = map(segmentPath(segments.size()));
+        } catch (IOException e) {
+            throw new IllegalStateException("failed to roll order journal", e);
+        }
+        synchronized (segments) {
+            segments.add(current);
+        }
+        writePosition = (long) (segments.size() - 1) * segmentSize;
+    }
+
+    private void flushLoop() {
+        while (running || durablePosition < writePosition) {
+            long target = writePosition;
+            if (target > durablePosition) {
+                try {
+                    force(durablePosition, target);
+                } catch (RuntimeException e) {
+                    log.error("order journal flush failed at position {}", durablePosition, e);
+                    synchronized (durableLock) {
+                        failure = e;
+                        durableLock.notifyAll();
+                    }
+                    return;
+                }
+                synchronized (durableLock) {
+                    durablePosition = target;
+                    durableLock.notifyAll();
+                }
+            } else {
+                LockSupport.parkNanos(200_000);
+            }
+        }
+    }
+
+    private void force(long from, long to) {
+        int first = (int) (from / segmentSize);
+        int last = (int) ((to - 1) / segmentSize);
+        for (int i = first; i <= last; i++) {
+            MappedByteBuffer segment = segment(i);
+            long base = (long) i * segmentSize;
+            int start = (int) (Math.max(from, base) - base);
+            int end = (int) (Math.min(to, base + segmentSize) - base);
+            if (end > start) {
+                segment.force(start, end - start);
+            }
+        }
+    }
+
+    private MappedByteBuffer segment(int index) {
+        synchronized (segments) {
+            return segments.get(index);
+        }
+    }
+
+    /**
+     * Blocks until everything appended so far has been forced to disk.
+     * Throws {@link IllegalStateException} once the journal has failed.
+     */
+    public void awaitDurable() throws InterruptedException {
+        awaitDurable(writePosition);
+    }
+
+    public void awaitDurable(long position) throws InterruptedException {
+        if (durablePosition >= position) {
+            return;
+        }
+        LockSupport.unpark(flusher);
+        synchronized (durableLock) {
+            while (durablePosition < position) {
+                if (failure != null) {
+                    throw new IllegalStateException("order journal failed", failure);
+                }
+                durableLock.wait();
+            }
+        }
+    }
+
+    public long getWritePosition() {
+        return writePosition;
+    }
+
+    public long getDurablePosition() {
+        return durablePosition;
+    }
+
+    /**
+     * Decodes up to {@code maxRecords} durable records starting at
+     * {@code position} into {@code out} and returns the position after them.
+     */
+    public long read(long position, int maxRecords, List<Object> out) {
+        long limit = durablePosition;
+        int count = 0;
+        while (position < limit && count < maxRecords) {
+            int index = (int) (position / segmentSize);
+            int offset = (int) (position % segmentSize);
+            ByteBuffer segment = segment(index).duplicate();
+            int length = offset + HEADER <= segmentSize ? segment.getInt(offset) : ROLL;
+            if (length == ROLL || length == 0) {
+                position = (long) (index + 1) * segmentSize;
+                continue;
+            }
+            segment.position(offset + HEADER);
+            out.add(decode(segment));
+            position += HEADER + length;
+            count++;
+        }
+        return position;
+    }
+
+    private Object decode(ByteBuffer buffer) {
+        byte type = buffer.get();
+        if (type == ORDER_ACCEPTED || type == ORDER_ACCEPTED_TIF || type == MARKET_FILL || type == TRIGGER_FILL) {
+            long orderId = buffer.getLong();
+            long userId = buffer.getLong();
+            OrderType side = OrderType.values()[buffer.get()];
+            long price = buffer.getLong();
+            long quantity = buffer.getLong();
+            long timestamp = buffer.getLong();
+            if (type == ORDER_ACCEPTED_TIF) {
+                TimeInForce timeInForce = TimeInForce.values()[buffer.get()];
+                long expiresAt = buffer.getLong();
+                return new OrderAccepted(orderId, userId, readCoin(buffer), side, price, quantity,
+                        timeInForce, expiresAt, timestamp);
+            }
+            String coinId = readCoin(buffer);
+            return type == ORDER_ACCEPTED
+                    ? new OrderAccepted(orderId, userId, coinId, side, price, quantity, TimeInForce.GTC, 0, timestamp)
+                    : new MarketFill(orderId, userId, coinId, side, price, quantity, type == TRIGGER_FILL, timestamp);
+        }
+        if (type == TRIGGER_PLACED) {
+            long orderId = buffer.getLong();
+            long userId = buffer.getLong();
+            OrderType side = OrderType.values()[buffer.get()];
+            OrderKind kind = OrderKind.values()[buffer.get()];
+            long triggerPrice = buffer.getLong();
+            long quantity = buffer.getLong();
+            long timestamp = buffer.getLong();
+            return new TriggerPlaced(orderId, userId, readCoin(buffer), side, kind, triggerPrice, quantity, timestamp);
+        }
+        if (type == ORDER_CANCELLED || type == ORDER_EXPIRED) {
+            long orderId = buffer.getLong();
+            long timestamp = buffer.getLong();
+            return new OrderCancelled(orderId, readCoin(buffer), type == ORDER_EXPIRED, timestamp);
+        }
+        if (type == TRADE) {
+            long tradeId = buffer.getLong();
+            long buyOrderId = buffer.getLong();
+            long sellOrderId = buffer.getLong();
+            long buyerId = buffer.getLong();
+            long sellerId = buffer.getLong();
+            long price = buffer.getLong();
+            long quantity = buffer.getLong();
+            boolean buyerMaker = buffer.get() == 1;
+            long timestamp = buffer.getLong();
+            return new TradeEvent(tradeId, readCoin(buffer), buyOrderId, sellOrderId,
+                    buyerId, sellerId, price, quantity, buyerMaker, timestamp);
+        }
+        throw new IllegalStateException("unknown journal record type " + type);
+    }
+
+    private String readCoin(ByteBuffer buffer) {
+        byte[] coin = new byte[buffer.getShort()];
+        buffer.get(coin);
+        return new String(coin, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,98 @@
+package com.jayanth.tradingplatform.engine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Single-writer execution of order commands. Every coin is pinned to one
+ * partition, and each partition runs its commands in order on its own thread,
+ * so work for the same coin never runs concurrently while different coins
+ * spread across partitions.
+ */
+@Component
+public class OrderSequencer {
+
+    @Value("${trading.sequencer.partitions:4}")
+    private int partitionCount;
+
+    @Value("${trading.sequencer.buffer-size:1024}")
+    private int bufferSize;
+
+    private SequencerLane[] partitions;
+
+    @PostConstruct
+    public void start() {
+        partitions = new SequencerLane[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new SequencerLane("order-sequencer-" + i, bufferSize);
+            partitions[i].start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        for (SequencerLane partition : partitions) {
+            partition.stop();
+        }
+        for (SequencerLane partition : partitions) {
+            partition.join(5000);
+        }
+    }
+
+    public int partitionOf(String coinId) {
+        return (coinId.hashCode() & Integer.MAX_VALUE) % partitionCount;
+    }
+
+    public <T> CompletableFuture<T> submit(String coinId, Callable<T> task) {
+        return partitions[partitionOf(coinId)].submit(task);
+    }
+
+    /**
+     * Parks every partition between commands, runs {@code action} while no
+     * command is executing anywhere, then lets the partitions continue.
+     */
+    public void runExclusive(Runnable action) throws Exception {
+        CountDownLatch parked = new CountDownLatch(partitionCount);
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<Object>> barriers = new ArrayList<>(partitionCount);
+        for (SequencerLane partition : partitions) {
+            barriers.add(partition.submit(() -> {
+                parked.countDown();
+                release.await();
+                return null;
+            }));
+        }
+        try {
+            parked.await();
+            action.run();
+        } finally {
+            release.countDown();
+        }
+        for (CompletableFuture<Object> barrier : barriers) {
+            await(barrier);
+        }
+    }
+
+    /**
+     * Waits for a submitted command and rethrows its failure unwrapped.
+     */
+    public static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.jayanth.tradingplatform.engine;
+
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.Quantity;
+import com.jayanth.tradingplatform.model.Coin;
+import com.jayanth.tradingplatform.repository.AssetRepository;
+import com.jayanth.tradingplatform.repository.CoinRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Market value and unrealized P&amp;L of every user's holdings, kept current
+ * in memory. Fills move positions at average cost as they execute. A price
+ * tick revalues only the holders of that coin, found through a
+ * coin-to-holders index, and adjusts each holder's totals by the change, so
+ * reading a portfolio is a map lookup.
+ * <p>
+ * Loaded from the asset table and coin prices once the journal projector has
+ * caught up, before the {@link RiskEngine}, so no fill can arrive in
+ * between. Until then reads wait.
+ */
+@Slf4j
+@Component
+public class PortfolioEngine {
+
+    public interface ValueVisitor {
+
+        void visit(long userId, long marketValue);
+    }
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private CoinRepository coinRepository;
+
+    @Autowired
+    private RiskEngine riskEngine;
+
+    @Value("${trading.risk.load-timeout-ms:30000}")
+    private long loadTimeoutMs;
+
+    private final ConcurrentMap<Long, Portfolio> portfolios = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CoinHolders> coins = new ConcurrentHashMap<>();
+    private final CountDownLatch loaded = new CountDownLatch(1);
+
+    public void load() {
+        if (loaded.getCount() == 0) {
+            return;
+        }
+        long started = System.nanoTime();
+        portfolios.clear();
+        coins.clear();
+        for (Coin coin : coinRepository.findAll()) {
+            if (coin.getCurrentPrice() != null) {
+                coin(coin.getId()).price = Money.of(coin.getCurrentPrice()).getUnits();
+            }
+        }
+        int positions = 0;
+        for (Object[] row : assetRepository.findAllPositions()) {
+            Quantity quantity = (Quantity) row[2];
+            Money buyPrice = (Money) row[3];
+            if (quantity == null || quantity.signum() <= 0) {
+                continue;
+            }
+            long price = buyPrice == null ? 0 : buyPrice.getUnits();
+            onFill((Long) row[0], (String) row[1], true, price, quantity.getLots());
+            positions++;
+        }
+        loaded.countDown();
+        log.info("loaded {} positions of {} portfolios in {} ms",
+                positions, portfolios.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Applies an execution to the user's position: a buy adds its cost, a
+     * sell takes out the average cost of what it sold.
+     */
+    public void onFill(long userId, String coinId, boolean buy, long price, long quantity) {
+        Portfolio portfolio = portfolios.computeIfAbsent(userId, id -> new Portfolio());
+        CoinHolders coin = coin(coinId);
+        synchronized (portfolio) {
+            Position position = portfolio.positions.get(coinId);
+            if (buy) {
+                if (position == null) {
+                    position = new Position(portfolio);
+                    portfolio.positions.put(coinId, position);
+                    coin.add(position);
+                }
+                long cost = Money.times(price, quantity);
+                position.lots += quantity;
+                position.cost += cost;
+                portfolio.cost += cost;
+            } else {
+                if (position == null) {
+                    return;
+                }
+                long sold = Math.min(quantity, position.lots);
+                long cost = sold == position.lots ? position.cost : Money.share(position.cost, sold, position.lots);
+                position.lots -= sold;
+                position.cost -= cost;
+                portfolio.cost -= cost;
+                // the projector deletes an asset worth one currency unit or less after a sale unless
+                // open sells still reserve its lots; the RiskEngine has already applied this fill
+                if (Money.times(price, position.lots) <= Money.ONE && !riskEngine.hasReservedLots(userId, coinId)) {
+                    portfolio.cost -= position.cost;
+                    portfolio.value -= position.value;
+                    portfolio.positions.remove(coinId);
+                    coin.remove(position);
+                    return;
+                }
+            }
+            revalue(position, coin.price == 0 ? price : coin.price);
+        }
+    }
+
+    public void onTrade(TradeEvent trade) {
+        onFill(trade.getBuyerId(), trade.getCoinId(), true, trade.getPrice(), trade.getQuantity());
+        onFill(trade.getSellerId(), trade.getCoinId(), false, trade.getPrice(), trade.getQuantity());
+    }
+
+    /**
+     * Revalues the coin's holders at {@code price}. Each holder is revalued
+     * at the latest price under its own lock, so racing ticks cannot leave
+     * an older price behind.
+     */
+    public void onPrice(String coinId, long price) {
+        CoinHolders coin = coin(coinId);
+        coin.price = price;
+        for (Position position : coin.positions) {
+            synchronized (position.portfolio) {
+                revalue(position, coin.price);
+            }
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded.getCount() == 0;
+    }
+
+    /**
+     * Visits every user's current market value, each read under its
+     * portfolio's lock.
+     */
+    public void forEach(ValueVisitor visitor) {
+        for (Map.Entry<Long, Portfolio> entry : portfolios.entrySet()) {
+            long value;
+            synchronized (entry.getValue()) {
+                value = entry.getValue().value;
+            }
+            visitor.visit(entry.getKey(), value);
+        }
+    }
+
+    public PortfolioValue getPortfolio(long userId) throws Exception {
+        if (!loaded.await(loadTimeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new Exception("portfolio is still loading, try again");
+        }
+        Portfolio portfolio = portfolios.get(userId);
+        if (portfolio == null) {
+            return new PortfolioValue(0, 0, List.of());
+        }
+        synchronized (portfolio) {
+            List<PositionValue> positions = new ArrayList<>(portfolio.positions.size());
+            for (Map.Entry<String, Position> entry : portfolio.positions.entrySet()) {
+                Position position = entry.getValue();
+                positions.add(new PositionValue(entry.getKey(), position.lots, position.price,
+                        position.value, position.cost));
+            }
+            return new PortfolioValue(portfolio.value, portfolio.cost, positions);
+        }
+    }
+
+    private CoinHolders coin(String coinId) {
+        return coins.computeIfAbsent(coinId, id -> new CoinHolders());
+    }
+
+    private static void revalue(Position position, long price) {
+        long value = Money.times(price, position.lots);
+        position.portfolio.value += value - position.value;
+        position.value = value;
+        position.price = price;
+    }
+
+    private static final class Portfolio {
+        long value;
+        long cost;
+        final Map<String, Position> positions = new HashMap<>();
+    }
+
+    /**
+     * A coin's latest price and its open positions. Ticks walk the array
+     * without locking; positions open and close far less often than prices
+     * move, so those copy it.
+     */
+    private static final class CoinHolders {
+        volatile long price;
+        volatile Position[] positions = new Position[0];
+
+        synchronized void add(Position position) {
+            Position[] grown = Arrays.copyOf(positions, positions.length + 1);
+            grown[positions.length] = position;
+            positions = grown;
+        }
+
+        synchronized void remove(Position position) {
+            Position[] current = positions;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == position) {
+                    Position[] shrunk = Arrays.copyOf(current, current.length - 1);
+                    if (i < shrunk.length) {
+                        shrunk[i] = current[current.length - 1];
+                    }
+                    positions = shrunk;
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class Position {
+        final Portfolio portfolio;
+        long lots;
+        long cost;
+        long price;
+        long value;
+
+        Position(Portfolio portfolio) {
+            this.portfolio = portfolio;
+        }
+    }
+}
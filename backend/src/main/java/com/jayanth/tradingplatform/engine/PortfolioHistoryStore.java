@@ -0,0 +1,367 @@
+package com.jayanth.tradingplatform.engine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Per-user portfolio value over time, in append-only segment files of
+ * {@link SeriesBlock}s.
+ * <p>
+ * Samples collect in an open block per user. Once a block reaches
+ * {@code block-samples}, it is sealed and appended as
+ * {@code [int length][int crc32c][long userId][long previous][long first]
+ * [long last][int count][payload]}. Here {@code previous} is the position of
+ * the user's block before it, so a read walks back from the newest block and
+ * stops at the start of the range. Positions are global byte offsets
+ * ({@code segment * segmentSize + offset}), as in the {@link OrderJournal}.
+ * <p>
+ * Each user's newest position is checkpointed to {@code heads.bin} after
+ * every seal. A restart loads the checkpoint and scans only the records
+ * written after it. Open blocks are sealed on shutdown; a crash loses them.
+ * Segments older than the retention are deleted whole.
+ */
+@Slf4j
+@Component
+public class PortfolioHistoryStore {
+
+    private static final int MAGIC = 0x54504831; // "TPH1"
+    private static final int HEADER = 8;
+    private static final int FIELDS = 8 * 4 + 4;
+
+    @Value("${trading.history.dir:history}")
+    private String directory;
+
+    @Value("${trading.history.segment-size:67108864}")
+    private int segmentSize;
+
+    @Value("${trading.history.block-samples:360}")
+    private int blockSamples;
+
+    @Value("${trading.history.retain-days:400}")
+    private int retainDays;
+
+    private final ConcurrentMap<Long, Series> series = new ConcurrentHashMap<>();
+    private final TreeMap<Integer, FileChannel> segments = new TreeMap<>();
+    private final CRC32C crc = new CRC32C();
+
+    private long writePosition;
+
+    @PostConstruct
+    public void open() throws IOException {
+        long started = System.nanoTime();
+        Files.createDirectories(Path.of(directory));
+        try (Stream<Path> list = Files.list(Path.of(directory))) {
+            for (Path file : list.filter(p -> p.getFileName().toString().matches("segment-\\d+\\.dat")).toList()) {
+                String name = file.getFileName().toString();
+                segments.put(Integer.parseInt(name.substring(8, name.length() - 4)), channel(file));
+            }
+        }
+        long position = segments.isEmpty() ? 0 : (long) segments.firstKey() * segmentSize;
+        Path heads = Path.of(directory, "heads.bin");
+        if (Files.exists(heads)) {
+            try {
+                position = Math.max(position, restoreHeads(Files.readAllBytes(heads)));
+            } catch (IOException e) {
+                log.warn("rescanning history segments, unreadable {}", heads, e);
+                series.clear();
+            }
+        }
+        writePosition = scan(position);
+        log.info("opened portfolio history of {} users at position {} in {} ms",
+                series.size(), writePosition, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        for (Map.Entry<Long, Series> entry : series.entrySet()) {
+            synchronized (entry.getValue()) {
+                if (entry.getValue().open.count() > 0) {
+                    seal(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        checkpoint();
+        for (FileChannel channel : segments.values()) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Appends one sample per user at {@code timestamp}, sealing the blocks
+     * that are full. Called by a single sampler.
+     */
+    public synchronized void record(long timestamp, PortfolioEngine portfolios) throws IOException {
+        int[] sealed = new int[1];
+        IOException[] failed = new IOException[1];
+        portfolios.forEach((userId, value) -> {
+            Series user = series.computeIfAbsent(userId, id -> new Series(-1));
+            synchronized (user) {
+                user.open.append(timestamp, value);
+                if (user.open.count() >= blockSamples && failed[0] == null) {
+                    try {
+                        seal(userId, user);
+                        sealed[0]++;
+                    } catch (IOException e) {
+                        failed[0] = e;
+                    }
+                }
+            }
+        });
+        if (failed[0] != null) {
+            throw failed[0];
+        }
+        if (sealed[0] > 0) {
+            checkpoint();
+            deleteExpired();
+        }
+    }
+
+    /**
+     * Visits the user's samples between {@code from} and {@code to}
+     * inclusive, oldest first.
+     */
+    public void read(long userId, long from, long to, SeriesBlock.Visitor visitor) throws IOException {
+        Series user = series.get(userId);
+        if (user == null) {
+            return;
+        }
+        byte[] open;
+        int openCount;
+        long position;
+        synchronized (user) {
+            open = user.open.toBytes();
+            openCount = user.open.count();
+            position = user.newest;
+        }
+        Deque<byte[]> blocks = new ArrayDeque<>();
+        Deque<Integer> counts = new ArrayDeque<>();
+        ByteBuffer header = ByteBuffer.allocate(HEADER + FIELDS);
+        while (position >= 0) {
+            FileChannel channel = segment((int) (position / segmentSize));
+            if (channel == null) {
+                break;
+            }
+            int offset = (int) (position % segmentSize);
+            header.clear();
+            try {
+                channel.read(header, offset);
+                long previous = header.getLong(HEADER + 8);
+                long first = header.getLong(HEADER + 16);
+                long last = header.getLong(HEADER + 24);
+                if (last < from) {
+                    break;
+                }
+                if (first <= to) {
+                    ByteBuffer payload = ByteBuffer.allocate(header.getInt(0) - FIELDS);
+                    channel.read(payload, offset + HEADER + FIELDS);
+                    blocks.push(payload.array());
+                    counts.push(header.getInt(HEADER + 32));
+                }
+                position = previous;
+            } catch (ClosedChannelException e) {
+                // deleted by retention while we read
+                break;
+            }
+        }
+        SeriesBlock.Visitor inRange = (timestamp, value) -> {
+            if (timestamp >= from && timestamp <= to) {
+                visitor.visit(timestamp, value);
+            }
+        };
+        while (!blocks.isEmpty()) {
+            SeriesBlock.decode(blocks.pop(), counts.pop(), inRange);
+        }
+        SeriesBlock.decode(open, openCount, inRange);
+    }
+
+    private void seal(long userId, Series user) throws IOException {
+        byte[] payload = user.open.toBytes();
+        int length = FIELDS + payload.length;
+        if (writePosition % segmentSize + HEADER + length > segmentSize) {
+            writePosition = (writePosition / segmentSize + 1) * segmentSize;
+        }
+        ByteBuffer record = ByteBuffer.allocate(HEADER + length);
+        record.putInt(length).putInt(0)
+                .putLong(userId)
+                .putLong(user.newest)
+                .putLong(user.open.firstTimestamp())
+                .putLong(user.open.lastTimestamp())
+                .putInt(user.open.count())
+                .put(payload);
+        crc.reset();
+        crc.update(record.array(), HEADER, length);
+        record.putInt(4, (int) crc.getValue());
+        record.flip();
+
+        int index = (int) (writePosition / segmentSize);
+        FileChannel channel = segment(index);
+        if (channel == null) {
+            channel = channel(Path.of(directory, String.format("segment-%08d.dat", index)));
+            synchronized (segments) {
+                segments.put(index, channel);
+            }
+        }
+        long offset = writePosition % segmentSize;
+        while (record.hasRemaining()) {
+            offset += channel.write(record, offset);
+        }
+        user.newest = writePosition;
+        user.open = new SeriesBlock();
+        writePosition += HEADER + length;
+    }
+
+    /**
+     * Reads records from {@code position} on, pointing each user at their
+     * newest block, and returns the position after the last intact one. A
+     * torn tail fails its checksum and is overwritten by the next seal.
+     */
+    private long scan(long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        while (true) {
+            FileChannel channel = segment((int) (position / segmentSize));
+            if (channel == null) {
+                return position;
+            }
+            int offset = (int) (position % segmentSize);
+            header.clear();
+            int length = offset + HEADER <= segmentSize && channel.read(header, offset) == HEADER
+                    ? header.getInt(0) : 0;
+            ByteBuffer body = length >= FIELDS && offset + HEADER + length <= channel.size()
+                    ? ByteBuffer.allocate(length) : null;
+            if (body != null) {
+                channel.read(body, offset + HEADER);
+                crc.reset();
+                crc.update(body.array());
+            }
+            if (body == null || (int) crc.getValue() != header.getInt(4)) {
+                // a segment rolls when the next record does not fit, so a later one means this one ended here
+                if (segment((int) (position / segmentSize) + 1) == null) {
+                    return position;
+                }
+                position = (position / segmentSize + 1) * segmentSize;
+                continue;
+            }
+            series.computeIfAbsent(body.getLong(0), id -> new Series(-1)).newest = position;
+            position += HEADER + length;
+        }
+    }
+
+    private void checkpoint() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + series.size() * 16);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeLong(writePosition);
+        out.writeInt(series.size());
+        for (Map.Entry<Long, Series> entry : series.entrySet()) {
+            out.writeLong(entry.getKey());
+            out.writeLong(entry.getValue().newest);
+        }
+        CRC32C checksum = new CRC32C();
+        checksum.update(bytes.toByteArray());
+        out.writeInt((int) checksum.getValue());
+
+        for (FileChannel channel : segmentChannels()) {
+            channel.force(false);
+        }
+        Path target = Path.of(directory, "heads.bin");
+        Path temp = Path.of(directory, "heads.bin.tmp");
+        Files.write(temp, bytes.toByteArray());
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private long restoreHeads(byte[] heads) throws IOException {
+        if (heads.length < 20) {
+            throw new IOException("truncated history heads");
+        }
+        CRC32C checksum = new CRC32C();
+        checksum.update(heads, 0, heads.length - 4);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(heads));
+        in.skipBytes(heads.length - 4);
+        if (in.readInt() != (int) checksum.getValue()) {
+            throw new IOException("history heads checksum mismatch");
+        }
+        in = new DataInputStream(new ByteArrayInputStream(heads, 0, heads.length - 4));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("unsupported history heads format");
+        }
+        long position = in.readLong();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            series.put(in.readLong(), new Series(in.readLong()));
+        }
+        return position;
+    }
+
+    private void deleteExpired() throws IOException {
+        FileTime cutoff = FileTime.fromMillis(System.currentTimeMillis() - retainDays * 86_400_000L);
+        int current = (int) (writePosition / segmentSize);
+        while (true) {
+            Map.Entry<Integer, FileChannel> oldest;
+            synchronized (segments) {
+                oldest = segments.firstEntry();
+            }
+            if (oldest == null) {
+                return;
+            }
+            Path file = Path.of(directory, String.format("segment-%08d.dat", oldest.getKey()));
+            if (oldest.getKey() >= current || Files.getLastModifiedTime(file).compareTo(cutoff) >= 0) {
+                return;
+            }
+            synchronized (segments) {
+                segments.remove(oldest.getKey());
+            }
+            oldest.getValue().close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private FileChannel segment(int index) {
+        synchronized (segments) {
+            return segments.get(index);
+        }
+    }
+
+    private Iterable<FileChannel> segmentChannels() {
+        synchronized (segments) {
+            return segments.values().stream().toList();
+        }
+    }
+
+    private static FileChannel channel(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static final class Series {
+        SeriesBlock open = new SeriesBlock();
+        long newest;
+
+        Series(long newest) {
+            this.newest = newest;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.jayanth.tradingplatform.engine;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * A user's holdings and their totals in cents, as of the latest fill and
+ * price tick.
+ */
+@Value
+public class PortfolioValue {
+
+    long marketValue;
+    long costBasis;
+    List<PositionValue> positions;
+
+    public long getUnrealizedPnl() {
+        return marketValue - costBasis;
+    }
+}
@@ -0,0 +1,17 @@
+package com.jayanth.tradingplatform.engine;
+
+import lombok.Value;
+
+/**
+ * One holding valued at the coin's current price. Quantity is in lots,
+ * prices and amounts in cents.
+ */
+@Value
+public class PositionValue {
+
+    String coinId;
+    long quantity;
+    long price;
+    long marketValue;
+    long costBasis;
+}
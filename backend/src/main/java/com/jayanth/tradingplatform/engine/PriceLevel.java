@@ -0,0 +1,65 @@
+package com.jayanth.tradingplatform.engine;
+
+/**
+ * FIFO queue of the orders resting at one price tick.
+ */
+public class PriceLevel {
+
+    final long price;
+    BookOrder head;
+    BookOrder tail;
+    long totalQuantity;
+    int orderCount;
+
+    PriceLevel(long price) {
+        this.price = price;
+    }
+
+    void add(BookOrder order) {
+        order.level = this;
+        order.prev = tail;
+        order.next = null;
+        if (tail == null) {
+            head = order;
+        } else {
+            tail.next = order;
+        }
+        tail = order;
+        totalQuantity += order.quantity;
+        orderCount++;
+    }
+
+    void remove(BookOrder order) {
+        if (order.prev == null) {
+            head = order.next;
+        } else {
+            order.prev.next = order.next;
+        }
+        if (order.next == null) {
+            tail = order.prev;
+        } else {
+            order.next.prev = order.prev;
+        }
+        totalQuantity -= order.quantity;
+        orderCount--;
+        order.level = null;
+        order.prev = null;
+        order.next = null;
+    }
+
+    boolean isEmpty() {
+        return head == null;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public int getOrderCount() {
+        return orderCount;
+    }
+}
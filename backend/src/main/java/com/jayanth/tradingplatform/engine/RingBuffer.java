@@ -0,0 +1,94 @@
+package com.jayanth.tradingplatform.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Pre-allocated multi-producer, single-consumer ring of reusable slots.
+ * Producers claim a sequence with {@link #next()}, fill the slot returned by
+ * {@link #get(long)} and {@link #publish(long)} it; one consumer thread drains
+ * published slots in order with {@link #drain(Consumer)}.
+ */
+public class RingBuffer<E> {
+
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final Object[] entries;
+    private final int[] available;
+    private final int mask;
+    private final int indexShift;
+
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final AtomicLong consumed = new AtomicLong(-1);
+
+    public RingBuffer(int size, Supplier<E> factory) {
+        if (Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("ring buffer size must be a power of two");
+        }
+        entries = new Object[size];
+        for (int i = 0; i < size; i++) {
+            entries[i] = factory.get();
+        }
+        available = new int[size];
+        Arrays.fill(available, -1);
+        mask = size - 1;
+        indexShift = Integer.numberOfTrailingZeros(size);
+    }
+
+    /**
+     * Claims the next slot, waiting while the consumer is a full lap behind.
+     */
+    public long next() {
+        long sequence = claimed.incrementAndGet();
+        long wrapPoint = sequence - entries.length;
+        int spins = 0;
+        while (wrapPoint > consumed.get()) {
+            if (++spins < 100) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(1_000);
+            }
+        }
+        return sequence;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) entries[(int) sequence & mask];
+    }
+
+    public void publish(long sequence) {
+        AVAILABLE.setRelease(available, (int) sequence & mask, (int) (sequence >>> indexShift));
+    }
+
+    private boolean isAvailable(long sequence) {
+        return (int) AVAILABLE.getAcquire(available, (int) sequence & mask) == (int) (sequence >>> indexShift);
+    }
+
+    /**
+     * Hands every contiguous published slot to {@code handler} and returns how
+     * many were consumed. Must only be called from the consumer thread.
+     */
+    public int drain(Consumer<E> handler) {
+        long current = consumed.get();
+        long next = current + 1;
+        while (isAvailable(next)) {
+            handler.accept(get(next));
+            next++;
+        }
+        int count = (int) (next - current - 1);
+        if (count > 0) {
+            consumed.lazySet(next - 1);
+        }
+        return count;
+    }
+
+    public int capacity() {
+        return entries.length;
+    }
+}
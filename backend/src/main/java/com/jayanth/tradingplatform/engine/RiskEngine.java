@@ -0,0 +1,487 @@
+package com.jayanth.tradingplatform.engine;
+
+import com.jayanth.tradingplatform.domain.HoldStatus;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.domain.Quantity;
+import com.jayanth.tradingplatform.repository.AssetRepository;
+import com.jayanth.tradingplatform.repository.BalanceHoldRepository;
+import com.jayanth.tradingplatform.repository.WalletRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-trade risk state held in memory: cash and holdings per user, each split
+ * into a total and the part reserved by resting limit orders, so an order is
+ * checked in O(1) without reading the database. Cash can also be held for a
+ * withdrawal; holds are indexed by id and mirrored in the balance hold table.
+ * <p>
+ * The tables are a projection of this state. It is loaded once the journal
+ * projector has caught up after a restart, and until then every call waits.
+ * Callers change it before the rows they write. If their transaction rolls
+ * back, the change is undone.
+ */
+@Slf4j
+@Component
+public class RiskEngine {
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private BalanceHoldRepository balanceHoldRepository;
+
+    @Autowired
+    private MatchingEngine matchingEngine;
+
+    @Autowired
+    private TriggerEngine triggerEngine;
+
+    @Value("${trading.risk.load-timeout-ms:30000}")
+    private long loadTimeoutMs;
+
+    private final ConcurrentMap<Long, Account> accounts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Reservation> reservations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Hold> holds = new ConcurrentHashMap<>();
+    private final CountDownLatch loaded = new CountDownLatch(1);
+
+    /**
+     * Loads balances, holdings and active holds from the tables and
+     * re-reserves for every order resting in the recovered books or waiting
+     * on a trigger. Must run
+     * after the projector has applied the whole journal and before any new
+     * order is accepted.
+     */
+    public void load() {
+        if (loaded.getCount() == 0) {
+            return;
+        }
+        long started = System.nanoTime();
+        accounts.clear();
+        reservations.clear();
+        holds.clear();
+        for (Object[] row : walletRepository.findAllBalances()) {
+            Money balance = (Money) row[1];
+            account((Long) row[0]).cash = balance == null ? 0 : balance.getUnits();
+        }
+        for (Object[] row : assetRepository.findAllHoldings()) {
+            Quantity quantity = (Quantity) row[2];
+            account((Long) row[0]).holding((String) row[1]).lots = quantity == null ? 0 : quantity.getLots();
+        }
+        for (Object[] row : balanceHoldRepository.findAllByStatus(HoldStatus.ACTIVE)) {
+            Hold hold = new Hold((Long) row[1], ((Money) row[2]).getUnits());
+            account(hold.userId).heldCash += hold.amount;
+            holds.put((Long) row[0], hold);
+        }
+        for (OrderBook book : matchingEngine.getBooks()) {
+            synchronized (book) {
+                for (BookOrder order : book.restingOrders()) {
+                    restore(order.orderId, new Reservation(order.userId, book.getCoinId(),
+                            order.buy, order.price, order.quantity));
+                }
+            }
+        }
+        for (TriggerBook book : triggerEngine.getBooks()) {
+            for (TriggerOrder order : triggerEngine.pendingOrders(book.getCoinId())) {
+                restore(order.orderId, new Reservation(order.userId, book.getCoinId(),
+                        order.buy, order.triggerPrice, order.quantity));
+            }
+        }
+        loaded.countDown();
+        log.info("loaded risk state for {} accounts, {} open orders and {} holds in {} ms",
+                accounts.size(), reservations.size(), holds.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void restore(long orderId, Reservation reservation) {
+        Account account = account(reservation.userId);
+        if (reservation.buy) {
+            account.reservedCash += reservation.amount;
+        } else {
+            account.holding(reservation.coinId).reservedLots += reservation.amount;
+        }
+        reservations.put(orderId, reservation);
+    }
+
+    /**
+     * Reserves what a limit or trigger order may spend: cash at its limit or
+     * trigger price for a buy, coins for a sell.
+     */
+    public void reserve(long orderId, long userId, String coinId, OrderType side,
+                        long price, long quantity) throws Exception {
+        Account account = loadedAccount(userId);
+        Reservation reservation = new Reservation(userId, coinId, side == OrderType.BUY, price, quantity);
+        synchronized (account) {
+            if (reservation.buy) {
+                if (account.available() < reservation.amount) {
+                    throw new Exception("Insufficient funds for this transaction");
+                }
+                account.reservedCash += reservation.amount;
+            } else {
+                Holding holding = account.holdings.get(coinId);
+                if (holding == null || holding.lots == 0) {
+                    throw new Exception("Asset Not found");
+                }
+                if (holding.lots - holding.reservedLots < quantity) {
+                    throw new Exception("Insufficient quantity to sell");
+                }
+                holding.reservedLots += quantity;
+            }
+        }
+        reservations.put(orderId, reservation);
+    }
+
+    /**
+     * Drops whatever an order still holds, on cancel or expiry.
+     */
+    public void release(long orderId) {
+        Reservation reservation = reservations.remove(orderId);
+        if (reservation == null) {
+            return;
+        }
+        Account account = accounts.get(reservation.userId);
+        synchronized (account) {
+            if (reservation.buy) {
+                account.reservedCash -= reservation.amount;
+            } else {
+                account.holding(reservation.coinId).reservedLots -= reservation.amount;
+            }
+        }
+    }
+
+    /**
+     * Moves cash and coins for an execution between two limit orders and
+     * releases the matching part of both reservations.
+     */
+    public void settle(TradeEvent trade) {
+        long notional = Money.times(trade.getPrice(), trade.getQuantity());
+        String coinId = trade.getCoinId();
+
+        Account buyer = account(trade.getBuyerId());
+        synchronized (buyer) {
+            buyer.reservedCash -= consume(trade.getBuyOrderId(), trade.getQuantity());
+            buyer.cash -= notional;
+            buyer.holding(coinId).lots += trade.getQuantity();
+        }
+
+        Account seller = account(trade.getSellerId());
+        synchronized (seller) {
+            Holding holding = seller.holding(coinId);
+            holding.reservedLots -= consume(trade.getSellOrderId(), trade.getQuantity());
+            holding.lots -= trade.getQuantity();
+            seller.cash += notional;
+            writeOffDust(holding, trade.getPrice());
+        }
+    }
+
+    /**
+     * Checks and applies a market order filled in full at {@code price}.
+     */
+    public void executeMarket(long userId, String coinId, OrderType side,
+                              long price, long quantity) throws Exception {
+        Account account = loadedAccount(userId);
+        long notional = Money.times(price, quantity);
+        synchronized (account) {
+            Holding holding = account.holdings.get(coinId);
+            if (side == OrderType.BUY) {
+                if (account.available() < notional) {
+                    throw new Exception("Insufficient funds for this transaction");
+                }
+                account.cash -= notional;
+                account.holding(coinId).lots += quantity;
+            } else {
+                if (holding == null || holding.lots == 0) {
+                    throw new Exception("Asset Not found");
+                }
+                if (holding.lots - holding.reservedLots < quantity) {
+                    throw new Exception("Insufficient quantity to sell");
+                }
+                holding.lots -= quantity;
+                account.cash += notional;
+                writeOffDust(holding, price);
+            }
+        }
+    }
+
+    /**
+     * Adds {@code units} cents to the user's cash; a debit must be covered by
+     * cash neither reserved nor held.
+     */
+    public void adjustCash(long userId, long units) throws Exception {
+        Account account = loadedAccount(userId);
+        synchronized (account) {
+            if (units < 0 && account.available() < -units) {
+                throw new Exception("insufficient balance");
+            }
+            account.cash += units;
+        }
+        undoOnRollback(() -> {
+            synchronized (account) {
+                account.cash -= units;
+            }
+        });
+    }
+
+    /**
+     * Applies transfers of {@code units[i]} cents from {@code senders[i]} to
+     * {@code recipients[i]} in order, each only if its sender can cover it at
+     * that point, and returns which were applied. Entries without a positive
+     * amount are skipped untouched. The batch is undone as a whole if the
+     * caller's transaction rolls back.
+     */
+    public boolean[] transferCash(long[] senders, long[] recipients, long[] units) throws Exception {
+        awaitLoaded();
+        boolean[] applied = new boolean[units.length];
+        Map<Long, Long> net = new HashMap<>();
+        for (int i = 0; i < units.length; i++) {
+            if (units[i] <= 0) {
+                continue;
+            }
+            Account sender = account(senders[i]);
+            synchronized (sender) {
+                if (sender.available() < units[i]) {
+                    continue;
+                }
+                sender.cash -= units[i];
+            }
+            Account recipient = account(recipients[i]);
+            synchronized (recipient) {
+                recipient.cash += units[i];
+            }
+            net.merge(senders[i], -units[i], Long::sum);
+            net.merge(recipients[i], units[i], Long::sum);
+            applied[i] = true;
+        }
+        undoOnRollback(() -> net.forEach((userId, delta) -> {
+            Account account = account(userId);
+            synchronized (account) {
+                account.cash -= delta;
+            }
+        }));
+        return applied;
+    }
+
+    /**
+     * Holds {@code units} cents of the user's spendable cash under
+     * {@code holdId} until the hold is captured or released.
+     */
+    public void hold(long holdId, long userId, long units) throws Exception {
+        Account account = loadedAccount(userId);
+        Hold hold = new Hold(userId, units);
+        synchronized (account) {
+            if (account.available() < units) {
+                throw new Exception("insufficient balance");
+            }
+            account.heldCash += units;
+        }
+        holds.put(holdId, hold);
+        undoOnRollback(() -> {
+            holds.remove(holdId);
+            synchronized (account) {
+                account.heldCash -= units;
+            }
+        });
+    }
+
+    /**
+     * Returns held cash to the spendable part. False if the hold is not
+     * active, e.g. because it was settled concurrently.
+     */
+    public boolean releaseHold(long holdId) {
+        return settleHold(holdId, false);
+    }
+
+    /**
+     * Takes held cash out of the user's cash. False if the hold is not
+     * active.
+     */
+    public boolean captureHold(long holdId) {
+        return settleHold(holdId, true);
+    }
+
+    private boolean settleHold(long holdId, boolean capture) {
+        Hold hold = holds.remove(holdId);
+        if (hold == null) {
+            return false;
+        }
+        Account account = account(hold.userId);
+        synchronized (account) {
+            account.heldCash -= hold.amount;
+            if (capture) {
+                account.cash -= hold.amount;
+            }
+        }
+        undoOnRollback(() -> {
+            synchronized (account) {
+                account.heldCash += hold.amount;
+                if (capture) {
+                    account.cash += hold.amount;
+                }
+            }
+            holds.put(holdId, hold);
+        });
+        return true;
+    }
+
+    public Money getAvailableCash(long userId) throws Exception {
+        Account account = loadedAccount(userId);
+        synchronized (account) {
+            return Money.ofUnits(account.available());
+        }
+    }
+
+    public CashBalance getCashBalance(long userId) throws Exception {
+        Account account = loadedAccount(userId);
+        synchronized (account) {
+            return new CashBalance(account.cash, account.reservedCash, account.heldCash);
+        }
+    }
+
+    /**
+     * Whether open sell orders reserve any of the user's lots of the coin.
+     */
+    public boolean hasReservedLots(long userId, String coinId) {
+        Account account = accounts.get(userId);
+        if (account == null) {
+            return false;
+        }
+        synchronized (account) {
+            Holding holding = account.holdings.get(coinId);
+            return holding != null && holding.reservedLots > 0;
+        }
+    }
+
+    public Quantity getAvailableQuantity(long userId, String coinId) throws Exception {
+        Account account = loadedAccount(userId);
+        synchronized (account) {
+            Holding holding = account.holdings.get(coinId);
+            return holding == null ? Quantity.ZERO : Quantity.ofLots(holding.lots - holding.reservedLots);
+        }
+    }
+
+    /**
+     * Reduces a reservation by a fill of {@code quantity} and returns the cash
+     * or lots released. The last fill releases the remainder so rounding never
+     * leaves cents behind.
+     */
+    private long consume(long orderId, long quantity) {
+        Reservation reservation = reservations.get(orderId);
+        if (reservation == null) {
+            return 0;
+        }
+        reservation.quantity -= quantity;
+        long released;
+        if (reservation.quantity <= 0) {
+            released = reservation.amount;
+            reservations.remove(orderId);
+        } else {
+            released = reservation.buy
+                    ? Math.min(reservation.amount, Money.times(reservation.price, quantity))
+                    : quantity;
+        }
+        reservation.amount -= released;
+        return released;
+    }
+
+    /**
+     * Mirrors the projector, which deletes an asset once it is worth one
+     * currency unit ({@link Money#ONE}) or less after a sale, unless open
+     * sell orders still reserve some of its lots. Those lots stay until the
+     * orders fill or are cancelled.
+     */
+    private void writeOffDust(Holding holding, long price) {
+        if (holding.reservedLots == 0 && Money.times(price, holding.lots) <= Money.ONE) {
+            holding.lots = 0;
+        }
+    }
+
+    private Account loadedAccount(long userId) throws Exception {
+        awaitLoaded();
+        return account(userId);
+    }
+
+    private void awaitLoaded() throws Exception {
+        if (!loaded.await(loadTimeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new Exception("risk engine is still loading, try again");
+        }
+    }
+
+    private Account account(long userId) {
+        return accounts.computeIfAbsent(userId, id -> new Account());
+    }
+
+    private void undoOnRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    undo.run();
+                }
+            }
+        });
+    }
+
+    private static final class Account {
+        long cash;
+        long reservedCash;
+        long heldCash;
+        final Map<String, Holding> holdings = new HashMap<>();
+
+        long available() {
+            return cash - reservedCash - heldCash;
+        }
+
+        Holding holding(String coinId) {
+            return holdings.computeIfAbsent(coinId, id -> new Holding());
+        }
+    }
+
+    private static final class Holding {
+        long lots;
+        long reservedLots;
+    }
+
+    private static final class Hold {
+        final long userId;
+        final long amount;
+
+        Hold(long userId, long amount) {
+            this.userId = userId;
+            this.amount = amount;
+        }
+    }
+
+    private static final class Reservation {
+        final long userId;
+        final String coinId;
+        final boolean buy;
+        final long price;
+        long quantity;
+        long amount;
+
+        Reservation(long userId, String coinId, boolean buy, long price, long quantity) {
+            this.userId = userId;
+            this.coinId = coinId;
+            this.buy = buy;
+            this.price = price;
+            this.quantity = quantity;
+            this.amount = buy ? Money.times(price, quantity) : quantity;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.jayanth.tradingplatform.engine;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One thread draining a {@link RingBuffer} of commands in submission order.
+ * The sequencers pin each key to a lane, so work for one key never runs
+ * concurrently and needs no further locking.
+ */
+final class SequencerLane {
+
+    private final RingBuffer<OrderCommand> ring;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    SequencerLane(String name, int bufferSize) {
+        ring = new RingBuffer<>(bufferSize, OrderCommand::new);
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    void join(long millis) throws InterruptedException {
+        thread.join(millis);
+    }
+
+    boolean isCurrent() {
+        return Thread.currentThread() == thread;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        if (!running) {
+            future.completeExceptionally(new IllegalStateException(thread.getName() + " is stopped"));
+            return (CompletableFuture<T>) future;
+        }
+        long sequence = ring.next();
+        OrderCommand command = ring.get(sequence);
+        command.task = (Callable<Object>) task;
+        command.future = future;
+        ring.publish(sequence);
+        return (CompletableFuture<T>) future;
+    }
+
+    private void run() {
+        int idle = 0;
+        while (running || ring.drain(SequencerLane::execute) > 0) {
+            if (ring.drain(SequencerLane::execute) > 0) {
+                idle = 0;
+            } else if (++idle < 200) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(50_000);
+            }
+        }
+    }
+
+    private static void execute(OrderCommand command) {
+        CompletableFuture<Object> future = command.future;
+        Callable<Object> task = command.task;
+        command.clear();
+        try {
+            future.complete(task.call());
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        }
+    }
+}
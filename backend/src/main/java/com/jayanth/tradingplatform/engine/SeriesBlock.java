@@ -0,0 +1,194 @@
+package com.jayanth.tradingplatform.engine;
+
+import java.util.Arrays;
+
+/**
+ * A run of {@code (timestamp, value)} samples compressed the Gorilla way.
+ * The first sample is stored raw. After that, each timestamp is the
+ * delta-of-delta to the one before, which is a single zero bit at a steady
+ * sampling rate. Each value is its double bits XORed with the previous
+ * value's. An unchanged value is one zero bit; otherwise only the bits
+ * between the leading and trailing zeros are written, reusing the previous
+ * window when they fit in it.
+ * <p>
+ * Values are whole cents held as doubles, exact below 2<sup>53</sup>. Not
+ * thread-safe.
+ */
+public final class SeriesBlock {
+
+    public interface Visitor {
+
+        void visit(long timestamp, long value);
+    }
+
+    private byte[] bits = new byte[64];
+    private long length;
+    private int count;
+    private long firstTimestamp;
+    private long lastTimestamp;
+    private long lastDelta;
+    private long lastBits;
+    private int leading = -1;
+    private int trailing;
+
+    public int count() {
+        return count;
+    }
+
+    public long firstTimestamp() {
+        return firstTimestamp;
+    }
+
+    public long lastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public void append(long timestamp, long value) {
+        long valueBits = Double.doubleToRawLongBits(value);
+        if (count == 0) {
+            write(timestamp, 64);
+            write(valueBits, 64);
+            firstTimestamp = timestamp;
+        } else {
+            long delta = timestamp - lastTimestamp;
+            writeDeltaOfDelta(delta - lastDelta);
+            lastDelta = delta;
+            writeXor(valueBits ^ lastBits);
+        }
+        lastTimestamp = timestamp;
+        lastBits = valueBits;
+        count++;
+    }
+
+    public byte[] toBytes() {
+        return Arrays.copyOf(bits, (int) ((length + 7) >>> 3));
+    }
+
+    private void writeDeltaOfDelta(long dod) {
+        if (dod == 0) {
+            write(0, 1);
+        } else if (dod >= -64 && dod <= 63) {
+            write(0b10, 2);
+            write(dod, 7);
+        } else if (dod >= -256 && dod <= 255) {
+            write(0b110, 3);
+            write(dod, 9);
+        } else if (dod >= -2048 && dod <= 2047) {
+            write(0b1110, 4);
+            write(dod, 12);
+        } else {
+            write(0b1111, 4);
+            write(dod, 64);
+        }
+    }
+
+    private void writeXor(long xor) {
+        if (xor == 0) {
+            write(0, 1);
+            return;
+        }
+        int lead = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trail = Long.numberOfTrailingZeros(xor);
+        if (leading >= 0 && lead >= leading && trail >= trailing) {
+            write(0b10, 2);
+            write(xor >>> trailing, 64 - leading - trailing);
+            return;
+        }
+        int meaningful = 64 - lead - trail;
+        write(0b11, 2);
+        write(lead, 5);
+        // 64 meaningful bits does not fit in six, and 0 never occurs
+        write(meaningful & 63, 6);
+        write(xor >>> trail, meaningful);
+        leading = lead;
+        trailing = trail;
+    }
+
+    private void write(long value, int n) {
+        if (length + n > (long) bits.length << 3) {
+            bits = Arrays.copyOf(bits, Math.max(bits.length * 2, (int) ((length + n + 7) >>> 3)));
+        }
+        int remaining = n;
+        while (remaining > 0) {
+            int free = 8 - (int) (length & 7);
+            int take = Math.min(free, remaining);
+            int chunk = (int) (value >>> (remaining - take)) & ((1 << take) - 1);
+            bits[(int) (length >>> 3)] |= (byte) (chunk << (free - take));
+            length += take;
+            remaining -= take;
+        }
+    }
+
+    /**
+     * Replays the {@code count} samples encoded in {@code data}, oldest first.
+     */
+    public static void decode(byte[] data, int count, Visitor visitor) {
+        if (count == 0) {
+            return;
+        }
+        Reader in = new Reader(data);
+        long timestamp = in.read(64);
+        long valueBits = in.read(64);
+        visitor.visit(timestamp, (long) Double.longBitsToDouble(valueBits));
+        long delta = 0;
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 1; i < count; i++) {
+            delta += readDeltaOfDelta(in);
+            timestamp += delta;
+            if (in.read(1) == 1) {
+                if (in.read(1) == 1) {
+                    leading = (int) in.read(5);
+                    int meaningful = (int) in.read(6);
+                    trailing = 64 - leading - (meaningful == 0 ? 64 : meaningful);
+                }
+                valueBits ^= in.read(64 - leading - trailing) << trailing;
+            }
+            visitor.visit(timestamp, (long) Double.longBitsToDouble(valueBits));
+        }
+    }
+
+    private static long readDeltaOfDelta(Reader in) {
+        if (in.read(1) == 0) {
+            return 0;
+        }
+        if (in.read(1) == 0) {
+            return in.readSigned(7);
+        }
+        if (in.read(1) == 0) {
+            return in.readSigned(9);
+        }
+        if (in.read(1) == 0) {
+            return in.readSigned(12);
+        }
+        return in.read(64);
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private long position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        long read(int n) {
+            long value = 0;
+            int remaining = n;
+            while (remaining > 0) {
+                int available = 8 - (int) (position & 7);
+                int take = Math.min(available, remaining);
+                int current = data[(int) (position >>> 3)] & 0xFF;
+                int chunk = (current >>> (available - take)) & ((1 << take) - 1);
+                value = (value << take) | chunk;
+                position += take;
+                remaining -= take;
+            }
+            return value;
+        }
+
+        long readSigned(int n) {
+            return read(n) << (64 - n) >> (64 - n);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.jayanth.tradingplatform.engine;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Periodically writes a compact binary snapshot of the in-memory trading state
+ * and, on startup, restores the newest valid snapshot and replays the journal
+ * tail written after it.
+ * <p>
+ * Layout: {@code [int magic][int version][long journalPosition][int bookCount]
+ * [books...][int crc32c]}, where the checksum covers everything before it.
+ */
+@Slf4j
+@Component
+public class SnapshotManager {
+
+    private static final int MAGIC = 0x54505331; // "TPS1"
+    private static final int VERSION = 1;
+    private static final int REPLAY_BATCH = 4096;
+
+    @Autowired
+    private MatchingEngine matchingEngine;
+
+    @Autowired
+    private OrderJournal orderJournal;
+
+    @Autowired
+    private OrderSequencer orderSequencer;
+
+    @Value("${trading.snapshot.dir:snapshots}")
+    private String directory;
+
+    @Value("${trading.snapshot.retain:2}")
+    private int retain;
+
+    private volatile long lastSnapshotPosition = -1;
+
+    @PostConstruct
+    public void recover() throws IOException {
+        long started = System.nanoTime();
+        Files.createDirectories(Path.of(directory));
+
+        long position = 0;
+        for (Path file : snapshotFiles()) {
+            try {
+                position = restore(Files.readAllBytes(file));
+                lastSnapshotPosition = position;
+                break;
+            } catch (IOException e) {
+                log.warn("skipping unreadable snapshot {}", file, e);
+            }
+        }
+        long replayed = replay(position);
+
+        log.info("recovered {} books from journal position {} and {} replayed events in {} ms",
+                matchingEngine.getBooks().size(), position, replayed,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private long restore(byte[] snapshot) throws IOException {
+        if (snapshot.length < 4) {
+            throw new IOException("truncated snapshot");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(snapshot, 0, snapshot.length - 4);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot));
+        in.skipBytes(snapshot.length - 4);
+        if (in.readInt() != (int) crc.getValue()) {
+            throw new IOException("snapshot checksum mismatch");
+        }
+
+        in = new DataInputStream(new ByteArrayInputStream(snapshot, 0, snapshot.length - 4));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("unsupported snapshot format");
+        }
+        long position = in.readLong();
+        int bookCount = in.readInt();
+        List<OrderBook> books = new ArrayList<>(bookCount);
+        for (int i = 0; i < bookCount; i++) {
+            books.add(OrderBook.readFrom(in));
+        }
+        matchingEngine.restore(books);
+        return position;
+    }
+
+    /**
+     * Re-applies journal events after {@code position}. Matching is
+     * deterministic, so resubmitting accepted orders rebuilds the book exactly
+     * and regenerates the trades that already follow them in the journal.
+     * Cancels and expiries take their orders back off the book.
+     */
+    long replay(long position) {
+        List<Object> batch = new ArrayList<>(REPLAY_BATCH);
+        long replayed = 0;
+        while (true) {
+            long next = orderJournal.read(position, REPLAY_BATCH, batch);
+            if (next == position) {
+                return replayed;
+            }
+            for (Object event : batch) {
+                if (event instanceof OrderAccepted accepted) {
+                    matchingEngine.submit(accepted.getCoinId(), accepted.getOrderId(), accepted.getUserId(),
+                            accepted.getSide(), accepted.getPrice(), accepted.getQuantity(),
+                            accepted.getTimeInForce());
+                } else if (event instanceof OrderCancelled cancelled) {
+                    matchingEngine.cancel(cancelled.getCoinId(), cancelled.getOrderId());
+                }
+            }
+            replayed += batch.size();
+            batch.clear();
+            position = next;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${trading.snapshot.interval-ms:60000}",
+            initialDelayString = "${trading.snapshot.interval-ms:60000}")
+    public void scheduledSnapshot() {
+        try {
+            snapshot();
+        } catch (Exception e) {
+            log.error("failed to write snapshot", e);
+        }
+    }
+
+    public void snapshot() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        long[] position = new long[1];
+
+        // books and journal position must describe the same instant
+        orderSequencer.runExclusive(() -> {
+            try {
+                position[0] = orderJournal.getWritePosition();
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(position[0]);
+                out.writeInt(matchingEngine.getBooks().size());
+                for (OrderBook book : matchingEngine.getBooks()) {
+                    book.writeTo(out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        if (position[0] == lastSnapshotPosition) {
+            return;
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+
+        // a snapshot ahead of the durable journal would hold orders a crash never journalled
+        orderJournal.awaitDurable(position[0]);
+        Path target = Path.of(directory, String.format("snapshot-%020d.bin", position[0]));
+        Path temp = Path.of(directory, target.getFileName() + ".tmp");
+        Files.write(temp, bytes.toByteArray());
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        lastSnapshotPosition = position[0];
+
+        List<Path> files = snapshotFiles();
+        for (int i = retain; i < files.size(); i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    /**
+     * Snapshot files, newest first.
+     */
+    private List<Path> snapshotFiles() throws IOException {
+        try (Stream<Path> list = Files.list(Path.of(directory))) {
+            return list.filter(p -> p.getFileName().toString().matches("snapshot-\\d+\\.bin"))
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .toList();
+        }
+    }
+}
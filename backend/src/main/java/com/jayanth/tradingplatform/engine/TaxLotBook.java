@@ -0,0 +1,199 @@
+package com.jayanth.tradingplatform.engine;
+
+import com.jayanth.tradingplatform.domain.CostBasisMethod;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.domain.Quantity;
+import com.jayanth.tradingplatform.model.Coin;
+import com.jayanth.tradingplatform.model.TaxLot;
+import com.jayanth.tradingplatform.model.User;
+import com.jayanth.tradingplatform.repository.OrderRepository;
+import com.jayanth.tradingplatform.repository.TaxLotRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Open tax lots per user and coin, held as {@link LotDeque}s loaded from the
+ * lot table on first use. Only the journal projector thread touches it: fills
+ * change the deques as they are projected and the rows they changed are
+ * written by {@link #flush()} in the same transaction as the batch, new lots
+ * as batched inserts and closed ones as a single delete.
+ */
+@Component
+public class TaxLotBook {
+
+    private static final int DELETE_CHUNK = 1000;
+
+    @Autowired
+    private TaxLotRepository taxLotRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${trading.lots.cache-size:100000}")
+    private int cacheSize;
+
+    private final Map<String, LotDeque> deques = new HashMap<>();
+    private final Map<Long, TaxLot> inserted = new LinkedHashMap<>();
+    private final Map<Long, long[]> updated = new HashMap<>();
+    private final List<Long> removed = new ArrayList<>();
+
+    private final LotDeque.Listener changes = new LotDeque.Listener() {
+        @Override
+        public void updated(long id, long quantity, long cost) {
+            TaxLot lot = inserted.get(id);
+            if (lot != null) {
+                lot.setQuantity(Quantity.ofLots(quantity));
+                lot.setCost(Money.ofUnits(cost));
+            } else {
+                updated.put(id, new long[]{quantity, cost});
+            }
+        }
+
+        @Override
+        public void removed(long id) {
+            if (inserted.remove(id) == null) {
+                updated.remove(id);
+                removed.add(id);
+            }
+        }
+    };
+
+    /**
+     * Opens a lot for a buy fill, under the fill's id.
+     */
+    public void buy(long userId, String coinId, long lotId, long quantity, long cost) {
+        deque(userId, coinId).addLast(lotId, quantity, cost);
+        TaxLot lot = new TaxLot();
+        lot.setId(lotId);
+        lot.setUser(entityManager.getReference(User.class, userId));
+        lot.setCoin(entityManager.getReference(Coin.class, coinId));
+        lot.setQuantity(Quantity.ofLots(quantity));
+        lot.setCost(Money.ofUnits(cost));
+        inserted.put(lotId, lot);
+    }
+
+    /**
+     * Takes a sell fill out of the user's lots by {@code method} and returns
+     * the cost of what it sold. Any part not covered by lots, e.g. of a
+     * holding bought before lots were tracked, is costed at
+     * {@code fallbackPrice}.
+     */
+    public long sell(long userId, String coinId, CostBasisMethod method, long quantity, long fallbackPrice) {
+        LotDeque deque = deque(userId, coinId);
+        long open = deque.quantity();
+        long cost = deque.sell(method == null ? CostBasisMethod.FIFO : method, quantity, changes);
+        long uncovered = quantity - (open - deque.quantity());
+        return uncovered > 0 ? cost + Money.times(fallbackPrice, uncovered) : cost;
+    }
+
+    /**
+     * Writes the lots changed since the last flush.
+     */
+    public void flush() {
+        for (TaxLot lot : inserted.values()) {
+            entityManager.persist(lot);
+        }
+        for (Map.Entry<Long, long[]> entry : updated.entrySet()) {
+            long[] lot = entry.getValue();
+            taxLotRepository.updateLot(entry.getKey(), Quantity.ofLots(lot[0]).toBigDecimal(),
+                    Money.ofUnits(lot[1]).toBigDecimal());
+        }
+        for (int from = 0; from < removed.size(); from += DELETE_CHUNK) {
+            taxLotRepository.deleteLots(removed.subList(from, Math.min(from + DELETE_CHUNK, removed.size())));
+        }
+        clearPending();
+        if (deques.size() > cacheSize) {
+            deques.clear();
+        }
+    }
+
+    /**
+     * Forgets everything not yet committed, after the batch it belonged to
+     * rolled back. Deques are reloaded from the table on next use.
+     */
+    public void discard() {
+        clearPending();
+        deques.clear();
+    }
+
+    /**
+     * Rebuilds the user's lots by {@code method} in one pass over their
+     * fills, oldest first, and replaces the stored ones. Must run in a
+     * transaction on the projector thread with nothing pending.
+     */
+    public int rebuild(long userId, CostBasisMethod method) {
+        Map<String, LotDeque> rebuilt = new HashMap<>();
+        LotDeque.Listener ignore = new LotDeque.Listener() {
+            @Override
+            public void updated(long id, long quantity, long cost) {
+            }
+
+            @Override
+            public void removed(long id) {
+            }
+        };
+        try (Stream<Object[]> fills = orderRepository.streamFills(userId)) {
+            Iterator<Object[]> rows = fills.iterator();
+            while (rows.hasNext()) {
+                Object[] row = rows.next();
+                LotDeque deque = rebuilt.computeIfAbsent((String) row[1], id -> new LotDeque());
+                long quantity = ((Quantity) row[3]).getLots();
+                if (row[2] == OrderType.BUY) {
+                    deque.addLast((Long) row[0], quantity, ((Money) row[4]).getUnits());
+                } else {
+                    deque.sell(method == null ? CostBasisMethod.FIFO : method, quantity, ignore);
+                }
+            }
+        }
+        taxLotRepository.deleteUserLots(userId);
+        int count = 0;
+        for (Map.Entry<String, LotDeque> entry : rebuilt.entrySet()) {
+            LotDeque deque = entry.getValue();
+            for (int i = 0; i < deque.size(); i++) {
+                TaxLot lot = new TaxLot();
+                lot.setId(deque.id(i));
+                lot.setUser(entityManager.getReference(User.class, userId));
+                lot.setCoin(entityManager.getReference(Coin.class, entry.getKey()));
+                lot.setQuantity(Quantity.ofLots(deque.quantity(i)));
+                lot.setCost(Money.ofUnits(deque.cost(i)));
+                entityManager.persist(lot);
+                count++;
+            }
+        }
+        // the committed rows are loaded again on next use
+        deques.keySet().removeIf(key -> key.startsWith(userId + ":"));
+        return count;
+    }
+
+    private LotDeque deque(long userId, String coinId) {
+        return deques.computeIfAbsent(userId + ":" + coinId, key -> {
+            List<Object[]> rows = taxLotRepository.findLots(userId, coinId);
+            LotDeque deque = new LotDeque(rows.size() + 1);
+            for (Object[] row : rows) {
+                deque.addLast((Long) row[0], ((Quantity) row[1]).getLots(), ((Money) row[2]).getUnits());
+            }
+            return deque;
+        });
+    }
+
+    private void clearPending() {
+        inserted.clear();
+        updated.clear();
+        removed.clear();
+    }
+}
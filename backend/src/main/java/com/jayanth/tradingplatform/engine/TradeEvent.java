@@ -0,0 +1,22 @@
+package com.jayanth.tradingplatform.engine;
+
+import lombok.Value;
+
+/**
+ * A single execution between a resting (maker) and incoming (taker) order.
+ * Price is in ticks and quantity in lots of the coin's book.
+ */
+@Value
+public class TradeEvent {
+
+    long tradeId;
+    String coinId;
+    long buyOrderId;
+    long sellOrderId;
+    long buyerId;
+    long sellerId;
+    long price;
+    long quantity;
+    boolean buyerMaker;
+    long timestamp;
+}
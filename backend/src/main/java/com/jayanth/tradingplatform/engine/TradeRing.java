@@ -0,0 +1,87 @@
+package com.jayanth.tradingplatform.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+
+/**
+ * The last {@code capacity} executions of one coin in preallocated parallel
+ * arrays, so recording a fill allocates nothing. Writers are serialized;
+ * readers never lock. Each slot carries the sequence of the fill it holds,
+ * cleared while the slot is being rewritten, and a reader keeps a slot only
+ * if it saw the same sequence before and after copying the fields.
+ */
+public class TradeRing {
+
+    private static final VarHandle SEQUENCES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int mask;
+    private final long[] sequences;
+    private final long[] prices;
+    private final long[] quantities;
+    private final long[] timestamps;
+    private final boolean[] buys;
+    private volatile long published;
+
+    public TradeRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.sequences = new long[size];
+        this.prices = new long[size];
+        this.quantities = new long[size];
+        this.timestamps = new long[size];
+        this.buys = new boolean[size];
+    }
+
+    /**
+     * Appends a fill; {@code buy} is the side of the order that took
+     * liquidity. Returns its sequence, starting at 1.
+     */
+    public synchronized long add(long price, long quantity, boolean buy, long timestamp) {
+        long sequence = published + 1;
+        int slot = (int) (sequence & mask);
+        SEQUENCES.setOpaque(sequences, slot, 0L);
+        VarHandle.releaseFence();
+        prices[slot] = price;
+        quantities[slot] = quantity;
+        timestamps[slot] = timestamp;
+        buys[slot] = buy;
+        SEQUENCES.setRelease(sequences, slot, sequence);
+        published = sequence;
+        return sequence;
+    }
+
+    /**
+     * Copies up to {@code limit} fills into {@code out}, oldest first: those
+     * after {@code after}, or the most recent ones when {@code after} is
+     * negative. Fills already overwritten are skipped.
+     */
+    public void read(long after, int limit, List<TradeTick> out) {
+        long last = published;
+        long first = after < 0 ? last - limit + 1 : after + 1;
+        first = Math.max(first, Math.max(1, last - mask));
+        long end = Math.min(last, first + limit - 1);
+        for (long sequence = first; sequence <= end; sequence++) {
+            int slot = (int) (sequence & mask);
+            if ((long) SEQUENCES.getAcquire(sequences, slot) != sequence) {
+                continue;
+            }
+            long price = prices[slot];
+            long quantity = quantities[slot];
+            long timestamp = timestamps[slot];
+            boolean buy = buys[slot];
+            VarHandle.acquireFence();
+            if ((long) SEQUENCES.getOpaque(sequences, slot) == sequence) {
+                out.add(new TradeTick(sequence, price, quantity, buy, timestamp));
+            }
+        }
+    }
+
+    public long getPublished() {
+        return published;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
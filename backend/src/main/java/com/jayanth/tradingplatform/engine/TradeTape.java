@@ -0,0 +1,45 @@
+package com.jayanth.tradingplatform.engine;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Recent executions per coin, kept in memory so the tape can be polled
+ * without touching the orders table. It starts empty after a restart.
+ */
+@Component
+public class TradeTape {
+
+    @Value("${trading.tape.size:1024}")
+    private int size;
+
+    private final ConcurrentMap<String, TradeRing> rings = new ConcurrentHashMap<>();
+
+    public void record(String coinId, long price, long quantity, boolean buy, long timestamp) {
+        rings.computeIfAbsent(coinId, id -> new TradeRing(size)).add(price, quantity, buy, timestamp);
+    }
+
+    /**
+     * Fills after sequence {@code after}, or the latest ones when it is
+     * negative, oldest first.
+     */
+    public List<TradeTick> read(String coinId, long after, int limit) {
+        TradeRing ring = rings.get(coinId);
+        if (ring == null) {
+            return Collections.emptyList();
+        }
+        List<TradeTick> out = new ArrayList<>(Math.min(limit, ring.capacity()));
+        ring.read(after, limit, out);
+        return out;
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
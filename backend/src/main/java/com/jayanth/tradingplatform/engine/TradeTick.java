@@ -0,0 +1,17 @@
+package com.jayanth.tradingplatform.engine;
+
+import lombok.Value;
+
+/**
+ * One execution on the trade tape. Price is in ticks and quantity in lots;
+ * {@code buy} is the side of the order that took liquidity.
+ */
+@Value
+public class TradeTick {
+
+    long sequence;
+    long price;
+    long quantity;
+    boolean buy;
+    long timestamp;
+}
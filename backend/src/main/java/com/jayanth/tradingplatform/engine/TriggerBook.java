@@ -0,0 +1,75 @@
+package com.jayanth.tradingplatform.engine;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pending stop and take-profit orders for a single coin, split by the
+ * direction of price movement that fires them. Not thread safe: callers must
+ * serialize access per book.
+ */
+public class TriggerBook {
+
+    private final String coinId;
+    private final TriggerSide rising = new TriggerSide(true);
+    private final TriggerSide falling = new TriggerSide(false);
+    private final Map<Long, TriggerOrder> orders = new HashMap<>();
+    private long lastPrice;
+
+    public TriggerBook(String coinId) {
+        this.coinId = coinId;
+    }
+
+    /**
+     * Adds an order unless the last tick has already reached its trigger.
+     */
+    boolean add(TriggerOrder order) {
+        TriggerSide side = order.firesOnRise() ? rising : falling;
+        if (lastPrice > 0 && side.crossed(order.triggerPrice, lastPrice)) {
+            return false;
+        }
+        side.add(order);
+        orders.put(order.orderId, order);
+        return true;
+    }
+
+    /**
+     * Takes a pending order out of the book, or returns null if it is not
+     * pending here, e.g. because it already fired.
+     */
+    TriggerOrder remove(long orderId) {
+        TriggerOrder order = orders.remove(orderId);
+        if (order != null) {
+            (order.firesOnRise() ? rising : falling).remove(order);
+        }
+        return order;
+    }
+
+    void onPrice(long price, List<TriggerOrder> fired) {
+        int from = fired.size();
+        rising.pollCrossed(price, fired);
+        falling.pollCrossed(price, fired);
+        for (int i = from; i < fired.size(); i++) {
+            orders.remove(fired.get(i).orderId);
+        }
+        lastPrice = price;
+    }
+
+    void collect(List<TriggerOrder> out) {
+        rising.collect(out);
+        falling.collect(out);
+    }
+
+    public int orderCount() {
+        return rising.orderCount() + falling.orderCount();
+    }
+
+    public String getCoinId() {
+        return coinId;
+    }
+
+    public long getLastPrice() {
+        return lastPrice;
+    }
+}
@@ -0,0 +1,112 @@
+package com.jayanth.tradingplatform.engine;
+
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.OrderKind;
+import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.domain.Quantity;
+import com.jayanth.tradingplatform.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds one {@link TriggerBook} per coin. A price tick pops only the orders
+ * whose trigger it crosses, O(log n + fired) rather than a scan of every
+ * pending order, and hands them back for the caller to execute.
+ * <p>
+ * Pending orders are not part of the book snapshot: they are reloaded from
+ * the orders table once the journal projector has caught up after a restart.
+ */
+@Slf4j
+@Component
+public class TriggerEngine {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final ConcurrentMap<String, TriggerBook> books = new ConcurrentHashMap<>();
+
+    public TriggerBook getBook(String coinId) {
+        return books.computeIfAbsent(coinId, TriggerBook::new);
+    }
+
+    /**
+     * Returns false, leaving the index unchanged, if the last tick has already
+     * reached the trigger price.
+     */
+    public boolean add(String coinId, TriggerOrder order) {
+        TriggerBook book = getBook(coinId);
+        synchronized (book) {
+            return book.add(order);
+        }
+    }
+
+    /**
+     * Removes a pending order, returning null if it is not pending on the
+     * coin's book, e.g. because a tick has already fired it.
+     */
+    public TriggerOrder remove(String coinId, long orderId) {
+        TriggerBook book = books.get(coinId);
+        if (book == null) {
+            return null;
+        }
+        synchronized (book) {
+            return book.remove(orderId);
+        }
+    }
+
+    /**
+     * Records a new price for the coin and removes the orders it fires.
+     */
+    public List<TriggerOrder> onPrice(String coinId, long price) {
+        TriggerBook book = getBook(coinId);
+        List<TriggerOrder> fired = new ArrayList<>(0);
+        synchronized (book) {
+            book.onPrice(price, fired);
+        }
+        return fired.isEmpty() ? Collections.emptyList() : fired;
+    }
+
+    /**
+     * The orders still waiting on a coin's price.
+     */
+    public List<TriggerOrder> pendingOrders(String coinId) {
+        TriggerBook book = books.get(coinId);
+        if (book == null) {
+            return Collections.emptyList();
+        }
+        List<TriggerOrder> out = new ArrayList<>(book.orderCount());
+        synchronized (book) {
+            book.collect(out);
+        }
+        return out;
+    }
+
+    public List<TriggerBook> getBooks() {
+        return new ArrayList<>(books.values());
+    }
+
+    /**
+     * Rebuilds the index from the open stop and take-profit orders in the
+     * database.
+     */
+    public void load() {
+        books.clear();
+        int count = 0;
+        for (Object[] row : orderRepository.findOpenTriggerOrders()) {
+            Money triggerPrice = (Money) row[5];
+            Quantity quantity = (Quantity) row[6];
+            TriggerOrder order = new TriggerOrder((Long) row[0], (Long) row[1], row[3] == OrderType.BUY,
+                    (OrderKind) row[4], triggerPrice.getUnits(), quantity.getLots());
+            getBook((String) row[2]).add(order);
+            count++;
+        }
+        log.info("loaded {} pending trigger orders", count);
+    }
+}
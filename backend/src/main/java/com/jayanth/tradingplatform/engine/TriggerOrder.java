@@ -0,0 +1,61 @@
+package com.jayanth.tradingplatform.engine;
+
+import com.jayanth.tradingplatform.domain.OrderKind;
+
+/**
+ * A stop or take-profit order waiting in a {@link TriggerSide}. Orders sharing
+ * a trigger price are chained through {@code next} in arrival order.
+ */
+public class TriggerOrder {
+
+    final long orderId;
+    final long userId;
+    final boolean buy;
+    final OrderKind kind;
+    final long triggerPrice;
+    final long quantity;
+
+    TriggerOrder next;
+
+    public TriggerOrder(long orderId, long userId, boolean buy, OrderKind kind,
+                        long triggerPrice, long quantity) {
+        this.orderId = orderId;
+        this.userId = userId;
+        this.buy = buy;
+        this.kind = kind;
+        this.triggerPrice = triggerPrice;
+        this.quantity = quantity;
+    }
+
+    /**
+     * A buy stop and a sell take-profit fire when the price rises to the
+     * trigger; a sell stop and a buy take-profit when it falls to it.
+     */
+    public boolean firesOnRise() {
+        return (kind == OrderKind.STOP) == buy;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public boolean isBuy() {
+        return buy;
+    }
+
+    public OrderKind getKind() {
+        return kind;
+    }
+
+    public long getTriggerPrice() {
+        return triggerPrice;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+}
@@ -0,0 +1,21 @@
+package com.jayanth.tradingplatform.engine;
+
+import com.jayanth.tradingplatform.domain.OrderKind;
+import com.jayanth.tradingplatform.domain.OrderType;
+import lombok.Value;
+
+/**
+ * Journal event for a stop or take-profit order added to the trigger index.
+ */
+@Value
+public class TriggerPlaced {
+
+    long orderId;
+    long userId;
+    String coinId;
+    OrderType side;
+    OrderKind kind;
+    long triggerPrice;
+    long quantity;
+    long timestamp;
+}
@@ -0,0 +1,133 @@
+package com.jayanth.tradingplatform.engine;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Trigger orders for one direction of price movement, kept as a sorted array
+ * of trigger prices like {@link BookSide}. Keys are the raw price for orders
+ * that fire on a fall and the negated price for orders that fire on a rise, so
+ * the next order to fire always sits at the end and a tick only touches the
+ * prices it crosses.
+ */
+public class TriggerSide {
+
+    private final boolean rising;
+    private long[] keys = new long[64];
+    private TriggerOrder[] heads = new TriggerOrder[64];
+    private TriggerOrder[] tails = new TriggerOrder[64];
+    private int size;
+    private int orderCount;
+
+    TriggerSide(boolean rising) {
+        this.rising = rising;
+    }
+
+    private long key(long price) {
+        return rising ? -price : price;
+    }
+
+    void add(TriggerOrder order) {
+        long key = key(order.triggerPrice);
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index >= 0) {
+            tails[index].next = order;
+            tails[index] = order;
+        } else {
+            int insertAt = -index - 1;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                heads = Arrays.copyOf(heads, size * 2);
+                tails = Arrays.copyOf(tails, size * 2);
+            }
+            System.arraycopy(keys, insertAt, keys, insertAt + 1, size - insertAt);
+            System.arraycopy(heads, insertAt, heads, insertAt + 1, size - insertAt);
+            System.arraycopy(tails, insertAt, tails, insertAt + 1, size - insertAt);
+            keys[insertAt] = key;
+            heads[insertAt] = order;
+            tails[insertAt] = order;
+            size++;
+        }
+        orderCount++;
+    }
+
+    /**
+     * Removes every order whose trigger {@code price} has reached and appends
+     * them to {@code fired}, nearest trigger first.
+     */
+    void pollCrossed(long price, List<TriggerOrder> fired) {
+        long limit = key(price);
+        while (size > 0 && keys[size - 1] >= limit) {
+            size--;
+            for (TriggerOrder order = heads[size]; order != null; ) {
+                TriggerOrder next = order.next;
+                order.next = null;
+                fired.add(order);
+                orderCount--;
+                order = next;
+            }
+            heads[size] = null;
+            tails[size] = null;
+        }
+    }
+
+    /**
+     * Unlinks a pending order from its price level, dropping the level once
+     * it is empty. Returns false if the order is not on this side.
+     */
+    boolean remove(TriggerOrder order) {
+        int index = Arrays.binarySearch(keys, 0, size, key(order.triggerPrice));
+        if (index < 0) {
+            return false;
+        }
+        TriggerOrder previous = null;
+        for (TriggerOrder current = heads[index]; current != null; previous = current, current = current.next) {
+            if (current != order) {
+                continue;
+            }
+            if (previous == null) {
+                heads[index] = current.next;
+            } else {
+                previous.next = current.next;
+            }
+            if (tails[index] == current) {
+                tails[index] = previous;
+            }
+            current.next = null;
+            orderCount--;
+            if (heads[index] == null) {
+                System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+                System.arraycopy(heads, index + 1, heads, index, size - index - 1);
+                System.arraycopy(tails, index + 1, tails, index, size - index - 1);
+                size--;
+                heads[size] = null;
+                tails[size] = null;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether an order at {@code triggerPrice} would fire at {@code price}.
+     */
+    boolean crossed(long triggerPrice, long price) {
+        return key(triggerPrice) >= key(price);
+    }
+
+    void collect(List<TriggerOrder> out) {
+        for (int i = 0; i < size; i++) {
+            for (TriggerOrder order = heads[i]; order != null; order = order.next) {
+                out.add(order);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int orderCount() {
+        return orderCount;
+    }
+}
@@ -1,23 +1,26 @@
 package com.jayanth.tradingplatform.model;
 
+import com.jayanth.tradingplatform.config.SnowflakeId;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.Quantity;
 import jakarta.persistence.*;
 import lombok.Data;
 
-import java.math.BigDecimal;
-
 @Entity
 @Data
 public class Asset {
 
     @Id
-    @GeneratedValue (strategy = GenerationType.AUTO)
+    @SnowflakeId
     private Long Id;
 
-    private double quantity;
+    @Column(precision = 28, scale = 8)
+    private Quantity quantity = Quantity.ZERO;
 
-    private BigDecimal BuyPrice;
+    @Column(precision = 20, scale = 2)
+    private Money BuyPrice;
 
-    @OneToOne
+    @ManyToOne
     private Coin coin;
 
     @ManyToOne
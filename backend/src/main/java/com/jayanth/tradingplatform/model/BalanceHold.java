@@ -0,0 +1,39 @@
+package com.jayanth.tradingplatform.model;
+
+import com.jayanth.tradingplatform.config.SnowflakeId;
+import com.jayanth.tradingplatform.domain.HoldStatus;
+import com.jayanth.tradingplatform.domain.Money;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cash set aside in a wallet, e.g. for a withdrawal waiting on approval. It
+ * stays part of the balance but not of what can be spent until it is
+ * captured, which debits the wallet, or released.
+ */
+@Entity
+@Data
+@Table(indexes = @Index(name = "idx_balance_hold_status", columnList = "status"))
+public class BalanceHold {
+
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    @ManyToOne
+    private Wallet wallet;
+
+    @Column(precision = 20, scale = 2)
+    private Money amount;
+
+    @Enumerated(EnumType.STRING)
+    private HoldStatus status;
+
+    private String purpose;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime settledAt;
+}
@@ -0,0 +1,42 @@
+package com.jayanth.tradingplatform.model;
+
+import com.jayanth.tradingplatform.domain.CandleInterval;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.Quantity;
+import jakarta.persistence.*;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(indexes = @Index(name = "idx_candle_interval_open_time", columnList = "candleInterval, openTime"))
+public class Candle {
+
+    /** coinId:interval:openTime, so a re-flushed bar overwrites its row. */
+    @Id
+    @Column(length = 128)
+    private String id;
+
+    @Column(nullable = false)
+    private String coinId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private CandleInterval candleInterval;
+
+    private long openTime;
+
+    @Column(precision = 20, scale = 2)
+    private Money open;
+
+    @Column(precision = 20, scale = 2)
+    private Money high;
+
+    @Column(precision = 20, scale = 2)
+    private Money low;
+
+    @Column(precision = 20, scale = 2)
+    private Money close;
+
+    @Column(precision = 28, scale = 8)
+    private Quantity volume;
+}
@@ -0,0 +1,33 @@
+package com.jayanth.tradingplatform.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(indexes = @Index(name = "idx_idempotency_created_at", columnList = "createdAt"))
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 512)
+    private String scopedKey;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    private int responseStatus;
+
+    private String contentType;
+
+    @Lob
+    @Column(length = 16777215)
+    private byte[] body;
+
+    private LocalDateTime createdAt;
+
+    public boolean isCompleted() {
+        return responseStatus != 0;
+    }
+}
@@ -0,0 +1,15 @@
+package com.jayanth.tradingplatform.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Data;
+
+@Entity
+@Data
+public class JournalCheckpoint {
+
+    @Id
+    private String name;
+
+    private long position;
+}
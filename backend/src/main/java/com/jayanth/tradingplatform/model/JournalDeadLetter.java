@@ -0,0 +1,38 @@
+package com.jayanth.tradingplatform.model;
+
+import com.jayanth.tradingplatform.config.SnowflakeId;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A journal event the projector gave up on after it failed repeatedly. The
+ * in-memory engines had already applied it, so its rows are missing until
+ * the cause is fixed and the event is applied by hand.
+ */
+@Entity
+@Data
+public class JournalDeadLetter {
+
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    private String projector;
+
+    // the event spans position up to nextPosition in the journal
+    private long position;
+
+    private long nextPosition;
+
+    private int attempts;
+
+    @Column(length = 1000)
+    private String event;
+
+    @Column(length = 2000)
+    private String error;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,40 @@
+package com.jayanth.tradingplatform.model;
+
+import com.jayanth.tradingplatform.config.SnowflakeId;
+import com.jayanth.tradingplatform.domain.Money;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A wallet whose balance did not match the sum of its ledger postings when a
+ * reconciliation run checked it.
+ */
+@Entity
+@Data
+@Table(indexes = @Index(name = "idx_ledger_drift_run_id", columnList = "runId, userId"))
+public class LedgerDrift {
+
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    private long runId;
+
+    private Long userId;
+
+    private Long walletId;
+
+    @Column(precision = 20, scale = 2)
+    private Money balance;
+
+    @Column(precision = 20, scale = 2)
+    private Money ledger;
+
+    // balance minus ledger
+    @Column(precision = 20, scale = 2)
+    private Money difference;
+
+    private LocalDateTime detectedAt;
+}
@@ -1,21 +1,30 @@
 package com.jayanth.tradingplatform.model;
 
+import com.jayanth.tradingplatform.config.SnowflakeId;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.OrderKind;
 import com.jayanth.tradingplatform.domain.OrderStatus;
 import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.domain.Quantity;
+import com.jayanth.tradingplatform.domain.TimeInForce;
 import jakarta.persistence.*;
 import lombok.Data;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
 @Data
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_orders_user_type_id", columnList = "user_id, order_type, id"),
+        @Index(name = "idx_orders_user_status_id", columnList = "user_id, status, id")
+})
 public class Order {
 
     @Id
-    @GeneratedValue (strategy = GenerationType.AUTO)
+    @SnowflakeId
     Long id;
 
     @ManyToOne
@@ -24,8 +33,25 @@ public class Order {
     @Column(nullable = false)
     private OrderType orderType;
 
-    @Column(nullable = false)
-    private BigDecimal price;
+    private OrderKind orderKind = OrderKind.MARKET;
+
+    @Column(nullable = false, precision = 20, scale = 2)
+    private Money price;
+
+    @Column(precision = 20, scale = 2)
+    private Money limitPrice;
+
+    @Column(precision = 20, scale = 2)
+    private Money triggerPrice;
+
+    @Column(precision = 28, scale = 8)
+    private Quantity filledQuantity = Quantity.ZERO;
+
+    private TimeInForce timeInForce = TimeInForce.GTC;
+
+    private LocalDateTime expiresAt;
+
+    private Long parentOrderId;
 
     private LocalDate timestamp= LocalDate.now();
 
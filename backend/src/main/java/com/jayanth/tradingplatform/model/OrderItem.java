@@ -1,27 +1,35 @@
 package com.jayanth.tradingplatform.model;
 
+import com.jayanth.tradingplatform.config.SnowflakeId;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.Quantity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 
-import java.math.BigDecimal;
-
 @Entity
 @Data
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @SnowflakeId
     private Long id;
 
-    private double quantity;
+    @Column(precision = 28, scale = 8)
+    private Quantity quantity;
 
     @ManyToOne
     private Coin coin;
 
-    private BigDecimal buyPrice;
+    @Column(precision = 20, scale = 2)
+    private Money buyPrice;
+
+    @Column(precision = 20, scale = 2)
+    private Money sellPrice;
 
-    private BigDecimal sellPrice;
+    // proceeds less the cost of the lots a sell fill consumed
+    @Column(precision = 20, scale = 2)
+    private Money realizedPnl;
 
     @JsonIgnore
     @OneToOne
@@ -1,5 +1,6 @@
 package com.jayanth.tradingplatform.model;
 
+import com.jayanth.tradingplatform.config.SnowflakeId;
 import com.jayanth.tradingplatform.domain.PaymentMethod;
 import com.jayanth.tradingplatform.domain.PaymentOrderStatus;
 import jakarta.persistence.*;
@@ -10,7 +11,7 @@ import lombok.Data;
 public class PaymentOrder {
 
     @Id
-    @GeneratedValue (strategy = GenerationType.AUTO)
+    @SnowflakeId
     private Long id;
 
     private Long amount;
@@ -0,0 +1,34 @@
+package com.jayanth.tradingplatform.model;
+
+import com.jayanth.tradingplatform.config.SnowflakeId;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.Quantity;
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * What is left of one purchase of a coin: its remaining quantity and the cost
+ * of that remainder. A lot shares its id with the buy fill that opened it, and
+ * a user's lots of a coin in id order are the order they were bought in.
+ */
+@Entity
+@Data
+@Table(indexes = @Index(name = "idx_tax_lot_user_coin", columnList = "user_id, coin_id, id"))
+public class TaxLot {
+
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Coin coin;
+
+    @Column(precision = 28, scale = 8)
+    private Quantity quantity;
+
+    @Column(precision = 20, scale = 2)
+    private Money cost;
+}
@@ -1,6 +1,7 @@
 package com.jayanth.tradingplatform.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.jayanth.tradingplatform.domain.CostBasisMethod;
 import com.jayanth.tradingplatform.domain.USER_ROLE;
 import jakarta.persistence.*;
 import lombok.Data;
@@ -21,6 +22,10 @@ public class User {
 
     private USER_ROLE role = USER_ROLE.ROLE_CUSTOMER;
 
+    // how sales draw on tax lots; null on accounts created before lots were tracked means FIFO
+    @Enumerated(EnumType.STRING)
+    private CostBasisMethod costBasisMethod = CostBasisMethod.FIFO;
+
     @Embedded
     private TwoFactorAuth twoFactorAuth = new TwoFactorAuth();
 
@@ -1,21 +1,23 @@
 package com.jayanth.tradingplatform.model;
 
+import com.jayanth.tradingplatform.config.SnowflakeId;
+import com.jayanth.tradingplatform.domain.Money;
 
 import jakarta.persistence.*;
 import lombok.Data;
 
-import java.math.BigDecimal;
-
 @Entity
 @Data
 public class Wallet {
 
     @Id
-    @GeneratedValue (strategy = GenerationType.AUTO)
+    @SnowflakeId
     private Long id;
 
     @OneToOne
     private User user;
 
-    private BigDecimal balance;
+    // kept current by ledger postings only, never by saving the entity
+    @Column(precision = 20, scale = 2, updatable = false)
+    private Money balance = Money.ZERO;
 }
@@ -1,22 +1,35 @@
 package com.jayanth.tradingplatform.model;
 
+import com.jayanth.tradingplatform.config.SnowflakeId;
+import com.jayanth.tradingplatform.domain.LedgerAccount;
+import com.jayanth.tradingplatform.domain.Money;
 import com.jayanth.tradingplatform.domain.WalletTransactionType;
 import jakarta.persistence.*;
 import lombok.Data;
 
 import java.time.LocalDateTime;
 
+/**
+ * One leg of a ledger entry. Postings are only ever inserted; the legs of an
+ * entry share its {@code transferId} and their amounts sum to zero. The wallet
+ * index carries the amount so per-wallet sums are read from the index alone.
+ */
 @Entity
 @Data
+@Table(indexes = @Index(name = "idx_wallet_transaction_wallet_id", columnList = "wallet_id, id, amount"))
 public class WalletTransaction {
 
     @Id
-    @GeneratedValue (strategy = GenerationType.AUTO)
+    @SnowflakeId
     private Long id;
 
+    // null on the platform's own accounts
     @ManyToOne
     private Wallet wallet;
 
+    @Enumerated(EnumType.STRING)
+    private LedgerAccount account;
+
     private WalletTransactionType transactionType;
 
     private LocalDateTime date;
@@ -25,6 +38,8 @@ public class WalletTransaction {
 
     private String purpose;
 
-    private Long amount;
+    // credit positive, debit negative
+    @Column(precision = 20, scale = 2)
+    private Money amount;
 
 }
@@ -1,5 +1,6 @@
 package com.jayanth.tradingplatform.model;
 
+import com.jayanth.tradingplatform.config.SnowflakeId;
 import com.jayanth.tradingplatform.domain.WithdrawlStatus;
 import jakarta.persistence.*;
 import lombok.Data;
@@ -11,13 +12,16 @@ import java.time.LocalDateTime;
 public class Withdrawl {
 
     @Id
-    @GeneratedValue (strategy = GenerationType.AUTO)
+    @SnowflakeId
     private Long id;
 
     private WithdrawlStatus status;
 
     private Long amount;
 
+    // null on withdrawals requested before holds, which debited the wallet up front
+    private Long holdId;
+
     @ManyToOne
     private User user;
 
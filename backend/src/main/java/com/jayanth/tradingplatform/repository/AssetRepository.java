@@ -2,6 +2,7 @@ package com.jayanth.tradingplatform.repository;
 
 import com.jayanth.tradingplatform.model.Asset;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
@@ -10,4 +11,10 @@ public interface AssetRepository extends JpaRepository<Asset, Long> {
     List<Asset> findByUserId(Long userId);
 
     Asset findByUserIdAndCoinId(Long userId, String coinId);
+
+    @Query("select a.user.id, a.coin.id, a.quantity from Asset a where a.user is not null and a.coin is not null")
+    List<Object[]> findAllHoldings();
+
+    @Query("select a.user.id, a.coin.id, a.quantity, a.BuyPrice from Asset a where a.user is not null and a.coin is not null")
+    List<Object[]> findAllPositions();
 }
@@ -0,0 +1,18 @@
+package com.jayanth.tradingplatform.repository;
+
+import com.jayanth.tradingplatform.domain.HoldStatus;
+import com.jayanth.tradingplatform.model.BalanceHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BalanceHoldRepository extends JpaRepository<BalanceHold, Long> {
+
+    @Query("select h.id, h.wallet.user.id, h.amount from BalanceHold h where h.status = :status")
+    List<Object[]> findAllByStatus(HoldStatus status);
+
+    @Query("select h from BalanceHold h join fetch h.wallet w join fetch w.user where h.id in :ids")
+    List<BalanceHold> findAllWithWallet(Collection<Long> ids);
+}
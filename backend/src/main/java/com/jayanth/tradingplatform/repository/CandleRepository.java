@@ -0,0 +1,15 @@
+package com.jayanth.tradingplatform.repository;
+
+import com.jayanth.tradingplatform.domain.CandleInterval;
+import com.jayanth.tradingplatform.model.Candle;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface CandleRepository extends JpaRepository<Candle, String> {
+
+    @Query("select c from Candle c where c.candleInterval = :interval and c.openTime >= :from " +
+            "order by c.coinId, c.openTime")
+    List<Candle> findOpenedSince(CandleInterval interval, long from);
+}
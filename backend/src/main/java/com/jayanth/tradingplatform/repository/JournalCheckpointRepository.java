@@ -0,0 +1,7 @@
+package com.jayanth.tradingplatform.repository;
+
+import com.jayanth.tradingplatform.model.JournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, String> {
+}
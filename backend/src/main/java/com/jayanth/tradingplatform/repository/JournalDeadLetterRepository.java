@@ -0,0 +1,9 @@
+package com.jayanth.tradingplatform.repository;
+
+import com.jayanth.tradingplatform.model.JournalDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JournalDeadLetterRepository extends JpaRepository<JournalDeadLetter, Long> {
+
+    long countByProjector(String projector);
+}
@@ -0,0 +1,18 @@
+package com.jayanth.tradingplatform.repository;
+
+import com.jayanth.tradingplatform.model.LedgerDrift;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface LedgerDriftRepository extends JpaRepository<LedgerDrift, Long> {
+
+    List<LedgerDrift> findByRunIdOrderByUserId(long runId, Pageable pageable);
+
+    long countByRunId(long runId);
+
+    @Transactional
+    void deleteByRunIdAndWalletIdGreaterThanEqual(long runId, Long walletId);
+}
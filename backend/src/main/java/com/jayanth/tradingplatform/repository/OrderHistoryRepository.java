@@ -0,0 +1,33 @@
+package com.jayanth.tradingplatform.repository;
+
+import com.jayanth.tradingplatform.domain.OrderStatus;
+import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.response.OrderHistoryItem;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface OrderHistoryRepository {
+
+    /**
+     * Up to {@code limit} of the user's orders with ids below {@code cursor},
+     * newest first. Null arguments are not filtered on.
+     */
+    List<OrderHistoryItem> findHistory(Long userId, Long cursor, OrderType orderType, OrderStatus status,
+                                       String symbol, LocalDate from, LocalDate to, int limit);
+
+    /**
+     * Every matching order, oldest first, read through a forward-only cursor.
+     * Must be consumed and closed inside a transaction.
+     */
+    Stream<OrderHistoryItem> streamHistory(Long userId, OrderType orderType, OrderStatus status,
+                                           String symbol, LocalDate from, LocalDate to);
+
+    /**
+     * The user's fills as {@code id, coin id, side, quantity, notional},
+     * oldest first, read through a forward-only cursor. Must be consumed and
+     * closed inside a transaction.
+     */
+    Stream<Object[]> streamFills(Long userId);
+}
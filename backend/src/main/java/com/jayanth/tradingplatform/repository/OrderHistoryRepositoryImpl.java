@@ -0,0 +1,99 @@
+package com.jayanth.tradingplatform.repository;
+
+import com.jayanth.tradingplatform.domain.OrderStatus;
+import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.response.OrderHistoryItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Builds the history query from only the filters that are set, so every
+ * variant is a plain range scan on one of the {@code (user_id, ..., id)}
+ * indexes of the orders table: read backwards and stopped after one page for
+ * history, or streamed forwards in full for exports.
+ */
+public class OrderHistoryRepositoryImpl implements OrderHistoryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Integer.MIN_VALUE makes Connector/J stream row by row instead of buffering the whole result
+    @Value("${trading.orders.export.fetch-size:-2147483648}")
+    private int exportFetchSize;
+
+    @Override
+    public List<OrderHistoryItem> findHistory(Long userId, Long cursor, OrderType orderType, OrderStatus status,
+                                              String symbol, LocalDate from, LocalDate to, int limit) {
+        return query(userId, cursor, orderType, status, symbol, from, to, false)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<OrderHistoryItem> streamHistory(Long userId, OrderType orderType, OrderStatus status,
+                                                  String symbol, LocalDate from, LocalDate to) {
+        return query(userId, null, orderType, status, symbol, from, to, true)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, exportFetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<Object[]> streamFills(Long userId) {
+        return entityManager.createQuery("select o.id, i.coin.id, o.orderType, i.quantity, o.price " +
+                        "from Order o join o.orderItem i where o.user.id = :userId " +
+                        "and o.status = com.jayanth.tradingplatform.domain.OrderStatus.SUCCESS order by o.id", Object[].class)
+                .setParameter("userId", userId)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, exportFetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private TypedQuery<OrderHistoryItem> query(Long userId, Long cursor, OrderType orderType, OrderStatus status,
+                                               String symbol, LocalDate from, LocalDate to, boolean ascending) {
+        StringBuilder jpql = new StringBuilder("select new com.jayanth.tradingplatform.response.OrderHistoryItem(")
+                .append("o.id, o.orderType, o.orderKind, o.status, c.id, c.symbol, i.quantity, o.filledQuantity, ")
+                .append("o.price, o.limitPrice, o.triggerPrice, o.parentOrderId, o.timestamp) ")
+                .append("from Order o join o.orderItem i join i.coin c where o.user.id = :userId");
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("userId", userId);
+        if (cursor != null) {
+            jpql.append(" and o.id < :cursor");
+            params.put("cursor", cursor);
+        }
+        if (orderType != null) {
+            jpql.append(" and o.orderType = :orderType");
+            params.put("orderType", orderType);
+        }
+        if (status != null) {
+            jpql.append(" and o.status = :status");
+            params.put("status", status);
+        }
+        if (symbol != null) {
+            jpql.append(" and c.symbol = :symbol");
+            params.put("symbol", symbol);
+        }
+        if (from != null) {
+            jpql.append(" and o.timestamp >= :from");
+            params.put("from", from);
+        }
+        if (to != null) {
+            jpql.append(" and o.timestamp <= :to");
+            params.put("to", to);
+        }
+        jpql.append(ascending ? " order by o.id asc" : " order by o.id desc");
+
+        TypedQuery<OrderHistoryItem> query = entityManager.createQuery(jpql.toString(), OrderHistoryItem.class);
+        params.forEach(query::setParameter);
+        return query;
+    }
+}
@@ -2,9 +2,29 @@ package com.jayanth.tradingplatform.repository;
 
 import com.jayanth.tradingplatform.model.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderHistoryRepository {
     List<Order> findByUserId(Long orderId);
+
+    @Query("select o.id, o.user.id, o.orderItem.coin.id, o.orderType, o.orderKind, o.triggerPrice, o.orderItem.quantity " +
+            "from Order o where o.status = com.jayanth.tradingplatform.domain.OrderStatus.OPEN " +
+            "and o.orderKind in (com.jayanth.tradingplatform.domain.OrderKind.STOP, " +
+            "com.jayanth.tradingplatform.domain.OrderKind.TAKE_PROFIT)")
+    List<Object[]> findOpenTriggerOrders();
+
+    @Query("select o.id, o.orderItem.coin.id, o.expiresAt from Order o " +
+            "where o.status in (com.jayanth.tradingplatform.domain.OrderStatus.OPEN, " +
+            "com.jayanth.tradingplatform.domain.OrderStatus.PARTIALLY_FILLED) " +
+            "and o.timeInForce = com.jayanth.tradingplatform.domain.TimeInForce.GTD")
+    List<Object[]> findOpenExpiringOrders();
+
+    // the same orders that hold a sell reservation in the RiskEngine
+    @Query("select count(o) > 0 from Order o where o.user.id = :userId and o.orderItem.coin.id = :coinId " +
+            "and o.orderType = com.jayanth.tradingplatform.domain.OrderType.SELL " +
+            "and o.status in (com.jayanth.tradingplatform.domain.OrderStatus.OPEN, " +
+            "com.jayanth.tradingplatform.domain.OrderStatus.PARTIALLY_FILLED)")
+    boolean existsOpenSell(Long userId, String coinId);
 }
@@ -0,0 +1,37 @@
+package com.jayanth.tradingplatform.repository;
+
+import com.jayanth.tradingplatform.model.TaxLot;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface TaxLotRepository extends JpaRepository<TaxLot, Long> {
+
+    @Query("select l.id, l.quantity, l.cost from TaxLot l where l.user.id = :userId and l.coin.id = :coinId order by l.id")
+    List<Object[]> findLots(Long userId, String coinId);
+
+    @Query("select l.id, l.coin.id, l.quantity, l.cost from TaxLot l where l.user.id = :userId order by l.coin.id, l.id")
+    List<Object[]> findLotsByUserId(Long userId);
+
+    // these only touch rows committed before the session's pending inserts, so nothing needs flushing first
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.flushMode", value = "COMMIT"))
+    @Query(value = "update tax_lot set quantity = :quantity, cost = :cost where id = :id", nativeQuery = true)
+    int updateLot(Long id, BigDecimal quantity, BigDecimal cost);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.flushMode", value = "COMMIT"))
+    @Query(value = "delete from tax_lot where id in :ids", nativeQuery = true)
+    int deleteLots(Collection<Long> ids);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.flushMode", value = "COMMIT"))
+    @Query(value = "delete from tax_lot where user_id = :userId", nativeQuery = true)
+    int deleteUserLots(Long userId);
+}
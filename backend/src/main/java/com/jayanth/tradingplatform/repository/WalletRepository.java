@@ -1,9 +1,40 @@
 package com.jayanth.tradingplatform.repository;
 
 import com.jayanth.tradingplatform.model.Wallet;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
 
     Wallet findByUserId(Long userId);
+
+    @Query("select w from Wallet w join fetch w.user where w.id in :ids")
+    List<Wallet> findAllWithUser(Collection<Long> ids);
+
+    @Query("select w.user.id, w.balance from Wallet w where w.user is not null")
+    List<Object[]> findAllBalances();
+
+    // callers flush first; the default would flush the whole session on every call
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.flushMode", value = "COMMIT"))
+    @Query(value = "update wallet set balance = balance + :delta where id = :id", nativeQuery = true)
+    int addToBalance(Long id, BigDecimal delta);
+
+    @Query(value = "select id from wallet where id >= :from order by id limit 1 offset :offset", nativeQuery = true)
+    Long findIdAtOffset(long from, int offset);
+
+    @Query(value = "select id, user_id, balance from wallet where id >= :from and id < :to", nativeQuery = true)
+    List<Object[]> findBalancesBetween(long from, long to);
+
+    // one statement, so the balance and its postings come from the same snapshot
+    @Query(value = "select w.user_id, w.balance, (select coalesce(sum(t.amount), 0) from wallet_transaction t " +
+            "where t.wallet_id = w.id) from wallet w where w.id = :id", nativeQuery = true)
+    List<Object[]> findBalanceAndLedger(long id);
 }
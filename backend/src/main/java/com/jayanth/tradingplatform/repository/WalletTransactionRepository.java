@@ -0,0 +1,17 @@
+package com.jayanth.tradingplatform.repository;
+
+import com.jayanth.tradingplatform.model.WalletTransaction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface WalletTransactionRepository extends JpaRepository<WalletTransaction, Long> {
+
+    List<WalletTransaction> findByWalletIdOrderByIdDesc(Long walletId, Pageable pageable);
+
+    @Query(value = "select wallet_id, sum(amount), count(*) from wallet_transaction " +
+            "where wallet_id >= :from and wallet_id < :to group by wallet_id", nativeQuery = true)
+    List<Object[]> sumByWalletBetween(long from, long to);
+}
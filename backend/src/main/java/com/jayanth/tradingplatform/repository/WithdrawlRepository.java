@@ -1,11 +1,25 @@
 package com.jayanth.tradingplatform.repository;
 
+import com.jayanth.tradingplatform.domain.WithdrawlStatus;
 import com.jayanth.tradingplatform.model.Withdrawl;
 import lombok.With;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface WithdrawlRepository extends JpaRepository<Withdrawl, Long> {
     List<Withdrawl> findByUserId(Long userId);
+
+    @Query("select w from Withdrawl w join fetch w.user where w.id in :ids")
+    List<Withdrawl> findAllWithUser(Collection<Long> ids);
+
+    // the status check and the change are one statement, so of two concurrent decisions only one matches
+    @Modifying
+    @Query("update Withdrawl w set w.status = :status, w.date = :date"
+            + " where w.id = :id and w.status = com.jayanth.tradingplatform.domain.WithdrawlStatus.PENDING")
+    int decidePending(Long id, WithdrawlStatus status, LocalDateTime date);
 }
@@ -1,12 +1,23 @@
 package com.jayanth.tradingplatform.request;
 
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.OrderKind;
 import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.domain.Quantity;
+import com.jayanth.tradingplatform.domain.TimeInForce;
 import lombok.Data;
 
+import java.time.LocalDateTime;
+
 @Data
 public class CreateOrderRequest {
 
     private String coinId;
-    private double quantity;
+    private Quantity quantity;
     private OrderType orderType;
+    private OrderKind orderKind = OrderKind.MARKET;
+    private Money limitPrice;
+    private Money triggerPrice;
+    private TimeInForce timeInForce = TimeInForce.GTC;
+    private LocalDateTime expiresAt;
 }
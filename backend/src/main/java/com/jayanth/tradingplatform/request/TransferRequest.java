@@ -0,0 +1,13 @@
+package com.jayanth.tradingplatform.request;
+
+import com.jayanth.tradingplatform.domain.Money;
+import lombok.Data;
+
+@Data
+public class TransferRequest {
+
+    private Long senderWalletId;
+    private Long recipientWalletId;
+    private Money amount;
+    private String purpose;
+}
@@ -0,0 +1,23 @@
+package com.jayanth.tradingplatform.response;
+
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.domain.Quantity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The new total at one level; BUY is the bid side and a zero quantity
+ * removes the level.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepthChange {
+
+    private long sequence;
+    private OrderType side;
+    private Money price;
+    private Quantity quantity;
+}
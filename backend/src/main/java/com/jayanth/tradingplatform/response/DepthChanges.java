@@ -0,0 +1,22 @@
+package com.jayanth.tradingplatform.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Changes to apply in order, and the sequence to poll from next. When
+ * {@code reset} is set the changes asked for are gone and the client should
+ * reload the snapshot.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepthChanges {
+
+    private boolean reset;
+    private long sequence;
+    private List<DepthChange> changes;
+}
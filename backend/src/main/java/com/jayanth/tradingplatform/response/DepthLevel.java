@@ -0,0 +1,16 @@
+package com.jayanth.tradingplatform.response;
+
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.Quantity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepthLevel {
+
+    private Money price;
+    private Quantity quantity;
+}
@@ -0,0 +1,17 @@
+package com.jayanth.tradingplatform.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepthSnapshot {
+
+    private long sequence;
+    private List<DepthLevel> bids;
+    private List<DepthLevel> asks;
+}
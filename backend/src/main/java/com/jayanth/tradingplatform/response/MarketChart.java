@@ -0,0 +1,29 @@
+package com.jayanth.tradingplatform.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.jayanth.tradingplatform.domain.CandleInterval;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bars in the market chart layout the frontend already reads: each series is
+ * a list of {@code [openTime, value]} pairs, and {@code ohlc} holds
+ * {@code [openTime, open, high, low, close]} rows.
+ */
+@Data
+public class MarketChart {
+
+    private CandleInterval interval;
+
+    private List<Object[]> prices = new ArrayList<>();
+
+    @JsonProperty("market_caps")
+    private List<Object[]> marketCaps = new ArrayList<>();
+
+    @JsonProperty("total_volumes")
+    private List<Object[]> totalVolumes = new ArrayList<>();
+
+    private List<Object[]> ohlc = new ArrayList<>();
+}
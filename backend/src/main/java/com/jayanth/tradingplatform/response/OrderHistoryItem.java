@@ -0,0 +1,36 @@
+package com.jayanth.tradingplatform.response;
+
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.OrderKind;
+import com.jayanth.tradingplatform.domain.OrderStatus;
+import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.domain.Quantity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One row of a user's order history, read straight from the orders, order item
+ * and coin columns without loading the entities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderHistoryItem {
+
+    private Long id;
+    private OrderType orderType;
+    private OrderKind orderKind;
+    private OrderStatus status;
+    private String coinId;
+    private String symbol;
+    private Quantity quantity;
+    private Quantity filledQuantity;
+    private Money price;
+    private Money limitPrice;
+    private Money triggerPrice;
+    private Long parentOrderId;
+    private LocalDate timestamp;
+}
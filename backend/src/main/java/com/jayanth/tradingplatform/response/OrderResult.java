@@ -0,0 +1,14 @@
+package com.jayanth.tradingplatform.response;
+
+import com.jayanth.tradingplatform.model.Order;
+import lombok.Data;
+
+@Data
+public class OrderResult {
+
+    private int index;
+    private String coinId;
+    private boolean success;
+    private String message;
+    private Order order;
+}
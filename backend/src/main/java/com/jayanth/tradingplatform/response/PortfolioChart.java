@@ -0,0 +1,20 @@
+package com.jayanth.tradingplatform.response;
+
+import com.jayanth.tradingplatform.domain.HistoryRange;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Portfolio value over a range as {@code [time, value]} pairs, one per
+ * bucket of the range's step: the last sample in the bucket, stamped with
+ * the bucket's start.
+ */
+@Data
+public class PortfolioChart {
+
+    private HistoryRange range;
+
+    private List<Object[]> values = new ArrayList<>();
+}
@@ -0,0 +1,20 @@
+package com.jayanth.tradingplatform.response;
+
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.Quantity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioPosition {
+
+    private String coinId;
+    private Quantity quantity;
+    private Money price;
+    private Money marketValue;
+    private Money costBasis;
+    private Money unrealizedPnl;
+}
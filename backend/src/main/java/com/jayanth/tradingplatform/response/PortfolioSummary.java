@@ -0,0 +1,22 @@
+package com.jayanth.tradingplatform.response;
+
+import com.jayanth.tradingplatform.domain.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Holdings valued at current coin prices, with cost at average buy price.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioSummary {
+
+    private Money marketValue;
+    private Money costBasis;
+    private Money unrealizedPnl;
+    private List<PortfolioPosition> positions;
+}
@@ -0,0 +1,26 @@
+package com.jayanth.tradingplatform.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of the journal projector. {@code lag} is how many journal bytes
+ * are durable but not yet projected. {@code failures} counts consecutive
+ * failed attempts at {@code position} since {@code failingSince}, both
+ * reset once a batch commits. {@code deadLetters} counts every event ever
+ * skipped.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectorHealth {
+
+    private String status;
+    private boolean loaded;
+    private long position;
+    private long lag;
+    private int failures;
+    private Long failingSince;
+    private long deadLetters;
+}
@@ -0,0 +1,28 @@
+package com.jayanth.tradingplatform.response;
+
+import com.jayanth.tradingplatform.model.LedgerDrift;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a reconciliation run. {@code wallets} and {@code postings}
+ * count what this invocation read; a run resumed from a checkpoint only
+ * reads what was left. {@code drifted} covers the whole run.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationReport {
+
+    private long runId;
+    private boolean complete;
+    private long resumedFrom;
+    private long wallets;
+    private long postings;
+    private long drifted;
+    private long elapsedMillis;
+    private List<LedgerDrift> drifts;
+}
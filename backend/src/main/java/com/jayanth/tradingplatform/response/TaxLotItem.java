@@ -0,0 +1,23 @@
+package com.jayanth.tradingplatform.response;
+
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.Quantity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One open lot: the buy fill it came from, what is left of it and the cost of
+ * that, in total and per coin.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaxLotItem {
+
+    private Long id;
+    private String coinId;
+    private Quantity quantity;
+    private Money cost;
+    private Money price;
+}
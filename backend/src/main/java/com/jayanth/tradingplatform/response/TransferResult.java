@@ -0,0 +1,17 @@
+package com.jayanth.tradingplatform.response;
+
+import lombok.Data;
+
+/**
+ * Outcome of one transfer in a batch. Transfers between the same two wallets
+ * are netted into one ledger entry, so several results can share an
+ * {@code entryId}; it is null where they cancelled out.
+ */
+@Data
+public class TransferResult {
+
+    private int index;
+    private boolean success;
+    private String message;
+    private String entryId;
+}
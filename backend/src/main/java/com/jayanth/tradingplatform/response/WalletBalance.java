@@ -0,0 +1,21 @@
+package com.jayanth.tradingplatform.response;
+
+import com.jayanth.tradingplatform.domain.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A wallet's balance split into what resting orders have reserved, what is
+ * held for pending withdrawals and what is left to spend.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletBalance {
+
+    private Money balance;
+    private Money reserved;
+    private Money held;
+    private Money available;
+}
@@ -1,24 +1,16 @@
 package com.jayanth.tradingplatform.service;
 
 import com.jayanth.tradingplatform.model.Asset;
-import com.jayanth.tradingplatform.model.Coin;
-import com.jayanth.tradingplatform.model.User;
 
 import java.util.List;
 
 public interface AssetService {
 
-    Asset createAsset(User user, Coin coin, double quantity);
-
     Asset getAssetById(Long assetId);
 
     Asset getAssetByUserIdAndId(Long userId, Long assetId);
 
     List<Asset> getUserAssets(Long userId);
 
-    Asset updateAsset(Long assetId, double quantity);
-
     Asset findAssetByUserIdAndCoinId(Long userId, String coinId);
-
-    void deleteAsset(Long assetId);
 }
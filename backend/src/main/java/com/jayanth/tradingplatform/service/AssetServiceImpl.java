@@ -1,8 +1,6 @@
 package com.jayanth.tradingplatform.service;
 
 import com.jayanth.tradingplatform.model.Asset;
-import com.jayanth.tradingplatform.model.Coin;
-import com.jayanth.tradingplatform.model.User;
 import com.jayanth.tradingplatform.repository.AssetRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -15,16 +13,6 @@ public class AssetServiceImpl implements AssetService {
     @Autowired
     private AssetRepository assetRepository;
 
-    @Override
-    public Asset createAsset(User user, Coin coin, double quantity) {
-        Asset asset = new Asset();
-        asset.setUser(user);
-        asset.setCoin(coin);
-        asset.setQuantity(quantity);
-        asset.setBuyPrice(coin.getCurrentPrice());
-        return assetRepository.save(asset);
-    }
-
     @Override
     public Asset getAssetById(Long assetId) {
 
@@ -42,21 +30,8 @@ public class AssetServiceImpl implements AssetService {
         return assetRepository.findByUserId(userId);
     }
 
-    @Override
-    public Asset updateAsset(Long assetId, double quantity) {
-        Asset oldAsset = getAssetById(assetId);
-        oldAsset.setQuantity(quantity + oldAsset.getQuantity());
-
-        return assetRepository.save(oldAsset);
-    }
-
     @Override
     public Asset findAssetByUserIdAndCoinId(Long userId, String coinId) {
         return assetRepository.findByUserIdAndCoinId(userId, coinId);
     }
-
-    @Override
-    public void deleteAsset(Long assetId) {
-        assetRepository.deleteById(assetId);
-    }
 }
@@ -0,0 +1,18 @@
+package com.jayanth.tradingplatform.service;
+
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.WalletTransactionType;
+import com.jayanth.tradingplatform.model.BalanceHold;
+import com.jayanth.tradingplatform.model.Wallet;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BalanceHoldService {
+
+    BalanceHold placeHold(Wallet wallet, Money amount, String purpose) throws Exception;
+
+    List<BalanceHold> releaseHolds(Collection<Long> holdIds);
+
+    List<BalanceHold> captureHolds(Collection<Long> holdIds, WalletTransactionType type);
+}
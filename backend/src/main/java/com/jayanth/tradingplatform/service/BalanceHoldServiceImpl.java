@@ -0,0 +1,92 @@
+package com.jayanth.tradingplatform.service;
+
+import com.jayanth.tradingplatform.domain.HoldStatus;
+import com.jayanth.tradingplatform.domain.LedgerAccount;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.WalletTransactionType;
+import com.jayanth.tradingplatform.engine.RiskEngine;
+import com.jayanth.tradingplatform.model.BalanceHold;
+import com.jayanth.tradingplatform.model.Wallet;
+import com.jayanth.tradingplatform.repository.BalanceHoldRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Holds on wallet cash. The {@link RiskEngine} decides, in memory and per
+ * hold, whether cash can be held and whether a hold is still active; the
+ * hold rows follow in the caller's transaction. Releasing or capturing many
+ * holds reads their rows with one query and writes them back in JDBC
+ * batches. A capture is a ledger debit, applied to the wallet row as a
+ * relative update at commit, so no wallet is read and written back.
+ */
+@Service
+public class BalanceHoldServiceImpl implements BalanceHoldService {
+
+    @Autowired
+    private BalanceHoldRepository balanceHoldRepository;
+
+    @Autowired
+    private WalletTransactionService walletTransactionService;
+
+    @Autowired
+    private RiskEngine riskEngine;
+
+    @Override
+    @Transactional
+    public BalanceHold placeHold(Wallet wallet, Money amount, String purpose) throws Exception {
+        if(amount == null || amount.signum() <= 0){
+            throw new Exception("amount should be greater than 0");
+        }
+        if(wallet.getId() == null){
+            throw new Exception("insufficient balance");
+        }
+        BalanceHold hold = new BalanceHold();
+        hold.setWallet(wallet);
+        hold.setAmount(amount);
+        hold.setStatus(HoldStatus.ACTIVE);
+        hold.setPurpose(purpose);
+        hold.setCreatedAt(LocalDateTime.now());
+        hold = balanceHoldRepository.save(hold);
+        riskEngine.hold(hold.getId(), wallet.getUser().getId(), amount.getUnits());
+        return hold;
+    }
+
+    @Override
+    @Transactional
+    public List<BalanceHold> releaseHolds(Collection<Long> holdIds) {
+        List<BalanceHold> released = new ArrayList<>(holdIds.size());
+        LocalDateTime now = LocalDateTime.now();
+        for(BalanceHold hold : balanceHoldRepository.findAllWithWallet(holdIds)){
+            if(hold.getStatus() == HoldStatus.ACTIVE && riskEngine.releaseHold(hold.getId())){
+                hold.setStatus(HoldStatus.RELEASED);
+                hold.setSettledAt(now);
+                released.add(hold);
+            }
+        }
+        return released;
+    }
+
+    @Override
+    @Transactional
+    public List<BalanceHold> captureHolds(Collection<Long> holdIds, WalletTransactionType type) {
+        List<BalanceHold> captured = new ArrayList<>(holdIds.size());
+        LocalDateTime now = LocalDateTime.now();
+        for(BalanceHold hold : balanceHoldRepository.findAllWithWallet(holdIds)){
+            if(hold.getStatus() == HoldStatus.ACTIVE && riskEngine.captureHold(hold.getId())){
+                Wallet wallet = hold.getWallet();
+                walletTransactionService.post(wallet, LedgerAccount.EXTERNAL, Money.ZERO.minus(hold.getAmount()),
+                        type, hold.getPurpose());
+                hold.setStatus(HoldStatus.CAPTURED);
+                hold.setSettledAt(now);
+                captured.add(hold);
+            }
+        }
+        return captured;
+    }
+}
@@ -0,0 +1,14 @@
+package com.jayanth.tradingplatform.service;
+
+import com.jayanth.tradingplatform.domain.CandleInterval;
+import com.jayanth.tradingplatform.model.Coin;
+import com.jayanth.tradingplatform.response.MarketChart;
+
+public interface CandleService {
+
+    void onTrade(String coinId, long price, long quantity, long timestamp);
+
+    MarketChart getMarketChart(Coin coin, int days, CandleInterval interval) throws Exception;
+
+    void flush();
+}
@@ -0,0 +1,186 @@
+package com.jayanth.tradingplatform.service;
+
+import com.jayanth.tradingplatform.domain.CandleInterval;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.Quantity;
+import com.jayanth.tradingplatform.engine.CandleSeries;
+import com.jayanth.tradingplatform.model.Candle;
+import com.jayanth.tradingplatform.model.Coin;
+import com.jayanth.tradingplatform.repository.CandleRepository;
+import com.jayanth.tradingplatform.response.MarketChart;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Builds OHLCV bars for every interval as fills and price ticks arrive, so a
+ * chart is read from the bars already in memory instead of aggregating trade
+ * history per request. Changed bars are written to the candle table on a
+ * schedule and reloaded at startup; fills since the last flush are lost on
+ * a crash.
+ */
+@Slf4j
+@Service
+public class CandleServiceImpl implements CandleService, PriceTickListener {
+
+    private static final CandleInterval[] INTERVALS = CandleInterval.values();
+    private static final long DAY_MS = 86_400_000L;
+    private static final int MAX_DAYS = 3650;
+
+    @Autowired
+    private CandleRepository candleRepository;
+
+    private final ConcurrentMap<String, CandleSeries[]> series = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        long now = System.currentTimeMillis();
+        int loaded = 0;
+        for(CandleInterval interval : INTERVALS){
+            long from = interval.openTime(now) - (interval.getCapacity() - 1) * interval.getMillis();
+            for(Candle candle : candleRepository.findOpenedSince(interval, from)){
+                seriesOf(candle.getCoinId())[interval.ordinal()].load(candle.getOpenTime(),
+                        candle.getOpen().getUnits(), candle.getHigh().getUnits(), candle.getLow().getUnits(),
+                        candle.getClose().getUnits(), candle.getVolume().getLots());
+                loaded++;
+            }
+        }
+        log.info("loaded {} candles for {} coins", loaded, series.size());
+    }
+
+    @Override
+    public void onTrade(String coinId, long price, long quantity, long timestamp) {
+        for(CandleSeries bars : seriesOf(coinId)){
+            bars.update(timestamp, price, quantity);
+        }
+    }
+
+    @Override
+    public void onPriceTick(Coin coin, Money price, long timestamp) {
+        onTrade(coin.getId(), price.getUnits(), 0, timestamp);
+    }
+
+    /**
+     * Bars covering the last {@code days} days. Without an explicit interval
+     * it picks five minute bars for a day, hourly ones up to 90 days and daily
+     * ones beyond that.
+     */
+    @Override
+    public MarketChart getMarketChart(Coin coin, int days, CandleInterval interval) throws Exception {
+        if(days <= 0 || days > MAX_DAYS){
+            throw new Exception("days should be between 1 and " + MAX_DAYS);
+        }
+        if(interval == null){
+            interval = days <= 1 ? CandleInterval.M5 : days <= 90 ? CandleInterval.H1 : CandleInterval.D1;
+        }
+        MarketChart chart = new MarketChart();
+        chart.setInterval(interval);
+        CandleSeries[] bars = series.get(coin.getId());
+        if(bars == null){
+            return chart;
+        }
+
+        long[][] columns = new long[6][interval.getCapacity()];
+        int n = bars[interval.ordinal()].read(System.currentTimeMillis() - days * DAY_MS, columns);
+        Long supply = coin.getCirculatingSupply();
+        for(int i = 0; i < n; i++){
+            Long openTime = columns[0][i];
+            Money close = Money.ofUnits(columns[4][i]);
+            chart.getPrices().add(new Object[]{openTime, close});
+            chart.getTotalVolumes().add(new Object[]{openTime, Quantity.ofLots(columns[5][i])});
+            chart.getOhlc().add(new Object[]{openTime, Money.ofUnits(columns[1][i]),
+                    Money.ofUnits(columns[2][i]), Money.ofUnits(columns[3][i]), close});
+            if(supply != null){
+                chart.getMarketCaps().add(new Object[]{openTime,
+                        close.toBigDecimal().multiply(BigDecimal.valueOf(supply))});
+            }
+        }
+        return chart;
+    }
+
+    /**
+     * Writes the bars changed since the last flush. Bars that fail to save
+     * are marked dirty again for the next run.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${trading.candles.flush-interval-ms:60000}",
+            initialDelayString = "${trading.candles.flush-interval-ms:60000}")
+    public synchronized void flush() {
+        List<Candle> candles = new ArrayList<>();
+        List<CandleSeries> drained = new ArrayList<>();
+        List<Long> drainedFrom = new ArrayList<>();
+        long[][][] buffers = new long[INTERVALS.length][][];
+        for(CandleInterval interval : INTERVALS){
+            buffers[interval.ordinal()] = new long[6][interval.getCapacity()];
+        }
+        for(Map.Entry<String, CandleSeries[]> entry : series.entrySet()){
+            for(CandleInterval interval : INTERVALS){
+                CandleSeries bars = entry.getValue()[interval.ordinal()];
+                long[][] columns = buffers[interval.ordinal()];
+                int n = bars.drain(columns);
+                if(n == 0){
+                    continue;
+                }
+                drained.add(bars);
+                drainedFrom.add(columns[0][0]);
+                for(int i = 0; i < n; i++){
+                    candles.add(toCandle(entry.getKey(), interval, columns, i));
+                }
+            }
+        }
+        if(candles.isEmpty()){
+            return;
+        }
+        try{
+            candleRepository.saveAll(candles);
+        }catch(RuntimeException e){
+            log.warn("could not flush {} candles", candles.size(), e);
+            for(int i = 0; i < drained.size(); i++){
+                drained.get(i).markDirty(drainedFrom.get(i));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    private CandleSeries[] seriesOf(String coinId) {
+        CandleSeries[] bars = series.get(coinId);
+        if(bars != null){
+            return bars;
+        }
+        return series.computeIfAbsent(coinId, id -> {
+            CandleSeries[] created = new CandleSeries[INTERVALS.length];
+            for(CandleInterval interval : INTERVALS){
+                created[interval.ordinal()] = new CandleSeries(interval.getMillis(), interval.getCapacity());
+            }
+            return created;
+        });
+    }
+
+    private static Candle toCandle(String coinId, CandleInterval interval, long[][] columns, int i) {
+        Candle candle = new Candle();
+        candle.setId(coinId + ":" + interval + ":" + columns[0][i]);
+        candle.setCoinId(coinId);
+        candle.setCandleInterval(interval);
+        candle.setOpenTime(columns[0][i]);
+        candle.setOpen(Money.ofUnits(columns[1][i]));
+        candle.setHigh(Money.ofUnits(columns[2][i]));
+        candle.setLow(Money.ofUnits(columns[3][i]));
+        candle.setClose(Money.ofUnits(columns[4][i]));
+        candle.setVolume(Quantity.ofLots(columns[5][i]));
+        return candle;
+    }
+}
@@ -1,14 +1,20 @@
 package com.jayanth.tradingplatform.service;
 
+import com.jayanth.tradingplatform.domain.CandleInterval;
 import com.jayanth.tradingplatform.model.Coin;
+import com.jayanth.tradingplatform.response.DepthChanges;
+import com.jayanth.tradingplatform.response.DepthSnapshot;
+import com.jayanth.tradingplatform.response.MarketChart;
+import com.jayanth.tradingplatform.response.TradeItem;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 public interface CoinService {
 
     List<Coin> getCoinsList(int page) throws Exception;
 
-    String getMarketChart(String coinId, int days) throws Exception;
+    MarketChart getMarketChart(String coinId, int days, CandleInterval interval) throws Exception;
 
     String getCoinDetails(String coinId) throws Exception;
 
@@ -22,5 +28,13 @@ public interface CoinService {
 
     List<Coin> getAllCoins();
 
+    Coin updatePrice(String coinId, BigDecimal price) throws Exception;
+
+    List<TradeItem> getRecentTrades(String coinId, Long since, int limit) throws Exception;
+
+    DepthSnapshot getDepth(String coinId, Integer levels) throws Exception;
+
+    DepthChanges getDepthChanges(String coinId, long since, int limit) throws Exception;
+
 
 }
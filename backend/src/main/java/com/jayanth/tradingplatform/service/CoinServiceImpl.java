@@ -1,26 +1,59 @@
 package com.jayanth.tradingplatform.service;
 
+import com.jayanth.tradingplatform.domain.CandleInterval;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.domain.Quantity;
+import com.jayanth.tradingplatform.engine.BookDepth;
+import com.jayanth.tradingplatform.engine.DepthDelta;
+import com.jayanth.tradingplatform.engine.MatchingEngine;
+import com.jayanth.tradingplatform.engine.TradeTape;
+import com.jayanth.tradingplatform.engine.TradeTick;
 import com.jayanth.tradingplatform.model.Coin;
 import com.jayanth.tradingplatform.repository.CoinRepository;
+import com.jayanth.tradingplatform.response.DepthChange;
+import com.jayanth.tradingplatform.response.DepthChanges;
+import com.jayanth.tradingplatform.response.DepthLevel;
+import com.jayanth.tradingplatform.response.DepthSnapshot;
+import com.jayanth.tradingplatform.response.MarketChart;
+import com.jayanth.tradingplatform.response.TradeItem;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @Service
 public class CoinServiceImpl implements CoinService {
 
+    private static final int MAX_DEPTH_CHANGES = 1000;
+
     @Autowired
     private CoinRepository coinRepository;
 
+    @Autowired
+    private List<PriceTickListener> priceTickListeners;
+
+    @Autowired
+    private TradeTape tradeTape;
+
+    @Autowired
+    private CandleService candleService;
+
+    @Autowired
+    private MatchingEngine matchingEngine;
+
     @Override
     public List<Coin> getCoinsList(int page) throws Exception {
         return null;
     }
 
     @Override
-    public String getMarketChart(String coinId, int days) throws Exception {
-        return null;
+    public MarketChart getMarketChart(String coinId, int days, CandleInterval interval) throws Exception {
+        return candleService.getMarketChart(findById(coinId), days, interval);
     }
 
     @Override
@@ -30,7 +63,8 @@ public class CoinServiceImpl implements CoinService {
 
     @Override
     public Coin findById(String coinId) throws Exception {
-        return null;
+        return coinRepository.findById(coinId)
+                .orElseThrow(() -> new Exception("coin not found"));
     }
 
     @Override
@@ -52,4 +86,81 @@ public class CoinServiceImpl implements CoinService {
     public List<Coin> getAllCoins() {
         return coinRepository.findAll();
     }
+
+    @Override
+    public Coin updatePrice(String coinId, BigDecimal price) throws Exception {
+        if(price == null || price.signum() <= 0){
+            throw new Exception("price should be greater than 0");
+        }
+        Coin coin = findById(coinId);
+        Instant now = Instant.now();
+        coin.setCurrentPrice(price);
+        coin.setLastUpdated(now);
+        Coin saved = coinRepository.save(coin);
+
+        Money tick = Money.of(price);
+        for(PriceTickListener listener : priceTickListeners){
+            listener.onPriceTick(saved, tick, now.toEpochMilli());
+        }
+        return saved;
+    }
+
+    /**
+     * Executions after sequence {@code since}, or the latest ones without it,
+     * oldest first. Served from the in-memory tape, never the database.
+     */
+    @Override
+    public List<TradeItem> getRecentTrades(String coinId, Long since, int limit) throws Exception {
+        if(limit <= 0 || limit > tradeTape.getSize()){
+            throw new Exception("limit should be between 1 and " + tradeTape.getSize());
+        }
+        List<TradeTick> ticks = tradeTape.read(coinId, since == null ? -1 : since, limit);
+        List<TradeItem> trades = new ArrayList<>(ticks.size());
+        for(TradeTick tick : ticks){
+            trades.add(new TradeItem(tick.getSequence(), Money.ofUnits(tick.getPrice()),
+                    Quantity.ofLots(tick.getQuantity()), tick.isBuy() ? OrderType.BUY : OrderType.SELL,
+                    tick.getTimestamp()));
+        }
+        return trades;
+    }
+
+    /**
+     * Aggregated levels of the coin's book, every level unless
+     * {@code levels} is given. Clients keep it current with
+     * {@link #getDepthChanges} from the returned sequence on.
+     */
+    @Override
+    public DepthSnapshot getDepth(String coinId, Integer levels) throws Exception {
+        if(levels != null && levels <= 0){
+            throw new Exception("levels should be greater than 0");
+        }
+        BookDepth depth = matchingEngine.depth(coinId, levels == null ? Integer.MAX_VALUE : levels);
+        return new DepthSnapshot(depth.getSequence(), toLevels(depth.getBids()), toLevels(depth.getAsks()));
+    }
+
+    @Override
+    public DepthChanges getDepthChanges(String coinId, long since, int limit) throws Exception {
+        if(limit <= 0 || limit > MAX_DEPTH_CHANGES){
+            throw new Exception("limit should be between 1 and " + MAX_DEPTH_CHANGES);
+        }
+        List<DepthDelta> deltas = new ArrayList<>(Math.min(limit, 64));
+        if(!matchingEngine.deltas(coinId, since, limit, deltas)){
+            return new DepthChanges(true, since, Collections.emptyList());
+        }
+        List<DepthChange> changes = new ArrayList<>(deltas.size());
+        for(DepthDelta delta : deltas){
+            changes.add(new DepthChange(delta.getSequence(), delta.isBid() ? OrderType.BUY : OrderType.SELL,
+                    Money.ofUnits(delta.getPrice()), Quantity.ofLots(delta.getQuantity())));
+        }
+        long sequence = deltas.isEmpty() ? since : deltas.get(deltas.size() - 1).getSequence();
+        return new DepthChanges(false, sequence, changes);
+    }
+
+    private static List<DepthLevel> toLevels(long[][] rows) {
+        List<DepthLevel> levels = new ArrayList<>(rows[0].length);
+        for(int i = 0; i < rows[0].length; i++){
+            levels.add(new DepthLevel(Money.ofUnits(rows[0][i]), Quantity.ofLots(rows[1][i])));
+        }
+        return levels;
+    }
 }
@@ -0,0 +1,18 @@
+package com.jayanth.tradingplatform.service;
+
+import com.jayanth.tradingplatform.model.IdempotencyRecord;
+
+public interface IdempotencyService {
+
+    /**
+     * Claims {@code scopedKey} for a request with the given fingerprint.
+     * Returns null if the caller now owns the key and must run the request,
+     * otherwise the record already held for it, either still in flight or
+     * completed.
+     */
+    IdempotencyRecord begin(String scopedKey, String fingerprint);
+
+    void complete(String scopedKey, String fingerprint, int status, String contentType, byte[] body);
+
+    void abandon(String scopedKey);
+}
@@ -0,0 +1,87 @@
+package com.jayanth.tradingplatform.service;
+
+import com.jayanth.tradingplatform.model.IdempotencyRecord;
+import com.jayanth.tradingplatform.repository.IdempotencyRecordRepository;
+import com.jayanth.tradingplatform.utils.ExpiringCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Keeps idempotency keys in a bounded in-memory cache for the hot path and
+ * writes completed responses to a table, so a retry still replays after a
+ * restart or once the cache has evicted its key.
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final Duration ttl;
+    private final ExpiringCache<String, IdempotencyRecord> cache;
+
+    public IdempotencyServiceImpl(@Value("${trading.idempotency.ttl:24h}") Duration ttl,
+                                  @Value("${trading.idempotency.max-entries:100000}") int maxEntries) {
+        this.ttl = ttl;
+        this.cache = new ExpiringCache<>(ttl.toNanos(), maxEntries);
+    }
+
+    @Override
+    public IdempotencyRecord begin(String scopedKey, String fingerprint) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setScopedKey(scopedKey);
+        record.setFingerprint(fingerprint);
+        record.setCreatedAt(LocalDateTime.now());
+
+        IdempotencyRecord existing = cache.putIfAbsent(scopedKey, record);
+        if (existing != null) {
+            return existing;
+        }
+        Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findById(scopedKey);
+        if (stored.isPresent() && stored.get().getCreatedAt().isAfter(LocalDateTime.now().minus(ttl))) {
+            cache.put(scopedKey, stored.get());
+            return stored.get();
+        }
+        return null;
+    }
+
+    @Override
+    public void complete(String scopedKey, String fingerprint, int status, String contentType, byte[] body) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setScopedKey(scopedKey);
+        record.setFingerprint(fingerprint);
+        record.setCreatedAt(LocalDateTime.now());
+        record.setResponseStatus(status);
+        record.setContentType(contentType);
+        record.setBody(body);
+        cache.put(record.getScopedKey(), record);
+        try {
+            idempotencyRecordRepository.save(record);
+        } catch (RuntimeException e) {
+            log.warn("could not store idempotency record {}", record.getScopedKey(), e);
+        }
+    }
+
+    @Override
+    public void abandon(String scopedKey) {
+        cache.remove(scopedKey);
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${trading.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int deleted = idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+        if (deleted > 0) {
+            log.info("purged {} expired idempotency records", deleted);
+        }
+    }
+}
@@ -0,0 +1,525 @@
+package com.jayanth.tradingplatform.service;
+
+import com.jayanth.tradingplatform.domain.LedgerAccount;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.OrderKind;
+import com.jayanth.tradingplatform.domain.OrderStatus;
+import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.domain.Quantity;
+import com.jayanth.tradingplatform.domain.TimeInForce;
+import com.jayanth.tradingplatform.domain.WalletTransactionType;
+import com.jayanth.tradingplatform.engine.ExpiryEngine;
+import com.jayanth.tradingplatform.engine.MarketFill;
+import com.jayanth.tradingplatform.engine.OrderAccepted;
+import com.jayanth.tradingplatform.engine.OrderCancelled;
+import com.jayanth.tradingplatform.engine.OrderJournal;
+import com.jayanth.tradingplatform.engine.PortfolioEngine;
+import com.jayanth.tradingplatform.engine.RiskEngine;
+import com.jayanth.tradingplatform.engine.SnapshotManager;
+import com.jayanth.tradingplatform.engine.TaxLotBook;
+import com.jayanth.tradingplatform.engine.TradeEvent;
+import com.jayanth.tradingplatform.engine.TriggerEngine;
+import com.jayanth.tradingplatform.engine.TriggerPlaced;
+import com.jayanth.tradingplatform.model.*;
+import com.jayanth.tradingplatform.repository.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import com.jayanth.tradingplatform.response.ProjectorHealth;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.RoundingMode;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tails the {@link OrderJournal} on a background thread and applies its
+ * durable events to the JPA tables in batches. The journal position reached is
+ * stored in the same transaction as the rows it produced, so every event is
+ * projected exactly once even across restarts. Once the journal written before
+ * startup has been applied, the {@link TriggerEngine}, {@link ExpiryEngine},
+ * {@link PortfolioEngine} and {@link RiskEngine} are loaded from the tables.
+ * Fills also open and consume the owner's {@link TaxLotBook} lots, which are
+ * written with the batch.
+ * <p>
+ * It starts only after the {@link SnapshotManager} has recovered the order
+ * books, because the risk engine rebuilds resting order reservations from
+ * them.
+ * <p>
+ * A failed batch is retried one event at a time, so the event that fails
+ * is isolated. If that event keeps failing for {@code max-attempts} tries,
+ * it is moved to the {@link JournalDeadLetter} table and the checkpoint
+ * advances past it in the same transaction. Failures that look transient,
+ * such as a lost connection, are retried without limit. {@link #health()}
+ * reports a projector that is still loading or stuck.
+ */
+@Slf4j
+@Service
+@DependsOn("snapshotManager")
+public class JournalProjector {
+
+    private static final String CHECKPOINT = "order-projector";
+    private static final int MAX_BATCH = 512;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CoinRepository coinRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private JournalCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private JournalDeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private OrderJournal orderJournal;
+
+    @Autowired
+    private RiskEngine riskEngine;
+
+    @Autowired
+    private WalletTransactionService walletTransactionService;
+
+    @Autowired
+    private TriggerEngine triggerEngine;
+
+    @Autowired
+    private PortfolioEngine portfolioEngine;
+
+    @Autowired
+    private ExpiryEngine expiryEngine;
+
+    @Autowired
+    private TaxLotBook taxLotBook;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${trading.projector.max-attempts:5}")
+    private int maxAttempts;
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running;
+
+    // written by the projector thread only, read by health()
+    private volatile boolean loaded;
+    private volatile long projected;
+    private volatile int failures;
+    private volatile long failingSince;
+    private volatile long deadLetters;
+
+    private Thread worker;
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "journal-projector");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.join(5000);
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    /**
+     * Runs {@code task} in its own transaction on the projector thread
+     * between two batches, so it never interleaves with projected writes.
+     */
+    public <T> CompletableFuture<T> submit(TransactionCallback<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        tasks.add(() -> {
+            if (!running) {
+                future.completeExceptionally(new IllegalStateException("journal projector is stopped"));
+                return;
+            }
+            try {
+                future.complete(transactionTemplate.execute(task));
+            } catch (RuntimeException e) {
+                taxLotBook.discard();
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Reports the projector as {@code STUCK} while the batch at its checkpoint
+     * keeps failing, otherwise as {@code LOADING} until the engines are loaded.
+     */
+    public ProjectorHealth health() {
+        long position = projected;
+        int failed = failures;
+        long since = failingSince;
+        String status = failed > 0 ? "STUCK" : !loaded ? "LOADING" : "UP";
+        return new ProjectorHealth(status, loaded, position, orderJournal.getDurablePosition() - position,
+                failed, failed > 0 ? since : null, deadLetters);
+    }
+
+    private void run() {
+        JournalCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT).orElseGet(() -> {
+            JournalCheckpoint created = new JournalCheckpoint();
+            created.setName(CHECKPOINT);
+            return created;
+        });
+        projected = checkpoint.getPosition();
+        deadLetters = deadLetterRepository.countByProjector(CHECKPOINT);
+        List<Object> batch = new ArrayList<>(MAX_BATCH);
+        long startupPosition = orderJournal.getDurablePosition();
+        // events before this position are applied one per batch, after a batch holding them failed
+        long isolateUntil = -1;
+        long failedAt = -1;
+        int attempts = 0;
+        while (running || checkpoint.getPosition() < orderJournal.getDurablePosition()) {
+            long position = checkpoint.getPosition();
+            long next = position;
+            try {
+                if (!loaded && position >= startupPosition) {
+                    triggerEngine.load();
+                    expiryEngine.load();
+                    portfolioEngine.load();
+                    riskEngine.load();
+                    loaded = true;
+                }
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+                next = orderJournal.read(position, position < isolateUntil ? 1 : MAX_BATCH, batch);
+                if (batch.isEmpty()) {
+                    LockSupport.parkNanos(5_000_000);
+                    continue;
+                }
+                long end = next;
+                transactionTemplate.executeWithoutResult(status -> {
+                    batch.forEach(this::apply);
+                    taxLotBook.flush();
+                    checkpoint.setPosition(end);
+                    checkpointRepository.save(checkpoint);
+                });
+                projected = next;
+                failures = 0;
+            } catch (Exception e) {
+                taxLotBook.discard();
+                // the commit may have failed after the position was set
+                checkpoint.setPosition(position);
+                if (failures++ == 0) {
+                    failingSince = System.currentTimeMillis();
+                }
+                if (next > position) {
+                    isolateUntil = Math.max(isolateUntil, next);
+                    if (batch.size() == 1 && !isTransient(e)) {
+                        attempts = failedAt == position ? attempts + 1 : 1;
+                        failedAt = position;
+                    }
+                }
+                log.error("failed to project journal batch at {}, attempt {} of the event there",
+                        position, attempts, e);
+                if (failedAt == position && attempts >= maxAttempts) {
+                    deadLetter(checkpoint, position, next, batch.get(0), attempts, e);
+                } else {
+                    LockSupport.parkNanos(1_000_000_000L);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Records an event that keeps failing and moves the checkpoint past it.
+     */
+    private void deadLetter(JournalCheckpoint checkpoint, long position, long next, Object event,
+                            int attempts, Exception error) {
+        JournalDeadLetter letter = new JournalDeadLetter();
+        letter.setProjector(CHECKPOINT);
+        letter.setPosition(position);
+        letter.setNextPosition(next);
+        letter.setAttempts(attempts);
+        letter.setEvent(truncate(String.valueOf(event), 1000));
+        letter.setError(truncate(String.valueOf(error), 2000));
+        letter.setCreatedAt(LocalDateTime.now());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                deadLetterRepository.save(letter);
+                checkpoint.setPosition(next);
+                checkpointRepository.save(checkpoint);
+            });
+        } catch (RuntimeException e) {
+            checkpoint.setPosition(position);
+            log.error("failed to dead-letter journal event at {}", position, e);
+            LockSupport.parkNanos(1_000_000_000L);
+            return;
+        }
+        projected = next;
+        failures = 0;
+        deadLetters++;
+        log.error("skipped journal event at {} after {} failed attempts, its rows are missing: {}",
+                position, attempts, event);
+    }
+
+    private static boolean isTransient(Throwable e) {
+        for (; e != null; e = e.getCause()) {
+            if (e instanceof TransientDataAccessException || e instanceof RecoverableDataAccessException
+                    || e instanceof DataAccessResourceFailureException
+                    || e instanceof CannotCreateTransactionException
+                    || e instanceof SQLTransientException || e instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String truncate(String text, int length) {
+        return text.length() <= length ? text : text.substring(0, length);
+    }
+
+    private void apply(Object event) {
+        if (event instanceof OrderAccepted accepted) {
+            applyAccepted(accepted);
+        } else if (event instanceof TradeEvent trade) {
+            applyTrade(trade);
+        } else if (event instanceof MarketFill fill) {
+            applyMarketFill(fill);
+        } else if (event instanceof TriggerPlaced placed) {
+            applyTriggerPlaced(placed);
+        } else if (event instanceof OrderCancelled cancelled) {
+            applyCancelled(cancelled);
+        }
+    }
+
+    private void applyAccepted(OrderAccepted event) {
+        Money limitPrice = Money.ofUnits(event.getPrice());
+        Quantity quantity = Quantity.ofLots(event.getQuantity());
+
+        OrderItem item = new OrderItem();
+        item.setCoin(entityManager.getReference(Coin.class, event.getCoinId()));
+        item.setQuantity(quantity);
+        item.setBuyPrice(event.getSide() == OrderType.BUY ? limitPrice : Money.ZERO);
+        item.setSellPrice(event.getSide() == OrderType.SELL ? limitPrice : Money.ZERO);
+
+        Order order = new Order();
+        order.setId(event.getOrderId());
+        order.setUser(entityManager.getReference(User.class, event.getUserId()));
+        order.setOrderType(event.getSide());
+        order.setOrderKind(OrderKind.LIMIT);
+        order.setLimitPrice(limitPrice);
+        order.setPrice(limitPrice.times(quantity));
+        order.setTimeInForce(event.getTimeInForce());
+        if (event.getTimeInForce() == TimeInForce.GTD) {
+            order.setExpiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(event.getExpiresAt()), ZoneId.systemDefault()));
+        }
+        order.setTimestamp(LocalDate.ofInstant(Instant.ofEpochMilli(event.getTimestamp()), ZoneId.systemDefault()));
+        order.setStatus(OrderStatus.OPEN);
+        order.setOrderItem(item);
+        item.setOrder(order);
+        entityManager.persist(order);
+    }
+
+    private void applyTrade(TradeEvent trade) {
+        Coin coin = coinRepository.findById(trade.getCoinId())
+                .orElseThrow(() -> new IllegalStateException("coin not found " + trade.getCoinId()));
+        Money price = Money.ofUnits(trade.getPrice());
+        Quantity quantity = Quantity.ofLots(trade.getQuantity());
+
+        applyFill(trade.getBuyOrderId(), OrderType.BUY, coin, price, quantity, trade.getTimestamp());
+        applyFill(trade.getSellOrderId(), OrderType.SELL, coin, price, quantity, trade.getTimestamp());
+    }
+
+    private void applyFill(long parentOrderId, OrderType side, Coin coin,
+                           Money price, Quantity quantity, long timestamp) {
+        Order parent = orderRepository.findById(parentOrderId)
+                .orElseThrow(() -> new IllegalStateException("order not found " + parentOrderId));
+        User user = parent.getUser();
+        Money notional = price.times(quantity);
+        Asset asset = assetRepository.findByUserIdAndCoinId(user.getId(), coin.getId());
+        OrderItem item = fillItem(user, coin, side, price, quantity, notional, asset);
+
+        Order fill = new Order();
+        fill.setUser(user);
+        fill.setOrderType(side);
+        fill.setOrderKind(parent.getOrderKind());
+        fill.setPrice(notional);
+        fill.setLimitPrice(parent.getLimitPrice());
+        fill.setTriggerPrice(parent.getTriggerPrice());
+        fill.setParentOrderId(parentOrderId);
+        fill.setTimestamp(LocalDate.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()));
+        fill.setStatus(OrderStatus.SUCCESS);
+        fill.setOrderItem(item);
+        item.setOrder(fill);
+        orderRepository.save(fill);
+
+        Quantity filled = parent.getFilledQuantity().plus(quantity);
+        parent.setFilledQuantity(filled);
+        parent.setStatus(!filled.isLessThan(parent.getOrderItem().getQuantity())
+                ? OrderStatus.FILLED : OrderStatus.PARTIALLY_FILLED);
+        orderRepository.save(parent);
+
+        settle(user, coin, side, price, quantity, notional, asset, fill.getId());
+    }
+
+    private void applyTriggerPlaced(TriggerPlaced event) {
+        Money triggerPrice = Money.ofUnits(event.getTriggerPrice());
+        Quantity quantity = Quantity.ofLots(event.getQuantity());
+
+        OrderItem item = new OrderItem();
+        item.setCoin(entityManager.getReference(Coin.class, event.getCoinId()));
+        item.setQuantity(quantity);
+        item.setBuyPrice(event.getSide() == OrderType.BUY ? triggerPrice : Money.ZERO);
+        item.setSellPrice(event.getSide() == OrderType.SELL ? triggerPrice : Money.ZERO);
+
+        Order order = new Order();
+        order.setId(event.getOrderId());
+        order.setUser(entityManager.getReference(User.class, event.getUserId()));
+        order.setOrderType(event.getSide());
+        order.setOrderKind(event.getKind());
+        order.setTriggerPrice(triggerPrice);
+        order.setPrice(triggerPrice.times(quantity));
+        order.setTimestamp(LocalDate.ofInstant(Instant.ofEpochMilli(event.getTimestamp()), ZoneId.systemDefault()));
+        order.setStatus(OrderStatus.OPEN);
+        order.setOrderItem(item);
+        item.setOrder(order);
+        entityManager.persist(order);
+    }
+
+    private void applyCancelled(OrderCancelled event) {
+        Order order = orderRepository.findById(event.getOrderId())
+                .orElseThrow(() -> new IllegalStateException("order not found " + event.getOrderId()));
+        if (order.getStatus() == OrderStatus.OPEN || order.getStatus() == OrderStatus.PARTIALLY_FILLED) {
+            order.setStatus(event.isExpired() ? OrderStatus.EXPIRED : OrderStatus.CANCELLED);
+            orderRepository.save(order);
+        }
+    }
+
+    private void applyMarketFill(MarketFill event) {
+        Coin coin = coinRepository.findById(event.getCoinId())
+                .orElseThrow(() -> new IllegalStateException("coin not found " + event.getCoinId()));
+        if (event.isTriggered()) {
+            applyFill(event.getOrderId(), event.getSide(), coin,
+                    Money.ofUnits(event.getPrice()), Quantity.ofLots(event.getQuantity()), event.getTimestamp());
+            return;
+        }
+        User user = entityManager.getReference(User.class, event.getUserId());
+        Money price = Money.ofUnits(event.getPrice());
+        Quantity quantity = Quantity.ofLots(event.getQuantity());
+        Money notional = price.times(quantity);
+        Asset asset = assetRepository.findByUserIdAndCoinId(event.getUserId(), coin.getId());
+        OrderItem item = fillItem(user, coin, event.getSide(), price, quantity, notional, asset);
+
+        Order order = new Order();
+        order.setId(event.getOrderId());
+        order.setUser(user);
+        order.setOrderType(event.getSide());
+        order.setOrderKind(OrderKind.MARKET);
+        order.setPrice(notional);
+        order.setTimestamp(LocalDate.ofInstant(Instant.ofEpochMilli(event.getTimestamp()), ZoneId.systemDefault()));
+        order.setStatus(OrderStatus.SUCCESS);
+        order.setOrderItem(item);
+        item.setOrder(order);
+        entityManager.persist(order);
+
+        settle(user, coin, event.getSide(), price, quantity, notional, asset, event.getOrderId());
+    }
+
+    /**
+     * A sell fill is costed from the lots it consumes, which gives its
+     * realized P&amp;L; its buy price is their average cost.
+     */
+    private OrderItem fillItem(User user, Coin coin, OrderType side, Money price,
+                               Quantity quantity, Money notional, Asset asset) {
+        OrderItem item = new OrderItem();
+        item.setCoin(coin);
+        item.setQuantity(quantity);
+        if (side == OrderType.BUY) {
+            item.setBuyPrice(price);
+            item.setSellPrice(Money.ZERO);
+        } else {
+            long fallback = asset != null && asset.getBuyPrice() != null ? asset.getBuyPrice().getUnits() : 0;
+            long cost = taxLotBook.sell(user.getId(), coin.getId(), user.getCostBasisMethod(),
+                    quantity.getLots(), fallback);
+            item.setBuyPrice(Money.ofUnits(Money.share(cost, Quantity.ONE, quantity.getLots())));
+            item.setSellPrice(price);
+            item.setRealizedPnl(notional.minus(Money.ofUnits(cost)));
+        }
+        return item;
+    }
+
+    private void settle(User user, Coin coin, OrderType side, Money price,
+                        Quantity quantity, Money notional, Asset asset, long fillId) {
+        Wallet wallet = walletRepository.findByUserId(user.getId());
+        if (wallet == null) {
+            wallet = new Wallet();
+            wallet.setUser(user);
+        }
+        walletTransactionService.post(wallet, LedgerAccount.MARKET,
+                side == OrderType.BUY ? Money.ZERO.minus(notional) : notional,
+                side == OrderType.BUY ? WalletTransactionType.BUY_ASSET : WalletTransactionType.SELL_ASSET,
+                coin.getId());
+
+        if (side == OrderType.BUY) {
+            if (asset == null) {
+                asset = new Asset();
+                asset.setUser(user);
+                asset.setCoin(coin);
+                asset.setBuyPrice(price);
+            } else {
+                // average cost of the whole holding
+                Quantity total = asset.getQuantity().plus(quantity);
+                Money held = asset.getBuyPrice() == null ? price : asset.getBuyPrice();
+                Money cost = held.times(asset.getQuantity()).plus(notional);
+                asset.setBuyPrice(Money.of(cost.toBigDecimal().divide(total.toBigDecimal(), Money.SCALE, RoundingMode.HALF_UP)));
+            }
+            asset.setQuantity(asset.getQuantity().plus(quantity));
+            assetRepository.save(asset);
+            taxLotBook.buy(user.getId(), coin.getId(), fillId, quantity.getLots(), notional.getUnits());
+        } else if (asset != null) {
+            asset.setQuantity(asset.getQuantity().minus(quantity));
+            // dust is written off as in the RiskEngine, never under lots an open sell still reserves
+            if (Money.times(price.getUnits(), asset.getQuantity().getLots()) <= Money.ONE
+                    && !orderRepository.existsOpenSell(user.getId(), coin.getId())) {
+                assetRepository.delete(asset);
+            } else {
+                assetRepository.save(asset);
+            }
+        }
+    }
+}
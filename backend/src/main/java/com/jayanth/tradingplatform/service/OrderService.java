@@ -1,11 +1,23 @@
 package com.jayanth.tradingplatform.service;
 
+import com.jayanth.tradingplatform.domain.ExportFormat;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.OrderKind;
+import com.jayanth.tradingplatform.domain.OrderStatus;
 import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.domain.Quantity;
+import com.jayanth.tradingplatform.domain.TimeInForce;
 import com.jayanth.tradingplatform.model.Coin;
 import com.jayanth.tradingplatform.model.Order;
 import com.jayanth.tradingplatform.model.OrderItem;
 import com.jayanth.tradingplatform.model.User;
+import com.jayanth.tradingplatform.request.CreateOrderRequest;
+import com.jayanth.tradingplatform.response.OrderHistoryItem;
+import com.jayanth.tradingplatform.response.OrderResult;
 
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface OrderService {
@@ -14,7 +26,23 @@ public interface OrderService {
 
     Order getOrderById(long orderId);
 
-    List<Order> getAllOrdersOfUsers(Long userId, OrderType orderType, String assetSymbol);
+    List<OrderHistoryItem> getAllOrdersOfUsers(Long userId, OrderType orderType, String assetSymbol,
+                                               OrderStatus status, LocalDate from, LocalDate to,
+                                               Long cursor, int limit) throws Exception;
 
-    Order processOrder(Coin coin, double quantity, OrderType orderType, User user) throws Exception;
+    void exportOrders(Long userId, OrderType orderType, String assetSymbol, OrderStatus status,
+                      LocalDate from, LocalDate to, ExportFormat format, OutputStream out) throws Exception;
+
+    Order processOrder(Coin coin, Quantity quantity, OrderType orderType, User user) throws Exception;
+
+    Order processOrder(Coin coin, Quantity quantity, OrderType orderType, OrderKind orderKind,
+                       Money limitPrice, Money triggerPrice, User user) throws Exception;
+
+    Order processOrder(Coin coin, Quantity quantity, OrderType orderType, OrderKind orderKind,
+                       Money limitPrice, Money triggerPrice, TimeInForce timeInForce,
+                       LocalDateTime expiresAt, User user) throws Exception;
+
+    List<OrderResult> processOrders(List<CreateOrderRequest> requests, User user) throws Exception;
+
+    Order cancelOrder(long orderId, User user) throws Exception;
 }
@@ -1,38 +1,112 @@
 package com.jayanth.tradingplatform.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jayanth.tradingplatform.domain.ExportFormat;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.OrderKind;
 import com.jayanth.tradingplatform.domain.OrderStatus;
 import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.domain.Quantity;
+import com.jayanth.tradingplatform.domain.TimeInForce;
+import com.jayanth.tradingplatform.engine.ExpiryEngine;
+import com.jayanth.tradingplatform.engine.ExpiryWheel;
+import com.jayanth.tradingplatform.engine.MarketFill;
+import com.jayanth.tradingplatform.engine.MatchResult;
+import com.jayanth.tradingplatform.engine.MatchingEngine;
+import com.jayanth.tradingplatform.engine.OrderAccepted;
+import com.jayanth.tradingplatform.engine.OrderCancelled;
+import com.jayanth.tradingplatform.engine.OrderJournal;
+import com.jayanth.tradingplatform.engine.OrderSequencer;
+import com.jayanth.tradingplatform.engine.PortfolioEngine;
+import com.jayanth.tradingplatform.engine.RiskEngine;
+import com.jayanth.tradingplatform.engine.TradeEvent;
+import com.jayanth.tradingplatform.engine.TradeTape;
+import com.jayanth.tradingplatform.engine.TriggerEngine;
+import com.jayanth.tradingplatform.engine.TriggerOrder;
+import com.jayanth.tradingplatform.engine.TriggerPlaced;
 import com.jayanth.tradingplatform.model.*;
-import com.jayanth.tradingplatform.repository.OrderItemRepository;
-import com.jayanth.tradingplatform.repository.OrderRepository;
+import com.jayanth.tradingplatform.repository.*;
+import com.jayanth.tradingplatform.request.CreateOrderRequest;
+import com.jayanth.tradingplatform.response.OrderHistoryItem;
+import com.jayanth.tradingplatform.response.OrderResult;
+import com.jayanth.tradingplatform.utils.SnowflakeIdGenerator;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
-
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
 @Service
-public class OrderServiceImpl implements OrderService {
+public class OrderServiceImpl implements OrderService, PriceTickListener {
 
     @Autowired
     private OrderRepository orderRepository;
 
     @Autowired
-    private WalletService walletService;
+    private MatchingEngine matchingEngine;
+
+    @Autowired
+    private OrderJournal orderJournal;
+
+    @Autowired
+    private OrderSequencer orderSequencer;
+
+    @Autowired
+    private RiskEngine riskEngine;
+
+    @Autowired
+    private PortfolioEngine portfolioEngine;
+
+    @Autowired
+    private TriggerEngine triggerEngine;
+
+    @Autowired
+    private ExpiryEngine expiryEngine;
+
+    @Autowired
+    private TradeTape tradeTape;
 
     @Autowired
-    private OrderItemRepository orderItemRepository;
+    private CandleService candleService;
 
     @Autowired
-    private AssetService assetService;
+    private CoinRepository coinRepository;
+
+    @Value("${trading.orders.batch.max-size:500}")
+    private int maxBatchSize;
+
+    @Value("${trading.orders.history.max-page-size:200}")
+    private int maxHistoryPageSize;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static final int EXPORT_FLUSH_ROWS = 1000;
 
     @Override
     public Order createOrder(User user, OrderItem orderItem, OrderType orderType) {
-        BigDecimal price = orderItem.getCoin().getCurrentPrice()
-                .multiply(BigDecimal.valueOf(orderItem.getQuantity()));
+        Money price = Money.of(orderItem.getCoin().getCurrentPrice())
+                .times(orderItem.getQuantity());
 
         Order order  = new Order();
         order.setUser(user);
@@ -51,103 +125,447 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new RuntimeException("Order not found"));
     }
 
+    /**
+     * One page of history, newest first. Pass the id of the last order of the
+     * previous page as {@code cursor} to continue, so a page costs the same
+     * however deep into the history it is.
+     */
+    @Override
+    public List<OrderHistoryItem> getAllOrdersOfUsers(Long userId, OrderType orderType, String assetSymbol,
+                                                      OrderStatus status, LocalDate from, LocalDate to,
+                                                      Long cursor, int limit) throws Exception {
+        if(limit <= 0 || limit > maxHistoryPageSize){
+            throw new Exception("limit should be between 1 and " + maxHistoryPageSize);
+        }
+        String symbol = assetSymbol == null || assetSymbol.isBlank() ? null : assetSymbol.toLowerCase();
+        return orderRepository.findHistory(userId, cursor, orderType, status, symbol, from, to, limit);
+    }
+
+    /**
+     * Writes every matching order, oldest first, as it is read from the
+     * database cursor. Rows are never collected, so memory stays flat however
+     * long the history is, and the output is flushed every
+     * {@code EXPORT_FLUSH_ROWS} rows so the client receives it in chunks.
+     */
     @Override
-    public List<Order> getAllOrdersOfUsers(Long userId,
-                                           OrderType orderType, String assetSymbol) {
+    @Transactional(readOnly = true)
+    public void exportOrders(Long userId, OrderType orderType, String assetSymbol, OrderStatus status,
+                             LocalDate from, LocalDate to, ExportFormat format, OutputStream out) throws Exception {
+        String symbol = assetSymbol == null || assetSymbol.isBlank() ? null : assetSymbol.toLowerCase();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        SequenceWriter json = null;
+        if(format == ExportFormat.CSV){
+            writer.write("id,parent_order_id,date,order_type,order_kind,status,coin_id,symbol," +
+                    "quantity,filled_quantity,price,limit_price,trigger_price\n");
+        }else{
+            json = objectMapper.writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n")
+                    .writeValues(writer);
+        }
 
-        return orderRepository.findByUserId(userId);
+        long count = 0;
+        try(Stream<OrderHistoryItem> rows = orderRepository.streamHistory(userId, orderType, status, symbol, from, to)){
+            Iterator<OrderHistoryItem> iterator = rows.iterator();
+            while(iterator.hasNext()){
+                OrderHistoryItem row = iterator.next();
+                if(json != null){
+                    json.write(row);
+                }else{
+                    writeCsvRow(writer, row);
+                }
+                if(++count % EXPORT_FLUSH_ROWS == 0){
+                    if(json != null){
+                        json.flush();
+                    }else{
+                        writer.flush();
+                    }
+                }
+            }
+        }
+        if(json != null){
+            json.close();
+            if(count > 0){
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeCsvRow(Writer writer, OrderHistoryItem row) throws IOException {
+        writer.write(String.valueOf(row.getId()));
+        writer.write(',');
+        writeCsvValue(writer, row.getParentOrderId());
+        writer.write(',');
+        writeCsvValue(writer, row.getTimestamp());
+        writer.write(',');
+        writeCsvValue(writer, row.getOrderType());
+        writer.write(',');
+        writeCsvValue(writer, row.getOrderKind());
+        writer.write(',');
+        writeCsvValue(writer, row.getStatus());
+        writer.write(',');
+        writeCsvValue(writer, row.getCoinId());
+        writer.write(',');
+        writeCsvValue(writer, row.getSymbol());
+        writer.write(',');
+        writeCsvValue(writer, row.getQuantity());
+        writer.write(',');
+        writeCsvValue(writer, row.getFilledQuantity());
+        writer.write(',');
+        writeCsvValue(writer, row.getPrice());
+        writer.write(',');
+        writeCsvValue(writer, row.getLimitPrice());
+        writer.write(',');
+        writeCsvValue(writer, row.getTriggerPrice());
+        writer.write('\n');
+    }
+
+    private void writeCsvValue(Writer writer, Object value) throws IOException {
+        if(value == null){
+            return;
+        }
+        String text = value.toString();
+        if(text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0){
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
     }
 
-    private OrderItem createOrderItem(Coin coin, double quantity,
-                                      BigDecimal buyPrice, BigDecimal sellPrice){
+    /**
+     * Fills a market order in full at the coin's current price. The risk
+     * engine checks and applies it in memory and JournalProjector writes the
+     * order, wallet and asset rows from the journal.
+     */
+    public Order placeMarketOrder(Coin coin, Quantity quantity,
+                                  OrderType orderType, User user) throws Exception {
+        if(quantity.signum() <= 0){
+            throw new Exception("quantity should be greater than 0");
+        }
+        Money price = Money.of(coin.getCurrentPrice());
+        long orderId = SnowflakeIdGenerator.nextId();
+        fillMarket(orderId, user.getId(), coin.getId(), orderType, price, quantity, false);
+
         OrderItem orderItem = new OrderItem();
         orderItem.setCoin(coin);
         orderItem.setQuantity(quantity);
-        orderItem.setBuyPrice(buyPrice);
-        orderItem.setSellPrice(sellPrice);
-        return orderItemRepository.save(orderItem);
+        orderItem.setBuyPrice(orderType == OrderType.BUY ? price : Money.ZERO);
+        orderItem.setSellPrice(orderType == OrderType.SELL ? price : Money.ZERO);
+
+        Order order = new Order();
+        order.setId(orderId);
+        order.setUser(user);
+        order.setOrderType(orderType);
+        order.setPrice(price.times(quantity));
+        order.setStatus(OrderStatus.SUCCESS);
+        order.setOrderItem(orderItem);
+        orderItem.setOrder(order);
+        return order;
+    }
+
+    private void fillMarket(long orderId, long userId, String coinId, OrderType orderType,
+                            Money price, Quantity quantity, boolean triggered) throws Exception {
+        riskEngine.executeMarket(userId, coinId, orderType, price.getUnits(), quantity.getLots());
+        portfolioEngine.onFill(userId, coinId, orderType == OrderType.BUY, price.getUnits(), quantity.getLots());
+        long now = System.currentTimeMillis();
+        orderJournal.appendMarketFill(new MarketFill(orderId, userId, coinId, orderType,
+                price.getUnits(), quantity.getLots(), triggered, now));
+        recordFill(coinId, price.getUnits(), quantity.getLots(), orderType == OrderType.BUY, now);
     }
 
-    @Transactional
-    public Order buyAsset(Coin coin, double quantity, User user) throws Exception {
-        if(quantity <= 0){
+    private void recordFill(String coinId, long price, long quantity, boolean buy, long timestamp) {
+        tradeTape.record(coinId, price, quantity, buy, timestamp);
+        candleService.onTrade(coinId, price, quantity, timestamp);
+    }
+
+    /**
+     * Parks a stop or take-profit order in the trigger index with its cash or
+     * coins reserved. It becomes a market order when a price tick reaches the
+     * trigger price.
+     */
+    public Order placeTriggerOrder(Coin coin, Quantity quantity, Money triggerPrice,
+                                   OrderType orderType, OrderKind orderKind, User user) throws Exception {
+        if(quantity.signum() <= 0){
             throw new Exception("quantity should be greater than 0");
+        }
+        if(triggerPrice == null || triggerPrice.signum() <= 0){
+            throw new Exception("trigger price should be greater than 0");
+        }
+        long orderId = SnowflakeIdGenerator.nextId();
+        TriggerOrder trigger = new TriggerOrder(orderId, user.getId(), orderType == OrderType.BUY,
+                orderKind, triggerPrice.getUnits(), quantity.getLots());
+        Money current = Money.of(coin.getCurrentPrice());
+        boolean reached = trigger.firesOnRise() ? !current.isLessThan(triggerPrice)
+                : !triggerPrice.isLessThan(current);
+        if(reached){
+            throw new Exception("trigger price already reached");
+        }
 
+        riskEngine.reserve(orderId, user.getId(), coin.getId(), orderType,
+                triggerPrice.getUnits(), quantity.getLots());
+        if(!triggerEngine.add(coin.getId(), trigger)){
+            riskEngine.release(orderId);
+            throw new Exception("trigger price already reached");
         }
-        BigDecimal buyPrice = coin.getCurrentPrice();
-        OrderItem orderItem = createOrderItem(coin, quantity, buyPrice, BigDecimal.valueOf(0));
+        orderJournal.appendTriggerPlaced(new TriggerPlaced(orderId, user.getId(), coin.getId(), orderType,
+                orderKind, triggerPrice.getUnits(), quantity.getLots(), System.currentTimeMillis()));
 
-        Order order = createOrder(user, orderItem, OrderType.BUY);
+        OrderItem orderItem = new OrderItem();
+        orderItem.setCoin(coin);
+        orderItem.setQuantity(quantity);
+        orderItem.setBuyPrice(orderType == OrderType.BUY ? triggerPrice : Money.ZERO);
+        orderItem.setSellPrice(orderType == OrderType.SELL ? triggerPrice : Money.ZERO);
+
+        Order order = new Order();
+        order.setId(orderId);
+        order.setUser(user);
+        order.setOrderType(orderType);
+        order.setOrderKind(orderKind);
+        order.setTriggerPrice(triggerPrice);
+        order.setPrice(triggerPrice.times(quantity));
+        order.setStatus(OrderStatus.OPEN);
+        order.setOrderItem(orderItem);
         orderItem.setOrder(order);
+        return order;
+    }
 
-        walletService.payorderPayment(order, user);
+    /**
+     * Pops the orders this tick fires and executes each as a market order at
+     * the tick price on the coin's sequencer partition. An order that can no
+     * longer be covered is cancelled.
+     */
+    @Override
+    public void onPriceTick(Coin coin, Money price, long timestamp) {
+        for(TriggerOrder trigger : triggerEngine.onPrice(coin.getId(), price.getUnits())){
+            orderSequencer.submit(coin.getId(), () -> fireTrigger(coin.getId(), trigger, price));
+        }
+    }
 
-        order.setStatus(OrderStatus.SUCCESS);
-        order.setOrderType(OrderType.BUY);
-        Order savedOrder = orderRepository.save(order);
-
-        //create asset
-        Asset oldAsset = assetService.findAssetByUserIdAndCoinId(order.getUser().getId(),
-                order.getOrderItem().getCoin().getId());
-        if(oldAsset == null){
-            assetService.createAsset(user, orderItem.getCoin(), orderItem.getQuantity());
-        }else{
-            assetService.updateAsset(oldAsset.getId(), quantity);
+    private Void fireTrigger(String coinId, TriggerOrder trigger, Money price) {
+        OrderType orderType = trigger.isBuy() ? OrderType.BUY : OrderType.SELL;
+        riskEngine.release(trigger.getOrderId());
+        try{
+            fillMarket(trigger.getOrderId(), trigger.getUserId(), coinId, orderType,
+                    price, Quantity.ofLots(trigger.getQuantity()), true);
+        }catch(Exception e){
+            log.warn("cancelled {} order {}: {}", trigger.getKind(), trigger.getOrderId(), e.getMessage());
+            orderJournal.appendOrderCancelled(new OrderCancelled(trigger.getOrderId(), coinId,
+                    false, System.currentTimeMillis()));
         }
-        return savedOrder;
+        return null;
     }
 
-    @Transactional
-    public Order SellAsset(Coin coin, double quantity, User user) throws Exception {
-        if(quantity <= 0){
+    /**
+     * Matches a limit order against the book. What is left rests for GTC and
+     * GTD, the latter until its expiry on the {@link ExpiryEngine}; for IOC
+     * and FOK it is cancelled at once and its reservation released.
+     */
+    public Order placeLimitOrder(Coin coin, Quantity quantity, Money limitPrice, OrderType orderType,
+                                 TimeInForce timeInForce, LocalDateTime expiresAt, User user) throws Exception {
+        if(quantity.signum() <= 0){
             throw new Exception("quantity should be greater than 0");
-
         }
-        BigDecimal SellPrice = coin.getCurrentPrice();
-        Asset assetToSell = assetService.findAssetByUserIdAndCoinId(user.getId(),
-                coin.getId());
-        BigDecimal buyPrice = assetToSell.getBuyPrice();
-        if(assetToSell != null) {
-            OrderItem orderItem = createOrderItem(coin, quantity, buyPrice, SellPrice);
+        if(limitPrice == null || limitPrice.signum() <= 0){
+            throw new Exception("limit price should be greater than 0");
+        }
+        long expiresAtMillis = 0;
+        if(timeInForce == TimeInForce.GTD){
+            if(expiresAt == null){
+                throw new Exception("expiresAt is required for GTD orders");
+            }
+            expiresAtMillis = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            if(expiresAtMillis <= System.currentTimeMillis()){
+                throw new Exception("expiresAt should be in the future");
+            }
+        }
+        long priceTicks = limitPrice.getUnits();
+        long quantityLots = quantity.getLots();
+        Money notional = limitPrice.times(quantity);
+
+        // the order is acknowledged from the journal; JournalProjector writes its rows later
+        long orderId = SnowflakeIdGenerator.nextId();
+        riskEngine.reserve(orderId, user.getId(), coin.getId(), orderType, priceTicks, quantityLots);
+        orderJournal.appendOrderAccepted(new OrderAccepted(orderId, user.getId(), coin.getId(),
+                orderType, priceTicks, quantityLots, timeInForce, expiresAtMillis, System.currentTimeMillis()));
+        MatchResult result = matchingEngine.submit(coin.getId(), orderId, user.getId(),
+                orderType, priceTicks, quantityLots, timeInForce);
+        for(TradeEvent trade : result.getTrades()){
+            riskEngine.settle(trade);
+            portfolioEngine.onTrade(trade);
+            orderJournal.appendTrade(trade);
+            recordFill(trade.getCoinId(), trade.getPrice(), trade.getQuantity(),
+                    !trade.isBuyerMaker(), trade.getTimestamp());
+        }
+        boolean cancelled = !result.isResting() && result.getRemainingQuantity() > 0;
+        if(cancelled){
+            riskEngine.release(orderId);
+            orderJournal.appendOrderCancelled(new OrderCancelled(orderId, coin.getId(),
+                    false, System.currentTimeMillis()));
+        }else if(result.isResting() && timeInForce == TimeInForce.GTD){
+            expiryEngine.schedule(coin.getId(), orderId, expiresAtMillis);
+        }
 
-            Order order = createOrder(user, orderItem, OrderType.SELL);
-            orderItem.setOrder(order);
+        OrderItem orderItem = new OrderItem();
+        orderItem.setCoin(coin);
+        orderItem.setQuantity(quantity);
+        orderItem.setBuyPrice(orderType == OrderType.BUY ? limitPrice : Money.ZERO);
+        orderItem.setSellPrice(orderType == OrderType.SELL ? limitPrice : Money.ZERO);
 
-            if (assetToSell.getQuantity() >= quantity) {
-                order.setStatus(OrderStatus.SUCCESS);
-                order.setOrderType(OrderType.SELL);
-                Order savedOrder = orderRepository.save(order);
-                walletService.payorderPayment(order, user);
+        Order order = new Order();
+        order.setId(orderId);
+        order.setUser(user);
+        order.setOrderType(orderType);
+        order.setOrderKind(OrderKind.LIMIT);
+        order.setLimitPrice(limitPrice);
+        order.setTimeInForce(timeInForce);
+        order.setExpiresAt(timeInForce == TimeInForce.GTD ? expiresAt : null);
+        order.setPrice(notional);
+        order.setOrderItem(orderItem);
+        order.setFilledQuantity(Quantity.ofLots(result.getFilledQuantity()));
+        order.setStatus(cancelled ? OrderStatus.CANCELLED
+                : result.getRemainingQuantity() == 0 ? OrderStatus.FILLED
+                : result.getFilledQuantity() > 0 ? OrderStatus.PARTIALLY_FILLED : OrderStatus.OPEN);
+        orderItem.setOrder(order);
+        return order;
+    }
 
-                Asset updateAsset = assetService.updateAsset(assetToSell.getId(), -quantity);
+    @Override
+    public Order processOrder(Coin coin, Quantity quantity,
+                              OrderType orderType, User user) throws Exception {
+        return processOrder(coin, quantity, orderType, OrderKind.MARKET, null, null, user);
+    }
 
-                Asset updatedAsset = assetService.updateAsset(assetToSell.getId(), -quantity);
-                if (updatedAsset.getQuantity() *  coin.getCurrentPrice().doubleValue() <= 1) {
-                    assetService.deleteAsset(updatedAsset.getId());
-                }
-                return savedOrder;
-            }
+    /**
+     * Cancels the GTD orders whose expiry has come, each on its coin's
+     * sequencer partition so it is ordered with the matching on that book.
+     */
+    @Scheduled(fixedDelayString = "${trading.orders.expiry.tick-ms:1000}")
+    public void expireOrders() {
+        for(ExpiryWheel.Entry entry : expiryEngine.due(System.currentTimeMillis())){
+            orderSequencer.submit(entry.getCoinId(), () -> expire(entry.getCoinId(), entry.getOrderId()));
+        }
+    }
 
-            throw new Exception("Insufficient quantity to sell");
+    private Void expire(String coinId, long orderId) {
+        if(matchingEngine.cancel(coinId, orderId)){
+            riskEngine.release(orderId);
+            orderJournal.appendOrderCancelled(new OrderCancelled(orderId, coinId,
+                    true, System.currentTimeMillis()));
         }
-        throw new Exception("Asset Not found");
+        return null;
+    }
 
-        //create asset
+    /**
+     * Withdraws one of the user's resting limit orders or pending stop or
+     * take-profit orders on its coin's sequencer partition and releases what
+     * it reserved. JournalProjector marks the row cancelled from the journal.
+     */
+    @Override
+    public Order cancelOrder(long orderId, User user) throws Exception {
+        Order order = orderRepository.findById(orderId)
+                .filter(o -> o.getUser().getId().equals(user.getId()))
+                .orElseThrow(() -> new Exception("order not found"));
+        String coinId = order.getOrderItem().getCoin().getId();
+        OrderSequencer.await(orderSequencer.submit(coinId, () -> cancel(coinId, orderId)));
+        order.setStatus(OrderStatus.CANCELLED);
+        return order;
+    }
 
+    private Void cancel(String coinId, long orderId) throws Exception {
+        // a trigger popped by a tick but not yet executed is in neither, and is no longer cancellable
+        if(!matchingEngine.cancel(coinId, orderId) && triggerEngine.remove(coinId, orderId) == null){
+            throw new Exception("order is not open");
+        }
+        riskEngine.release(orderId);
+        orderJournal.appendOrderCancelled(new OrderCancelled(orderId, coinId,
+                false, System.currentTimeMillis()));
+        return null;
     }
 
+    @Override
+    public Order processOrder(Coin coin, Quantity quantity, OrderType orderType, OrderKind orderKind,
+                              Money limitPrice, Money triggerPrice, User user) throws Exception {
+        return processOrder(coin, quantity, orderType, orderKind, limitPrice, triggerPrice,
+                TimeInForce.GTC, null, user);
+    }
 
     @Override
-    @Transactional
-    public Order processOrder(Coin coin, double quantity,
-                              OrderType orderType, User user) throws Exception {
-        if(orderType == OrderType.BUY) {
-            return buyAsset(coin, quantity, user);
+    public Order processOrder(Coin coin, Quantity quantity, OrderType orderType, OrderKind orderKind,
+                              Money limitPrice, Money triggerPrice, TimeInForce timeInForce,
+                              LocalDateTime expiresAt, User user) throws Exception {
+        if(timeInForce == null){
+            timeInForce = TimeInForce.GTC;
         }
-        else if(orderType == OrderType.SELL) {
-            return SellAsset(coin, quantity, user);
+        if(orderKind == OrderKind.LIMIT) {
+            return placeLimitOrder(coin, quantity, limitPrice, orderType, timeInForce, expiresAt, user);
+        }
+        if(timeInForce == TimeInForce.GTD){
+            throw new Exception("GTD is only supported for limit orders");
+        }
+        if(orderKind == OrderKind.STOP || orderKind == OrderKind.TAKE_PROFIT) {
+            return placeTriggerOrder(coin, quantity, triggerPrice, orderType, orderKind, user);
+        }
+        if(orderType == OrderType.BUY || orderType == OrderType.SELL) {
+            return placeMarketOrder(coin, quantity, orderType, user);
         }
 
         throw new Exception("invalid order type");
     }
+
+    @Override
+    public List<OrderResult> processOrders(List<CreateOrderRequest> requests, User user) throws Exception {
+        if(requests == null || requests.isEmpty()){
+            throw new Exception("no orders in batch");
+        }
+        if(requests.size() > maxBatchSize){
+            throw new Exception("batch exceeds " + maxBatchSize + " orders");
+        }
+        Set<String> coinIds = requests.stream()
+                .map(CreateOrderRequest::getCoinId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, Coin> coins = coinRepository.findAllById(coinIds).stream()
+                .collect(Collectors.toMap(Coin::getId, Function.identity()));
+
+        List<OrderResult> results = new ArrayList<>(requests.size());
+        List<CompletableFuture<Order>> accepted = new ArrayList<>();
+        List<OrderResult> acceptedResults = new ArrayList<>();
+
+        for(int i = 0; i < requests.size(); i++){
+            CreateOrderRequest req = requests.get(i);
+            OrderResult result = new OrderResult();
+            result.setIndex(i);
+            result.setCoinId(req.getCoinId());
+            results.add(result);
+
+            Coin coin = coins.get(req.getCoinId());
+            String error = coin == null ? "coin not found"
+                    : req.getOrderType() == null ? "invalid order type"
+                    : req.getQuantity() == null || req.getQuantity().signum() <= 0 ? "quantity should be greater than 0"
+                    : null;
+            if(error != null){
+                result.setMessage(error);
+                continue;
+            }
+            acceptedResults.add(result);
+            accepted.add(orderSequencer.submit(coin.getId(), () -> processOrder(coin, req.getQuantity(),
+                    req.getOrderType(), req.getOrderKind(), req.getLimitPrice(), req.getTriggerPrice(),
+                    req.getTimeInForce(), req.getExpiresAt(), user)));
+        }
+
+        for(int i = 0; i < accepted.size(); i++){
+            OrderResult result = acceptedResults.get(i);
+            try{
+                result.setOrder(OrderSequencer.await(accepted.get(i)));
+                result.setSuccess(true);
+            }catch(Exception e){
+                result.setMessage(e.getMessage());
+            }
+        }
+        return results;
+    }
 }
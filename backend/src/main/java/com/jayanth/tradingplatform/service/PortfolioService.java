@@ -0,0 +1,13 @@
+package com.jayanth.tradingplatform.service;
+
+import com.jayanth.tradingplatform.domain.HistoryRange;
+import com.jayanth.tradingplatform.model.User;
+import com.jayanth.tradingplatform.response.PortfolioChart;
+import com.jayanth.tradingplatform.response.PortfolioSummary;
+
+public interface PortfolioService {
+
+    PortfolioSummary getPortfolio(User user) throws Exception;
+
+    PortfolioChart getHistory(User user, HistoryRange range) throws Exception;
+}
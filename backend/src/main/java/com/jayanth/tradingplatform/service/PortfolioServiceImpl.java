@@ -0,0 +1,96 @@
+package com.jayanth.tradingplatform.service;
+
+import com.jayanth.tradingplatform.domain.HistoryRange;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.Quantity;
+import com.jayanth.tradingplatform.engine.PortfolioEngine;
+import com.jayanth.tradingplatform.engine.PortfolioHistoryStore;
+import com.jayanth.tradingplatform.engine.PortfolioValue;
+import com.jayanth.tradingplatform.engine.PositionValue;
+import com.jayanth.tradingplatform.model.Coin;
+import com.jayanth.tradingplatform.model.User;
+import com.jayanth.tradingplatform.response.PortfolioChart;
+import com.jayanth.tradingplatform.response.PortfolioPosition;
+import com.jayanth.tradingplatform.response.PortfolioSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Slf4j
+@Service
+public class PortfolioServiceImpl implements PortfolioService, PriceTickListener {
+
+    @Autowired
+    private PortfolioEngine portfolioEngine;
+
+    @Autowired
+    private PortfolioHistoryStore portfolioHistoryStore;
+
+    @Value("${trading.history.sample-interval-ms:60000}")
+    private long sampleIntervalMs;
+
+    @Override
+    public void onPriceTick(Coin coin, Money price, long timestamp) {
+        portfolioEngine.onPrice(coin.getId(), price.getUnits());
+    }
+
+    @Override
+    public PortfolioSummary getPortfolio(User user) throws Exception {
+        PortfolioValue portfolio = portfolioEngine.getPortfolio(user.getId());
+        List<PortfolioPosition> positions = new ArrayList<>(portfolio.getPositions().size());
+        for(PositionValue position : portfolio.getPositions()){
+            positions.add(new PortfolioPosition(position.getCoinId(), Quantity.ofLots(position.getQuantity()),
+                    Money.ofUnits(position.getPrice()), Money.ofUnits(position.getMarketValue()),
+                    Money.ofUnits(position.getCostBasis()),
+                    Money.ofUnits(position.getMarketValue() - position.getCostBasis())));
+        }
+        positions.sort(Comparator.comparing(PortfolioPosition::getMarketValue).reversed());
+        return new PortfolioSummary(Money.ofUnits(portfolio.getMarketValue()), Money.ofUnits(portfolio.getCostBasis()),
+                Money.ofUnits(portfolio.getUnrealizedPnl()), positions);
+    }
+
+    /**
+     * Records every user's market value, stamped with the start of the
+     * sampling interval so the timestamps compress to a bit each.
+     */
+    @Scheduled(fixedRateString = "${trading.history.sample-interval-ms:60000}",
+            initialDelayString = "${trading.history.sample-interval-ms:60000}")
+    public void sample() {
+        if(!portfolioEngine.isLoaded()){
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            portfolioHistoryStore.record(now - now % sampleIntervalMs, portfolioEngine);
+        } catch (Exception e) {
+            log.error("failed to record portfolio history", e);
+        }
+    }
+
+    @Override
+    public PortfolioChart getHistory(User user, HistoryRange range) throws Exception {
+        PortfolioChart chart = new PortfolioChart();
+        chart.setRange(range);
+        long now = System.currentTimeMillis();
+        long[] bucket = {Long.MIN_VALUE};
+        long[] close = new long[1];
+        portfolioHistoryStore.read(user.getId(), now - range.getMillis(), now, (timestamp, value) -> {
+            long start = range.bucket(timestamp);
+            if(start != bucket[0] && bucket[0] != Long.MIN_VALUE){
+                chart.getValues().add(new Object[]{bucket[0], Money.ofUnits(close[0])});
+            }
+            bucket[0] = start;
+            close[0] = value;
+        });
+        if(bucket[0] != Long.MIN_VALUE){
+            chart.getValues().add(new Object[]{bucket[0], Money.ofUnits(close[0])});
+        }
+        return chart;
+    }
+}
@@ -0,0 +1,14 @@
+package com.jayanth.tradingplatform.service;
+
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.model.Coin;
+
+/**
+ * Notified by {@link CoinService#updatePrice} after a coin's current price has
+ * been saved. Called on the updating thread, so implementations should hand
+ * off anything slow.
+ */
+public interface PriceTickListener {
+
+    void onPriceTick(Coin coin, Money price, long timestamp);
+}
@@ -0,0 +1,10 @@
+package com.jayanth.tradingplatform.service;
+
+import com.jayanth.tradingplatform.response.ReconciliationReport;
+
+public interface ReconciliationService {
+
+    ReconciliationReport reconcile() throws Exception;
+
+    ReconciliationReport getLastReport(int limit) throws Exception;
+}
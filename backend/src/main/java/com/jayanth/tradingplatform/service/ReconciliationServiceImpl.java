@@ -0,0 +1,236 @@
+package com.jayanth.tradingplatform.service;
+
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.model.JournalCheckpoint;
+import com.jayanth.tradingplatform.model.LedgerDrift;
+import com.jayanth.tradingplatform.repository.JournalCheckpointRepository;
+import com.jayanth.tradingplatform.repository.LedgerDriftRepository;
+import com.jayanth.tradingplatform.repository.WalletRepository;
+import com.jayanth.tradingplatform.repository.WalletTransactionRepository;
+import com.jayanth.tradingplatform.response.ReconciliationReport;
+import com.jayanth.tradingplatform.utils.SnowflakeIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Checks every {@code Wallet.balance} against the sum of the wallet's ledger
+ * postings. Wallets are cut into id ranges of {@code chunk-size} wallets and
+ * the ranges are reconciled side by side on a {@link ForkJoinPool}, each with
+ * one aggregate over the postings index and one read of the wallets. A
+ * wallet that disagrees is re-read with its postings in a single statement
+ * before it is reported, so a transfer committing between the two reads is
+ * not taken for drift.
+ * <p>
+ * Drift is stored per run, together with the id range reached, as each range
+ * completes in order; a run interrupted by a failure or restart continues
+ * from there on the next call.
+ */
+@Slf4j
+@Service
+public class ReconciliationServiceImpl implements ReconciliationService {
+
+    private static final String CHECKPOINT = "reconciliation";
+    private static final String RUN = "reconciliation-run";
+    private static final int MAX_REPORTED = 500;
+
+    @Value("${trading.reconciliation.chunk-size}")
+    private int chunkSize;
+
+    @Value("${trading.reconciliation.parallelism}")
+    private int parallelism;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletTransactionRepository walletTransactionRepository;
+
+    @Autowired
+    private LedgerDriftRepository ledgerDriftRepository;
+
+    @Autowired
+    private JournalCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile ReconciliationReport lastReport;
+
+    @Scheduled(cron = "${trading.reconciliation.cron}")
+    public void scheduledReconcile() {
+        try {
+            ReconciliationReport report = reconcile();
+            log.info("reconciled {} wallets and {} postings in {} ms, {} drifted",
+                    report.getWallets(), report.getPostings(), report.getElapsedMillis(), report.getDrifted());
+        } catch (Exception e) {
+            log.error("reconciliation failed", e);
+        }
+    }
+
+    @Override
+    public ReconciliationReport reconcile() throws Exception {
+        if(!running.compareAndSet(false, true)){
+            throw new Exception("reconciliation is already running");
+        }
+        try {
+            return run();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    public ReconciliationReport getLastReport(int limit) throws Exception {
+        if(limit <= 0 || limit > MAX_REPORTED){
+            throw new Exception("limit should be between 1 and " + MAX_REPORTED);
+        }
+        JournalCheckpoint run = checkpointRepository.findById(RUN)
+                .orElseThrow(() -> new Exception("reconciliation has not run yet"));
+        JournalCheckpoint position = checkpoint(CHECKPOINT);
+        ReconciliationReport last = lastReport;
+        boolean counted = last != null && last.getRunId() == run.getPosition();
+        return new ReconciliationReport(run.getPosition(), position.getPosition() == 0,
+                counted ? last.getResumedFrom() : 0, counted ? last.getWallets() : 0,
+                counted ? last.getPostings() : 0, ledgerDriftRepository.countByRunId(run.getPosition()),
+                counted ? last.getElapsedMillis() : 0,
+                ledgerDriftRepository.findByRunIdOrderByUserId(run.getPosition(), PageRequest.of(0, limit)));
+    }
+
+    private ReconciliationReport run() throws Exception {
+        long started = System.currentTimeMillis();
+        JournalCheckpoint position = checkpoint(CHECKPOINT);
+        JournalCheckpoint run = checkpoint(RUN);
+        long resumedFrom = position.getPosition();
+        if(resumedFrom == 0){
+            run.setPosition(SnowflakeIdGenerator.nextId());
+            checkpointRepository.save(run);
+        }
+        long runId = run.getPosition();
+        ledgerDriftRepository.deleteByRunIdAndWalletIdGreaterThanEqual(runId, resumedFrom);
+
+        List<long[]> ranges = new ArrayList<>();
+        long from = resumedFrom;
+        Long to;
+        do {
+            to = walletRepository.findIdAtOffset(from, chunkSize);
+            ranges.add(new long[]{from, to == null ? Long.MAX_VALUE : to});
+            if(to != null){
+                from = to;
+            }
+        } while(to != null);
+
+        long wallets = 0;
+        long postings = 0;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<Chunk>> tasks = new ArrayList<>(ranges.size());
+            for(long[] range : ranges){
+                tasks.add(pool.submit(() -> reconcile(range[0], range[1])));
+            }
+            for(int i = 0; i < tasks.size(); i++){
+                Chunk chunk = tasks.get(i).get();
+                long reached = i == tasks.size() - 1 ? 0 : ranges.get(i)[1];
+                transactionTemplate.executeWithoutResult(status -> {
+                    chunk.drifts.forEach(drift -> drift.setRunId(runId));
+                    ledgerDriftRepository.saveAll(chunk.drifts);
+                    position.setPosition(reached);
+                    checkpointRepository.save(position);
+                });
+                wallets += chunk.wallets;
+                postings += chunk.postings;
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } finally {
+            pool.shutdownNow();
+        }
+
+        ReconciliationReport report = new ReconciliationReport(runId, true, resumedFrom, wallets, postings,
+                ledgerDriftRepository.countByRunId(runId), System.currentTimeMillis() - started,
+                ledgerDriftRepository.findByRunIdOrderByUserId(runId, PageRequest.of(0, MAX_REPORTED)));
+        lastReport = report;
+        return report;
+    }
+
+    private Chunk reconcile(long from, long to) {
+        Map<Long, Long> ledger = new HashMap<>();
+        Chunk chunk = new Chunk();
+        for(Object[] row : walletTransactionRepository.sumByWalletBetween(from, to)){
+            ledger.put(((Number) row[0]).longValue(), units(row[1]));
+            chunk.postings += ((Number) row[2]).longValue();
+        }
+        for(Object[] row : walletRepository.findBalancesBetween(from, to)){
+            long walletId = ((Number) row[0]).longValue();
+            long balance = units(row[2]);
+            long posted = ledger.getOrDefault(walletId, 0L);
+            chunk.wallets++;
+            if(balance != posted){
+                LedgerDrift drift = recheck(walletId);
+                if(drift != null){
+                    chunk.drifts.add(drift);
+                }
+            }
+        }
+        return chunk;
+    }
+
+    private LedgerDrift recheck(long walletId) {
+        List<Object[]> rows = walletRepository.findBalanceAndLedger(walletId);
+        if(rows.isEmpty()){
+            return null;
+        }
+        Object[] row = rows.get(0);
+        Money balance = Money.ofUnits(units(row[1]));
+        Money ledger = Money.ofUnits(units(row[2]));
+        if(balance.equals(ledger)){
+            return null;
+        }
+        LedgerDrift drift = new LedgerDrift();
+        drift.setUserId(row[0] == null ? null : ((Number) row[0]).longValue());
+        drift.setWalletId(walletId);
+        drift.setBalance(balance);
+        drift.setLedger(ledger);
+        drift.setDifference(balance.minus(ledger));
+        drift.setDetectedAt(LocalDateTime.now());
+        return drift;
+    }
+
+    private JournalCheckpoint checkpoint(String name) {
+        return checkpointRepository.findById(name).orElseGet(() -> {
+            JournalCheckpoint created = new JournalCheckpoint();
+            created.setName(name);
+            return created;
+        });
+    }
+
+    private static long units(Object value) {
+        if(value == null){
+            return 0;
+        }
+        return Money.of(value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString())).getUnits();
+    }
+
+    private static final class Chunk {
+        long wallets;
+        long postings;
+        final List<LedgerDrift> drifts = new ArrayList<>();
+    }
+}
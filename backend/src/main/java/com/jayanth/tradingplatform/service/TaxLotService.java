@@ -0,0 +1,16 @@
+package com.jayanth.tradingplatform.service;
+
+import com.jayanth.tradingplatform.domain.CostBasisMethod;
+import com.jayanth.tradingplatform.model.User;
+import com.jayanth.tradingplatform.response.TaxLotItem;
+
+import java.util.List;
+
+public interface TaxLotService {
+
+    List<TaxLotItem> getLots(User user);
+
+    User setCostBasisMethod(User user, CostBasisMethod method);
+
+    int rebuildLots(User user) throws Exception;
+}
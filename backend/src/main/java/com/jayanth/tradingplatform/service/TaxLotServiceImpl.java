@@ -0,0 +1,66 @@
+package com.jayanth.tradingplatform.service;
+
+import com.jayanth.tradingplatform.domain.CostBasisMethod;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.Quantity;
+import com.jayanth.tradingplatform.engine.OrderSequencer;
+import com.jayanth.tradingplatform.engine.TaxLotBook;
+import com.jayanth.tradingplatform.model.User;
+import com.jayanth.tradingplatform.repository.TaxLotRepository;
+import com.jayanth.tradingplatform.repository.UserRepository;
+import com.jayanth.tradingplatform.response.TaxLotItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class TaxLotServiceImpl implements TaxLotService {
+
+    @Autowired
+    private TaxLotRepository taxLotRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaxLotBook taxLotBook;
+
+    @Autowired
+    private JournalProjector journalProjector;
+
+    /**
+     * The user's open lots by coin, oldest first, as of the last projected
+     * journal batch.
+     */
+    @Override
+    public List<TaxLotItem> getLots(User user) {
+        List<Object[]> rows = taxLotRepository.findLotsByUserId(user.getId());
+        List<TaxLotItem> lots = new ArrayList<>(rows.size());
+        for(Object[] row : rows){
+            Quantity quantity = (Quantity) row[2];
+            Money cost = (Money) row[3];
+            lots.add(new TaxLotItem((Long) row[0], (String) row[1], quantity, cost,
+                    Money.ofUnits(Money.share(cost.getUnits(), Quantity.ONE, quantity.getLots()))));
+        }
+        return lots;
+    }
+
+    /**
+     * Applies to sales projected from now on. Lots already consumed stay as
+     * they are until {@link #rebuildLots} replays the history by the new
+     * method.
+     */
+    @Override
+    public User setCostBasisMethod(User user, CostBasisMethod method) {
+        user.setCostBasisMethod(method);
+        return userRepository.save(user);
+    }
+
+    @Override
+    public int rebuildLots(User user) throws Exception {
+        CostBasisMethod method = user.getCostBasisMethod();
+        return OrderSequencer.await(journalProjector.submit(status -> taxLotBook.rebuild(user.getId(), method)));
+    }
+}
@@ -1,18 +1,31 @@
 package com.jayanth.tradingplatform.service;
 
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.WalletTransactionType;
 import com.jayanth.tradingplatform.model.User;
 import com.jayanth.tradingplatform.model.Wallet;
-import com.jayanth.tradingplatform.model.Order;
+import com.jayanth.tradingplatform.model.WalletTransaction;
+import com.jayanth.tradingplatform.request.TransferRequest;
+import com.jayanth.tradingplatform.response.TransferResult;
+import com.jayanth.tradingplatform.response.WalletBalance;
+
+import java.util.List;
 
 public interface WalletService {
 
     Wallet getUserWallet(User user);
 
-    Wallet addBalance(Wallet wallet, long money);
+    Wallet addBalance(Wallet wallet, long money) throws Exception;
+
+    Wallet addBalance(Wallet wallet, long money, WalletTransactionType type) throws Exception;
 
     Wallet findById(long id) throws Exception;
 
-    Wallet walletoWalletTransaction(User sender, Wallet recipient, long amount) throws Exception;
+    WalletBalance getBalance(User user) throws Exception;
+
+    Wallet walletoWalletTransaction(User sender, Wallet recipient, Money amount, String purpose) throws Exception;
+
+    List<TransferResult> transferBatch(List<TransferRequest> transfers) throws Exception;
 
-    Wallet payorderPayment(Order order, User user) throws Exception;
+    List<WalletTransaction> getWalletTransactions(User user, int limit) throws Exception;
 }
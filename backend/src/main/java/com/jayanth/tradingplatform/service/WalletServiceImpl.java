@@ -1,15 +1,31 @@
 package com.jayanth.tradingplatform.service;
 
-import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.domain.LedgerAccount;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.WalletTransactionType;
+import com.jayanth.tradingplatform.engine.AccountSequencer;
+import com.jayanth.tradingplatform.engine.CashBalance;
+import com.jayanth.tradingplatform.engine.RiskEngine;
 import com.jayanth.tradingplatform.model.User;
 import com.jayanth.tradingplatform.model.Wallet;
+import com.jayanth.tradingplatform.model.WalletTransaction;
 import com.jayanth.tradingplatform.repository.WalletRepository;
-import com.jayanth.tradingplatform.model.Order;
+import com.jayanth.tradingplatform.request.TransferRequest;
+import com.jayanth.tradingplatform.response.TransferResult;
+import com.jayanth.tradingplatform.response.WalletBalance;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 
 @Service
 public class WalletServiceImpl implements WalletService{
@@ -17,6 +33,18 @@ public class WalletServiceImpl implements WalletService{
     @Autowired
     private WalletRepository walletRepository;
 
+    @Autowired
+    private WalletTransactionService walletTransactionService;
+
+    @Autowired
+    private RiskEngine riskEngine;
+
+    @Autowired
+    private AccountSequencer accountSequencer;
+
+    @Value("${trading.transfers.batch.max-size:100000}")
+    private int maxTransferBatchSize;
+
     @Override
     public Wallet getUserWallet(User user) {
         Wallet wallet = walletRepository.findByUserId(user.getId());
@@ -28,12 +56,18 @@ public class WalletServiceImpl implements WalletService{
     }
 
     @Override
-    public Wallet addBalance(Wallet wallet, long money) {
-        BigDecimal balance = wallet.getBalance();
-        BigDecimal newBalance = balance.add(BigDecimal.valueOf(money));
+    public Wallet addBalance(Wallet wallet, long money) throws Exception {
+        return addBalance(wallet, money, WalletTransactionType.ADD_MONEY);
+    }
 
-        wallet.setBalance(newBalance);
-        return walletRepository.save(wallet);
+    @Override
+    public Wallet addBalance(Wallet wallet, long money, WalletTransactionType type) throws Exception {
+        long userId = wallet.getUser().getId();
+        return accountSequencer.executeInTransaction(userId, () -> {
+            riskEngine.adjustCash(userId, Money.of(money).getUnits());
+            walletTransactionService.post(wallet, LedgerAccount.EXTERNAL, Money.of(money), type, null);
+            return wallet;
+        });
     }
 
     @Override
@@ -47,47 +81,144 @@ public class WalletServiceImpl implements WalletService{
     }
 
     @Override
-    public Wallet walletoWalletTransaction(User sender, Wallet recipient, long amount) throws Exception {
-        Wallet senderWallet = getUserWallet(sender);
-        if(senderWallet.getBalance().compareTo(BigDecimal.valueOf(amount)) < 0){
-            throw new Exception("insufficient balance");
-        }
-        BigDecimal senderBalance = senderWallet
-                .getBalance()
-                .subtract(BigDecimal.valueOf(amount));
-        senderWallet.setBalance(senderBalance);
-        walletRepository.save(senderWallet);
-        BigDecimal recipientBalance = recipient
-                .getBalance()
-                .add(BigDecimal
-                        .valueOf(amount));
-        recipient.setBalance(recipientBalance);
-        walletRepository.save(recipient);
-        return senderWallet;
+    public WalletBalance getBalance(User user) throws Exception {
+        CashBalance cash = riskEngine.getCashBalance(user.getId());
+        return new WalletBalance(Money.ofUnits(cash.getCash()), Money.ofUnits(cash.getReserved()),
+                Money.ofUnits(cash.getHeld()), Money.ofUnits(cash.getAvailable()));
     }
 
+    /**
+     * Runs on the sender's lane; crediting the recipient commutes with
+     * whatever their own lane is doing.
+     */
     @Override
-    public Wallet payorderPayment(Order order, User user) throws Exception {
-        Wallet wallet = getUserWallet(user);
-
-        if(order.getOrderType().equals(OrderType.BUY)){
-            BigDecimal newbalance = wallet.getBalance().subtract(order.getPrice());
-            if(newbalance.compareTo(order.getPrice())<0){
-                throw new Exception("Insufficient funds for this transaction");
+    public Wallet walletoWalletTransaction(User sender, Wallet recipient, Money amount, String purpose) throws Exception {
+        if(amount == null || amount.signum() <= 0){
+            throw new Exception("amount should be greater than 0");
+        }
+        return accountSequencer.executeInTransaction(sender.getId(), () -> {
+            // reserved cash backs resting orders and cannot be transferred
+            riskEngine.adjustCash(sender.getId(), -amount.getUnits());
+            riskEngine.adjustCash(recipient.getUser().getId(), amount.getUnits());
+
+            Wallet senderWallet = getUserWallet(sender);
+            walletTransactionService.transfer(senderWallet, recipient, amount, purpose);
+            return senderWallet;
+        });
+    }
 
+    /**
+     * Applies a batch of transfers in one transaction, each only if its
+     * sender can cover it once the transfers before it are applied. What
+     * moves between the same two wallets is netted into one ledger entry,
+     * and every wallet gets a single balance update at commit. Checks and
+     * debits happen per transfer in the {@link RiskEngine}, so the batch
+     * needs none of its users' lanes; the ledger side only adds deltas.
+     */
+    @Override
+    @Transactional
+    public List<TransferResult> transferBatch(List<TransferRequest> transfers) throws Exception {
+        if(transfers == null || transfers.isEmpty() || transfers.size() > maxTransferBatchSize){
+            throw new Exception("between 1 and " + maxTransferBatchSize + " transfers can be sent at once");
+        }
+        Set<Long> walletIds = new HashSet<>();
+        for(TransferRequest transfer : transfers){
+            if(transfer.getSenderWalletId() != null){
+                walletIds.add(transfer.getSenderWalletId());
             }
-            wallet.setBalance(newbalance);
-
-        }else{
-            if(order.getOrderType().equals(OrderType.SELL)){
-                BigDecimal newBalance = wallet.getBalance().add(order.getPrice());
-                wallet.setBalance(newBalance);
+            if(transfer.getRecipientWalletId() != null){
+                walletIds.add(transfer.getRecipientWalletId());
             }
-            walletRepository.save(wallet);
+        }
+        Map<Long, Wallet> wallets = new HashMap<>();
+        for(Wallet wallet : walletRepository.findAllWithUser(walletIds)){
+            wallets.put(wallet.getId(), wallet);
+        }
 
+        int size = transfers.size();
+        List<TransferResult> results = new ArrayList<>(size);
+        long[] senders = new long[size];
+        long[] recipients = new long[size];
+        long[] units = new long[size];
+        for(int i = 0; i < size; i++){
+            TransferRequest transfer = transfers.get(i);
+            TransferResult result = new TransferResult();
+            result.setIndex(i);
+            results.add(result);
+            Wallet sender = wallets.get(transfer.getSenderWalletId());
+            Wallet recipient = wallets.get(transfer.getRecipientWalletId());
+            if(sender == null || recipient == null){
+                result.setMessage("wallet not found");
+            }else if(sender == recipient){
+                result.setMessage("sender and recipient should differ");
+            }else if(transfer.getAmount() == null || transfer.getAmount().signum() <= 0){
+                result.setMessage("amount should be greater than 0");
+            }else{
+                senders[i] = sender.getUser().getId();
+                recipients[i] = recipient.getUser().getId();
+                units[i] = transfer.getAmount().getUnits();
+            }
+        }
+        // rejected transfers carry no units, so the risk engine skips them
+        boolean[] applied = riskEngine.transferCash(senders, recipients, units);
+
+        // keyed by the lower wallet id, then the higher; positive when the lower one pays
+        Map<Long, Map<Long, NetTransfer>> nets = new TreeMap<>();
+        List<NetTransfer> netOf = new ArrayList<>(size);
+        for(int i = 0; i < size; i++){
+            TransferResult result = results.get(i);
+            if(result.getMessage() != null){
+                netOf.add(null);
+                continue;
+            }
+            if(!applied[i]){
+                result.setMessage("insufficient balance");
+                netOf.add(null);
+                continue;
+            }
+            TransferRequest transfer = transfers.get(i);
+            long sender = transfer.getSenderWalletId();
+            long recipient = transfer.getRecipientWalletId();
+            NetTransfer net = nets.computeIfAbsent(Math.min(sender, recipient), id -> new TreeMap<>())
+                    .computeIfAbsent(Math.max(sender, recipient), id -> new NetTransfer());
+            net.units += sender < recipient ? units[i] : -units[i];
+            net.purpose = net.count++ == 0 ? transfer.getPurpose() : "netted transfers";
+            netOf.add(net);
+            result.setSuccess(true);
+        }
+        for(Map.Entry<Long, Map<Long, NetTransfer>> low : nets.entrySet()){
+            for(Map.Entry<Long, NetTransfer> high : low.getValue().entrySet()){
+                NetTransfer net = high.getValue();
+                if(net.units == 0){
+                    continue;
+                }
+                Wallet lower = wallets.get(low.getKey());
+                Wallet higher = wallets.get(high.getKey());
+                net.entryId = net.units > 0
+                        ? walletTransactionService.transfer(lower, higher, Money.ofUnits(net.units), net.purpose)
+                        : walletTransactionService.transfer(higher, lower, Money.ofUnits(-net.units), net.purpose);
+            }
         }
+        for(int i = 0; i < size; i++){
+            if(netOf.get(i) != null){
+                results.get(i).setEntryId(netOf.get(i).entryId);
+            }
+        }
+        return results;
+    }
 
+    @Override
+    public List<WalletTransaction> getWalletTransactions(User user, int limit) throws Exception {
+        if(limit <= 0 || limit > 500){
+            throw new Exception("limit should be between 1 and 500");
+        }
+        return walletTransactionService.getWalletTransactions(getUserWallet(user), limit);
+    }
 
-        return wallet;
+    private static final class NetTransfer {
+        long units;
+        int count;
+        String purpose;
+        String entryId;
     }
 }
@@ -1,6 +1,19 @@
 package com.jayanth.tradingplatform.service;
 
+import com.jayanth.tradingplatform.domain.LedgerAccount;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.WalletTransactionType;
+import com.jayanth.tradingplatform.model.Wallet;
+import com.jayanth.tradingplatform.model.WalletTransaction;
+
+import java.util.List;
+
 public interface WalletTransactionService {
 
+    String post(Wallet wallet, LedgerAccount counterparty, Money amount,
+                WalletTransactionType type, String purpose);
+
+    String transfer(Wallet sender, Wallet recipient, Money amount, String purpose);
 
+    List<WalletTransaction> getWalletTransactions(Wallet wallet, int limit);
 }
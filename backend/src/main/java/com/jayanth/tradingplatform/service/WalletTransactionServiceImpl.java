@@ -0,0 +1,146 @@
+package com.jayanth.tradingplatform.service;
+
+import com.jayanth.tradingplatform.domain.LedgerAccount;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.WalletTransactionType;
+import com.jayanth.tradingplatform.model.Wallet;
+import com.jayanth.tradingplatform.model.WalletTransaction;
+import com.jayanth.tradingplatform.repository.WalletRepository;
+import com.jayanth.tradingplatform.repository.WalletTransactionRepository;
+import com.jayanth.tradingplatform.utils.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Double-entry ledger over {@link WalletTransaction}. Every entry is inserted
+ * as balanced legs and never changed afterwards. {@link Wallet#getBalance()}
+ * is the running snapshot of a wallet's legs: the deltas a transaction posts
+ * are summed per wallet and applied with one relative update per wallet just
+ * before it commits, in wallet id order so concurrent transactions lock rows
+ * consistently. Postings themselves are flushed together and go out in JDBC
+ * batches.
+ * <p>
+ * The wallets passed in get their balance advanced in memory for the
+ * caller's response; the column is not updatable through the entity, so
+ * that copy can never be written back over a concurrent posting.
+ */
+@Service
+public class WalletTransactionServiceImpl implements WalletTransactionService {
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletTransactionRepository walletTransactionRepository;
+
+    /**
+     * Posts {@code amount} to the wallet, positive for a credit, against the
+     * platform account {@code counterparty}. A zero amount posts nothing.
+     */
+    @Override
+    @Transactional
+    public String post(Wallet wallet, LedgerAccount counterparty, Money amount,
+                       WalletTransactionType type, String purpose) {
+        if(amount.signum() == 0){
+            return null;
+        }
+        String entryId = String.valueOf(SnowflakeIdGenerator.nextId());
+        List<WalletTransaction> legs = new ArrayList<>(2);
+        legs.add(leg(entryId, wallet, LedgerAccount.WALLET, amount, type, purpose));
+        legs.add(leg(entryId, null, counterparty, Money.ZERO.minus(amount), type, purpose));
+        record(legs);
+        return entryId;
+    }
+
+    @Override
+    @Transactional
+    public String transfer(Wallet sender, Wallet recipient, Money amount, String purpose) {
+        String entryId = String.valueOf(SnowflakeIdGenerator.nextId());
+        List<WalletTransaction> legs = new ArrayList<>(2);
+        legs.add(leg(entryId, sender, LedgerAccount.WALLET, Money.ZERO.minus(amount),
+                WalletTransactionType.WALLET_TRANSFER, purpose));
+        legs.add(leg(entryId, recipient, LedgerAccount.WALLET, amount,
+                WalletTransactionType.WALLET_TRANSFER, purpose));
+        record(legs);
+        return entryId;
+    }
+
+    @Override
+    public List<WalletTransaction> getWalletTransactions(Wallet wallet, int limit) {
+        if(wallet.getId() == null){
+            return new ArrayList<>();
+        }
+        return walletTransactionRepository.findByWalletIdOrderByIdDesc(wallet.getId(), PageRequest.of(0, limit));
+    }
+
+    private void record(List<WalletTransaction> legs) {
+        Map<Long, Long> deltas = pendingDeltas();
+        for(WalletTransaction leg : legs){
+            Wallet wallet = leg.getWallet();
+            if(wallet == null){
+                continue;
+            }
+            if(wallet.getId() == null){
+                walletRepository.save(wallet);
+            }
+            deltas.merge(wallet.getId(), leg.getAmount().getUnits(), Long::sum);
+            wallet.setBalance(wallet.getBalance().plus(leg.getAmount()));
+        }
+        walletTransactionRepository.saveAll(legs);
+    }
+
+    /**
+     * Balance deltas posted so far in the current transaction, applied to
+     * the wallet rows before it commits.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, Long> pendingDeltas() {
+        Map<Long, Long> deltas = (Map<Long, Long>) TransactionSynchronizationManager.getResource(this);
+        if(deltas != null){
+            return deltas;
+        }
+        Map<Long, Long> created = new TreeMap<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // wallets created in this transaction must be inserted before their updates
+                walletRepository.flush();
+                for(Map.Entry<Long, Long> delta : created.entrySet()){
+                    if(delta.getValue() != 0){
+                        walletRepository.addToBalance(delta.getKey(), Money.ofUnits(delta.getValue()).toBigDecimal());
+                    }
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WalletTransactionServiceImpl.this);
+            }
+        });
+        return created;
+    }
+
+    private static WalletTransaction leg(String entryId, Wallet wallet, LedgerAccount account, Money amount,
+                                         WalletTransactionType type, String purpose) {
+        WalletTransaction leg = new WalletTransaction();
+        leg.setTransferId(entryId);
+        leg.setWallet(wallet);
+        leg.setAccount(account);
+        leg.setAmount(amount);
+        leg.setTransactionType(type);
+        leg.setPurpose(purpose);
+        leg.setDate(LocalDateTime.now());
+        return leg;
+    }
+}
@@ -7,10 +7,12 @@ import java.util.List;
 
 public interface WithdrawlService {
 
-    Withdrawl requestWithdrawl(Long amount, User user);
+    Withdrawl requestWithdrawl(Long amount, User user) throws Exception;
 
     Withdrawl proceedWithWithdrawl(Long withdrawlId, boolean accept) throws Exception;
 
+    List<Withdrawl> proceedWithWithdrawls(List<Long> withdrawlIds, boolean accept) throws Exception;
+
     List<Withdrawl> getUsersWithdrawlHistory(User user);
 
     List<Withdrawl> getAllWithdrawlRequest();
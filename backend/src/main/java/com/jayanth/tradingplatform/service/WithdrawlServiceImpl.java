@@ -1,44 +1,154 @@
 package com.jayanth.tradingplatform.service;
 
+import com.jayanth.tradingplatform.domain.LedgerAccount;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.WalletTransactionType;
 import com.jayanth.tradingplatform.domain.WithdrawlStatus;
+import com.jayanth.tradingplatform.engine.AccountSequencer;
+import com.jayanth.tradingplatform.engine.RiskEngine;
+import com.jayanth.tradingplatform.model.BalanceHold;
 import com.jayanth.tradingplatform.model.User;
+import com.jayanth.tradingplatform.model.Wallet;
 import com.jayanth.tradingplatform.model.Withdrawl;
 import com.jayanth.tradingplatform.repository.WithdrawlRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
+/**
+ * A withdrawal holds its amount in the requester's wallet until an admin
+ * decides on it. Accepting captures the hold, which debits the wallet;
+ * declining releases it, and the cash never left.
+ */
 @Service
 public class WithdrawlServiceImpl implements WithdrawlService {
 
     @Autowired
     private WithdrawlRepository withdrawlRepository;
 
+    @Autowired
+    private BalanceHoldService balanceHoldService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletTransactionService walletTransactionService;
+
+    @Autowired
+    private RiskEngine riskEngine;
+
+    @Autowired
+    private AccountSequencer accountSequencer;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${trading.withdrawals.batch.max-size:5000}")
+    private int maxBatchSize;
+
     @Override
-    public Withdrawl requestWithdrawl(Long amount, User user) {
-        Withdrawl withdrawl = new Withdrawl();
-        withdrawl.setAmount(amount);
-        withdrawl.setUser(user);
-        withdrawl.setStatus(WithdrawlStatus.PENDING);
-        return withdrawlRepository.save(withdrawl);
+    public Withdrawl requestWithdrawl(Long amount, User user) throws Exception {
+        if(amount == null || amount <= 0){
+            throw new Exception("amount should be greater than 0");
+        }
+        return accountSequencer.executeInTransaction(user.getId(), () -> {
+            Wallet wallet = walletService.getUserWallet(user);
+            BalanceHold hold = balanceHoldService.placeHold(wallet, Money.of(amount), "withdrawal");
+
+            Withdrawl withdrawl = new Withdrawl();
+            withdrawl.setAmount(amount);
+            withdrawl.setUser(user);
+            withdrawl.setStatus(WithdrawlStatus.PENDING);
+            withdrawl.setHoldId(hold.getId());
+            return withdrawlRepository.save(withdrawl);
+        });
     }
 
     @Override
     public Withdrawl proceedWithWithdrawl(Long withdrawlId, boolean accept) throws Exception {
-        Optional<Withdrawl> withdrawl = withdrawlRepository.findById(withdrawlId);
-        if(withdrawl.isPresent()) {
-            throw new Exception("withdrawl not found");
+        Withdrawl withdrawl = withdrawlRepository.findById(withdrawlId)
+                .orElseThrow(() -> new Exception("withdrawl not found"));
+        if(withdrawl.getStatus() != WithdrawlStatus.PENDING){
+            throw new Exception("withdrawl already processed");
+        }
+        List<Withdrawl> processed = proceedWithWithdrawls(List.of(withdrawlId), accept);
+        if(processed.isEmpty()){
+            throw new Exception("withdrawl already processed");
         }
-        Withdrawl withdrawl1 = withdrawl.get();
-        withdrawl1.setDate(LocalDateTime.now());
+        return processed.get(0);
+    }
+
+    /**
+     * Accepts or declines the pending withdrawals among {@code withdrawlIds}
+     * in one transaction and returns them; ids that are unknown or already
+     * decided are skipped.
+     */
+    @Override
+    public List<Withdrawl> proceedWithWithdrawls(List<Long> withdrawlIds, boolean accept) throws Exception {
+        if(withdrawlIds == null || withdrawlIds.isEmpty() || withdrawlIds.size() > maxBatchSize){
+            throw new Exception("between 1 and " + maxBatchSize + " withdrawls can be processed at once");
+        }
+        return transactionTemplate.execute(status -> {
+            List<Withdrawl> pending = new ArrayList<>(withdrawlIds.size());
+            List<Long> holdIds = new ArrayList<>(withdrawlIds.size());
+            for(Withdrawl withdrawl : withdrawlRepository.findAllWithUser(withdrawlIds)){
+                if(withdrawl.getStatus() == WithdrawlStatus.PENDING){
+                    pending.add(withdrawl);
+                    if(withdrawl.getHoldId() != null){
+                        holdIds.add(withdrawl.getHoldId());
+                    }
+                }
+            }
+            Set<Long> settled = new HashSet<>(holdIds.size());
+            List<BalanceHold> holds = accept
+                    ? balanceHoldService.captureHolds(holdIds, WalletTransactionType.WITHDRAWAL)
+                    : balanceHoldService.releaseHolds(holdIds);
+            holds.forEach(hold -> settled.add(hold.getId()));
+
+            LocalDateTime now = LocalDateTime.now();
+            WithdrawlStatus decided = accept ? WithdrawlStatus.SUCCESS : WithdrawlStatus.DECLINE;
+            List<Withdrawl> processed = new ArrayList<>(pending.size());
+            for(Withdrawl withdrawl : pending){
+                if(withdrawl.getHoldId() == null){
+                    // requested before holds: the status read above is unlocked, so claim the row first
+                    if(withdrawlRepository.decidePending(withdrawl.getId(), decided, now) == 0){
+                        continue;
+                    }
+                    if(!accept){
+                        refund(withdrawl);
+                    }
+                }else if(!settled.contains(withdrawl.getHoldId())){
+                    // settled by a concurrent decision
+                    continue;
+                }
+                withdrawl.setStatus(decided);
+                withdrawl.setDate(now);
+                processed.add(withdrawl);
+            }
+            return processed;
+        });
+    }
 
-        if(accept){
-            withdrawl1.setStatus(WithdrawlStatus.PENDING);
+    /**
+     * Credits back a withdrawal that was debited when it was requested.
+     */
+    private void refund(Withdrawl withdrawl) {
+        Wallet wallet = walletService.getUserWallet(withdrawl.getUser());
+        try {
+            riskEngine.adjustCash(withdrawl.getUser().getId(), Money.of(withdrawl.getAmount()).getUnits());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
         }
-        return withdrawlRepository.save(withdrawl1);
+        walletTransactionService.post(wallet, LedgerAccount.EXTERNAL, Money.of(withdrawl.getAmount()),
+                WalletTransactionType.WITHDRAWAL, "withdrawal " + withdrawl.getId() + " declined");
     }
 
     @Override
@@ -0,0 +1,124 @@
+package com.jayanth.tradingplatform.utils;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent map whose entries expire a fixed time after they were written
+ * and which never holds more than {@code maxSize} of them. Every entry lives
+ * for the same time, so write order is expiry order and eviction only ever
+ * looks at the head of a queue: O(1) amortized per write, with no background
+ * thread.
+ */
+public class ExpiringCache<K, V> {
+
+    private final ConcurrentMap<K, Node<V>> map = new ConcurrentHashMap<>();
+    private final Queue<Written<K, V>> writes = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock evicting = new ReentrantLock();
+    private final long ttlNanos;
+    private final int maxSize;
+
+    public ExpiringCache(long ttlNanos, int maxSize) {
+        this.ttlNanos = ttlNanos;
+        this.maxSize = maxSize;
+    }
+
+    public V get(K key) {
+        Node<V> node = map.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (node.expired(System.nanoTime())) {
+            map.remove(key, node);
+            return null;
+        }
+        return node.value;
+    }
+
+    /**
+     * Stores {@code value} unless a live entry exists, and returns that entry's
+     * value, or null if {@code value} was stored.
+     */
+    public V putIfAbsent(K key, V value) {
+        long now = System.nanoTime();
+        Node<V> node = new Node<>(value, now + ttlNanos);
+        while (true) {
+            Node<V> existing = map.putIfAbsent(key, node);
+            if (existing == null) {
+                written(key, node, now);
+                return null;
+            }
+            if (!existing.expired(now)) {
+                return existing.value;
+            }
+            if (map.replace(key, existing, node)) {
+                written(key, node, now);
+                return null;
+            }
+        }
+    }
+
+    public void put(K key, V value) {
+        long now = System.nanoTime();
+        Node<V> node = new Node<>(value, now + ttlNanos);
+        map.put(key, node);
+        written(key, node, now);
+    }
+
+    public void remove(K key) {
+        map.remove(key);
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * Queues the write, then drops entries from the head while they have
+     * expired, the map is over size or they were overwritten. Only one writer
+     * evicts at a time; the others leave it to that one.
+     */
+    private void written(K key, Node<V> node, long now) {
+        writes.add(new Written<>(key, node));
+        if (!evicting.tryLock()) {
+            return;
+        }
+        try {
+            Written<K, V> head;
+            while ((head = writes.peek()) != null
+                    && (head.node.expired(now) || map.size() > maxSize || map.get(head.key) != head.node)) {
+                writes.poll();
+                map.remove(head.key, head.node);
+            }
+        } finally {
+            evicting.unlock();
+        }
+    }
+
+    private static final class Node<V> {
+        final V value;
+        final long expiresAt;
+
+        Node(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean expired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    private static final class Written<K, V> {
+        final K key;
+        final Node<V> node;
+
+        Written(K key, Node<V> node) {
+            this.key = key;
+            this.node = node;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.jayanth.tradingplatform.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time ordered ids: 41 bits of milliseconds since {@link #EPOCH}, 5 bits of
+ * node id and a 7 bit per-millisecond sequence. Ids are allocated in memory
+ * without a database round-trip and stay below 2^53, so they survive being
+ * parsed as JavaScript numbers by the frontend.
+ */
+public class SnowflakeIdGenerator {
+
+    private static final long EPOCH = 1704067200000L; // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 5;
+    private static final int SEQUENCE_BITS = 7;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final long NODE_ID = Long.getLong("trading.node-id",
+            Long.parseLong(System.getenv().getOrDefault("TRADING_NODE_ID", "0"))) & ((1L << NODE_BITS) - 1);
+
+    // packed (millis since EPOCH << SEQUENCE_BITS) | sequence of the last issued id
+    private static final AtomicLong state = new AtomicLong();
+
+    public static long nextId() {
+        while (true) {
+            long last = state.get();
+            long lastMillis = last >>> SEQUENCE_BITS;
+            long now = System.currentTimeMillis() - EPOCH;
+            long next;
+            if (now > lastMillis) {
+                next = now << SEQUENCE_BITS;
+            } else if ((last & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = last + 1;
+            } else {
+                // sequence exhausted for this millisecond, borrow the next one
+                next = (lastMillis + 1) << SEQUENCE_BITS;
+            }
+            if (state.compareAndSet(last, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                return (millis << (NODE_BITS + SEQUENCE_BITS)) | (NODE_ID << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+}
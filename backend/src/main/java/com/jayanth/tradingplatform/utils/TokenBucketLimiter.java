@@ -0,0 +1,100 @@
+package com.jayanth.tradingplatform.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets keyed by caller. Each bucket is one {@code AtomicLong} packing
+ * the tokens left, in thousandths, above the millisecond it was last refilled,
+ * so taking a token is a single compare-and-set with no lock. Buckets that
+ * have refilled completely are dropped, since a missing bucket reads as full.
+ */
+public class TokenBucketLimiter {
+
+    private static final int TIME_BITS = 40;
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+    private static final long MAX_TOKENS = (1L << (63 - TIME_BITS)) - 1;
+    private static final long ONE = 1000;
+    private static final long SWEEP_INTERVAL_MS = 60_000;
+
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final long capacity;
+    private final double refillPerMs;
+    private final long fullRefillMs;
+    private final long origin = System.nanoTime();
+    private final AtomicLong nextSweep = new AtomicLong(SWEEP_INTERVAL_MS);
+
+    /**
+     * @param capacity        largest burst, in requests
+     * @param refillPerSecond requests added back per second
+     */
+    public TokenBucketLimiter(int capacity, double refillPerSecond) {
+        if (capacity < 1 || capacity * ONE > MAX_TOKENS) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + MAX_TOKENS / ONE);
+        }
+        if (!(refillPerSecond > 0)) {
+            throw new IllegalArgumentException("refill rate must be positive");
+        }
+        this.capacity = capacity * ONE;
+        this.refillPerMs = refillPerSecond;
+        this.fullRefillMs = (long) Math.ceil(this.capacity / refillPerMs);
+    }
+
+    /**
+     * Takes a token for {@code key}. Returns 0 if one was available, otherwise
+     * how many milliseconds until there will be one.
+     */
+    public long tryAcquire(String key) {
+        long now = now();
+        sweepIfDue(now);
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(pack(capacity, now)));
+        }
+        while (true) {
+            long state = bucket.get();
+            long tokens = state >>> TIME_BITS;
+            long refilledAt = state & TIME_MASK;
+            long added = (long) (((now - refilledAt) & TIME_MASK) * refillPerMs);
+            if (tokens + added >= capacity) {
+                tokens = capacity;
+                refilledAt = now;
+            } else if (added > 0) {
+                tokens += added;
+                refilledAt = (refilledAt + (long) (added / refillPerMs)) & TIME_MASK;
+            }
+            if (tokens < ONE) {
+                return Math.max(1, (long) Math.ceil((ONE - tokens) / refillPerMs));
+            }
+            if (bucket.compareAndSet(state, pack(tokens - ONE, refilledAt))) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now < due || !nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_MS)) {
+            return;
+        }
+        buckets.forEach((key, bucket) -> {
+            long state = bucket.get();
+            if (((now - (state & TIME_MASK)) & TIME_MASK) >= fullRefillMs) {
+                buckets.remove(key, bucket);
+            }
+        });
+    }
+
+    private long now() {
+        return (System.nanoTime() - origin) / 1_000_000;
+    }
+
+    private static long pack(long tokens, long refilledAt) {
+        return tokens << TIME_BITS | refilledAt & TIME_MASK;
+    }
+}
@@ -0,0 +1,116 @@
+package com.jayanth.tradingplatform.benchmark;
+
+import com.jayanth.tradingplatform.TradingPlatformApplication;
+import com.jayanth.tradingplatform.domain.LedgerAccount;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.WalletTransactionType;
+import com.jayanth.tradingplatform.engine.RiskEngine;
+import com.jayanth.tradingplatform.model.User;
+import com.jayanth.tradingplatform.model.Wallet;
+import com.jayanth.tradingplatform.repository.UserRepository;
+import com.jayanth.tradingplatform.service.WalletService;
+import com.jayanth.tradingplatform.service.WalletTransactionService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Deposits from 16 client threads, either as a transaction on the calling
+ * thread, as the wallet service ran them before, or through the per-user
+ * account lanes. Run once over 2 hot users, where every request contends
+ * for the same wallet rows, and once spread over 256 users. Needs a
+ * reachable database; extra arguments are passed through as Spring
+ * properties, e.g. {@code --spring.datasource.url=...}.
+ */
+public class AccountLaneBenchmark {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS = 4_000;
+
+    public static void main(String[] args) throws Exception {
+        Path workDir = Files.createTempDirectory("lane-bench");
+        System.setProperty("server.port", "0");
+        System.setProperty("spring.jpa.show-sql", "false");
+        System.setProperty("logging.level.org.hibernate.SQL", "WARN");
+        System.setProperty("logging.level.org.hibernate.type.descriptor.sql", "WARN");
+        System.setProperty("trading.journal.dir", workDir.resolve("journal").toString());
+        System.setProperty("trading.snapshot.dir", workDir.resolve("snapshots").toString());
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TradingPlatformApplication.class)
+                .run(args)) {
+            WalletService walletService = context.getBean(WalletService.class);
+            WalletTransactionService ledger = context.getBean(WalletTransactionService.class);
+            RiskEngine riskEngine = context.getBean(RiskEngine.class);
+            TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+            UserRepository userRepository = context.getBean(UserRepository.class);
+
+            List<Wallet> wallets = new ArrayList<>();
+            for (int i = 0; i < 256; i++) {
+                User user = new User();
+                user.setEmail("lane-bench-" + System.nanoTime() + "-" + i + "@example.com");
+                user.setFullName("lane bench " + i);
+                wallets.add(walletService.addBalance(walletService.getUserWallet(userRepository.save(user)), 1));
+            }
+
+            Deposit direct = wallet -> transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    riskEngine.adjustCash(wallet.getUser().getId(), Money.of(1).getUnits());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                ledger.post(wallet, LedgerAccount.EXTERNAL, Money.of(1),
+                        WalletTransactionType.ADD_MONEY, null);
+            });
+            Deposit lanes = wallet -> walletService.addBalance(wallet, 1, WalletTransactionType.ADD_MONEY);
+
+            System.out.printf("%-14s %6s %10s %10s %10s%n", "path", "users", "ops/s", "p50 us", "p99 us");
+            for (int round = 0; round < 2; round++) {
+                for (int users : new int[]{2, 256}) {
+                    run("transactional", users, wallets, direct);
+                    run("lanes", users, wallets, lanes);
+                }
+            }
+        }
+    }
+
+    private static void run(String path, int users, List<Wallet> wallets, Deposit deposit) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long[] latencies = new long[OPERATIONS];
+        List<Future<?>> futures = new ArrayList<>(THREADS);
+        long started = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            int first = t;
+            futures.add(pool.submit(() -> {
+                for (int i = first; i < OPERATIONS; i += THREADS) {
+                    Wallet wallet = wallets.get(ThreadLocalRandom.current().nextInt(users));
+                    long begin = System.nanoTime();
+                    deposit.apply(wallet);
+                    latencies[i] = System.nanoTime() - begin;
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - started;
+        pool.shutdown();
+        Arrays.sort(latencies);
+        System.out.printf("%-14s %6d %10d %10d %10d%n", path, users, OPERATIONS * 1_000_000_000L / elapsed,
+                latencies[OPERATIONS / 2] / 1000, latencies[OPERATIONS * 99 / 100] / 1000);
+    }
+
+    private interface Deposit {
+        void apply(Wallet wallet) throws Exception;
+    }
+}
@@ -0,0 +1,115 @@
+package com.jayanth.tradingplatform.benchmark;
+
+import com.jayanth.tradingplatform.domain.CandleInterval;
+import com.jayanth.tradingplatform.engine.CandleSeries;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A 30 day hourly chart over a coin trading every ten seconds: reading the
+ * prebuilt bars against bucketing the raw fills per request, plus the cost a
+ * fill pays to keep all four intervals current. Run with
+ * {@code java -cp <test classpath> ...CandleBenchmark [-prof gc]}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CandleBenchmark {
+
+    private static final long DAYS = 30;
+    private static final long STEP_MS = 10_000;
+    private static final int TRADES = (int) (DAYS * 86_400_000L / STEP_MS);
+
+    private final long[] timestamps = new long[TRADES];
+    private final long[] prices = new long[TRADES];
+    private final long[] quantities = new long[TRADES];
+    private final CandleInterval[] intervals = CandleInterval.values();
+    private CandleSeries[] series;
+    private long[][] columns;
+    private long now;
+    private int next;
+
+    @Setup
+    public void setup() {
+        now = 1_700_000_000_000L;
+        long price = 50_000_00;
+        long seed = 42;
+        series = new CandleSeries[intervals.length];
+        for (CandleInterval interval : intervals) {
+            series[interval.ordinal()] = new CandleSeries(interval.getMillis(), interval.getCapacity());
+        }
+        for (int i = 0; i < TRADES; i++) {
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            price = Math.max(1, price + (seed >> 54));
+            timestamps[i] = now - DAYS * 86_400_000L + i * STEP_MS;
+            prices[i] = price;
+            quantities[i] = 1_000_000 + (seed >>> 44);
+            for (CandleSeries bars : series) {
+                bars.update(timestamps[i], prices[i], quantities[i]);
+            }
+        }
+        columns = new long[6][CandleInterval.H1.getCapacity()];
+    }
+
+    @Benchmark
+    public void update() {
+        int i = next++ & 1023;
+        now += STEP_MS;
+        for (CandleSeries bars : series) {
+            bars.update(now, prices[i], quantities[i]);
+        }
+    }
+
+    @Benchmark
+    public void chartFromBars(Blackhole blackhole) {
+        blackhole.consume(series[CandleInterval.H1.ordinal()].read(now - DAYS * 86_400_000L, columns));
+        blackhole.consume(columns);
+    }
+
+    @Benchmark
+    public void chartFromTrades(Blackhole blackhole) {
+        long interval = CandleInterval.H1.getMillis();
+        long from = now - DAYS * 86_400_000L;
+        int n = 0;
+        long open = Long.MIN_VALUE;
+        for (int i = 0; i < TRADES; i++) {
+            long ts = timestamps[i];
+            if (ts < from) {
+                continue;
+            }
+            long openTime = ts - Math.floorMod(ts, interval);
+            if (openTime != open) {
+                open = openTime;
+                columns[0][n] = openTime;
+                columns[1][n] = prices[i];
+                columns[2][n] = prices[i];
+                columns[3][n] = prices[i];
+                columns[5][n] = 0;
+                n++;
+            }
+            int bar = n - 1;
+            columns[2][bar] = Math.max(columns[2][bar], prices[i]);
+            columns[3][bar] = Math.min(columns[3][bar], prices[i]);
+            columns[4][bar] = prices[i];
+            columns[5][bar] += quantities[i];
+        }
+        blackhole.consume(n);
+        blackhole.consume(columns);
+    }
+
+    public static void main(String[] args) throws Exception {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(CandleBenchmark.class.getSimpleName());
+        if (args.length > 1 && args[0].equals("-prof")) {
+            options.addProfiler(args[1]);
+        }
+        new Runner(options.build()).run();
+    }
+}
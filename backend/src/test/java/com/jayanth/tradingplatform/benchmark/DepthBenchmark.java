@@ -0,0 +1,88 @@
+package com.jayanth.tradingplatform.benchmark;
+
+import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.engine.BookDepth;
+import com.jayanth.tradingplatform.engine.DepthDelta;
+import com.jayanth.tradingplatform.engine.MatchingEngine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A client following a book of 500 levels a side, 20 orders each, as the
+ * book changes by 10 orders between polls: a full depth snapshot per poll
+ * against the changes since the last one. Run with
+ * {@code java -cp <test classpath> ...DepthBenchmark [-prof gc]}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DepthBenchmark {
+
+    private static final String COIN = "bitcoin";
+    private static final int LEVELS = 500;
+    private static final int ORDERS_PER_LEVEL = 20;
+    private static final int CHANGES_PER_POLL = 10;
+
+    private MatchingEngine engine;
+    private long orderId;
+    private long sequence;
+
+    @Setup
+    public void setup() {
+        engine = new MatchingEngine();
+        for (int level = 0; level < LEVELS; level++) {
+            for (int i = 0; i < ORDERS_PER_LEVEL; i++) {
+                engine.submit(COIN, ++orderId, 1, OrderType.BUY, 10_000 - level, 1_000_000);
+                engine.submit(COIN, ++orderId, 2, OrderType.SELL, 10_001 + level, 1_000_000);
+            }
+        }
+        sequence = engine.depth(COIN, 1).getSequence();
+    }
+
+    private void churn() {
+        for (int i = 0; i < CHANGES_PER_POLL; i++) {
+            long id = ++orderId;
+            engine.submit(COIN, id, 1, OrderType.BUY, 10_000 - (id % LEVELS), 1_000_000);
+            engine.cancel(COIN, id);
+        }
+    }
+
+    @Benchmark
+    public void pollSnapshot(Blackhole blackhole) {
+        churn();
+        BookDepth depth = engine.depth(COIN, Integer.MAX_VALUE);
+        blackhole.consume(depth);
+    }
+
+    @Benchmark
+    public void pollChanges(Blackhole blackhole) {
+        churn();
+        List<DepthDelta> changes = new ArrayList<>(2 * CHANGES_PER_POLL);
+        engine.deltas(COIN, sequence, 1000, changes);
+        sequence = changes.get(changes.size() - 1).getSequence();
+        blackhole.consume(changes);
+    }
+
+    @Benchmark
+    public void churnOnly() {
+        churn();
+    }
+
+    public static void main(String[] args) throws Exception {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(DepthBenchmark.class.getSimpleName());
+        if (args.length > 1 && args[0].equals("-prof")) {
+            options.addProfiler(args[1]);
+        }
+        new Runner(options.build()).run();
+    }
+}
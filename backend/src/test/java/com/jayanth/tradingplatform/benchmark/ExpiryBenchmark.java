@@ -0,0 +1,124 @@
+package com.jayanth.tradingplatform.benchmark;
+
+import com.jayanth.tradingplatform.engine.ExpiryWheel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady state of GTD expiry with {@code pending} orders outstanding: each
+ * operation schedules one order up to an hour of one-second ticks ahead and
+ * advances the clock, expiring whatever is due. Compares the timing wheel
+ * with a priority queue and with scanning every pending order each tick, the
+ * in-memory form of a periodic table sweep. Run with
+ * {@code java -cp <test classpath> ...ExpiryBenchmark [-prof gc]}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpiryBenchmark {
+
+    private static final int HORIZON = 3600;
+
+    @Param({"10000", "100000"})
+    private int pending;
+
+    private Random random;
+    private ExpiryWheel wheel;
+    private PriorityQueue<long[]> queue;
+    private long[] scanDeadlines;
+    private int scanSize;
+    private long tick;
+    private int ticksPerOp;
+    private int opsThisTick;
+    private final List<ExpiryWheel.Entry> expired = new ArrayList<>();
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        random = new Random(42);
+        tick = 0;
+        // one tick per pending/HORIZON orders keeps the population at about pending
+        ticksPerOp = Math.max(1, pending / HORIZON);
+        opsThisTick = 0;
+        wheel = new ExpiryWheel(0);
+        queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        scanDeadlines = new long[pending * 2];
+        scanSize = 0;
+        for (int i = 0; i < pending; i++) {
+            long deadline = 1 + random.nextInt(HORIZON);
+            wheel.add("btc", i, deadline);
+            queue.add(new long[]{deadline, i});
+            scanDeadlines[scanSize++] = deadline;
+        }
+    }
+
+    private boolean nextTick() {
+        if (++opsThisTick < ticksPerOp) {
+            return false;
+        }
+        opsThisTick = 0;
+        tick++;
+        return true;
+    }
+
+    @Benchmark
+    public void timingWheel(Blackhole blackhole) {
+        wheel.add("btc", tick, tick + 1 + random.nextInt(HORIZON));
+        if (nextTick()) {
+            expired.clear();
+            wheel.advance(tick, expired);
+            blackhole.consume(expired.size());
+        }
+    }
+
+    @Benchmark
+    public void priorityQueue(Blackhole blackhole) {
+        queue.add(new long[]{tick + 1 + random.nextInt(HORIZON), tick});
+        if (nextTick()) {
+            int count = 0;
+            while (!queue.isEmpty() && queue.peek()[0] <= tick) {
+                queue.poll();
+                count++;
+            }
+            blackhole.consume(count);
+        }
+    }
+
+    @Benchmark
+    public void scanEveryTick(Blackhole blackhole) {
+        if (scanSize == scanDeadlines.length) {
+            scanDeadlines = Arrays.copyOf(scanDeadlines, scanSize * 2);
+        }
+        scanDeadlines[scanSize++] = tick + 1 + random.nextInt(HORIZON);
+        if (nextTick()) {
+            int kept = 0;
+            for (int i = 0; i < scanSize; i++) {
+                if (scanDeadlines[i] > tick) {
+                    scanDeadlines[kept++] = scanDeadlines[i];
+                }
+            }
+            blackhole.consume(scanSize - kept);
+            scanSize = kept;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(ExpiryBenchmark.class.getSimpleName());
+        if (args.length > 1 && args[0].equals("-prof")) {
+            options.addProfiler(args[1]);
+        }
+        new Runner(options.build()).run();
+    }
+}
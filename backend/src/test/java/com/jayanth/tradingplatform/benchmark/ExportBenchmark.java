@@ -0,0 +1,157 @@
+package com.jayanth.tradingplatform.benchmark;
+
+import com.jayanth.tradingplatform.TradingPlatformApplication;
+import com.jayanth.tradingplatform.domain.ExportFormat;
+import com.jayanth.tradingplatform.domain.OrderKind;
+import com.jayanth.tradingplatform.domain.OrderStatus;
+import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.model.Coin;
+import com.jayanth.tradingplatform.model.User;
+import com.jayanth.tradingplatform.repository.CoinRepository;
+import com.jayanth.tradingplatform.repository.UserRepository;
+import com.jayanth.tradingplatform.service.OrderService;
+import com.jayanth.tradingplatform.utils.SnowflakeIdGenerator;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exports a large order history to a discarding stream and reports rows per
+ * second and the peak old generation, i.e. what survived collection while
+ * exporting. Run with a small {@code -Xmx} (e.g. 64m) to check memory stays
+ * bounded; the first argument is the number of orders,
+ * default one million, and the rest are passed through as Spring properties.
+ * The orders belong to a throwaway user and are deleted afterwards. Databases
+ * other than MySQL need a positive {@code --trading.orders.export.fetch-size}.
+ */
+public class ExportBenchmark {
+
+    private static final int INSERT_BATCH = 5_000;
+
+    public static void main(String[] args) throws Exception {
+        int orders = args.length > 0 && !args[0].startsWith("--") ? Integer.parseInt(args[0]) : 1_000_000;
+        // system properties outrank application.properties, command line arguments outrank both
+        Path workDir = Files.createTempDirectory("export-bench");
+        System.setProperty("server.port", "0");
+        System.setProperty("spring.jpa.show-sql", "false");
+        System.setProperty("logging.level.org.hibernate.SQL", "WARN");
+        System.setProperty("logging.level.org.hibernate.type.descriptor.sql", "WARN");
+        System.setProperty("trading.journal.dir", workDir.resolve("journal").toString());
+        System.setProperty("trading.snapshot.dir", workDir.resolve("snapshots").toString());
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TradingPlatformApplication.class)
+                .run(args)) {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            OrderService orderService = context.getBean(OrderService.class);
+            Coin coin = context.getBean(CoinRepository.class).findAll().get(0);
+            User user = new User();
+            user.setEmail("export-bench-" + System.nanoTime() + "@example.com");
+            user.setFullName("export benchmark");
+            user = context.getBean(UserRepository.class).save(user);
+
+            try {
+                long started = System.nanoTime();
+                insert(jdbc, user.getId(), coin.getId(), orders);
+                System.out.printf("inserted %d orders in %d ms, max heap %d MB%n", orders,
+                        (System.nanoTime() - started) / 1_000_000, Runtime.getRuntime().maxMemory() >> 20);
+
+                System.out.printf("%8s %10s %12s %10s %14s%n", "format", "rows", "rows/s", "MB", "peak old MB");
+                for (ExportFormat format : new ExportFormat[]{ExportFormat.CSV, ExportFormat.NDJSON,
+                        ExportFormat.CSV, ExportFormat.NDJSON}) {
+                    System.gc();
+                    resetPeakOld();
+                    CountingStream out = new CountingStream();
+                    started = System.nanoTime();
+                    orderService.exportOrders(user.getId(), null, null, null, null, null, format, out);
+                    long elapsed = System.nanoTime() - started;
+                    System.out.printf("%8s %10d %12d %10d %14d%n", format, out.lines, orders * 1_000_000_000L / elapsed,
+                            out.bytes >> 20, peakOld() >> 20);
+                }
+            } finally {
+                jdbc.update("delete from order_item where order_id in (select id from orders where user_id = ?)", user.getId());
+                jdbc.update("delete from orders where user_id = ?", user.getId());
+                context.getBean(UserRepository.class).deleteById(user.getId());
+            }
+        }
+    }
+
+    private static void insert(JdbcTemplate jdbc, long userId, String coinId, int orders) {
+        LocalDate start = LocalDate.now().minusDays(365);
+        List<Object[]> orderRows = new ArrayList<>(INSERT_BATCH);
+        List<Object[]> itemRows = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < orders; i++) {
+            long id = SnowflakeIdGenerator.nextId();
+            boolean buy = i % 2 == 0;
+            BigDecimal price = BigDecimal.valueOf(30_000_00L + i % 100_000, 2);
+            orderRows.add(new Object[]{id, userId, (buy ? OrderType.BUY : OrderType.SELL).ordinal(),
+                    OrderKind.MARKET.ordinal(), price, BigDecimal.ZERO, OrderStatus.SUCCESS.ordinal(),
+                    Date.valueOf(start.plusDays(i % 365))});
+            itemRows.add(new Object[]{SnowflakeIdGenerator.nextId(), id, coinId, BigDecimal.valueOf(1, 2),
+                    buy ? price : BigDecimal.ZERO, buy ? BigDecimal.ZERO : price});
+            if (orderRows.size() == INSERT_BATCH || i == orders - 1) {
+                jdbc.batchUpdate("insert into orders (id, user_id, order_type, order_kind, price, filled_quantity, " +
+                        "status, timestamp) values (?, ?, ?, ?, ?, ?, ?, ?)", orderRows);
+                jdbc.batchUpdate("insert into order_item (id, order_id, coin_id, quantity, buy_price, sell_price) " +
+                        "values (?, ?, ?, ?, ?, ?)", itemRows);
+                orderRows.clear();
+                itemRows.clear();
+            }
+        }
+    }
+
+    private static void resetPeakOld() {
+        for (MemoryPoolMXBean pool : oldGenerations()) {
+            pool.resetPeakUsage();
+        }
+    }
+
+    private static long peakOld() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : oldGenerations()) {
+            peak += pool.getPeakUsage().getUsed();
+        }
+        return peak;
+    }
+
+    private static List<MemoryPoolMXBean> oldGenerations() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .filter(pool -> pool.getName().contains("Old") || pool.getName().contains("Tenured"))
+                .toList();
+    }
+
+    private static final class CountingStream extends OutputStream {
+        long bytes;
+        long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.jayanth.tradingplatform.benchmark;
+
+import com.jayanth.tradingplatform.config.SnowflakeId;
+import com.jayanth.tradingplatform.domain.WalletTransactionType;
+import com.jayanth.tradingplatform.utils.SnowflakeIdGenerator;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Table;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+
+import java.time.LocalDateTime;
+
+/**
+ * Insert throughput of wallet-transaction-shaped rows whose ids come from
+ * {@code GenerationType.AUTO}, as the wallet, asset and payment entities
+ * used to, versus the in-memory Snowflake generator they use now. Both run
+ * in the same session factory with the same JDBC batch settings, one
+ * statement per row and batches of 50. Also prints the in-memory cost of
+ * allocating a Snowflake id.
+ * <p>
+ * Runs against in-memory H2 by default. Pass a JDBC url, user and password
+ * to measure another database, e.g. MySQL, where AUTO falls back to a
+ * sequence table.
+ */
+public class InsertThroughputBenchmark {
+
+    private static final int ROWS = 20_000;
+    private static final int FLUSH_EVERY = 500;
+    private static final int BATCH_SIZE = 50;
+
+    public static void main(String[] args) {
+        String url = args.length > 0 ? args[0] : "jdbc:h2:mem:insert-bench;MODE=MySQL;DB_CLOSE_DELAY=-1";
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(AutoIdRow.class)
+                .addAnnotatedClass(SnowflakeIdRow.class)
+                .setProperty("hibernate.connection.url", url)
+                .setProperty("hibernate.connection.username", args.length > 1 ? args[1] : "sa")
+                .setProperty("hibernate.connection.password", args.length > 2 ? args[2] : "")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.jdbc.batch_size", String.valueOf(BATCH_SIZE))
+                .setProperty("hibernate.order_inserts", "true");
+
+        long started = System.nanoTime();
+        for (int i = 0; i < 1_000_000; i++) {
+            SnowflakeIdGenerator.nextId();
+        }
+        System.out.printf("id allocation: %d ns/id%n", (System.nanoTime() - started) / 1_000_000);
+
+        try (SessionFactory factory = configuration.buildSessionFactory()) {
+            System.out.printf("%-10s %8s %10s %12s%n", "ids", "batch", "rows", "rows/s");
+            // the first round warms up, the second is the one to read
+            for (int round = 0; round < 2; round++) {
+                for (int batchSize : new int[]{1, BATCH_SIZE}) {
+                    System.out.printf("%-10s %8d %10d %12d%n", "auto", batchSize, ROWS,
+                            insert(factory, batchSize, AutoIdRow::new));
+                    System.out.printf("%-10s %8d %10d %12d%n", "snowflake", batchSize, ROWS,
+                            insert(factory, batchSize, SnowflakeIdRow::new));
+                }
+            }
+        }
+    }
+
+    private static long insert(SessionFactory factory, int batchSize, RowFactory rows) {
+        try (Session session = factory.openSession()) {
+            session.setJdbcBatchSize(batchSize);
+            session.getTransaction().begin();
+            long started = System.nanoTime();
+            for (int i = 0; i < ROWS; i++) {
+                Row row = rows.create();
+                row.transactionType = WalletTransactionType.ADD_MONEY;
+                row.date = LocalDateTime.now();
+                row.purpose = "insert benchmark";
+                row.amount = i;
+                session.persist(row);
+                if ((i + 1) % FLUSH_EVERY == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            session.flush();
+            long elapsed = System.nanoTime() - started;
+            // leave the table as it was
+            session.getTransaction().rollback();
+            return ROWS * 1_000_000_000L / elapsed;
+        }
+    }
+
+    private interface RowFactory {
+
+        Row create();
+    }
+
+    @MappedSuperclass
+    public abstract static class Row {
+        WalletTransactionType transactionType;
+        LocalDateTime date;
+        String purpose;
+        long amount;
+    }
+
+    @Entity
+    @Table(name = "insert_bench_auto")
+    public static class AutoIdRow extends Row {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.AUTO)
+        private Long id;
+    }
+
+    @Entity
+    @Table(name = "insert_bench_snowflake")
+    public static class SnowflakeIdRow extends Row {
+
+        @Id
+        @SnowflakeId
+        private Long id;
+    }
+}
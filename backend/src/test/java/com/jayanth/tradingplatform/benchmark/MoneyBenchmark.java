@@ -0,0 +1,115 @@
+package com.jayanth.tradingplatform.benchmark;
+
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.Quantity;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settles a stream of market orders the way executeMarketOrders does:
+ * price the order, check and debit the balance, add to the holding and
+ * apply the dust rule. Compares the previous BigDecimal and double path
+ * with scaled longs. Run with
+ * {@code java -cp <test classpath> ...MoneyBenchmark [-prof gc]}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final int ORDERS = 1024;
+
+    private BigDecimal[] decimalPrices;
+    private double[] doubleQuantities;
+    private Money[] prices;
+    private Quantity[] quantities;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        decimalPrices = new BigDecimal[ORDERS];
+        doubleQuantities = new double[ORDERS];
+        prices = new Money[ORDERS];
+        quantities = new Quantity[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            decimalPrices[i] = BigDecimal.valueOf(100_00 + random.nextInt(6_000_000), 2);
+            doubleQuantities[i] = (1 + random.nextInt(100_000)) / 10_000.0;
+            prices[i] = Money.of(decimalPrices[i]);
+            quantities[i] = Quantity.of(doubleQuantities[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void bigDecimalAndDouble(Blackhole blackhole) {
+        BigDecimal balance = BigDecimal.valueOf(1_000_000_000);
+        double holding = 0;
+        for (int i = 0; i < ORDERS; i++) {
+            BigDecimal cost = decimalPrices[i].multiply(BigDecimal.valueOf(doubleQuantities[i]));
+            if (balance.compareTo(cost) < 0) {
+                continue;
+            }
+            balance = balance.subtract(cost);
+            holding += doubleQuantities[i];
+            blackhole.consume(holding * decimalPrices[i].doubleValue() <= 1);
+        }
+        blackhole.consume(balance);
+        blackhole.consume(holding);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void scaledLong(Blackhole blackhole) {
+        long balance = Money.of(1_000_000_000).getUnits();
+        long holding = 0;
+        for (int i = 0; i < ORDERS; i++) {
+            long price = prices[i].getUnits();
+            long lots = quantities[i].getLots();
+            long cost = Money.times(price, lots);
+            if (balance < cost) {
+                continue;
+            }
+            balance -= cost;
+            holding += lots;
+            blackhole.consume(Money.times(price, holding) <= Money.ONE);
+        }
+        blackhole.consume(balance);
+        blackhole.consume(holding);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void valueTypes(Blackhole blackhole) {
+        Money balance = Money.of(1_000_000_000);
+        Quantity holding = Quantity.ZERO;
+        for (int i = 0; i < ORDERS; i++) {
+            Money cost = prices[i].times(quantities[i]);
+            if (balance.isLessThan(cost)) {
+                continue;
+            }
+            balance = balance.minus(cost);
+            holding = holding.plus(quantities[i]);
+            blackhole.consume(Money.times(prices[i].getUnits(), holding.getLots()) <= Money.ONE);
+        }
+        blackhole.consume(balance);
+        blackhole.consume(holding);
+    }
+
+    public static void main(String[] args) throws Exception {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(MoneyBenchmark.class.getSimpleName());
+        if (args.length > 1 && args[0].equals("-prof")) {
+            options.addProfiler(args[1]);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,91 @@
+package com.jayanth.tradingplatform.benchmark;
+
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.engine.PortfolioEngine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 100k users holding three of 50 coins each, so about 6000 hold any one
+ * coin. Compares a price tick revaluing that coin's holders through the
+ * engine's index with revaluing every user's holdings, which is what
+ * valuing portfolios from the asset and coin tables amounts to. Run with
+ * {@code java -cp <test classpath> ...PortfolioBenchmark [-prof gc]}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PortfolioBenchmark {
+
+    private static final int USERS = 100_000;
+    private static final int COINS = 50;
+    private static final int HELD = 3;
+
+    private PortfolioEngine engine;
+    private final String[] coinIds = new String[COINS];
+    private final long[] prices = new long[COINS];
+    private final int[][] holdings = new int[USERS][HELD];
+    private final long[][] lots = new long[USERS][HELD];
+    private final long[] values = new long[USERS];
+    private long seed = 42;
+
+    @Setup
+    public void setup() {
+        engine = new PortfolioEngine();
+        for (int c = 0; c < COINS; c++) {
+            coinIds[c] = "coin-" + c;
+            prices[c] = 100_00 + c;
+            engine.onPrice(coinIds[c], prices[c]);
+        }
+        for (int u = 0; u < USERS; u++) {
+            for (int h = 0; h < HELD; h++) {
+                int coin = (u * 7 + h * 13) % COINS;
+                holdings[u][h] = coin;
+                lots[u][h] = 1_000_000 + next(50_000_000);
+                engine.onFill(u, coinIds[coin], true, prices[coin], lots[u][h]);
+            }
+        }
+    }
+
+    @Benchmark
+    public void indexedTick() {
+        int coin = (int) next(COINS);
+        engine.onPrice(coinIds[coin], 100_00 + next(1000));
+    }
+
+    @Benchmark
+    public long revalueAll() {
+        int coin = (int) next(COINS);
+        prices[coin] = 100_00 + next(1000);
+        long total = 0;
+        for (int u = 0; u < USERS; u++) {
+            long value = 0;
+            for (int h = 0; h < HELD; h++) {
+                value += Money.times(prices[holdings[u][h]], lots[u][h]);
+            }
+            values[u] = value;
+            total += value;
+        }
+        return total;
+    }
+
+    private long next(int bound) {
+        seed = seed * 6364136223846793005L + 1442695040888963407L;
+        return (seed >>> 33) % bound;
+    }
+
+    public static void main(String[] args) throws Exception {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(PortfolioBenchmark.class.getSimpleName());
+        if (args.length > 1 && args[0].equals("-prof")) {
+            options.addProfiler(args[1]);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,79 @@
+package com.jayanth.tradingplatform.benchmark;
+
+import com.jayanth.tradingplatform.engine.SeriesBlock;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes one user-day of minute samples, 1440 of them. Values
+ * are either idle or move by up to a dollar a minute. Prints the compressed
+ * size per sample: a raw {@code (long, long)} pair is 16 bytes, before any
+ * row or index overhead a table would add. Run with
+ * {@code java -cp <test classpath> ...PortfolioHistoryBenchmark [-prof gc]}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PortfolioHistoryBenchmark {
+
+    private static final int SAMPLES = 1440;
+    private static final long MINUTE = 60_000;
+
+    @Param({"idle", "moving"})
+    private String values;
+
+    private final long[] timestamps = new long[SAMPLES];
+    private final long[] series = new long[SAMPLES];
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        long seed = 42;
+        long value = 1_234_567_89;
+        for (int i = 0; i < SAMPLES; i++) {
+            timestamps[i] = 1_700_000_040_000L + i * MINUTE;
+            if (values.equals("moving")) {
+                seed = seed * 6364136223846793005L + 1442695040888963407L;
+                value += (seed >>> 33) % 201 - 100;
+            }
+            series[i] = value;
+        }
+        SeriesBlock block = encode();
+        encoded = block.toBytes();
+        System.out.printf("%n%s: %.2f bytes per sample%n", values, (double) encoded.length / SAMPLES);
+    }
+
+    @Benchmark
+    public SeriesBlock append() {
+        return encode();
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) {
+        SeriesBlock.decode(encoded, SAMPLES, (timestamp, value) -> blackhole.consume(value));
+    }
+
+    private SeriesBlock encode() {
+        SeriesBlock block = new SeriesBlock();
+        for (int i = 0; i < SAMPLES; i++) {
+            block.append(timestamps[i], series[i]);
+        }
+        return block;
+    }
+
+    public static void main(String[] args) throws Exception {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(PortfolioHistoryBenchmark.class.getSimpleName());
+        if (args.length > 1 && args[0].equals("-prof")) {
+            options.addProfiler(args[1]);
+        }
+        new Runner(options.build()).run();
+    }
+}
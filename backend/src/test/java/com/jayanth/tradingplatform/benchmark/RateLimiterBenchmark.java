@@ -0,0 +1,85 @@
+package com.jayanth.tradingplatform.benchmark;
+
+import com.jayanth.tradingplatform.utils.TokenBucketLimiter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Eight threads taking tokens for a small set of hot users, as a flood on one
+ * route would. Compares the packed compare-and-set buckets with the obvious
+ * alternative, a map of buckets behind one lock. Run with
+ * {@code java -cp <test classpath> ...RateLimiterBenchmark [-prof gc]}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int USERS = 64;
+
+    private String[] keys;
+    private TokenBucketLimiter limiter;
+    private LockedLimiter locked;
+
+    @Setup
+    public void setup() {
+        keys = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            keys[i] = "user:" + i + "@example.com";
+        }
+        limiter = new TokenBucketLimiter(100, 1_000_000);
+        locked = new LockedLimiter(100, 1_000_000);
+    }
+
+    @Benchmark
+    public long casBuckets() {
+        return limiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(USERS)]);
+    }
+
+    @Benchmark
+    public long lockedMap() {
+        return locked.tryAcquire(keys[ThreadLocalRandom.current().nextInt(USERS)]);
+    }
+
+    private static final class LockedLimiter {
+        private final Map<String, double[]> buckets = new HashMap<>();
+        private final double capacity;
+        private final double refillPerNano;
+
+        LockedLimiter(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerSecond / 1e9;
+        }
+
+        synchronized long tryAcquire(String key) {
+            long now = System.nanoTime();
+            double[] bucket = buckets.computeIfAbsent(key, k -> new double[]{capacity, now});
+            bucket[0] = Math.min(capacity, bucket[0] + (now - bucket[1]) * refillPerNano);
+            bucket[1] = now;
+            if (bucket[0] < 1) {
+                return 1;
+            }
+            bucket[0] -= 1;
+            return 0;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(RateLimiterBenchmark.class.getSimpleName());
+        if (args.length > 1 && args[0].equals("-prof")) {
+            options.addProfiler(args[1]);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,125 @@
+package com.jayanth.tradingplatform.benchmark;
+
+import com.jayanth.tradingplatform.TradingPlatformApplication;
+import com.jayanth.tradingplatform.response.ReconciliationReport;
+import com.jayanth.tradingplatform.service.ReconciliationService;
+import com.jayanth.tradingplatform.utils.SnowflakeIdGenerator;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds wallets and their postings straight through JDBC, one wallet in a
+ * thousand a cent off its ledger, then times the reconciliation job against
+ * a serial check that sums each wallet's postings with its own query. Pass
+ * {@code -Dpostings=10000000} for the full-size run; the serial check only
+ * covers the first 2000 wallets and is scaled up. Needs a reachable
+ * database; extra arguments are passed through as Spring properties, e.g.
+ * {@code --spring.datasource.url=...}. The seeded rows are deleted again.
+ */
+public class ReconciliationBenchmark {
+
+    private static final String PURPOSE = "reconciliation benchmark";
+    private static final int POSTINGS_PER_WALLET = 100;
+    private static final int SERIAL_SAMPLE = 2_000;
+    private static final int BATCH = 5_000;
+
+    public static void main(String[] args) throws Exception {
+        Path workDir = Files.createTempDirectory("reconcile-bench");
+        System.setProperty("server.port", "0");
+        System.setProperty("spring.jpa.show-sql", "false");
+        System.setProperty("logging.level.org.hibernate.SQL", "WARN");
+        System.setProperty("logging.level.org.hibernate.type.descriptor.sql", "WARN");
+        System.setProperty("trading.journal.dir", workDir.resolve("journal").toString());
+        System.setProperty("trading.snapshot.dir", workDir.resolve("snapshots").toString());
+        long postings = Long.getLong("postings", 1_000_000);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TradingPlatformApplication.class)
+                .run(args)) {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            ReconciliationService reconciliationService = context.getBean(ReconciliationService.class);
+
+            long started = System.nanoTime();
+            List<Long> walletIds = seed(jdbc, postings / POSTINGS_PER_WALLET);
+            System.out.printf("seeded %d wallets, %d postings in %d ms%n", walletIds.size(),
+                    walletIds.size() * POSTINGS_PER_WALLET, (System.nanoTime() - started) / 1_000_000);
+            try {
+                started = System.nanoTime();
+                int sample = Math.min(SERIAL_SAMPLE, walletIds.size());
+                for (int i = 0; i < sample; i++) {
+                    jdbc.queryForObject("select coalesce(sum(amount), 0) from wallet_transaction where wallet_id = ?",
+                            BigDecimal.class, walletIds.get(i));
+                }
+                long serialMillis = (System.nanoTime() - started) / 1_000_000 * walletIds.size() / sample;
+                System.out.printf("serial per-wallet check: ~%d ms (from %d wallets)%n", serialMillis, sample);
+
+                for (int run = 0; run < 3; run++) {
+                    ReconciliationReport report = reconciliationService.reconcile();
+                    System.out.printf("reconciliation: %d wallets, %d postings, %d drifted in %d ms%n",
+                            report.getWallets(), report.getPostings(), report.getDrifted(), report.getElapsedMillis());
+                }
+            } finally {
+                jdbc.update("delete from wallet_transaction where purpose = ?", PURPOSE);
+                for (int i = 0; i < walletIds.size(); i += BATCH) {
+                    List<Object[]> ids = new ArrayList<>();
+                    for (Long id : walletIds.subList(i, Math.min(i + BATCH, walletIds.size()))) {
+                        ids.add(new Object[]{id});
+                    }
+                    jdbc.batchUpdate("delete from ledger_drift where wallet_id = ?", ids);
+                    jdbc.batchUpdate("delete from wallet where id = ?", ids);
+                }
+            }
+        }
+    }
+
+    private static List<Long> seed(JdbcTemplate jdbc, long walletCount) {
+        long balance = 0;
+        for (int p = 0; p < POSTINGS_PER_WALLET; p++) {
+            balance += units(p);
+        }
+        List<Long> walletIds = new ArrayList<>();
+        List<Object[]> wallets = new ArrayList<>(BATCH);
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (long w = 0; w < walletCount; w++) {
+            long walletId = SnowflakeIdGenerator.nextId();
+            walletIds.add(walletId);
+            // one wallet in a thousand drifts by a cent
+            long drift = w % 1000 == 0 ? 1 : 0;
+            wallets.add(new Object[]{walletId, BigDecimal.valueOf(balance + drift, 2)});
+            for (int p = 0; p < POSTINGS_PER_WALLET; p++) {
+                rows.add(new Object[]{SnowflakeIdGenerator.nextId(), walletId, now, BigDecimal.valueOf(units(p), 2)});
+                if (rows.size() == BATCH) {
+                    // the postings reference their wallets
+                    insertWallets(jdbc, wallets);
+                    insertPostings(jdbc, rows);
+                }
+            }
+        }
+        insertWallets(jdbc, wallets);
+        insertPostings(jdbc, rows);
+        return walletIds;
+    }
+
+    private static long units(int posting) {
+        return (posting % 3 == 2 ? -1 : 1) * (100 + posting);
+    }
+
+    private static void insertWallets(JdbcTemplate jdbc, List<Object[]> wallets) {
+        jdbc.batchUpdate("insert into wallet (id, balance) values (?, ?)", wallets);
+        wallets.clear();
+    }
+
+    private static void insertPostings(JdbcTemplate jdbc, List<Object[]> rows) {
+        jdbc.batchUpdate("insert into wallet_transaction (id, wallet_id, account, transaction_type, date, purpose, amount) " +
+                "values (?, ?, 'WALLET', 0, ?, '" + PURPOSE + "', ?)", rows);
+        rows.clear();
+    }
+}
@@ -0,0 +1,117 @@
+package com.jayanth.tradingplatform.benchmark;
+
+import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.domain.TimeInForce;
+import com.jayanth.tradingplatform.engine.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Measures restart time against journal size, with and without a snapshot.
+ * Run with {@code java -cp <test classpath> ...RecoveryBenchmark [orders...]}.
+ */
+public class RecoveryBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        long[] sizes = args.length > 0
+                ? java.util.Arrays.stream(args).mapToLong(Long::parseLong).toArray()
+                : new long[]{100_000, 1_000_000, 3_000_000};
+        System.out.printf("%12s %12s %14s %18s%n", "orders", "journal MB", "full replay ms", "snapshot+tail ms");
+        for (long size : sizes) {
+            run(size);
+        }
+    }
+
+    private static void run(long orders) throws Exception {
+        Path root = Files.createTempDirectory("recovery-bench");
+        try {
+            State writer = open(root);
+            Random random = new Random(42);
+            long tailStart = orders - orders / 20;
+            for (long i = 0; i < orders; i++) {
+                if (i == tailStart) {
+                    writer.snapshots.snapshot();
+                }
+                OrderType side = random.nextBoolean() ? OrderType.BUY : OrderType.SELL;
+                long price = 10_000 + random.nextInt(200) - (side == OrderType.BUY ? 110 : 90);
+                String coin = "coin-" + random.nextInt(8);
+                long userId = random.nextInt(10_000);
+                long quantity = 1 + random.nextInt(1000);
+                writer.journal.appendOrderAccepted(new OrderAccepted(i, userId, coin, side, price, quantity, TimeInForce.GTC, 0, 0));
+                MatchResult result = writer.engine.submit(coin, i, userId, side, price, quantity);
+                for (TradeEvent trade : result.getTrades()) {
+                    writer.journal.appendTrade(trade);
+                }
+            }
+            writer.journal.awaitDurable();
+            long journalBytes = writer.journal.getWritePosition();
+            long resting = restingOrders(writer.engine);
+            writer.close();
+
+            long started = System.nanoTime();
+            State full = open(root, false);
+            ReflectionTestUtils.invokeMethod(full.snapshots, "replay", 0L);
+            long fullMillis = (System.nanoTime() - started) / 1_000_000;
+            full.close();
+
+            started = System.nanoTime();
+            State recovered = open(root);
+            long snapshotMillis = (System.nanoTime() - started) / 1_000_000;
+            if (restingOrders(full.engine) != resting || restingOrders(recovered.engine) != resting) {
+                throw new IllegalStateException("recovered book differs from the original");
+            }
+            recovered.close();
+
+            System.out.printf("%12d %12d %14d %18d%n", orders, journalBytes >> 20, fullMillis, snapshotMillis);
+        } finally {
+            FileSystemUtils.deleteRecursively(root);
+        }
+    }
+
+    private static long restingOrders(MatchingEngine engine) {
+        return engine.getBooks().stream().mapToLong(OrderBook::orderCount).sum();
+    }
+
+    private static State open(Path root) throws Exception {
+        return open(root, true);
+    }
+
+    private static State open(Path root, boolean recover) throws Exception {
+        State state = new State();
+        ReflectionTestUtils.setField(state.journal, "directory", root.resolve("journal").toString());
+        ReflectionTestUtils.setField(state.journal, "segmentSize", 64 << 20);
+        state.journal.open();
+
+        ReflectionTestUtils.setField(state.sequencer, "partitionCount", 2);
+        ReflectionTestUtils.setField(state.sequencer, "bufferSize", 64);
+        state.sequencer.start();
+
+        ReflectionTestUtils.setField(state.snapshots, "matchingEngine", state.engine);
+        ReflectionTestUtils.setField(state.snapshots, "orderJournal", state.journal);
+        ReflectionTestUtils.setField(state.snapshots, "orderSequencer", state.sequencer);
+        ReflectionTestUtils.setField(state.snapshots, "directory", root.resolve("snapshots").toString());
+        ReflectionTestUtils.setField(state.snapshots, "retain", 2);
+        if (recover) {
+            state.snapshots.recover();
+        } else {
+            Files.createDirectories(root.resolve("snapshots"));
+        }
+        return state;
+    }
+
+    private static class State {
+        final MatchingEngine engine = new MatchingEngine();
+        final OrderJournal journal = new OrderJournal();
+        final OrderSequencer sequencer = new OrderSequencer();
+        final SnapshotManager snapshots = new SnapshotManager();
+
+        void close() throws InterruptedException {
+            sequencer.stop();
+            journal.close();
+        }
+    }
+}
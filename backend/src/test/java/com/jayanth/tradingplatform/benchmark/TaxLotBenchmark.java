@@ -0,0 +1,125 @@
+package com.jayanth.tradingplatform.benchmark;
+
+import com.jayanth.tradingplatform.domain.CostBasisMethod;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.engine.LotDeque;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A FIFO sale consuming 8 lots out of a holding of {@code open} lots, then 8
+ * buys to keep the holding steady. Compares the primitive ring deque with a
+ * list of lot objects, the straightforward layout, which shifts the whole
+ * list when its oldest lots are removed. Run with
+ * {@code java -cp <test classpath> ...TaxLotBenchmark [-prof gc]}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaxLotBenchmark {
+
+    private static final int CONSUMED = 8;
+    private static final long LOT = 1_000_000;
+
+    private static final LotDeque.Listener IGNORE = new LotDeque.Listener() {
+        @Override
+        public void updated(long id, long quantity, long cost) {
+        }
+
+        @Override
+        public void removed(long id) {
+        }
+    };
+
+    @Param({"100", "10000"})
+    private int open;
+
+    private LotDeque deque;
+    private List<Lot> list;
+    private long nextId;
+
+    @Setup
+    public void setup() {
+        deque = new LotDeque(open);
+        list = new ArrayList<>(open);
+        for (int i = 0; i < open; i++) {
+            buy();
+        }
+    }
+
+    @Benchmark
+    public long deque() {
+        long cost = deque.sell(CostBasisMethod.FIFO, CONSUMED * LOT - LOT / 2, IGNORE);
+        cost += deque.sell(CostBasisMethod.FIFO, LOT / 2, IGNORE);
+        for (int i = 0; i < CONSUMED; i++) {
+            nextId++;
+            deque.addLast(nextId, LOT, 100_00 + nextId % 100);
+        }
+        return cost;
+    }
+
+    @Benchmark
+    public long list() {
+        long cost = sellFromList(CONSUMED * LOT - LOT / 2);
+        cost += sellFromList(LOT / 2);
+        for (int i = 0; i < CONSUMED; i++) {
+            nextId++;
+            list.add(new Lot(nextId, LOT, 100_00 + nextId % 100));
+        }
+        return cost;
+    }
+
+    private long sellFromList(long quantity) {
+        long cost = 0;
+        while (quantity > 0 && !list.isEmpty()) {
+            Lot lot = list.get(0);
+            if (lot.quantity <= quantity) {
+                quantity -= lot.quantity;
+                cost += lot.cost;
+                list.remove(0);
+            } else {
+                long part = Money.share(lot.cost, quantity, lot.quantity);
+                lot.quantity -= quantity;
+                lot.cost -= part;
+                cost += part;
+                quantity = 0;
+            }
+        }
+        return cost;
+    }
+
+    private void buy() {
+        nextId++;
+        deque.addLast(nextId, LOT, 100_00 + nextId % 100);
+        list.add(new Lot(nextId, LOT, 100_00 + nextId % 100));
+    }
+
+    private static final class Lot {
+        final long id;
+        long quantity;
+        long cost;
+
+        Lot(long id, long quantity, long cost) {
+            this.id = id;
+            this.quantity = quantity;
+            this.cost = cost;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(TaxLotBenchmark.class.getSimpleName());
+        if (args.length > 1 && args[0].equals("-prof")) {
+            options.addProfiler(args[1]);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,97 @@
+package com.jayanth.tradingplatform.benchmark;
+
+import com.jayanth.tradingplatform.engine.TradeRing;
+import com.jayanth.tradingplatform.engine.TradeTick;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One thread recording fills while three poll the latest 50, as clients
+ * polling the tape would. Compares the ring's lock-free reads with a deque
+ * copied under the writer's lock. Run with
+ * {@code java -cp <test classpath> ...TradeTapeBenchmark [-prof gc]}.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TradeTapeBenchmark {
+
+    private static final int CAPACITY = 1024;
+    private static final int PAGE = 50;
+
+    private TradeRing ring;
+    private ArrayDeque<TradeTick> deque;
+    private long sequence;
+
+    @Setup
+    public void setup() {
+        ring = new TradeRing(CAPACITY);
+        deque = new ArrayDeque<>(CAPACITY);
+        for (int i = 0; i < CAPACITY; i++) {
+            ring.add(100_00 + i, 1_000_000, true, i);
+            deque.add(new TradeTick(++sequence, 100_00 + i, 1_000_000, true, i));
+        }
+    }
+
+    @Benchmark
+    @Group("ring")
+    @GroupThreads(1)
+    public long ringWrite() {
+        return ring.add(100_00, 1_000_000, true, System.nanoTime());
+    }
+
+    @Benchmark
+    @Group("ring")
+    @GroupThreads(3)
+    public void ringRead(Blackhole blackhole) {
+        List<TradeTick> out = new ArrayList<>(PAGE);
+        ring.read(-1, PAGE, out);
+        blackhole.consume(out);
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(1)
+    public void lockedWrite() {
+        synchronized (deque) {
+            if (deque.size() == CAPACITY) {
+                deque.pollFirst();
+            }
+            deque.addLast(new TradeTick(++sequence, 100_00, 1_000_000, true, System.nanoTime()));
+        }
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(3)
+    public void lockedRead(Blackhole blackhole) {
+        List<TradeTick> out = new ArrayList<>(PAGE);
+        synchronized (deque) {
+            Iterator<TradeTick> newest = deque.descendingIterator();
+            for (int i = 0; i < PAGE && newest.hasNext(); i++) {
+                out.add(newest.next());
+            }
+        }
+        blackhole.consume(out);
+    }
+
+    public static void main(String[] args) throws Exception {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(TradeTapeBenchmark.class.getSimpleName());
+        if (args.length > 1 && args[0].equals("-prof")) {
+            options.addProfiler(args[1]);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,98 @@
+package com.jayanth.tradingplatform.benchmark;
+
+import com.jayanth.tradingplatform.TradingPlatformApplication;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.model.User;
+import com.jayanth.tradingplatform.model.Wallet;
+import com.jayanth.tradingplatform.repository.UserRepository;
+import com.jayanth.tradingplatform.request.TransferRequest;
+import com.jayanth.tradingplatform.response.TransferResult;
+import com.jayanth.tradingplatform.service.WalletService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Transfers between random wallets, one call per transfer as a payout run
+ * would issue them today, and as batches of 10k and 100k through the bulk
+ * transfer path. Batches run over 1000 wallets, where few pairs repeat, and
+ * over 50, where netting folds most transfers together. The one-by-one
+ * path only runs 10k. Needs a reachable database; extra arguments are
+ * passed through as Spring properties, e.g. {@code --spring.datasource.url=...}.
+ */
+public class TransferBatchBenchmark {
+
+    private static final int WALLETS = 1000;
+
+    public static void main(String[] args) throws Exception {
+        Path workDir = Files.createTempDirectory("transfer-bench");
+        System.setProperty("server.port", "0");
+        System.setProperty("spring.jpa.show-sql", "false");
+        System.setProperty("logging.level.org.hibernate.SQL", "WARN");
+        System.setProperty("logging.level.org.hibernate.type.descriptor.sql", "WARN");
+        System.setProperty("trading.journal.dir", workDir.resolve("journal").toString());
+        System.setProperty("trading.snapshot.dir", workDir.resolve("snapshots").toString());
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TradingPlatformApplication.class)
+                .run(args)) {
+            WalletService walletService = context.getBean(WalletService.class);
+            UserRepository userRepository = context.getBean(UserRepository.class);
+
+            List<User> users = new ArrayList<>(WALLETS);
+            List<Wallet> wallets = new ArrayList<>(WALLETS);
+            for (int i = 0; i < WALLETS; i++) {
+                User user = new User();
+                user.setEmail("transfer-bench-" + System.nanoTime() + "-" + i + "@example.com");
+                user.setFullName("transfer bench " + i);
+                user = userRepository.save(user);
+                users.add(user);
+                wallets.add(walletService.addBalance(walletService.getUserWallet(user), 1_000_000));
+            }
+
+            System.out.printf("%-12s %8s %8s %12s %10s%n", "path", "wallets", "count", "transfers/s", "entries");
+            Random random = new Random(42);
+            long started = System.nanoTime();
+            for (int i = 0; i < 10_000; i++) {
+                int sender = random.nextInt(WALLETS);
+                int recipient = (sender + 1 + random.nextInt(WALLETS - 1)) % WALLETS;
+                walletService.walletoWalletTransaction(users.get(sender), wallets.get(recipient), Money.ofUnits(1), null);
+            }
+            System.out.printf("%-12s %8d %8d %12d %10d%n", "one-by-one", WALLETS, 10_000,
+                    10_000 * 1_000_000_000L / (System.nanoTime() - started), 10_000);
+
+            for (int count : new int[]{10_000, 100_000}) {
+                for (int spread : new int[]{WALLETS, 50}) {
+                    List<TransferRequest> batch = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        int sender = random.nextInt(spread);
+                        int recipient = (sender + 1 + random.nextInt(spread - 1)) % spread;
+                        TransferRequest transfer = new TransferRequest();
+                        transfer.setSenderWalletId(wallets.get(sender).getId());
+                        transfer.setRecipientWalletId(wallets.get(recipient).getId());
+                        transfer.setAmount(Money.ofUnits(1 + random.nextInt(100)));
+                        batch.add(transfer);
+                    }
+                    started = System.nanoTime();
+                    List<TransferResult> results = walletService.transferBatch(batch);
+                    long elapsed = System.nanoTime() - started;
+                    Set<String> entries = new HashSet<>();
+                    for (TransferResult result : results) {
+                        if (!result.isSuccess()) {
+                            throw new IllegalStateException(result.getIndex() + ": " + result.getMessage());
+                        }
+                        entries.add(result.getEntryId());
+                    }
+                    System.out.printf("%-12s %8d %8d %12d %10d%n", "batch", spread, count,
+                            count * 1_000_000_000L / elapsed, entries.size());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.jayanth.tradingplatform.benchmark;
+
+import com.jayanth.tradingplatform.domain.OrderKind;
+import com.jayanth.tradingplatform.engine.TriggerEngine;
+import com.jayanth.tradingplatform.engine.TriggerOrder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a price tick against a book of pending stop orders: the trigger
+ * index against scanning every pending order. Ticks wander within a band
+ * that fires nothing, which is the common case. Run with
+ * {@code java -cp <test classpath> ...TriggerBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TriggerBenchmark {
+
+    private static final String COIN = "bitcoin";
+    private static final long PRICE = 3_000_000;
+
+    @Param({"1000", "100000"})
+    private int pending;
+
+    private TriggerEngine engine;
+    private TriggerOrder[] orders;
+    private long[] ticks;
+    private int tick;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        engine = new TriggerEngine();
+        engine.onPrice(COIN, PRICE);
+        orders = new TriggerOrder[pending];
+        for (int i = 0; i < pending; i++) {
+            boolean buy = random.nextBoolean();
+            long distance = 10_000 + random.nextInt(1_000_000);
+            orders[i] = new TriggerOrder(i, i, buy, OrderKind.STOP,
+                    buy ? PRICE + distance : PRICE - distance, 100_000_000L);
+            engine.add(COIN, orders[i]);
+        }
+        ticks = new long[1024];
+        for (int i = 0; i < ticks.length; i++) {
+            ticks[i] = PRICE - 5_000 + random.nextInt(10_000);
+        }
+    }
+
+    @Benchmark
+    public void index(Blackhole blackhole) {
+        blackhole.consume(engine.onPrice(COIN, ticks[tick++ & 1023]));
+    }
+
+    @Benchmark
+    public void scan(Blackhole blackhole) {
+        long price = ticks[tick++ & 1023];
+        int fired = 0;
+        for (TriggerOrder order : orders) {
+            if (order.firesOnRise() ? price >= order.getTriggerPrice() : price <= order.getTriggerPrice()) {
+                fired++;
+            }
+        }
+        blackhole.consume(fired);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(TriggerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,79 @@
+package com.jayanth.tradingplatform.benchmark;
+
+import com.jayanth.tradingplatform.TradingPlatformApplication;
+import com.jayanth.tradingplatform.model.User;
+import com.jayanth.tradingplatform.repository.UserRepository;
+import com.jayanth.tradingplatform.service.WalletService;
+import com.jayanth.tradingplatform.service.WithdrawlService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settles withdrawals spread over 200 wallets: 1000 accepted one call at a
+ * time, then 1000 accepted and 1000 declined as single batches. Needs a
+ * reachable database; extra arguments are passed through as Spring
+ * properties, e.g. {@code --spring.datasource.url=...}.
+ */
+public class WithdrawalBatchBenchmark {
+
+    private static final int WALLETS = 200;
+    private static final int COUNT = 1000;
+
+    public static void main(String[] args) throws Exception {
+        Path workDir = Files.createTempDirectory("withdrawal-bench");
+        System.setProperty("server.port", "0");
+        System.setProperty("spring.jpa.show-sql", "false");
+        System.setProperty("logging.level.org.hibernate.SQL", "WARN");
+        System.setProperty("logging.level.org.hibernate.type.descriptor.sql", "WARN");
+        System.setProperty("trading.journal.dir", workDir.resolve("journal").toString());
+        System.setProperty("trading.snapshot.dir", workDir.resolve("snapshots").toString());
+        System.setProperty("trading.history.dir", workDir.resolve("history").toString());
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TradingPlatformApplication.class)
+                .run(args)) {
+            WalletService walletService = context.getBean(WalletService.class);
+            WithdrawlService withdrawlService = context.getBean(WithdrawlService.class);
+            UserRepository userRepository = context.getBean(UserRepository.class);
+
+            List<User> users = new ArrayList<>(WALLETS);
+            for (int i = 0; i < WALLETS; i++) {
+                User user = new User();
+                user.setEmail("withdrawal-bench-" + System.nanoTime() + "-" + i + "@example.com");
+                user.setFullName("withdrawal bench " + i);
+                user = userRepository.save(user);
+                walletService.addBalance(walletService.getUserWallet(user), 1_000);
+                users.add(user);
+            }
+            List<Long> ids = new ArrayList<>(3 * COUNT);
+            for (int i = 0; i < 3 * COUNT; i++) {
+                ids.add(withdrawlService.requestWithdrawl(1L, users.get(i % WALLETS)).getId());
+            }
+
+            System.out.printf("%-12s %-8s %8s %10s %14s%n", "path", "decision", "count", "ms", "withdrawals/s");
+            long started = System.nanoTime();
+            for (Long id : ids.subList(0, COUNT)) {
+                withdrawlService.proceedWithWithdrawl(id, true);
+            }
+            print("one-by-one", "accept", started);
+
+            started = System.nanoTime();
+            withdrawlService.proceedWithWithdrawls(ids.subList(COUNT, 2 * COUNT), true);
+            print("batch", "accept", started);
+
+            started = System.nanoTime();
+            withdrawlService.proceedWithWithdrawls(ids.subList(2 * COUNT, 3 * COUNT), false);
+            print("batch", "decline", started);
+        }
+    }
+
+    private static void print(String path, String decision, long started) {
+        long elapsed = System.nanoTime() - started;
+        System.out.printf("%-12s %-8s %8d %10d %14d%n", path, decision, COUNT,
+                elapsed / 1_000_000, COUNT * 1_000_000_000L / elapsed);
+    }
+}
@@ -0,0 +1,122 @@
+package com.jayanth.tradingplatform.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiryWheelTest {
+
+    private static final String COIN = "bitcoin";
+    // one full turn of all four levels
+    private static final long SPAN = 1L << 24;
+
+    @Test
+    void firesOnDeadlineTick() {
+        ExpiryWheel wheel = new ExpiryWheel(0);
+        wheel.add(COIN, 1, 5);
+
+        assertFiresAt(wheel, 1, 5);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cascadesAcrossLevelBoundaries() {
+        long[] deadlines = {63 + 64, 4158, 4095, 4096, 4097, 262143, 262144, 262145, 300_000, SPAN - 1};
+        for (long deadline : deadlines) {
+            ExpiryWheel wheel = new ExpiryWheel(63);
+            wheel.add(COIN, deadline, deadline);
+            assertFiresAt(wheel, deadline, deadline);
+        }
+    }
+
+    @Test
+    void placesDeadlineInSlotAlreadyPassedOnUpperLevel() {
+        // 4158 shares the level-one slot of tick 63, which the wheel entered at tick 0
+        ExpiryWheel wheel = new ExpiryWheel(63);
+        wheel.add(COIN, 1, 4158);
+
+        List<ExpiryWheel.Entry> fired = new ArrayList<>();
+        wheel.advance(4095, fired);
+        assertTrue(fired.isEmpty());
+        assertFiresAt(wheel, 1, 4158);
+    }
+
+    @Test
+    void firesPastDeadlineOnNextAdvance() {
+        ExpiryWheel wheel = new ExpiryWheel(100);
+        wheel.add(COIN, 1, 50);
+        wheel.add(COIN, 2, 100);
+
+        List<ExpiryWheel.Entry> fired = new ArrayList<>();
+        wheel.advance(100, fired);
+
+        assertEquals(2, fired.size());
+        assertEquals(0, wheel.size());
+        assertEquals(101, wheel.currentTick());
+    }
+
+    @Test
+    void reschedulesDeadlineBeyondTopLevel() {
+        long start = 7;
+        long[] deadlines = {start + SPAN, start + SPAN + 1, start + SPAN + 4158, start + 2 * SPAN + 12_345};
+        for (long deadline : deadlines) {
+            ExpiryWheel wheel = new ExpiryWheel(start);
+            wheel.add(COIN, 1, deadline);
+            assertFiresAt(wheel, 1, deadline);
+        }
+    }
+
+    @Test
+    void firesEachOrderOnceInTheStepReachingItsDeadline() {
+        Random random = new Random(42);
+        long start = 1_000_003;
+        ExpiryWheel wheel = new ExpiryWheel(start);
+        Map<Long, Long> deadlines = new HashMap<>();
+        for (long orderId = 0; orderId < 5000; orderId++) {
+            long deadline = switch ((int) (orderId % 4)) {
+                case 0 -> start + random.nextInt(64);
+                case 1 -> start + random.nextInt(4096 * 2);
+                case 2 -> start + random.nextInt(262_144 * 2);
+                default -> start - 10 + (long) (random.nextDouble() * SPAN * 1.5);
+            };
+            deadlines.put(orderId, deadline);
+            wheel.add(COIN, orderId, deadline);
+        }
+
+        List<ExpiryWheel.Entry> fired = new ArrayList<>();
+        long reached = start - 1;
+        int firedCount = 0;
+        // every deadline is under one and a half spans away
+        while (reached < start + 2 * SPAN) {
+            long to = reached + 1 + random.nextInt(20_000);
+            wheel.advance(to, fired);
+            for (ExpiryWheel.Entry entry : fired) {
+                long deadline = deadlines.remove(entry.getOrderId());
+                assertTrue(deadline <= to, "fired early: " + entry.getOrderId());
+                assertTrue(deadline > reached || deadline < start, "fired late: " + entry.getOrderId());
+                assertEquals(COIN, entry.getCoinId());
+            }
+            firedCount += fired.size();
+            fired.clear();
+            reached = to;
+        }
+        assertEquals(5000, firedCount);
+        assertTrue(deadlines.isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    private static void assertFiresAt(ExpiryWheel wheel, long orderId, long deadline) {
+        List<ExpiryWheel.Entry> fired = new ArrayList<>();
+        wheel.advance(deadline - 1, fired);
+        assertTrue(fired.isEmpty(), "fired before " + deadline);
+        wheel.advance(deadline, fired);
+        assertEquals(1, fired.size(), "did not fire at " + deadline);
+        assertEquals(orderId, fired.get(0).getOrderId());
+    }
+}
@@ -0,0 +1,195 @@
+package com.jayanth.tradingplatform.engine;
+
+import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.domain.TimeInForce;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchingEngineTest {
+
+    private static final String COIN = "bitcoin";
+
+    private final MatchingEngine engine = new MatchingEngine();
+
+    @Test
+    void restsOrderThatDoesNotCross() {
+        engine.submit(COIN, 1, 10, OrderType.SELL, 101, 5);
+        MatchResult result = engine.submit(COIN, 2, 20, OrderType.BUY, 100, 3);
+
+        assertEquals(0, result.getFilledQuantity());
+        assertTrue(result.isResting());
+        assertTrue(result.getTrades().isEmpty());
+        OrderBook book = engine.getBook(COIN);
+        assertEquals(100, book.getBids().best().getPrice());
+        assertEquals(101, book.getAsks().best().getPrice());
+        assertEquals(2, book.orderCount());
+    }
+
+    @Test
+    void matchesBestPriceFirstAtMakerPrice() {
+        engine.submit(COIN, 1, 10, OrderType.SELL, 103, 5);
+        engine.submit(COIN, 2, 11, OrderType.SELL, 101, 5);
+        engine.submit(COIN, 3, 12, OrderType.SELL, 102, 5);
+
+        MatchResult result = engine.submit(COIN, 4, 20, OrderType.BUY, 102, 7);
+
+        assertEquals(7, result.getFilledQuantity());
+        assertEquals(0, result.getRemainingQuantity());
+        assertFalse(result.isResting());
+        List<TradeEvent> trades = result.getTrades();
+        assertEquals(2, trades.size());
+        assertTrade(trades.get(0), 4, 2, 101, 5);
+        assertTrade(trades.get(1), 4, 3, 102, 2);
+        assertFalse(trades.get(0).isBuyerMaker());
+
+        BookSide asks = engine.getBook(COIN).getAsks();
+        assertEquals(2, asks.size());
+        assertEquals(102, asks.best().getPrice());
+        assertEquals(3, asks.best().getTotalQuantity());
+        assertNull(engine.getBook(COIN).getOrder(2));
+    }
+
+    @Test
+    void fillsOldestOrderFirstWithinLevel() {
+        engine.submit(COIN, 1, 10, OrderType.BUY, 100, 4);
+        engine.submit(COIN, 2, 11, OrderType.BUY, 100, 4);
+        engine.submit(COIN, 3, 12, OrderType.BUY, 100, 4);
+
+        MatchResult result = engine.submit(COIN, 4, 20, OrderType.SELL, 100, 6);
+
+        List<TradeEvent> trades = result.getTrades();
+        assertEquals(2, trades.size());
+        assertTrade(trades.get(0), 1, 4, 100, 4);
+        assertTrade(trades.get(1), 2, 4, 100, 2);
+        assertTrue(trades.get(0).isBuyerMaker());
+        assertEquals(10, trades.get(0).getBuyerId());
+        assertEquals(20, trades.get(0).getSellerId());
+
+        OrderBook book = engine.getBook(COIN);
+        assertEquals(2, book.getOrder(2).getQuantity());
+        assertEquals(4, book.getOrder(3).getQuantity());
+        PriceLevel level = book.getBids().best();
+        assertEquals(6, level.getTotalQuantity());
+        assertEquals(2, level.getOrderCount());
+    }
+
+    @Test
+    void restsRemainderOfPartiallyFilledTaker() {
+        engine.submit(COIN, 1, 10, OrderType.SELL, 100, 3);
+
+        MatchResult result = engine.submit(COIN, 2, 20, OrderType.BUY, 101, 10);
+
+        assertEquals(3, result.getFilledQuantity());
+        assertEquals(7, result.getRemainingQuantity());
+        assertTrue(result.isResting());
+        OrderBook book = engine.getBook(COIN);
+        assertEquals(0, book.getAsks().size());
+        assertEquals(101, book.getBids().best().getPrice());
+        assertEquals(7, book.getOrder(2).getQuantity());
+    }
+
+    @Test
+    void tradeIdsIncreasePerBook() {
+        engine.submit(COIN, 1, 10, OrderType.SELL, 100, 1);
+        engine.submit(COIN, 2, 10, OrderType.SELL, 100, 1);
+        long first = engine.submit(COIN, 3, 20, OrderType.BUY, 100, 1).getTrades().get(0).getTradeId();
+        long second = engine.submit(COIN, 4, 20, OrderType.BUY, 100, 1).getTrades().get(0).getTradeId();
+
+        assertEquals(first + 1, second);
+    }
+
+    @Test
+    void cancelRemovesOrderAndKeepsQueueOrder() {
+        engine.submit(COIN, 1, 10, OrderType.SELL, 100, 2);
+        engine.submit(COIN, 2, 11, OrderType.SELL, 100, 2);
+        engine.submit(COIN, 3, 12, OrderType.SELL, 100, 2);
+
+        assertTrue(engine.cancel(COIN, 2));
+        assertFalse(engine.cancel(COIN, 2));
+        assertFalse(engine.cancel("ethereum", 1));
+
+        PriceLevel level = engine.getBook(COIN).getAsks().best();
+        assertEquals(4, level.getTotalQuantity());
+        assertEquals(2, level.getOrderCount());
+
+        List<TradeEvent> trades = engine.submit(COIN, 4, 20, OrderType.BUY, 100, 4).getTrades();
+        assertEquals(2, trades.size());
+        assertEquals(1, trades.get(0).getSellOrderId());
+        assertEquals(3, trades.get(1).getSellOrderId());
+    }
+
+    @Test
+    void cancellingLastOrderRemovesLevel() {
+        engine.submit(COIN, 1, 10, OrderType.BUY, 100, 2);
+        engine.submit(COIN, 2, 10, OrderType.BUY, 99, 2);
+
+        assertTrue(engine.cancel(COIN, 1));
+
+        BookSide bids = engine.getBook(COIN).getBids();
+        assertEquals(1, bids.size());
+        assertEquals(99, bids.best().getPrice());
+        assertNull(bids.find(100));
+    }
+
+    @Test
+    void iocDoesNotRestRemainder() {
+        engine.submit(COIN, 1, 10, OrderType.SELL, 100, 3);
+
+        MatchResult result = engine.submit(COIN, 2, 20, OrderType.BUY, 100, 5, TimeInForce.IOC);
+
+        assertEquals(3, result.getFilledQuantity());
+        assertEquals(2, result.getRemainingQuantity());
+        assertFalse(result.isResting());
+        assertEquals(0, engine.getBook(COIN).orderCount());
+    }
+
+    @Test
+    void fokRejectsUntouchedWhenBookCannotFill() {
+        engine.submit(COIN, 1, 10, OrderType.SELL, 100, 3);
+        engine.submit(COIN, 2, 10, OrderType.SELL, 102, 10);
+
+        MatchResult result = engine.submit(COIN, 3, 20, OrderType.BUY, 101, 5, TimeInForce.FOK);
+
+        assertEquals(0, result.getFilledQuantity());
+        assertEquals(5, result.getRemainingQuantity());
+        assertFalse(result.isResting());
+        assertTrue(result.getTrades().isEmpty());
+        assertEquals(3, engine.getBook(COIN).getAsks().best().getTotalQuantity());
+        assertEquals(2, engine.getBook(COIN).orderCount());
+    }
+
+    @Test
+    void fokFillsAcrossLevelsWhenEnoughCrosses() {
+        engine.submit(COIN, 1, 10, OrderType.SELL, 100, 3);
+        engine.submit(COIN, 2, 10, OrderType.SELL, 101, 3);
+
+        MatchResult result = engine.submit(COIN, 3, 20, OrderType.BUY, 101, 5, TimeInForce.FOK);
+
+        assertEquals(5, result.getFilledQuantity());
+        assertEquals(2, result.getTrades().size());
+        assertEquals(1, engine.getBook(COIN).getOrder(2).getQuantity());
+    }
+
+    @Test
+    void fillableStopsOnceTakerIsCovered() {
+        OrderBook book = engine.getBook(COIN);
+        engine.submit(COIN, 1, 10, OrderType.BUY, 100, 4);
+        engine.submit(COIN, 2, 10, OrderType.BUY, 99, 4);
+        engine.submit(COIN, 3, 10, OrderType.BUY, 98, 4);
+
+        assertEquals(4, book.fillable(new BookOrder(9, 20, false, 98, 3)));
+        assertEquals(8, book.fillable(new BookOrder(9, 20, false, 99, 12)));
+        assertEquals(12, book.fillable(new BookOrder(9, 20, false, 90, 12)));
+        assertEquals(0, book.fillable(new BookOrder(9, 20, false, 101, 1)));
+    }
+
+    private static void assertTrade(TradeEvent trade, long buyOrderId, long sellOrderId, long price, long quantity) {
+        assertEquals(buyOrderId, trade.getBuyOrderId());
+        assertEquals(sellOrderId, trade.getSellOrderId());
+        assertEquals(price, trade.getPrice());
+        assertEquals(quantity, trade.getQuantity());
+    }
+}
@@ -0,0 +1,237 @@
+package com.jayanth.tradingplatform.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioHistoryStoreTest {
+
+    private static final long START = 1_700_000_040_000L;
+    private static final long MINUTE = 60_000;
+    private static final int BLOCK_SAMPLES = 4;
+    // about three sealed blocks per segment
+    private static final int SEGMENT_SIZE = 256;
+    private static final long[] USERS = {1, 2, 3};
+
+    @TempDir
+    Path directory;
+
+    private final Values portfolios = new Values();
+    private final Map<Long, List<long[]>> recorded = new HashMap<>();
+    private long timestamp = START;
+
+    @Test
+    void readsSealedAndOpenSamples() throws IOException {
+        PortfolioHistoryStore store = open();
+        record(store, 30);
+
+        assertTrue(segmentFiles().size() > 2, "expected several segments");
+        for (long userId : USERS) {
+            assertSamples(recorded.get(userId), read(store, userId, Long.MIN_VALUE, Long.MAX_VALUE));
+        }
+        store.close();
+    }
+
+    @Test
+    void readsOnlyTheRequestedRange() throws IOException {
+        PortfolioHistoryStore store = open();
+        record(store, 30);
+
+        // from just after the sixth sample, which sits in a sealed block, to the eighteenth
+        long from = recorded.get(USERS[0]).get(5)[0] + 1;
+        long to = recorded.get(USERS[0]).get(17)[0];
+        for (long userId : USERS) {
+            List<long[]> expected = recorded.get(userId).stream()
+                    .filter(sample -> sample[0] >= from && sample[0] <= to)
+                    .toList();
+            assertEquals(12, expected.size());
+            assertSamples(expected, read(store, userId, from, to));
+        }
+        assertSamples(List.of(), read(store, 99, Long.MIN_VALUE, Long.MAX_VALUE));
+        store.close();
+    }
+
+    @Test
+    void keepsOpenBlocksAcrossCloseAndReopen() throws IOException {
+        PortfolioHistoryStore store = open();
+        record(store, 22);
+        store.close();
+
+        store = open();
+        for (long userId : USERS) {
+            assertSamples(recorded.get(userId), read(store, userId, Long.MIN_VALUE, Long.MAX_VALUE));
+        }
+        record(store, 9);
+        store.close();
+
+        store = open();
+        for (long userId : USERS) {
+            assertEquals(31, recorded.get(userId).size());
+            assertSamples(recorded.get(userId), read(store, userId, Long.MIN_VALUE, Long.MAX_VALUE));
+        }
+        store.close();
+    }
+
+    @Test
+    void recoversFromTornTailWithOlderCheckpoint() throws IOException {
+        recoversFromTornTail(true);
+    }
+
+    @Test
+    void recoversFromTornTailWithoutCheckpoint() throws IOException {
+        recoversFromTornTail(false);
+    }
+
+    private void recoversFromTornTail(boolean keepCheckpoint) throws IOException {
+        PortfolioHistoryStore store = open();
+        record(store, 8);
+        Path heads = directory.resolve("heads.bin");
+        Path older = directory.resolve("heads.older");
+        Files.copy(heads, older);
+        record(store, 14);
+        crash(store);
+
+        // the checkpoint of the last seal never landed and its record is half written
+        Files.move(older, heads, StandardCopyOption.REPLACE_EXISTING);
+        if (!keepCheckpoint) {
+            Files.delete(heads);
+        }
+        Path last = segmentFiles().get(segmentFiles().size() - 1);
+        long[] torn = tearLastRecord(last);
+        for (long userId : USERS) {
+            List<long[]> samples = recorded.get(userId);
+            // sealed blocks only, the open ones died with the process
+            samples.subList(20, samples.size()).clear();
+            if (userId == torn[0]) {
+                samples.removeIf(sample -> sample[0] >= torn[1] && sample[0] <= torn[2]);
+            }
+        }
+
+        store = open();
+        for (long userId : USERS) {
+            assertSamples(recorded.get(userId), read(store, userId, Long.MIN_VALUE, Long.MAX_VALUE));
+        }
+        // the next seals overwrite the torn tail and link back to intact blocks
+        record(store, 8);
+        store.close();
+
+        store = open();
+        for (long userId : USERS) {
+            assertSamples(recorded.get(userId), read(store, userId, Long.MIN_VALUE, Long.MAX_VALUE));
+        }
+        store.close();
+    }
+
+    private PortfolioHistoryStore open() throws IOException {
+        PortfolioHistoryStore store = new PortfolioHistoryStore();
+        ReflectionTestUtils.setField(store, "directory", directory.toString());
+        ReflectionTestUtils.setField(store, "segmentSize", SEGMENT_SIZE);
+        ReflectionTestUtils.setField(store, "blockSamples", BLOCK_SAMPLES);
+        ReflectionTestUtils.setField(store, "retainDays", 400);
+        store.open();
+        return store;
+    }
+
+    /**
+     * Drops the store without sealing its open blocks or checkpointing.
+     */
+    private static void crash(PortfolioHistoryStore store) throws IOException {
+        TreeMap<Integer, FileChannel> segments = (TreeMap<Integer, FileChannel>) ReflectionTestUtils.getField(store, "segments");
+        for (FileChannel channel : segments.values()) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Records {@code samples} rounds for every user: user 1 varies, user 2
+     * holds a constant value and user 3 drops to zero and back, at uneven
+     * intervals.
+     */
+    private void record(PortfolioHistoryStore store, int samples) throws IOException {
+        for (int i = 0; i < samples; i++) {
+            int round = recorded.getOrDefault(USERS[0], List.of()).size();
+            portfolios.values.put(1L, 1_000_000L + round * 137L - (round % 3) * 50_000L);
+            portfolios.values.put(2L, 250_000L);
+            portfolios.values.put(3L, round % 5 < 2 ? 0L : -round * 1_000L);
+            for (Map.Entry<Long, Long> entry : portfolios.values.entrySet()) {
+                recorded.computeIfAbsent(entry.getKey(), id -> new ArrayList<>())
+                        .add(new long[]{timestamp, entry.getValue()});
+            }
+            store.record(timestamp, portfolios);
+            timestamp += round % 7 == 6 ? 3_600_000 : MINUTE + round % 4;
+        }
+    }
+
+    private static List<long[]> read(PortfolioHistoryStore store, long userId, long from, long to) throws IOException {
+        List<long[]> samples = new ArrayList<>();
+        store.read(userId, from, to, (timestamp, value) -> samples.add(new long[]{timestamp, value}));
+        return samples;
+    }
+
+    private static void assertSamples(List<long[]> expected, List<long[]> actual) {
+        assertEquals(expected.size(), actual.size(), "sample count");
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), "sample " + i);
+        }
+    }
+
+    /**
+     * Cuts the segment inside its last record and returns that record's
+     * user and timestamp range.
+     */
+    private static long[] tearLastRecord(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(8 + 36);
+            long offset = 0;
+            long lastOffset = 0;
+            long[] record = null;
+            while (offset + header.capacity() <= channel.size()) {
+                header.clear();
+                channel.read(header, offset);
+                int length = header.getInt(0);
+                if (length == 0) {
+                    break;
+                }
+                record = new long[]{header.getLong(8), header.getLong(8 + 16), header.getLong(8 + 24)};
+                lastOffset = offset;
+                offset += 8 + length;
+            }
+            assertNotNull(record);
+            channel.truncate(lastOffset + 8 + 20);
+            return record;
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> list = Files.list(directory)) {
+            return list.filter(file -> file.getFileName().toString().startsWith("segment-")).sorted().toList();
+        }
+    }
+
+    private static final class Values extends PortfolioEngine {
+
+        final Map<Long, Long> values = new LinkedHashMap<>();
+
+        @Override
+        public void forEach(ValueVisitor visitor) {
+            values.forEach(visitor::visit);
+        }
+    }
+}
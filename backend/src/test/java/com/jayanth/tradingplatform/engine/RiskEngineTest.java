@@ -0,0 +1,269 @@
+package com.jayanth.tradingplatform.engine;
+
+import com.jayanth.tradingplatform.domain.HoldStatus;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.domain.Quantity;
+import com.jayanth.tradingplatform.repository.AssetRepository;
+import com.jayanth.tradingplatform.repository.BalanceHoldRepository;
+import com.jayanth.tradingplatform.repository.WalletRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RiskEngineTest {
+
+    private static final String COIN = "bitcoin";
+    private static final long BUYER = 1;
+    private static final long SELLER = 2;
+    private static final long PRICE = Money.of(100).getUnits();
+
+    private final List<Object[]> balances = new ArrayList<>();
+    private final List<Object[]> holdings = new ArrayList<>();
+    private final List<Object[]> holds = new ArrayList<>();
+    private final RiskEngine engine = new RiskEngine();
+
+    @Test
+    void reservesAndReleasesCashForABuy() throws Exception {
+        load(BUYER, 1000, SELLER, 0, Quantity.ONE);
+
+        engine.reserve(20, BUYER, COIN, OrderType.BUY, PRICE, 2 * Quantity.ONE);
+
+        assertEquals(new CashBalance(Money.of(1000).getUnits(), Money.of(200).getUnits(), 0),
+                engine.getCashBalance(BUYER));
+        assertEquals(Money.of(800), engine.getAvailableCash(BUYER));
+
+        engine.release(20);
+        // a second release of the same order is a no-op
+        engine.release(20);
+
+        assertEquals(Money.of(1000), engine.getAvailableCash(BUYER));
+    }
+
+    @Test
+    void reservesAndReleasesLotsForASell() throws Exception {
+        load(BUYER, 0, SELLER, 0, 2 * Quantity.ONE);
+
+        engine.reserve(10, SELLER, COIN, OrderType.SELL, PRICE, Quantity.ONE);
+
+        assertTrue(engine.hasReservedLots(SELLER, COIN));
+        assertEquals(Quantity.ofLots(Quantity.ONE), engine.getAvailableQuantity(SELLER, COIN));
+
+        engine.release(10);
+
+        assertFalse(engine.hasReservedLots(SELLER, COIN));
+        assertEquals(Quantity.ofLots(2 * Quantity.ONE), engine.getAvailableQuantity(SELLER, COIN));
+    }
+
+    @Test
+    void rejectsReservationsItCannotCover() throws Exception {
+        load(BUYER, 1000, SELLER, 0, Quantity.ONE);
+        engine.reserve(20, BUYER, COIN, OrderType.BUY, PRICE, 6 * Quantity.ONE);
+
+        Exception funds = assertThrows(Exception.class,
+                () -> engine.reserve(21, BUYER, COIN, OrderType.BUY, PRICE, 5 * Quantity.ONE));
+        Exception quantity = assertThrows(Exception.class,
+                () -> engine.reserve(10, SELLER, COIN, OrderType.SELL, PRICE, 2 * Quantity.ONE));
+        Exception asset = assertThrows(Exception.class,
+                () -> engine.reserve(22, BUYER, COIN, OrderType.SELL, PRICE, Quantity.ONE));
+
+        assertEquals("Insufficient funds for this transaction", funds.getMessage());
+        assertEquals("Insufficient quantity to sell", quantity.getMessage());
+        assertEquals("Asset Not found", asset.getMessage());
+        assertEquals(Money.of(400), engine.getAvailableCash(BUYER));
+        assertEquals(Quantity.ofLots(Quantity.ONE), engine.getAvailableQuantity(SELLER, COIN));
+        // rejected orders hold nothing that a later release could free
+        engine.release(21);
+        engine.release(10);
+        assertEquals(Money.of(400), engine.getAvailableCash(BUYER));
+        assertFalse(engine.hasReservedLots(SELLER, COIN));
+    }
+
+    @Test
+    void refundsPriceImprovementOnPartialFills() throws Exception {
+        load(BUYER, 1000, SELLER, 0, 2 * Quantity.ONE);
+        engine.reserve(20, BUYER, COIN, OrderType.BUY, PRICE, 2 * Quantity.ONE);
+        engine.reserve(10, SELLER, COIN, OrderType.SELL, Money.of(90).getUnits(), 2 * Quantity.ONE);
+
+        // the first coin fills 10 below the limit: 100 leaves the reservation, 90 the cash
+        engine.settle(trade(1, 20, 10, Money.of(90).getUnits(), Quantity.ONE));
+
+        CashBalance partial = engine.getCashBalance(BUYER);
+        assertEquals(Money.of(910).getUnits(), partial.getCash());
+        assertEquals(Money.of(100).getUnits(), partial.getReserved());
+        assertEquals(Money.of(810), engine.getAvailableCash(BUYER));
+        assertTrue(engine.hasReservedLots(SELLER, COIN));
+        assertEquals(Money.of(90), engine.getAvailableCash(SELLER));
+
+        // the last fill releases whatever is left of the reservation
+        engine.settle(trade(2, 20, 10, Money.of(95).getUnits(), Quantity.ONE));
+
+        CashBalance filled = engine.getCashBalance(BUYER);
+        assertEquals(Money.of(815).getUnits(), filled.getCash());
+        assertEquals(0, filled.getReserved());
+        assertEquals(Quantity.ofLots(2 * Quantity.ONE), engine.getAvailableQuantity(BUYER, COIN));
+        assertFalse(engine.hasReservedLots(SELLER, COIN));
+        assertEquals(Money.of(185), engine.getAvailableCash(SELLER));
+    }
+
+    @Test
+    void rejectsMarketBuyBeyondAvailableCash() throws Exception {
+        load(BUYER, 1000, SELLER, 0, Quantity.ONE);
+        engine.reserve(20, BUYER, COIN, OrderType.BUY, PRICE, 5 * Quantity.ONE);
+
+        Exception e = assertThrows(Exception.class,
+                () -> engine.executeMarket(BUYER, COIN, OrderType.BUY, PRICE, 6 * Quantity.ONE));
+
+        assertEquals("Insufficient funds for this transaction", e.getMessage());
+        assertEquals(Money.of(500), engine.getAvailableCash(BUYER));
+        assertEquals(Quantity.ZERO, engine.getAvailableQuantity(BUYER, COIN));
+
+        engine.executeMarket(BUYER, COIN, OrderType.BUY, PRICE, 5 * Quantity.ONE);
+
+        assertEquals(Money.ZERO, engine.getAvailableCash(BUYER));
+        assertEquals(Quantity.ofLots(5 * Quantity.ONE), engine.getAvailableQuantity(BUYER, COIN));
+    }
+
+    @Test
+    void capturesAndReleasesHolds() throws Exception {
+        holds.add(new Object[]{5L, BUYER, Money.of(100)});
+        load(BUYER, 1000, SELLER, 0, Quantity.ONE);
+        assertEquals(Money.of(900), engine.getAvailableCash(BUYER));
+
+        engine.hold(6, BUYER, Money.of(300).getUnits());
+        Exception e = assertThrows(Exception.class, () -> engine.hold(7, BUYER, Money.of(601).getUnits()));
+
+        assertEquals("insufficient balance", e.getMessage());
+        assertEquals(new CashBalance(Money.of(1000).getUnits(), 0, Money.of(400).getUnits()),
+                engine.getCashBalance(BUYER));
+
+        assertTrue(engine.captureHold(6));
+        assertTrue(engine.releaseHold(5));
+        // a hold settles once; a second capture or release reports it
+        assertFalse(engine.captureHold(6));
+        assertFalse(engine.releaseHold(6));
+        assertFalse(engine.releaseHold(5));
+        assertFalse(engine.releaseHold(7));
+
+        assertEquals(new CashBalance(Money.of(700).getUnits(), 0, 0), engine.getCashBalance(BUYER));
+    }
+
+    @Test
+    void undoesCashChangesWhenTheTransactionRollsBack() throws Exception {
+        load(BUYER, 1000, SELLER, 0, Quantity.ONE);
+        engine.hold(5, BUYER, Money.of(100).getUnits());
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK, () -> {
+            engine.adjustCash(BUYER, -Money.of(200).getUnits());
+            engine.hold(6, BUYER, Money.of(300).getUnits());
+            engine.captureHold(5);
+            engine.transferCash(new long[]{BUYER}, new long[]{SELLER}, new long[]{Money.of(50).getUnits()});
+        });
+
+        assertEquals(new CashBalance(Money.of(1000).getUnits(), 0, Money.of(100).getUnits()),
+                engine.getCashBalance(BUYER));
+        assertEquals(Money.ZERO, engine.getAvailableCash(SELLER));
+        // the captured hold is active again and the new one never existed
+        assertFalse(engine.releaseHold(6));
+        assertTrue(engine.releaseHold(5));
+    }
+
+    @Test
+    void keepsCashChangesWhenTheTransactionCommits() throws Exception {
+        load(BUYER, 1000, SELLER, 0, Quantity.ONE);
+
+        complete(TransactionSynchronization.STATUS_COMMITTED, () -> {
+            engine.adjustCash(BUYER, -Money.of(200).getUnits());
+            engine.hold(6, BUYER, Money.of(300).getUnits());
+        });
+
+        assertEquals(new CashBalance(Money.of(800).getUnits(), 0, Money.of(300).getUnits()),
+                engine.getCashBalance(BUYER));
+        assertTrue(engine.captureHold(6));
+    }
+
+    @Test
+    void keepsDustWhileAnOpenSellStillReservesIt() throws Exception {
+        load(BUYER, 1000, SELLER, 0, Quantity.ONE);
+        engine.reserve(10, SELLER, COIN, OrderType.SELL, PRICE, Quantity.ONE);
+
+        // leaves 0.005 coins worth 0.50, all still reserved by order 10
+        engine.settle(trade(1, 20, 10, 99_500_000));
+
+        assertTrue(engine.hasReservedLots(SELLER, COIN));
+        assertEquals(Quantity.ZERO, engine.getAvailableQuantity(SELLER, COIN));
+        assertEquals(Money.ofUnits(9950), engine.getAvailableCash(SELLER));
+
+        engine.settle(trade(2, 21, 10, 500_000));
+
+        assertFalse(engine.hasReservedLots(SELLER, COIN));
+        assertEquals(Quantity.ZERO, engine.getAvailableQuantity(SELLER, COIN));
+        assertEquals(Money.of(100), engine.getAvailableCash(SELLER));
+        assertEquals(Quantity.ofLots(Quantity.ONE), engine.getAvailableQuantity(BUYER, COIN));
+    }
+
+    @Test
+    void writesOffDustOnceNothingIsReserved() throws Exception {
+        load(BUYER, 0, SELLER, 0, Quantity.ONE);
+
+        engine.executeMarket(SELLER, COIN, OrderType.SELL, PRICE, 99_500_000);
+
+        assertEquals(Quantity.ZERO, engine.getAvailableQuantity(SELLER, COIN));
+        assertThrows(Exception.class, () -> engine.reserve(10, SELLER, COIN, OrderType.SELL, PRICE, 500_000));
+    }
+
+    private void load(long buyer, long buyerCash, long seller, long sellerCash, long sellerLots) {
+        balances.add(new Object[]{buyer, Money.of(buyerCash)});
+        balances.add(new Object[]{seller, Money.of(sellerCash)});
+        holdings.add(new Object[]{seller, COIN, Quantity.ofLots(sellerLots)});
+
+        WalletRepository walletRepository = mock(WalletRepository.class);
+        AssetRepository assetRepository = mock(AssetRepository.class);
+        BalanceHoldRepository balanceHoldRepository = mock(BalanceHoldRepository.class);
+        when(walletRepository.findAllBalances()).thenReturn(balances);
+        when(assetRepository.findAllHoldings()).thenReturn(holdings);
+        when(balanceHoldRepository.findAllByStatus(HoldStatus.ACTIVE)).thenReturn(holds);
+        ReflectionTestUtils.setField(engine, "walletRepository", walletRepository);
+        ReflectionTestUtils.setField(engine, "assetRepository", assetRepository);
+        ReflectionTestUtils.setField(engine, "balanceHoldRepository", balanceHoldRepository);
+        ReflectionTestUtils.setField(engine, "matchingEngine", new MatchingEngine());
+        ReflectionTestUtils.setField(engine, "triggerEngine", new TriggerEngine());
+        engine.load();
+    }
+
+    /**
+     * Runs {@code work} as if inside a transaction that ends with
+     * {@code status}, firing the synchronizations it registered.
+     */
+    private static void complete(int status, Work work) throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(status);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static TradeEvent trade(long tradeId, long buyOrderId, long sellOrderId, long quantity) {
+        return trade(tradeId, buyOrderId, sellOrderId, PRICE, quantity);
+    }
+
+    private static TradeEvent trade(long tradeId, long buyOrderId, long sellOrderId, long price, long quantity) {
+        return new TradeEvent(tradeId, COIN, buyOrderId, sellOrderId, BUYER, SELLER, price, quantity, false, 0);
+    }
+
+    private interface Work {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,113 @@
+package com.jayanth.tradingplatform.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeriesBlockTest {
+
+    private static final long START = 1_700_000_040_000L;
+    private static final long MINUTE = 60_000;
+    // values are cents held as doubles, exact up to 2^53
+    private static final long MAX_VALUE = 1L << 52;
+
+    @Test
+    void roundTripsRandomValues() {
+        Random random = new Random(42);
+        long[] timestamps = new long[1000];
+        long[] values = new long[1000];
+        for (int i = 0; i < values.length; i++) {
+            timestamps[i] = START + i * MINUTE;
+            values[i] = random.nextLong() % MAX_VALUE;
+        }
+        assertRoundTrip(timestamps, values);
+    }
+
+    @Test
+    void roundTripsConstantAndZeroValues() {
+        long[] timestamps = new long[500];
+        long[] constant = new long[500];
+        long[] zero = new long[500];
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = START + i * MINUTE;
+            constant[i] = 1_234_567_89;
+        }
+        assertRoundTrip(timestamps, constant);
+        assertRoundTrip(timestamps, zero);
+    }
+
+    @Test
+    void roundTripsSignFlipsAndDropsToZero() {
+        long[] values = {0, 1, -1, 0, MAX_VALUE - 1, -(MAX_VALUE - 1), 0, 0, 42, 0, -42, 1L << 40, 0};
+        long[] timestamps = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            timestamps[i] = START + i * MINUTE;
+        }
+        assertRoundTrip(timestamps, values);
+    }
+
+    @Test
+    void roundTripsIrregularTimestamps() {
+        // steady minutes, jitter, gaps past the short delta-of-delta range, a clock step back
+        long[] timestamps = {
+                START, START + MINUTE, START + 2 * MINUTE, START + 2 * MINUTE + 1, START + 2 * MINUTE + 1,
+                START + 3 * MINUTE - 7, START + 4 * MINUTE + 2047, START + 5 * MINUTE + 2047 + 2048,
+                START + 86_400_000L, START + 86_400_000L - 5_000, START + 86_400_000L + MINUTE,
+                START + 400L * 86_400_000L, START + 400L * 86_400_000L + 1};
+        long[] values = new long[timestamps.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1_000_000 + i * 37;
+        }
+        assertRoundTrip(timestamps, values);
+
+        Random random = new Random(7);
+        timestamps = new long[2000];
+        values = new long[2000];
+        long timestamp = START;
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamp += random.nextInt(4) == 0 ? random.nextInt(10 * 86_400_000) : MINUTE + random.nextInt(201) - 100;
+            timestamps[i] = timestamp;
+            values[i] = random.nextInt(3) == 0 ? 0 : random.nextLong() % MAX_VALUE;
+        }
+        assertRoundTrip(timestamps, values);
+    }
+
+    @Test
+    void roundTripsSingleSample() {
+        assertRoundTrip(new long[]{START}, new long[]{-5});
+    }
+
+    @Test
+    void tracksCountAndTimestampBounds() {
+        SeriesBlock block = new SeriesBlock();
+        assertEquals(0, block.count());
+        SeriesBlock.decode(block.toBytes(), 0, (timestamp, value) -> fail("decoded from an empty block"));
+
+        block.append(START, 1);
+        block.append(START + MINUTE, 2);
+        block.append(START + 3 * MINUTE, 3);
+
+        assertEquals(3, block.count());
+        assertEquals(START, block.firstTimestamp());
+        assertEquals(START + 3 * MINUTE, block.lastTimestamp());
+    }
+
+    private static void assertRoundTrip(long[] timestamps, long[] values) {
+        SeriesBlock block = new SeriesBlock();
+        for (int i = 0; i < timestamps.length; i++) {
+            block.append(timestamps[i], values[i]);
+        }
+        List<long[]> decoded = new ArrayList<>();
+        SeriesBlock.decode(block.toBytes(), block.count(), (timestamp, value) -> decoded.add(new long[]{timestamp, value}));
+
+        assertEquals(timestamps.length, decoded.size());
+        for (int i = 0; i < timestamps.length; i++) {
+            assertEquals(timestamps[i], decoded.get(i)[0], "timestamp " + i);
+            assertEquals(values[i], decoded.get(i)[1], "value " + i);
+        }
+    }
+}
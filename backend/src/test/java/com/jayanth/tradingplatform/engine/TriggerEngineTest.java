@@ -0,0 +1,76 @@
+package com.jayanth.tradingplatform.engine;
+
+import com.jayanth.tradingplatform.domain.OrderKind;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TriggerEngineTest {
+
+    private static final String COIN = "bitcoin";
+
+    private final TriggerEngine engine = new TriggerEngine();
+
+    @Test
+    void firesCrossedOrdersOnly() {
+        engine.add(COIN, stopSell(1, 90));
+        engine.add(COIN, stopSell(2, 80));
+        engine.add(COIN, stopBuy(3, 110));
+
+        assertEquals(List.of(1L), ids(engine.onPrice(COIN, 85)));
+        assertEquals(List.of(3L), ids(engine.onPrice(COIN, 110)));
+        assertEquals(List.of(2L), ids(engine.pendingOrders(COIN)));
+    }
+
+    @Test
+    void removesHeadMiddleAndTailOfALevel() {
+        for (long id = 1; id <= 4; id++) {
+            engine.add(COIN, stopSell(id, 90));
+        }
+
+        assertEquals(3, engine.remove(COIN, 3).getOrderId());
+        assertEquals(1, engine.remove(COIN, 1).getOrderId());
+        assertEquals(4, engine.remove(COIN, 4).getOrderId());
+        // appending after the old tail was removed must still chain in arrival order
+        engine.add(COIN, stopSell(5, 90));
+
+        assertEquals(2, engine.getBook(COIN).orderCount());
+        assertEquals(List.of(2L, 5L), ids(engine.onPrice(COIN, 90)));
+        assertEquals(0, engine.getBook(COIN).orderCount());
+    }
+
+    @Test
+    void dropsALevelOnceItsLastOrderIsRemoved() {
+        engine.add(COIN, stopSell(1, 90));
+        engine.add(COIN, stopSell(2, 80));
+        engine.add(COIN, stopSell(3, 70));
+
+        engine.remove(COIN, 2);
+
+        assertEquals(List.of(1L, 3L), ids(engine.onPrice(COIN, 60)));
+    }
+
+    @Test
+    void doesNotRemoveFiredOrUnknownOrders() {
+        engine.add(COIN, stopBuy(1, 110));
+        engine.onPrice(COIN, 120);
+
+        assertNull(engine.remove(COIN, 1));
+        assertNull(engine.remove(COIN, 42));
+        assertNull(engine.remove("ethereum", 1));
+    }
+
+    private static TriggerOrder stopSell(long orderId, long triggerPrice) {
+        return new TriggerOrder(orderId, 10, false, OrderKind.STOP, triggerPrice, 1);
+    }
+
+    private static TriggerOrder stopBuy(long orderId, long triggerPrice) {
+        return new TriggerOrder(orderId, 10, true, OrderKind.STOP, triggerPrice, 1);
+    }
+
+    private static List<Long> ids(List<TriggerOrder> orders) {
+        return orders.stream().map(TriggerOrder::getOrderId).toList();
+    }
+}
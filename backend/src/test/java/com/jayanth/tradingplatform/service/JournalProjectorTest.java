@@ -0,0 +1,263 @@
+package com.jayanth.tradingplatform.service;
+
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.OrderStatus;
+import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.domain.Quantity;
+import com.jayanth.tradingplatform.domain.TimeInForce;
+import com.jayanth.tradingplatform.engine.ExpiryEngine;
+import com.jayanth.tradingplatform.engine.MarketFill;
+import com.jayanth.tradingplatform.engine.OrderAccepted;
+import com.jayanth.tradingplatform.engine.OrderCancelled;
+import com.jayanth.tradingplatform.engine.OrderJournal;
+import com.jayanth.tradingplatform.engine.PortfolioEngine;
+import com.jayanth.tradingplatform.engine.RiskEngine;
+import com.jayanth.tradingplatform.engine.TaxLotBook;
+import com.jayanth.tradingplatform.engine.TradeEvent;
+import com.jayanth.tradingplatform.engine.TriggerEngine;
+import com.jayanth.tradingplatform.model.Asset;
+import com.jayanth.tradingplatform.model.Coin;
+import com.jayanth.tradingplatform.model.JournalCheckpoint;
+import com.jayanth.tradingplatform.model.JournalDeadLetter;
+import com.jayanth.tradingplatform.model.Order;
+import com.jayanth.tradingplatform.model.User;
+import com.jayanth.tradingplatform.model.Wallet;
+import com.jayanth.tradingplatform.repository.AssetRepository;
+import com.jayanth.tradingplatform.repository.CoinRepository;
+import com.jayanth.tradingplatform.repository.JournalCheckpointRepository;
+import com.jayanth.tradingplatform.repository.JournalDeadLetterRepository;
+import com.jayanth.tradingplatform.repository.OrderRepository;
+import com.jayanth.tradingplatform.repository.WalletRepository;
+import com.jayanth.tradingplatform.response.ProjectorHealth;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Applies journal events through the projector against in-memory stand-ins
+ * for the tables it writes.
+ */
+class JournalProjectorTest {
+
+    private static final String COIN = "bitcoin";
+    private static final long BUYER = 1;
+    private static final long SELLER = 2;
+    private static final long PRICE = Money.of(100).getUnits();
+
+    private final Map<Long, Order> orders = new HashMap<>();
+    private final Map<Long, Asset> assets = new HashMap<>();
+    private final Map<Long, User> users = new HashMap<>();
+    private final Coin coin = new Coin();
+    private final AtomicLong ids = new AtomicLong(1000);
+    private final JournalProjector projector = new JournalProjector();
+
+    @BeforeEach
+    void setUp() {
+        coin.setId(COIN);
+        for (long id : new long[]{BUYER, SELLER}) {
+            User user = new User();
+            user.setId(id);
+            users.put(id, user);
+        }
+
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.findById(anyLong()))
+                .thenAnswer(call -> Optional.ofNullable(orders.get(call.<Long>getArgument(0))));
+        when(orderRepository.save(any(Order.class))).thenAnswer(call -> store(call.getArgument(0)));
+        when(orderRepository.existsOpenSell(anyLong(), anyString())).thenAnswer(call -> orders.values().stream()
+                .anyMatch(o -> o.getUser().getId().equals(call.getArgument(0))
+                        && o.getOrderItem().getCoin().getId().equals(call.getArgument(1))
+                        && o.getOrderType() == OrderType.SELL
+                        && EnumSet.of(OrderStatus.OPEN, OrderStatus.PARTIALLY_FILLED).contains(o.getStatus())));
+
+        AssetRepository assetRepository = mock(AssetRepository.class);
+        when(assetRepository.findByUserIdAndCoinId(anyLong(), eq(COIN)))
+                .thenAnswer(call -> assets.get(call.<Long>getArgument(0)));
+        when(assetRepository.save(any(Asset.class))).thenAnswer(call -> {
+            Asset asset = call.getArgument(0);
+            assets.put(asset.getUser().getId(), asset);
+            return asset;
+        });
+        doAnswer(call -> assets.remove(call.<Asset>getArgument(0).getUser().getId()))
+                .when(assetRepository).delete(any(Asset.class));
+
+        CoinRepository coinRepository = mock(CoinRepository.class);
+        when(coinRepository.findById(COIN)).thenReturn(Optional.of(coin));
+        WalletRepository walletRepository = mock(WalletRepository.class);
+        when(walletRepository.findByUserId(anyLong())).thenReturn(new Wallet());
+
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.getReference(eq(User.class), any())).thenAnswer(call -> users.get(call.<Long>getArgument(1)));
+        when(entityManager.getReference(eq(Coin.class), any())).thenReturn(coin);
+        doAnswer(call -> store(call.getArgument(0))).when(entityManager).persist(any(Order.class));
+
+        ReflectionTestUtils.setField(projector, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(projector, "assetRepository", assetRepository);
+        ReflectionTestUtils.setField(projector, "coinRepository", coinRepository);
+        ReflectionTestUtils.setField(projector, "walletRepository", walletRepository);
+        ReflectionTestUtils.setField(projector, "walletTransactionService", mock(WalletTransactionService.class));
+        ReflectionTestUtils.setField(projector, "taxLotBook", mock(TaxLotBook.class));
+        ReflectionTestUtils.setField(projector, "entityManager", entityManager);
+
+        Asset holding = new Asset();
+        holding.setUser(users.get(SELLER));
+        holding.setCoin(coin);
+        holding.setQuantity(Quantity.ofLots(Quantity.ONE));
+        holding.setBuyPrice(Money.of(90));
+        assets.put(SELLER, holding);
+    }
+
+    @Test
+    void keepsDustUntilTheReservedSellFills() {
+        apply(new OrderAccepted(10, SELLER, COIN, OrderType.SELL, PRICE, Quantity.ONE, TimeInForce.GTC, 0, 0));
+        apply(new OrderAccepted(20, BUYER, COIN, OrderType.BUY, PRICE, 99_500_000, TimeInForce.GTC, 0, 0));
+
+        // leaves 0.005 coins worth 0.50 behind the rest of order 10
+        apply(new TradeEvent(1, COIN, 20, 10, BUYER, SELLER, PRICE, 99_500_000, true, 0));
+
+        assertEquals(OrderStatus.PARTIALLY_FILLED, orders.get(10L).getStatus());
+        assertEquals(Quantity.ofLots(500_000), assets.get(SELLER).getQuantity());
+
+        apply(new OrderAccepted(21, BUYER, COIN, OrderType.BUY, PRICE, 500_000, TimeInForce.GTC, 0, 0));
+        apply(new TradeEvent(2, COIN, 21, 10, BUYER, SELLER, PRICE, 500_000, false, 0));
+
+        assertEquals(OrderStatus.FILLED, orders.get(10L).getStatus());
+        assertNull(assets.get(SELLER));
+        assertEquals(Quantity.ofLots(Quantity.ONE), assets.get(BUYER).getQuantity());
+    }
+
+    @Test
+    void writesOffDustWithNoOpenSell() {
+        apply(new MarketFill(30, SELLER, COIN, OrderType.SELL, PRICE, 99_500_000, false, 0));
+
+        assertNull(assets.get(SELLER));
+    }
+
+    @Test
+    void datesFillRowsFromTheirEvent() {
+        long accepted = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+        long traded = Instant.parse("2026-03-04T12:00:00Z").toEpochMilli();
+        long fired = Instant.parse("2026-03-09T12:00:00Z").toEpochMilli();
+        apply(new OrderAccepted(10, SELLER, COIN, OrderType.SELL, PRICE, Quantity.ONE, TimeInForce.GTC, 0, accepted));
+        apply(new OrderAccepted(20, BUYER, COIN, OrderType.BUY, PRICE, 50_000_000, TimeInForce.GTC, 0, accepted));
+        apply(new TradeEvent(1, COIN, 20, 10, BUYER, SELLER, PRICE, 50_000_000, true, traded));
+        // a triggered order fills against its pending row, here the rest of order 10
+        apply(new MarketFill(10, SELLER, COIN, OrderType.SELL, PRICE, 50_000_000, true, fired));
+
+        // fill rows are stored in the order they were written
+        List<Order> fills = orders.values().stream()
+                .filter(o -> o.getParentOrderId() != null)
+                .sorted(Comparator.comparing(Order::getId))
+                .toList();
+        assertEquals(List.of(20L, 10L, 10L), fills.stream().map(Order::getParentOrderId).toList());
+        assertEquals(date(traded), fills.get(0).getTimestamp());
+        assertEquals(date(traded), fills.get(1).getTimestamp());
+        assertEquals(date(fired), fills.get(2).getTimestamp());
+    }
+
+    @Test
+    void deadLettersAnEventThatKeepsFailingAndMovesPastIt() throws Exception {
+        // positions are indexes; the cancel at 1 names an order that was never projected
+        List<Object> journal = List.of(
+                new OrderAccepted(10, SELLER, COIN, OrderType.SELL, PRICE, Quantity.ONE, TimeInForce.GTC, 0, 0),
+                new OrderCancelled(99, COIN, false, 0),
+                new OrderAccepted(20, BUYER, COIN, OrderType.BUY, PRICE, Quantity.ONE, TimeInForce.GTC, 0, 0));
+        OrderJournal orderJournal = mock(OrderJournal.class);
+        when(orderJournal.getDurablePosition()).thenReturn((long) journal.size());
+        when(orderJournal.read(anyLong(), anyInt(), anyList())).thenAnswer(call -> {
+            int from = (int) call.<Long>getArgument(0).longValue();
+            int to = Math.min(journal.size(), from + call.<Integer>getArgument(1));
+            call.<List<Object>>getArgument(2).addAll(journal.subList(from, to));
+            return (long) to;
+        });
+        JournalCheckpointRepository checkpointRepository = mock(JournalCheckpointRepository.class);
+        when(checkpointRepository.findById(anyString())).thenReturn(Optional.empty());
+        JournalDeadLetterRepository deadLetterRepository = mock(JournalDeadLetterRepository.class);
+        ReflectionTestUtils.setField(projector, "orderJournal", orderJournal);
+        ReflectionTestUtils.setField(projector, "checkpointRepository", checkpointRepository);
+        ReflectionTestUtils.setField(projector, "deadLetterRepository", deadLetterRepository);
+        ReflectionTestUtils.setField(projector, "triggerEngine", mock(TriggerEngine.class));
+        ReflectionTestUtils.setField(projector, "expiryEngine", mock(ExpiryEngine.class));
+        ReflectionTestUtils.setField(projector, "portfolioEngine", mock(PortfolioEngine.class));
+        ReflectionTestUtils.setField(projector, "riskEngine", mock(RiskEngine.class));
+        ReflectionTestUtils.setField(projector, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(projector, "maxAttempts", 2);
+
+        projector.start();
+        try {
+            ProjectorHealth stuck = awaitHealth(health -> "STUCK".equals(health.getStatus()));
+            assertTrue(stuck.getFailures() > 0);
+            assertNotNull(stuck.getFailingSince());
+
+            ProjectorHealth up = awaitHealth(health -> "UP".equals(health.getStatus()));
+            assertEquals(3, up.getPosition());
+            assertEquals(0, up.getLag());
+            assertEquals(1, up.getDeadLetters());
+        } finally {
+            projector.stop();
+        }
+
+        ArgumentCaptor<JournalDeadLetter> letter = ArgumentCaptor.forClass(JournalDeadLetter.class);
+        verify(deadLetterRepository).save(letter.capture());
+        assertEquals(1, letter.getValue().getPosition());
+        assertEquals(2, letter.getValue().getNextPosition());
+        assertEquals(2, letter.getValue().getAttempts());
+        assertTrue(letter.getValue().getError().contains("order not found 99"));
+        // the events either side of the bad one were still projected
+        assertTrue(orders.values().stream().anyMatch(o -> o.getUser().getId() == SELLER));
+        assertTrue(orders.values().stream().anyMatch(o -> o.getUser().getId() == BUYER));
+        ArgumentCaptor<JournalCheckpoint> checkpoint = ArgumentCaptor.forClass(JournalCheckpoint.class);
+        verify(checkpointRepository, atLeastOnce()).save(checkpoint.capture());
+        assertEquals(3, checkpoint.getValue().getPosition());
+    }
+
+    private ProjectorHealth awaitHealth(Predicate<ProjectorHealth> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        ProjectorHealth health;
+        while (!condition.test(health = projector.health())) {
+            assertTrue(System.currentTimeMillis() < deadline, "projector health stayed " + health);
+            Thread.sleep(10);
+        }
+        return health;
+    }
+
+    private static LocalDate date(long timestamp) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
+    }
+
+    private void apply(Object event) {
+        ReflectionTestUtils.invokeMethod(projector, "apply", event);
+    }
+
+    private Order store(Order order) {
+        if (order.getId() == null) {
+            order.setId(ids.incrementAndGet());
+        }
+        orders.put(order.getId(), order);
+        return order;
+    }
+}
@@ -0,0 +1,173 @@
+package com.jayanth.tradingplatform.service;
+
+import com.jayanth.tradingplatform.domain.HoldStatus;
+import com.jayanth.tradingplatform.domain.Money;
+import com.jayanth.tradingplatform.domain.OrderKind;
+import com.jayanth.tradingplatform.domain.OrderStatus;
+import com.jayanth.tradingplatform.domain.OrderType;
+import com.jayanth.tradingplatform.domain.Quantity;
+import com.jayanth.tradingplatform.domain.TimeInForce;
+import com.jayanth.tradingplatform.engine.MatchingEngine;
+import com.jayanth.tradingplatform.engine.OrderCancelled;
+import com.jayanth.tradingplatform.engine.OrderJournal;
+import com.jayanth.tradingplatform.engine.OrderSequencer;
+import com.jayanth.tradingplatform.engine.RiskEngine;
+import com.jayanth.tradingplatform.engine.TriggerEngine;
+import com.jayanth.tradingplatform.model.Coin;
+import com.jayanth.tradingplatform.model.Order;
+import com.jayanth.tradingplatform.model.User;
+import com.jayanth.tradingplatform.repository.AssetRepository;
+import com.jayanth.tradingplatform.repository.BalanceHoldRepository;
+import com.jayanth.tradingplatform.repository.OrderRepository;
+import com.jayanth.tradingplatform.repository.WalletRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class OrderCancelTest {
+
+    private static final String COIN = "bitcoin";
+    private static final long USER_ID = 7;
+
+    private final MatchingEngine matchingEngine = new MatchingEngine();
+    private final TriggerEngine triggerEngine = new TriggerEngine();
+    private final RiskEngine riskEngine = new RiskEngine();
+    private final OrderSequencer orderSequencer = new OrderSequencer();
+    private final OrderJournal orderJournal = mock(OrderJournal.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OrderServiceImpl orderService = new OrderServiceImpl();
+
+    // the rows JournalProjector would have written from the journal
+    private final Map<Long, Order> rows = new HashMap<>();
+    private final Coin coin = new Coin();
+    private final User user = new User();
+
+    @BeforeEach
+    void setUp() {
+        coin.setId(COIN);
+        coin.setCurrentPrice(new BigDecimal("500.00"));
+        user.setId(USER_ID);
+
+        WalletRepository walletRepository = mock(WalletRepository.class);
+        AssetRepository assetRepository = mock(AssetRepository.class);
+        BalanceHoldRepository balanceHoldRepository = mock(BalanceHoldRepository.class);
+        when(walletRepository.findAllBalances())
+                .thenReturn(List.<Object[]>of(new Object[]{USER_ID, Money.of(1000)}));
+        when(assetRepository.findAllHoldings())
+                .thenReturn(List.<Object[]>of(new Object[]{USER_ID, COIN, Quantity.ofLots(5 * Quantity.ONE)}));
+        when(balanceHoldRepository.findAllByStatus(HoldStatus.ACTIVE)).thenReturn(List.of());
+        ReflectionTestUtils.setField(riskEngine, "walletRepository", walletRepository);
+        ReflectionTestUtils.setField(riskEngine, "assetRepository", assetRepository);
+        ReflectionTestUtils.setField(riskEngine, "balanceHoldRepository", balanceHoldRepository);
+        ReflectionTestUtils.setField(riskEngine, "matchingEngine", matchingEngine);
+        ReflectionTestUtils.setField(riskEngine, "triggerEngine", triggerEngine);
+        riskEngine.load();
+
+        ReflectionTestUtils.setField(orderSequencer, "partitionCount", 2);
+        ReflectionTestUtils.setField(orderSequencer, "bufferSize", 64);
+        orderSequencer.start();
+
+        when(orderRepository.findById(anyLong()))
+                .thenAnswer(call -> Optional.ofNullable(rows.get(call.<Long>getArgument(0))));
+        ReflectionTestUtils.setField(orderService, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(orderService, "matchingEngine", matchingEngine);
+        ReflectionTestUtils.setField(orderService, "triggerEngine", triggerEngine);
+        ReflectionTestUtils.setField(orderService, "riskEngine", riskEngine);
+        ReflectionTestUtils.setField(orderService, "orderSequencer", orderSequencer);
+        ReflectionTestUtils.setField(orderService, "orderJournal", orderJournal);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        orderSequencer.stop();
+    }
+
+    @Test
+    void cancelledGtcBuyFreesReservedCash() throws Exception {
+        Order order = project(orderService.placeLimitOrder(coin, Quantity.ofLots(Quantity.ONE), Money.of(400),
+                OrderType.BUY, TimeInForce.GTC, null, user));
+        assertEquals(OrderStatus.OPEN, order.getStatus());
+        assertEquals(Money.of(600), riskEngine.getAvailableCash(USER_ID));
+
+        Order cancelled = orderService.cancelOrder(order.getId(), user);
+
+        assertEquals(OrderStatus.CANCELLED, cancelled.getStatus());
+        assertEquals(Money.of(1000), riskEngine.getAvailableCash(USER_ID));
+        assertEquals(0, matchingEngine.getBook(COIN).orderCount());
+        ArgumentCaptor<OrderCancelled> event = ArgumentCaptor.forClass(OrderCancelled.class);
+        verify(orderJournal).appendOrderCancelled(event.capture());
+        assertEquals(order.getId(), event.getValue().getOrderId());
+        assertEquals(COIN, event.getValue().getCoinId());
+        assertFalse(event.getValue().isExpired());
+    }
+
+    @Test
+    void cancelledGtcSellFreesReservedLots() throws Exception {
+        Order order = project(orderService.placeLimitOrder(coin, Quantity.ofLots(2 * Quantity.ONE), Money.of(600),
+                OrderType.SELL, TimeInForce.GTC, null, user));
+        assertEquals(Quantity.ofLots(3 * Quantity.ONE), riskEngine.getAvailableQuantity(USER_ID, COIN));
+
+        orderService.cancelOrder(order.getId(), user);
+
+        assertEquals(Quantity.ofLots(5 * Quantity.ONE), riskEngine.getAvailableQuantity(USER_ID, COIN));
+        assertEquals(0, matchingEngine.getBook(COIN).orderCount());
+    }
+
+    @Test
+    void cancelledStopOrderFreesReservationAndNeverFires() throws Exception {
+        Order order = project(orderService.placeTriggerOrder(coin, Quantity.ofLots(Quantity.ONE), Money.of(450),
+                OrderType.SELL, OrderKind.STOP, user));
+        assertEquals(Quantity.ofLots(4 * Quantity.ONE), riskEngine.getAvailableQuantity(USER_ID, COIN));
+
+        orderService.cancelOrder(order.getId(), user);
+
+        assertEquals(Quantity.ofLots(5 * Quantity.ONE), riskEngine.getAvailableQuantity(USER_ID, COIN));
+        assertTrue(triggerEngine.pendingOrders(COIN).isEmpty());
+        assertTrue(triggerEngine.onPrice(COIN, Money.of(400).getUnits()).isEmpty());
+    }
+
+    @Test
+    void rejectsAnotherUsersOrder() throws Exception {
+        Order order = project(orderService.placeLimitOrder(coin, Quantity.ofLots(Quantity.ONE), Money.of(400),
+                OrderType.BUY, TimeInForce.GTC, null, user));
+        User other = new User();
+        other.setId(USER_ID + 1);
+
+        Exception e = assertThrows(Exception.class, () -> orderService.cancelOrder(order.getId(), other));
+
+        assertEquals("order not found", e.getMessage());
+        assertEquals(Money.of(600), riskEngine.getAvailableCash(USER_ID));
+        assertEquals(1, matchingEngine.getBook(COIN).orderCount());
+        verify(orderJournal, never()).appendOrderCancelled(any());
+    }
+
+    @Test
+    void rejectsOrderNoLongerOpen() throws Exception {
+        Order order = project(orderService.placeLimitOrder(coin, Quantity.ofLots(Quantity.ONE), Money.of(400),
+                OrderType.BUY, TimeInForce.GTC, null, user));
+        orderService.cancelOrder(order.getId(), user);
+
+        Exception e = assertThrows(Exception.class, () -> orderService.cancelOrder(order.getId(), user));
+
+        assertEquals("order is not open", e.getMessage());
+        assertEquals(Money.of(1000), riskEngine.getAvailableCash(USER_ID));
+        verify(orderJournal, times(1)).appendOrderCancelled(any());
+    }
+
+    private Order project(Order order) {
+        rows.put(order.getId(), order);
+        return order;
+    }
+}